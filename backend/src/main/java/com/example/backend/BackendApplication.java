@@ -2,15 +2,24 @@ package com.example.backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 
+import com.example.backend.service.StartupReport;
+
 @SpringBootApplication(scanBasePackages = "com.example.backend")
 @EnableJpaRepositories("com.example.backend.repository")
 @EntityScan("com.example.backend.entity")
 public class BackendApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(BackendApplication.class, args);
+        StartupReport.markMainStarted();
+        SpringApplication application = new SpringApplication(BackendApplication.class);
+        // 起動ステップごとの所要時間を記録する（起動レポートに所要時間の長いステップを出力）
+        if (Boolean.getBoolean("startup.record-steps")) {
+            application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        }
+        application.run(args);
     }
 }
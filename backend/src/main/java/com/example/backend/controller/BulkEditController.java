@@ -0,0 +1,38 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.BulkEditRequestDto;
+import com.example.backend.service.BulkEditService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 翻訳・エラー定義の一括更新 API
+ */
+@RestController
+@RequestMapping("/api/bulk-edit")
+@CrossOrigin(origins = "http://localhost:5173")
+public class BulkEditController {
+
+    private final BulkEditService service;
+
+    public BulkEditController(BulkEditService service) {
+        this.service = service;
+    }
+
+    /**
+     * 一括更新。更新できなかった行は conflicts として返し、他の行は更新する
+     */
+    @PostMapping
+    public ResponseEntity<?> apply(@RequestBody BulkEditRequestDto request) {
+        try {
+            return ResponseEntity.ok(service.apply(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.CompareRequestDto;
+import com.example.backend.service.CompareService;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * 2つの接続先の比較 API
+ */
+@RestController
+@RequestMapping("/api/compare")
+@CrossOrigin(origins = "http://localhost:5173")
+public class CompareController {
+
+    private final CompareService service;
+
+    public CompareController(CompareService service) {
+        this.service = service;
+    }
+
+    /**
+     * 差分を NDJSON (1行1オブジェクト) でストリーミング出力する。最終行は件数のサマリー
+     */
+    @PostMapping
+    public void compare(@RequestBody CompareRequestDto request, HttpServletResponse response) throws IOException {
+        try {
+            service.validate(request);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        response.setContentType("application/x-ndjson;charset=UTF-8");
+        try {
+            service.compare(request, response.getOutputStream());
+        } catch (IllegalStateException e) {
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), e.getMessage());
+            }
+            return;
+        }
+        response.flushBuffer();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.CoverageReportDto;
+import com.example.backend.dto.FetchRequestDto;
+import com.example.backend.service.TranslationCoverage;
+import com.example.backend.service.TranslationCoverageService;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * 翻訳の充足状況レポート API（接続先は FetchRequestDto の DB 接続設定を使用）
+ */
+@RestController
+@RequestMapping("/api/coverage")
+@CrossOrigin(origins = "http://localhost:5173")
+public class CoverageController {
+
+    private final TranslationCoverageService service;
+
+    public CoverageController(TranslationCoverageService service) {
+        this.service = service;
+    }
+
+    /**
+     * テーブル・カテゴリ・言語ごとの missing / empty / identical 件数
+     */
+    @PostMapping
+    public CoverageReportDto getReport(@RequestBody FetchRequestDto request,
+            @RequestParam(defaultValue = "false") boolean refresh) {
+        return TranslationCoverageService.toReport(service.getCoverage(request.asDbConfigMap(), refresh));
+    }
+
+    /**
+     * 該当行の objectID を NDJSON でストリーミング出力する（table / lang / kind / category で絞り込み可）
+     */
+    @PostMapping("/offenders")
+    public void streamOffenders(@RequestBody FetchRequestDto request,
+            @RequestParam(required = false) String table,
+            @RequestParam(required = false) String lang,
+            @RequestParam(required = false) String kind,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "false") boolean refresh,
+            HttpServletResponse response) throws IOException {
+        try {
+            TranslationCoverage.validate(table, lang, kind);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        TranslationCoverage coverage = service.getCoverage(request.asDbConfigMap(), refresh);
+        response.setContentType("application/x-ndjson;charset=UTF-8");
+        service.writeOffenders(coverage, table, lang, kind, category, response.getOutputStream());
+        response.flushBuffer();
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.backend.controller;
 
+import com.example.backend.service.ConnectionHealth;
+import com.example.backend.service.ConnectionHealthMonitor;
 import com.example.backend.service.DBConnectionService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -15,21 +17,27 @@ public class DBConnectionController {
     @Autowired
     private DBConnectionService dbService;
 
+    @Autowired
+    private ConnectionHealthMonitor healthMonitor;
+
+    // 到達できる接続先は死活監視の直近の結果から応答する（未確認・到達できない接続先、または refresh=true の場合はその場で確認）
+    // 画面の接続確認ボタンは常に refresh=true で送る
     @PostMapping("/test")
-    public String testConnection(@RequestBody Map<String, Object> config) {
+    public String testConnection(@RequestBody Map<String, Object> config,
+            @RequestParam(defaultValue = "false") boolean refresh) {
         try {
-            String dbType = (String) config.get("dbType");
-            String host = (String) config.get("host");
-            int port = ((Number) config.get("port")).intValue();
-            String dbName = (String) config.get("dbName");
-            String username = (String) config.get("username");
-            String password = (String) config.get("password");
-
-            JdbcTemplate jdbc = dbService.createJdbcTemplate(dbType, host, port, dbName, username, password);
-            jdbc.queryForObject("SELECT 1", Integer.class); // 軽い接続確認クエリ
-            return "接続成功";
+            ConnectionHealth health = healthMonitor.check(dbService.connectionKey(config), config, refresh);
+            return health.isUp() ? "接続成功" : "接続失敗: " + health.getError();
         } catch (Exception e) {
             return "接続失敗: " + e.getMessage();
         }
     }
+
+    // 本文の接続設定で指定した接続先の監視状態（到達可否・往復時間・バージョン・プール使用状況）
+    // 他の接続先は返さない。監視していない接続先は 404
+    @PostMapping("/health")
+    public ResponseEntity<Map<String, Object>> getHealth(@RequestBody Map<String, Object> config) {
+        Map<String, Object> status = healthMonitor.getStatus(dbService.connectionKey(config));
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
 }
@@ -1,23 +1,38 @@
 package com.example.backend.controller;
 
 import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.service.ETags;
 import com.example.backend.service.ErrorMessageService;
+import com.example.backend.service.FixedDataService;
+import com.example.backend.service.ParallelConversionService;
+import com.example.backend.service.QueryCancellationRegistry;
+import com.example.backend.service.QueryTicket;
+import com.example.backend.service.StreamingDownloadService;
 import com.example.backend.dto.FetchRequestDto;
 import com.example.backend.dto.PagedResponseDto;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -27,10 +42,21 @@ import java.util.Map;
 public class ErrorMessageController {
 
     private final ErrorMessageService service;
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
-    public ErrorMessageController(ErrorMessageService service) {
+    private final QueryCancellationRegistry queryCancellationRegistry;
+    private final ParallelConversionService conversionService;
+    private final FixedDataService fixedDataService;
+    private final StreamingDownloadService streamingDownloadService;
+    private final ObjectWriter rowWriter;
+
+    public ErrorMessageController(ErrorMessageService service, QueryCancellationRegistry queryCancellationRegistry,
+            ParallelConversionService conversionService, FixedDataService fixedDataService, StreamingDownloadService streamingDownloadService,
+            ObjectMapper objectMapper) {
         this.service = service;
+        this.queryCancellationRegistry = queryCancellationRegistry;
+        this.conversionService = conversionService;
+        this.fixedDataService = fixedDataService;
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.streamingDownloadService = streamingDownloadService;
     }
 
     @GetMapping("/api/error-messages")
@@ -38,10 +64,32 @@ public class ErrorMessageController {
         return service.getAllErrorMessages();
     }
 
+    /**
+     * 固定DBからページ取得 (objectID 順)
+     */
+    @GetMapping("/api/error-messages/page")
+    public PagedResponseDto<ErrorMessageDto> getErrorMessagePage(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return fixedDataService.getErrorMessagePage(page, size);
+    }
+
+    /**
+     * 固定DBの全件を NDJSON でストリーミング出力 (objectID 順)
+     */
+    @GetMapping("/api/error-messages/stream")
+    public void streamErrorMessages(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson;charset=UTF-8");
+        fixedDataService.streamErrorMessages(response.getOutputStream());
+        response.flushBuffer();
+    }
+
     @PostMapping("/api/error-messages/fetch")
     public PagedResponseDto<ErrorMessageDto> fetchErrorMessages(@RequestBody FetchRequestDto request) {
-        return service.getAllErrorMessagesFromDynamicDB(
-                request.asDbConfigMap(), request.getFilter(), request.getPage(), request.getSize());
+        String sessionKey = request.getSessionId() != null ? "error-messages:" + request.getSessionId() : null;
+        try (QueryTicket ticket = queryCancellationRegistry.begin(sessionKey, request.getQueryGeneration())) {
+            return service.getAllErrorMessagesFromDynamicDB(request.asDbConfigMap(), request.getFilter(),
+                    request.getPage(), request.getSize(), request.getSort(), request.getCursor(), ticket);
+        }
     }
 
     /**
@@ -58,9 +106,14 @@ public class ErrorMessageController {
         }
     }
 
+    /**
+     * ObjectID のリストに一致するエラーメッセージを JSON 配列で返す（objectID 順）
+     * 件数が多い場合も応答全体を保持せず、並べ替えた行を1件ずつ書き出す
+     */
     @PostMapping("/api/error-messages/fetch/by-ids")
-    public List<ErrorMessageDto> fetchErrorMessagesByIds(@RequestBody Map<String, Object> requestData) {
-        try {
+    public void fetchErrorMessagesByIds(@RequestBody Map<String, Object> requestData, HttpServletResponse response)
+            throws IOException {
+        JsonArrayResponse.<ErrorMessageDto>write(response, rowWriter, "Error fetching error messages by IDs", consumer -> {
             @SuppressWarnings("unchecked")
             Map<String, Object> dbConfigMap = (Map<String, Object>) requestData.get("dbConfig");
             @SuppressWarnings("unchecked")
@@ -74,13 +127,8 @@ public class ErrorMessageController {
                 throw new IllegalArgumentException("dbConfig contains null values");
             }
 
-            return service.getErrorMessagesByIdsFromDynamicDB(dbConfigMap, objectIDs);
-
-        } catch (Exception e) {
-            System.err.println("Error fetching error messages by IDs: " + e.getMessage());
-            e.printStackTrace();
-            return Collections.emptyList();
-        }
+            service.forEachErrorMessageByIds(dbConfigMap, objectIDs, consumer);
+        });
     }
 
     private static <K, V> K getKeyByValue(Map<K, V> map, V value) {
@@ -92,35 +140,58 @@ public class ErrorMessageController {
         return null;
     }
 
+    /**
+     * 固定DBの XML ダウンロード
+     * ETag は生成した XML の内容から計算し、If-None-Match が一致すれば 304 を返す
+     * （SError・SLocalization の変更を漏れなく反映するため、毎回 DB から生成する）
+     */
     @GetMapping("/api/error-messages/xml")
-    public ResponseEntity<String> downloadErrorMessagesXml(
+    public ResponseEntity<byte[]> downloadErrorMessagesXml(
             @RequestParam(defaultValue = "country1") String lang,
-            @RequestParam(required = false) String filename) {
+            @RequestParam(required = false) String filename,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         List<ErrorMessageDto> list = service.getAllErrorMessages();
-        String xml = service.convertToXml(list, lang);
+        byte[] xml = conversionService.convertToXmlBytes(list, lang);
+        String etag = ETags.of(xml);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         if (filename == null || filename.isEmpty()) {
             filename = "output.xml";
         } else if (!filename.endsWith(".xml")) {
             filename += ".xml";
         }
-        return createXmlResponse(xml, filename);
+        return createXmlResponse(xml, filename, etag);
     }
 
+    /**
+     * フロントから送られた選択データ {"messages": [...], "lang": ...} から XML を生成
+     * 本文は逐次読み込みで1行ずつ変換する（lang はクエリパラメータでも指定可）
+     * 出力が大きい場合は ETag を付けずに変換しながら送信する
+     */
     @PostMapping("/api/error-messages/xml/download")
-    public ResponseEntity<String> downloadXmlFromSelectedData(@RequestBody Map<String, Object> requestData) {
-        try {
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> messagesData = (List<Map<String, Object>>) requestData.get("messages");
-            String lang = (String) requestData.getOrDefault("lang", "country1");
-            String filename = "output.xml";
-            if (messagesData == null) {
-                return ResponseEntity.badRequest().body("messages data is missing");
+    public ResponseEntity<?> downloadXmlFromSelectedData(HttpServletRequest request, HttpServletResponse response,
+            @RequestParam(value = "lang", required = false) String lang,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try (StreamingDownloadService.EncodedDownload xml = streamingDownloadService
+                .readXml(request.getInputStream(), lang,
+                        download -> openXmlResponse(response, download, "output.xml"))) {
+            if (xml.isStreamed()) {
+                response.flushBuffer();
+                return null;
             }
-            List<ErrorMessageDto> messageDtos = objectMapper.convertValue(messagesData,
-                    new TypeReference<List<ErrorMessageDto>>() {
-                    });
-            String xml = service.convertToXml(messageDtos, lang);
-            return createXmlResponse(xml, filename);
+            String etag = xml.getEtag();
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            writeXmlResponse(response, xml, "output.xml");
+            return null;
+        } catch (StreamingDownloadService.DownloadAbortedException e) {
+            // 送信済みの応答は完了させず、接続を切って途中までの出力を正常な応答と区別させる
+            System.err.println("XML download from selected data aborted: " + e.getMessage());
+            throw e;
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             System.err.println("Error generating XML file from selected data: " + e.getMessage());
             e.printStackTrace();
@@ -128,7 +199,7 @@ public class ErrorMessageController {
         }
     }
 
-    private ResponseEntity<String> createXmlResponse(String xmlBody, String filename) {
+    private ResponseEntity<byte[]> createXmlResponse(byte[] xmlBody, String filename, String etag) {
         HttpHeaders headers = new HttpHeaders();
         String encodedFilename = filename;
         try {
@@ -139,7 +210,26 @@ public class ErrorMessageController {
         }
         headers.add(HttpHeaders.CONTENT_DISPOSITION,
                 "attachment; filename=\"" + filename + "\"; filename*=UTF-8''" + encodedFilename);
-        headers.setContentType(MediaType.APPLICATION_XML);
+        headers.setContentType(MediaType.valueOf("application/xml;charset=UTF-8"));
+        headers.setETag(etag);
         return ResponseEntity.ok().headers(headers).body(xmlBody);
     }
+
+    private void writeXmlResponse(HttpServletResponse response, StreamingDownloadService.EncodedDownload xml,
+            String filename) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, xml.getEtag());
+        response.setContentLength(xml.size());
+        xml.writeTo(openXmlResponse(response, xml, filename));
+        response.flushBuffer();
+    }
+
+    private OutputStream openXmlResponse(HttpServletResponse response, StreamingDownloadService.EncodedDownload xml,
+            String filename) throws IOException {
+        String encodedFilename = java.net.URLEncoder.encode(filename, java.nio.charset.StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + filename + "\"; filename*=UTF-8''" + encodedFilename);
+        response.setContentType("application/xml;charset=UTF-8");
+        return response.getOutputStream();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,282 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.ExportJobRequestDto;
+import com.example.backend.dto.ExportJobStatusDto;
+import com.example.backend.service.ETags;
+import com.example.backend.service.ExportJobService;
+import com.example.backend.service.format.OutputFormat;
+import com.example.backend.service.format.OutputFormatRegistry;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 非同期エクスポートジョブ API
+ */
+@RestController
+@RequestMapping("/api/export-jobs")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ExportJobController {
+
+    // Tomcat の sendfile（コネクターが対応している場合にリクエスト属性で要求する）
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ExportJobService service;
+    private final OutputFormatRegistry outputFormats;
+
+    public ExportJobController(ExportJobService service, OutputFormatRegistry outputFormats) {
+        this.service = service;
+        this.outputFormats = outputFormats;
+    }
+
+    /**
+     * ジョブ登録（ジョブIDを含む状態を即座に返す）
+     */
+    @PostMapping
+    public ResponseEntity<?> submit(@RequestBody ExportJobRequestDto request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(service.submit(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public List<ExportJobStatusDto> getJobs() {
+        return service.getAllStatuses();
+    }
+
+    /**
+     * 指定可能な出力形式の一覧
+     */
+    @GetMapping("/formats")
+    public List<Map<String, Object>> getFormats() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (OutputFormat format : outputFormats.getAll()) {
+            List<String> targets = new ArrayList<>();
+            for (String target : List.of(ExportJobService.TARGET_LABELS, ExportJobService.TARGET_ERROR_MESSAGES)) {
+                if (format.supports(target)) {
+                    targets.add(target);
+                }
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", format.getName());
+            entry.put("extension", format.getFileExtension());
+            entry.put("targets", targets);
+            result.add(entry);
+        }
+        return result;
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ExportJobStatusDto> getJob(@PathVariable String jobId) {
+        ExportJobStatusDto status = service.getStatus(jobId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 終了したジョブの削除（状態・成果物・マニフェスト）。実行中・ダウンロード中のジョブは 409
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<?> delete(@PathVariable String jobId) {
+        try {
+            return service.delete(jobId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * 進捗 (処理済み件数 / 総件数) を SSE で通知
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable String jobId) {
+        return service.subscribe(jobId);
+    }
+
+    /**
+     * 成果物のダウンロード。Range ヘッダーによる途中からの再開に対応
+     * 強い ETag を返し、If-None-Match が一致すれば 304、If-Range が一致しなければ全体を返す
+     * 本文は Tomcat の sendfile が使える場合はコンテナーにファイルの範囲を渡して送信させ（ユーザー空間へのコピーなし）、
+     * 使えない場合はバッファを経由して書き出す
+     * 応答を書き終えるまでジョブを使用中とし、保持期間の掃除・削除の対象から外す
+     * （sendfile はサーブレットから戻った直後にコンテナーがファイルを開き、開いた後の削除は送信に影響しない）
+     */
+    @GetMapping("/{jobId}/download")
+    public void download(@PathVariable String jobId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!service.acquire(jobId)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "完了済みのジョブが見つかりません");
+            return;
+        }
+        try {
+            send(jobId, range, ifNoneMatch, ifRange, request, response);
+        } finally {
+            service.release(jobId);
+        }
+    }
+
+    private void send(String jobId, String range, String ifNoneMatch, String ifRange, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        ExportJobStatusDto status = service.getStatus(jobId);
+        Path artifact = service.getArtifact(jobId);
+        if (status == null || artifact == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "完了済みのジョブが見つかりません");
+            return;
+        }
+        String etag = status.getEtag();
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        if (range != null && ifRange != null && (etag == null || !etag.equals(ifRange.trim()))) {
+            // 取得済みの部分と内容が異なるため全体を返す
+            range = null;
+        }
+
+        long length = Files.size(artifact);
+        long start = 0;
+        long end = length - 1;
+        if (range != null) {
+            long[] parsed = parseRange(range, length);
+            if (parsed == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = parsed[0];
+            end = parsed[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        String filename = status.getFileName();
+        String encodedFilename = java.net.URLEncoder.encode(filename, java.nio.charset.StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + filename + "\"; filename*=UTF-8''" + encodedFilename);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(service.getContentType(status));
+        response.setContentLengthLong(end - start + 1);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // 本文は書かず、サーブレットから戻った後にコンテナーが送信する（終了位置は含まない）
+            request.setAttribute(SENDFILE_FILENAME, artifact.toFile().getCanonicalPath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(artifact, StandardOpenOption.READ)) {
+            // 転送先はサーブレットの出力ストリームのため、transferTo もバッファ経由のコピーとなる
+            copy(channel, start, end - start + 1, Channels.newChannel(response.getOutputStream()));
+        }
+        response.flushBuffer();
+    }
+
+    /**
+     * position から count バイトを書き出す
+     *
+     * @throws EOFException ファイルが count バイトより短い場合（Content-Length を宣言済みのため、
+     *                      短い本文で正常終了させずに応答を失敗させる）
+     */
+    static void copy(FileChannel channel, long position, long count, WritableByteChannel out) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long sent = channel.transferTo(position, remaining, out);
+            if (sent <= 0) {
+                throw new EOFException("Export artifact ended at byte " + position + " (" + remaining
+                        + " bytes short of the declared length)");
+            }
+            position += sent;
+            remaining -= sent;
+        }
+    }
+
+    /**
+     * 差分エクスポートの基準となるマニフェスト（objectID ごとの行ハッシュ）
+     */
+    @GetMapping("/{jobId}/manifest")
+    public ResponseEntity<byte[]> manifest(@PathVariable String jobId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws IOException {
+        Path manifest = service.getManifest(jobId);
+        if (manifest == null) {
+            return ResponseEntity.notFound().build();
+        }
+        byte[] body = Files.readAllBytes(manifest);
+        String etag = ETags.of(body);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * "bytes=start-end" / "bytes=start-" / "bytes=-suffix" 形式の単一レンジを解釈する
+     *
+     * @return {start, end} (満たせない場合は null)
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.contains(",")) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                String endPart = spec.substring(dash + 1);
+                end = endPart.isEmpty() ? length - 1 : Math.min(Long.parseLong(endPart), length - 1);
+            }
+            if (start > end || start >= length) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.FanoutExportRequestDto;
+import com.example.backend.service.FanoutExportService;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * 複数の接続先への一括エクスポート API
+ */
+@RestController
+@RequestMapping("/api/fanout-export")
+@CrossOrigin(origins = "http://localhost:5173")
+public class FanoutExportController {
+
+    private final FanoutExportService service;
+
+    public FanoutExportController(FanoutExportService service) {
+        this.service = service;
+    }
+
+    /**
+     * 全接続先の出力を接続先ごとのフォルダに分けた ZIP としてストリーミングで返す。
+     * 末尾の summary.json に接続先ごとの結果と所要時間を含む
+     */
+    @PostMapping
+    public void export(@RequestBody FanoutExportRequestDto request, HttpServletResponse response)
+            throws IOException {
+        try {
+            service.validate(request);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + request.getTarget() + "_fanout.zip\"");
+        service.export(request, response.getOutputStream());
+        response.flushBuffer();
+    }
+}
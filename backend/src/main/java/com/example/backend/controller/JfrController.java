@@ -0,0 +1,87 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.jfr.JfrRecordingService;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * JFR 記録の開始・取得 API
+ */
+@RestController
+@RequestMapping("/api/jfr")
+@CrossOrigin(origins = "http://localhost:5173")
+public class JfrController {
+
+    private final JfrRecordingService service;
+
+    public JfrController(JfrRecordingService service) {
+        this.service = service;
+    }
+
+    /**
+     * 記録を開始する（既に記録中の場合は 409）
+     */
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, Object>> start(@RequestParam(defaultValue = "profile") String settings,
+            @RequestParam(defaultValue = "900") long maxAgeSeconds,
+            @RequestParam(defaultValue = "256") long maxSizeMb) throws IOException, ParseException {
+        try {
+            return ResponseEntity.ok(service.start(settings, Duration.ofSeconds(maxAgeSeconds), maxSizeMb));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/status")
+    public Map<String, Object> status() {
+        return service.status();
+    }
+
+    @PostMapping("/stop")
+    public Map<String, Object> stop() {
+        return service.stop();
+    }
+
+    /**
+     * 記録内容を .jfr ファイルとしてダウンロードする（記録は継続する。記録が無い場合は 404）
+     */
+    @PostMapping("/dump")
+    public void dump(HttpServletResponse response) throws IOException {
+        Path file;
+        try {
+            file = service.dump();
+        } catch (IllegalStateException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, e.getMessage());
+            return;
+        }
+        try {
+            response.setContentType("application/octet-stream");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"" + file.getFileName() + "\"");
+            response.setContentLengthLong(Files.size(file));
+            Files.copy(file, response.getOutputStream());
+            response.flushBuffer();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
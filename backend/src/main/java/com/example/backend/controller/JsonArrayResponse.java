@@ -0,0 +1,55 @@
+package com.example.backend.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * 行を1件ずつ JSON 配列として応答へ書き出す（応答全体をリストとして保持しない）
+ * <p>
+ * 応答の確定前に失敗した場合は、従来のリストを返す API と同じく空の配列を返す。
+ * 確定後に失敗した場合は続きを書けないため、例外を送出して接続を中断する。
+ */
+final class JsonArrayResponse {
+
+    private JsonArrayResponse() {
+    }
+
+    @FunctionalInterface
+    interface RowSource<T> {
+        void forEach(Consumer<T> consumer) throws Exception;
+    }
+
+    static <T> void write(HttpServletResponse response, ObjectWriter rowWriter, String errorLabel,
+            RowSource<T> rows) throws IOException {
+        response.setContentType("application/json;charset=UTF-8");
+        JsonGenerator gen = rowWriter.createGenerator(response.getOutputStream());
+        try {
+            gen.writeStartArray();
+            rows.forEach(row -> {
+                try {
+                    rowWriter.writeValue(gen, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            gen.writeEndArray();
+            gen.flush();
+        } catch (Exception e) {
+            System.err.println(errorLabel + ": " + e.getMessage());
+            e.printStackTrace();
+            if (response.isCommitted()) {
+                throw new IOException(errorLabel, e);
+            }
+            // 生成器に残った出力は破棄する
+            response.resetBuffer();
+            response.getOutputStream().write("[]".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.BulkEditService;
+import com.example.backend.service.ConnectionHealthMonitor;
+import com.example.backend.service.ConnectionSnapshotService;
+import com.example.backend.service.ErrorMessageService;
+import com.example.backend.service.ExportJobService;
+import com.example.backend.service.QueryCancellationRegistry;
+import com.example.backend.service.ReactiveFetchService;
+import com.example.backend.service.SLocalizationLabelService;
+import com.example.backend.service.SharedScanRegistry;
+import com.example.backend.service.SortPlanner;
+import com.example.backend.service.SpillSortService;
+import com.example.backend.service.StartupReport;
+import com.example.backend.service.TranslationCoverageService;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 動的DB取得処理の統計情報
+ */
+@RestController
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = "http://localhost:5173")
+public class MetricsController {
+
+    private final SLocalizationLabelService labelService;
+    private final ErrorMessageService errorMessageService;
+    private final QueryCancellationRegistry queryCancellationRegistry;
+    private final ConnectionSnapshotService connectionSnapshotService;
+    private final SharedScanRegistry sharedScanRegistry;
+    private final StartupReport startupReport;
+    private final ConnectionHealthMonitor connectionHealthMonitor;
+    private final TranslationCoverageService translationCoverageService;
+    private final SortPlanner sortPlanner;
+    private final BulkEditService bulkEditService;
+    private final SpillSortService spillSortService;
+    private final ReactiveFetchService reactiveFetchService;
+    private final ExportJobService exportJobService;
+
+    public MetricsController(SLocalizationLabelService labelService, ErrorMessageService errorMessageService,
+            QueryCancellationRegistry queryCancellationRegistry,
+            ConnectionSnapshotService connectionSnapshotService, SharedScanRegistry sharedScanRegistry,
+            StartupReport startupReport, ConnectionHealthMonitor connectionHealthMonitor,
+            TranslationCoverageService translationCoverageService, SortPlanner sortPlanner,
+            BulkEditService bulkEditService, SpillSortService spillSortService,
+            ReactiveFetchService reactiveFetchService,
+            ExportJobService exportJobService) {
+        this.labelService = labelService;
+        this.errorMessageService = errorMessageService;
+        this.queryCancellationRegistry = queryCancellationRegistry;
+        this.connectionSnapshotService = connectionSnapshotService;
+        this.sharedScanRegistry = sharedScanRegistry;
+        this.startupReport = startupReport;
+        this.connectionHealthMonitor = connectionHealthMonitor;
+        this.translationCoverageService = translationCoverageService;
+        this.sortPlanner = sortPlanner;
+        this.bulkEditService = bulkEditService;
+        this.spillSortService = spillSortService;
+        this.reactiveFetchService = reactiveFetchService;
+        this.exportJobService = exportJobService;
+    }
+
+    @GetMapping("/fetch")
+    public Map<String, Object> getFetchMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("cancelledQueries", queryCancellationRegistry.getCancelledCount());
+        metrics.put("coalescedLabelFetches", labelService.getCoalescedFetchCount());
+        metrics.put("coalescedErrorMessageFetches", errorMessageService.getCoalescedFetchCount());
+        metrics.put("labelPrefetch", labelService.getPrefetchStats());
+        metrics.put("errorMessagePrefetch", errorMessageService.getPrefetchStats());
+        metrics.put("connectionSnapshots", connectionSnapshotService.getStats());
+        metrics.put("sharedExports", sharedScanRegistry.getStats());
+        metrics.put("connectionHealth", connectionHealthMonitor.getStats());
+        metrics.put("coverageReports", translationCoverageService.getStats());
+        metrics.put("sortPlanner", sortPlanner.getStats());
+        metrics.put("bulkEdits", bulkEditService.getStats());
+        metrics.put("spillSort", spillSortService.getStats());
+        metrics.put("reactiveStreams", reactiveFetchService.getStats());
+        metrics.put("exportJobs", exportJobService.getStats());
+        return metrics;
+    }
+
+    /**
+     * 起動時間の計測結果
+     */
+    @GetMapping("/startup")
+    public Map<String, Object> getStartupReport() {
+        return startupReport.getReport();
+    }
+}
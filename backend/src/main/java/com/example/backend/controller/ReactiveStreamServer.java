@@ -0,0 +1,149 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.dto.FetchRequestDto;
+import com.example.backend.dto.FilterDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.ConnectionUnavailableException;
+import com.example.backend.service.ReactiveFetchService;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * ラベル・エラーメッセージのリアクティブ版エンドポイント (WebFlux + R2DBC)
+ * <p>
+ * 従来のコントローラー（サーブレット、ブロッキング）はそのまま残し、こちらは reactive.server.port で
+ * Reactor Netty を別に起動して少数のイベントループスレッドで処理する。行は NDJSON で1件ずつ書き出し、
+ * クライアントの受信が遅い間は送信の要求が止まるため、DB のカーソルもそこで止まる。
+ * <ul>
+ * <li>POST /api/reactive/labels/stream</li>
+ * <li>POST /api/reactive/error-messages/stream</li>
+ * </ul>
+ * 本文は /fetch と同じ形式（接続情報 + filter。page / size / sort は使用しない）で、フィルター条件に一致する全件を objectID 順に返す。
+ */
+@Component
+public class ReactiveStreamServer {
+
+    private final ReactiveFetchService fetchService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String host;
+    private final int port;
+
+    private DisposableServer server;
+
+    public ReactiveStreamServer(ReactiveFetchService fetchService, ObjectMapper objectMapper,
+            @Value("${reactive.server.enabled:true}") boolean enabled,
+            @Value("${reactive.server.host:0.0.0.0}") String host,
+            @Value("${reactive.server.port:8081}") int port) {
+        this.fetchService = fetchService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.host = host;
+        this.port = port;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            server = HttpServer.create()
+                    .host(host)
+                    .port(port)
+                    .handle(new ReactorHttpHandlerAdapter(httpHandler()))
+                    .bindNow();
+        } catch (RuntimeException e) {
+            // サーブレット側の API は使えるよう、起動は継続する
+            System.err.println("Reactive server failed to start on port " + port + ": " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .POST("/api/reactive/labels/stream",
+                        request -> stream(request, SLocalizationLabel.class, fetchService::streamLabels))
+                .POST("/api/reactive/error-messages/stream",
+                        request -> stream(request, ErrorMessageDto.class, fetchService::streamErrorMessages))
+                .build();
+    }
+
+    private HttpHandler httpHandler() {
+        CorsConfiguration cors = new CorsConfiguration();
+        cors.setAllowedOrigins(List.of("http://localhost:5173"));
+        cors.setAllowedMethods(List.of("GET", "POST"));
+        cors.setAllowedHeaders(List.of("*"));
+        UrlBasedCorsConfigurationSource corsSource = new UrlBasedCorsConfigurationSource();
+        corsSource.registerCorsConfiguration("/api/reactive/**", cors);
+        return RouterFunctions.toHttpHandler(routes(), HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .webFilter(new CorsWebFilter(corsSource))
+                .build());
+    }
+
+    /**
+     * 接続情報の検証・接続先の確認は応答の開始前に行い、失敗は 400 / 503 で返す
+     */
+    private <T> Mono<ServerResponse> stream(ServerRequest request, Class<T> type,
+            BiFunction<Map<String, Object>, FilterDto, Flux<T>> source) {
+        return request.bodyToMono(FetchRequestDto.class)
+                .flatMap(fetch -> {
+                    // asDbConfigMap は未指定の項目を空文字にする
+                    Map<String, Object> config = fetch.asDbConfigMap();
+                    for (String key : new String[] { "dbType", "host", "dbName", "username" }) {
+                        if (((String) config.get(key)).isEmpty()) {
+                            return Mono.error(new IllegalArgumentException("dbConfig is missing " + key));
+                        }
+                    }
+                    return ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .body(source.apply(config, fetch.getFilter()), type);
+                })
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("request body is missing")))
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> ServerResponse.badRequest().contentType(MediaType.TEXT_PLAIN).bodyValue(e.getMessage()))
+                .onErrorResume(ConnectionUnavailableException.class,
+                        e -> ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.TEXT_PLAIN)
+                                .bodyValue(e.getMessage()));
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.ETags;
+import com.example.backend.service.TranslationResolveService;
+import com.example.backend.service.TranslationSnapshot;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 実行時の翻訳参照 API
+ * <p>
+ * 固定DBの内容を保持した不変スナップショットから、エラー番号またはラベルキーで文言を返す。
+ * type を省略した場合はエラー番号 → ラベルキーの順に検索する。
+ */
+@RestController
+@RequestMapping("/api/resolve")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ResolveController {
+
+    private static final String TYPE_ERROR = "error";
+    private static final String TYPE_LABEL = "label";
+
+    private final TranslationResolveService service;
+
+    public ResolveController(TranslationResolveService service) {
+        this.service = service;
+    }
+
+    /**
+     * 1件の参照
+     */
+    @GetMapping("/{key}")
+    public ResponseEntity<?> resolve(@PathVariable String key,
+            @RequestParam(defaultValue = "country1") String lang,
+            @RequestParam(required = false) String type) {
+        TranslationSnapshot snapshot = service.getSnapshot();
+        if (snapshot == null) {
+            return notReady();
+        }
+        int langIndex = TranslationSnapshot.languageIndex(lang);
+        if (langIndex < 0 || !isValidType(type)) {
+            return ResponseEntity.badRequest().body("Unsupported lang or type");
+        }
+        String found = foundType(snapshot, key, type);
+        if (found == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("key", key);
+        body.put("lang", lang);
+        body.put("type", found);
+        body.put("value", TYPE_ERROR.equals(found) ? snapshot.findError(key, langIndex)
+                : snapshot.findLabel(key, langIndex));
+        return ResponseEntity.ok().eTag(snapshot.getEtag()).body(body);
+    }
+
+    /**
+     * 複数件の一括参照
+     * リクエスト: {"lang": "country2", "type": "label", "keys": ["a", "b"]}
+     * レスポンス: {"lang": "country2", "values": {"a": "..."}, "missing": ["b"]}
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> resolveBatch(@RequestBody Map<String, Object> request) {
+        TranslationSnapshot snapshot = service.getSnapshot();
+        if (snapshot == null) {
+            return notReady();
+        }
+        String lang = (String) request.getOrDefault("lang", "country1");
+        String type = (String) request.get("type");
+        @SuppressWarnings("unchecked")
+        List<String> keys = (List<String>) request.get("keys");
+        int langIndex = TranslationSnapshot.languageIndex(lang);
+        if (keys == null || langIndex < 0 || !isValidType(type)) {
+            return ResponseEntity.badRequest().body("keys, lang or type is invalid");
+        }
+
+        Map<String, String> values = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String key : keys) {
+            String found = key != null ? foundType(snapshot, key, type) : null;
+            if (found == null) {
+                missing.add(key);
+            } else {
+                values.put(key, TYPE_ERROR.equals(found) ? snapshot.findError(key, langIndex)
+                        : snapshot.findLabel(key, langIndex));
+            }
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("lang", lang);
+        body.put("values", values);
+        body.put("missing", missing);
+        return ResponseEntity.ok().eTag(snapshot.getEtag()).body(body);
+    }
+
+    /**
+     * スナップショット全体の一括ダウンロード。If-None-Match が一致すれば 304
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<byte[]> downloadSnapshot(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TranslationSnapshot snapshot = service.getSnapshot();
+        if (snapshot == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (ifNoneMatch != null && matches(ifNoneMatch, snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBulkJson());
+    }
+
+    /**
+     * スナップショットの状態
+     */
+    @GetMapping("/status")
+    public Map<String, Object> getStatus() {
+        TranslationSnapshot snapshot = service.getSnapshot();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("ready", snapshot != null);
+        if (snapshot != null) {
+            body.put("version", snapshot.getVersion());
+            body.put("etag", snapshot.getEtag());
+            body.put("createdAt", snapshot.getCreatedAt());
+            body.put("errors", snapshot.getErrorCount());
+            body.put("labels", snapshot.getLabelCount());
+            body.put("duplicateKeys", snapshot.getDuplicateKeys());
+        }
+        body.put("refreshFailures", service.getRefreshFailures());
+        body.put("unchangedRefreshes", service.getUnchangedRefreshes());
+        body.put("lastError", service.getLastError());
+        return body;
+    }
+
+    /**
+     * 即時再構築
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh() {
+        try {
+            TranslationSnapshot snapshot = service.refresh();
+            return ResponseEntity.ok().eTag(snapshot.getEtag()).body(getStatus());
+        } catch (Exception e) {
+            System.err.println("Resolve snapshot refresh failed: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    private static String foundType(TranslationSnapshot snapshot, String key, String type) {
+        if (!TYPE_LABEL.equals(type) && snapshot.containsError(key)) {
+            return TYPE_ERROR;
+        }
+        if (!TYPE_ERROR.equals(type) && snapshot.containsLabel(key)) {
+            return TYPE_LABEL;
+        }
+        return null;
+    }
+
+    private static boolean isValidType(String type) {
+        return type == null || TYPE_ERROR.equals(type) || TYPE_LABEL.equals(type);
+    }
+
+    /**
+     * If-None-Match ("*" またはカンマ区切りの ETag 一覧) の判定
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        return ETags.matches(ifNoneMatch, etag);
+    }
+
+    private static ResponseEntity<String> notReady() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("スナップショットの準備ができていません");
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.PagedResponseDto;
 import com.example.backend.entity.SError;
 import com.example.backend.repository.SErrorRepository;
+import com.example.backend.service.FixedDataService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -11,9 +15,11 @@ import java.util.List;
 public class SErrorController {
 
     private final SErrorRepository sErrorRepository;
+    private final FixedDataService fixedDataService;
 
-    public SErrorController(SErrorRepository sErrorRepository) {
+    public SErrorController(SErrorRepository sErrorRepository, FixedDataService fixedDataService) {
         this.sErrorRepository = sErrorRepository;
+        this.fixedDataService = fixedDataService;
     }
 
     // 全件取得
@@ -21,4 +27,19 @@ public class SErrorController {
     public List<SError> getAllErrors() {
         return sErrorRepository.findAll();
     }
+
+    // ページ取得 (objectID 順)
+    @GetMapping("/page")
+    public PagedResponseDto<SError> getErrorPage(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return fixedDataService.getErrorPage(page, size);
+    }
+
+    // 全件を NDJSON でストリーミング出力 (objectID 順)
+    @GetMapping("/stream")
+    public void streamErrors(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson;charset=UTF-8");
+        fixedDataService.streamErrors(response.getOutputStream());
+        response.flushBuffer();
+    }
 }
@@ -1,23 +1,45 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.PagedResponseDto;
 import com.example.backend.entity.SLocalization;
 import com.example.backend.repository.SLocalizationRepository;
+import com.example.backend.service.FixedDataService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 public class SLocalizationController {
 
     private final SLocalizationRepository repository;
+    private final FixedDataService fixedDataService;
 
-    public SLocalizationController(SLocalizationRepository repository) {
+    public SLocalizationController(SLocalizationRepository repository, FixedDataService fixedDataService) {
         this.repository = repository;
+        this.fixedDataService = fixedDataService;
     }
 
     @GetMapping("/api/slocalizations")
     public List<SLocalization> getAll() {
         return repository.findAll();
     }
+
+    // ページ取得 (objectID 順)
+    @GetMapping("/api/slocalizations/page")
+    public PagedResponseDto<SLocalization> getPage(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return fixedDataService.getLocalizationPage(page, size);
+    }
+
+    // 全件を NDJSON でストリーミング出力 (objectID 順)
+    @GetMapping("/api/slocalizations/stream")
+    public void stream(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson;charset=UTF-8");
+        fixedDataService.streamLocalizations(response.getOutputStream());
+        response.flushBuffer();
+    }
 }
@@ -1,18 +1,34 @@
 package com.example.backend.controller;
 
 import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.ETags;
+import com.example.backend.service.FixedDataService;
+import com.example.backend.service.InvalidSortException;
+import com.example.backend.service.OutputEncoder;
+import com.example.backend.service.QueryCancellationRegistry;
+import com.example.backend.service.QueryCancelledException;
+import com.example.backend.service.QueryTicket;
 import com.example.backend.service.SLocalizationLabelService;
+import com.example.backend.service.StreamingDownloadService;
 import com.example.backend.dto.FetchRequestDto;
 import com.example.backend.dto.PagedResponseDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -25,16 +41,52 @@ public class SLocalizationLabelController {
     @Autowired
     private SLocalizationLabelService service;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    private QueryCancellationRegistry queryCancellationRegistry;
+
+    @Autowired
+    private FixedDataService fixedDataService;
+
+    @Autowired
+    private StreamingDownloadService streamingDownloadService;
+
+    private ObjectWriter rowWriter;
+
+    @Autowired
+    void setObjectMapper(ObjectMapper objectMapper) {
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * 固定DBからページ取得 (objectID 順)
+     */
+    @GetMapping("/page")
+    public PagedResponseDto<SLocalizationLabel> getLabelPage(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return fixedDataService.getLabelPage(page, size);
+    }
+
+    /**
+     * 固定DBの全件を NDJSON でストリーミング出力 (objectID 順)
+     */
+    @GetMapping("/stream")
+    public void streamLabels(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson;charset=UTF-8");
+        fixedDataService.streamLabels(response.getOutputStream());
+        response.flushBuffer();
+    }
 
     /**
      * 動的DBからページング取得
      */
     @PostMapping("/fetch")
     public PagedResponseDto<SLocalizationLabel> fetchLabelsFromDynamicDB(@RequestBody FetchRequestDto request) {
-        try {
-            return service.getAllLabelsFromDynamicDB(
-                    request.asDbConfigMap(), request.getFilter(), request.getPage(), request.getSize());
+        String sessionKey = request.getSessionId() != null ? "labels:" + request.getSessionId() : null;
+        try (QueryTicket ticket = queryCancellationRegistry.begin(sessionKey, request.getQueryGeneration())) {
+            return service.getAllLabelsFromDynamicDB(request.asDbConfigMap(), request.getFilter(),
+                    request.getPage(), request.getSize(), request.getSort(), request.getCursor(), ticket);
+        } catch (QueryCancelledException | InvalidSortException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("動的DBからのデータ取得に失敗しました: " + e.getMessage());
             e.printStackTrace();
@@ -70,10 +122,11 @@ public class SLocalizationLabelController {
         return null;
     }
 
-    // ObjectID のリストに基づいて SLocalizationLabel を取得
+    // ObjectID のリストに基づいて SLocalizationLabel を取得（JSON 配列を1件ずつ書き出す）
     @PostMapping("/fetch/by-ids")
-    public List<SLocalizationLabel> fetchLabelsByIds(@RequestBody Map<String, Object> requestData) {
-        try {
+    public void fetchLabelsByIds(@RequestBody Map<String, Object> requestData, HttpServletResponse response)
+            throws IOException {
+        JsonArrayResponse.<SLocalizationLabel>write(response, rowWriter, "Error fetching labels by IDs", consumer -> {
             @SuppressWarnings("unchecked")
             Map<String, Object> dbConfigMap = (Map<String, Object>) requestData.get("dbConfig");
             @SuppressWarnings("unchecked")
@@ -87,30 +140,37 @@ public class SLocalizationLabelController {
                 throw new IllegalArgumentException("dbConfig contains null values");
             }
 
-            return service.getLabelsByIdsFromDynamicDB(dbConfigMap, objectIDs);
-        } catch (Exception e) {
-            System.err.println("Error fetching labels by IDs: " + e.getMessage());
-            e.printStackTrace(); // スタックトレース出力
-            return Collections.emptyList();
-        }
+            service.forEachLabelByIds(dbConfigMap, objectIDs, consumer);
+        });
     }
 
-    // フロントから送られた選択データからのProperties生成・ダウンロード\
+    // フロントから送られた選択データからのProperties生成・ダウンロード
+    // 本文 {"labels": [...], "lang": ..., "encoding": ...} は逐次読み込みで1行ずつ変換する（lang / encoding はクエリパラメータでも指定可）
+    // 出力が大きい場合は ETag を付けずに変換しながら送信する
     @PostMapping("/properties/download")
-    public ResponseEntity<String> downloadPropertiesFile(@RequestBody Map<String, Object> requestData) {
-        try {
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> labelsData = (List<Map<String, Object>>) requestData.get("labels");
-            String langKey = (String) requestData.getOrDefault("lang", "country1");
-            String filename = "output.properties";
-            if (labelsData == null) {
-                return ResponseEntity.badRequest().body("labels data is missing");
+    public ResponseEntity<?> downloadPropertiesFile(HttpServletRequest request, HttpServletResponse response,
+            @RequestParam(value = "lang", required = false) String lang,
+            @RequestParam(value = "encoding", required = false) String encoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try (StreamingDownloadService.EncodedDownload properties = streamingDownloadService
+                .readProperties(request.getInputStream(), lang, encoding,
+                        download -> openPropertiesResponse(response, download, "output.properties"))) {
+            if (properties.isStreamed()) {
+                response.flushBuffer();
+                return null;
             }
-            List<SLocalizationLabel> labelDtos = objectMapper.convertValue(labelsData,
-                    new TypeReference<List<SLocalizationLabel>>() {
-                    });
-            String propertiesContent = service.convertToProperties(labelDtos, langKey);
-            return createPropertiesResponse(propertiesContent, filename);
+            String etag = properties.getEtag();
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            writePropertiesResponse(response, properties, "output.properties");
+            return null;
+        } catch (StreamingDownloadService.DownloadAbortedException e) {
+            // 送信済みの応答は完了させず、接続を切って途中までの出力を正常な応答と区別させる
+            System.err.println("Properties download from selected data aborted: " + e.getMessage());
+            throw e;
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             System.err.println("Error generating properties file from selected data: " + e.getMessage());
             e.printStackTrace();
@@ -118,19 +178,25 @@ public class SLocalizationLabelController {
         }
     }
 
-    // Propertiesレスポンス生成の共通処理
-    private ResponseEntity<String> createPropertiesResponse(String propertiesBody, String filename) {
-        HttpHeaders headers = new HttpHeaders();
-        String encodedFilename = filename;
-        try {
-            encodedFilename = java.net.URLEncoder.encode(filename, java.nio.charset.StandardCharsets.UTF_8.toString())
-                    .replace("+", "%20");
-        } catch (java.io.UnsupportedEncodingException e) {
-            System.err.println("Filename encoding failed: " + e.getMessage());
-        }
-        headers.add(HttpHeaders.CONTENT_DISPOSITION,
+    // 逐次変換した Properties を応答へ書き出す
+    private void writePropertiesResponse(HttpServletResponse response,
+            StreamingDownloadService.EncodedDownload properties, String filename) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, properties.getEtag());
+        response.setContentLength(properties.size());
+        properties.writeTo(openPropertiesResponse(response, properties, filename));
+        response.flushBuffer();
+    }
+
+    // ETag・Content-Length 以外の応答ヘッダーを設定して本文の出力先を返す
+    private OutputStream openPropertiesResponse(HttpServletResponse response,
+            StreamingDownloadService.EncodedDownload properties, String filename) throws IOException {
+        String encodedFilename = java.net.URLEncoder.encode(filename, java.nio.charset.StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
                 "attachment; filename=\"" + filename + "\"; filename*=UTF-8''" + encodedFilename);
-        headers.setContentType(MediaType.valueOf("text/plain;charset=UTF-8"));
-        return ResponseEntity.ok().headers(headers).body(propertiesBody);
+        response.setContentType(properties.getCharset() == OutputEncoder.PropertiesCharset.ISO_8859_1
+                ? "text/plain;charset=ISO-8859-1"
+                : "text/plain;charset=UTF-8");
+        return response.getOutputStream();
     }
 }
\ No newline at end of file
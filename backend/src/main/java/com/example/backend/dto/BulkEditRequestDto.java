@@ -0,0 +1,75 @@
+package com.example.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 翻訳・エラー定義の一括更新リクエストを受け取るDTO
+ * 接続情報は FetchRequestDto の DB 接続設定のみを使用する
+ */
+public class BulkEditRequestDto {
+
+    // 更新先
+    private FetchRequestDto connection;
+
+    // SError の updateUserID に設定する更新者
+    private String updateUserID;
+
+    // 更新内容（同じテーブル・objectID の更新は1件まで）
+    private List<Edit> edits = new ArrayList<>();
+
+    // --- Getters and Setters ---
+
+    public FetchRequestDto getConnection() { return connection; }
+    public void setConnection(FetchRequestDto connection) { this.connection = connection; }
+
+    public String getUpdateUserID() { return updateUserID; }
+    public void setUpdateUserID(String updateUserID) { this.updateUserID = updateUserID; }
+
+    public List<Edit> getEdits() { return edits; }
+    public void setEdits(List<Edit> edits) { this.edits = edits; }
+
+    /**
+     * 1行分の更新
+     */
+    public static class Edit {
+        // "labels" (SLocalizationLabel) / "localizations" (SLocalization) / "errors" (SError)
+        private String table;
+        private String objectID;
+
+        // 列名 → 新しい値（指定した列のみ更新する）
+        // labels / localizations は country1 〜 country5、errors は errorType / url / description
+        private Map<String, String> values;
+
+        // errors: 読み込み時の exclusiveFlag（楽観ロックのトークン。null は未設定の行を表す）
+        private String exclusiveFlag;
+
+        // labels / localizations: 読み込み時の値（必須。values の列をすべて含め、一致する場合のみ更新する。null は空の列を表す）
+        private Map<String, String> expected;
+
+        public Edit() {
+        }
+
+        public Edit(String table, String objectID, Map<String, String> values) {
+            this.table = table;
+            this.objectID = objectID;
+            this.values = values;
+        }
+
+        public String getTable() { return table; }
+        public void setTable(String table) { this.table = table; }
+
+        public String getObjectID() { return objectID; }
+        public void setObjectID(String objectID) { this.objectID = objectID; }
+
+        public Map<String, String> getValues() { return values; }
+        public void setValues(Map<String, String> values) { this.values = values; }
+
+        public String getExclusiveFlag() { return exclusiveFlag; }
+        public void setExclusiveFlag(String exclusiveFlag) { this.exclusiveFlag = exclusiveFlag; }
+
+        public Map<String, String> getExpected() { return expected; }
+        public void setExpected(Map<String, String> expected) { this.expected = expected; }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一括更新の結果を返すDTO
+ * 更新できなかった行は conflicts に1行ずつ含め、他の行の更新は取り消さない
+ */
+public class BulkEditResultDto {
+
+    private int total;           // 受け付けた更新の件数
+    private int applied;         // 更新した件数
+    private long elapsedMillis;  // 処理時間
+    private List<Conflict> conflicts = new ArrayList<>();
+
+    // 更新した SError の objectID → 新しい exclusiveFlag（続けて更新する場合のトークン）
+    private Map<String, String> exclusiveFlags = new LinkedHashMap<>();
+
+    // --- Getters and Setters ---
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getApplied() { return applied; }
+    public void setApplied(int applied) { this.applied = applied; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public List<Conflict> getConflicts() { return conflicts; }
+    public void setConflicts(List<Conflict> conflicts) { this.conflicts = conflicts; }
+
+    public Map<String, String> getExclusiveFlags() { return exclusiveFlags; }
+    public void setExclusiveFlags(Map<String, String> exclusiveFlags) { this.exclusiveFlags = exclusiveFlags; }
+
+    /**
+     * 更新できなかった1行
+     */
+    public static class Conflict {
+        private String table;
+        private String objectID;
+        // "invalid"（内容が不正） / "not_found"（行が無い） / "stale"（他の更新と競合） / "error"（DB エラー）
+        private String reason;
+        private String message;
+
+        // stale の場合の現在の exclusiveFlag（errors のみ）
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String currentExclusiveFlag;
+
+        public Conflict() {
+        }
+
+        public Conflict(String table, String objectID, String reason, String message) {
+            this.table = table;
+            this.objectID = objectID;
+            this.reason = reason;
+            this.message = message;
+        }
+
+        public String getTable() { return table; }
+        public void setTable(String table) { this.table = table; }
+
+        public String getObjectID() { return objectID; }
+        public void setObjectID(String objectID) { this.objectID = objectID; }
+
+        public String getReason() { return reason; }
+        public void setReason(String reason) { this.reason = reason; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+
+        public String getCurrentExclusiveFlag() { return currentExclusiveFlag; }
+        public void setCurrentExclusiveFlag(String currentExclusiveFlag) { this.currentExclusiveFlag = currentExclusiveFlag; }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 2つの接続先のテーブル比較リクエストを受け取るDTO
+ * 接続情報は FetchRequestDto の DB 接続設定のみを使用し、フィルター条件は両側に共通で適用する
+ */
+public class CompareRequestDto {
+
+    // 比較対象 ("labels" = SLocalizationLabel, "error-messages" = SError)
+    private String target;
+
+    // 比較元 (例: 本番)。ここにだけある行は removed
+    private FetchRequestDto left;
+
+    // 比較先 (例: ステージング)。ここにだけある行は added
+    private FetchRequestDto right;
+
+    // 両側に共通のフィルター条件
+    private FilterDto filter;
+
+    // 比較する言語 (country1 〜 country5)
+    private List<String> languages = new ArrayList<>(
+            List.of("country1", "country2", "country3", "country4", "country5"));
+
+    // changed 行に変更前後の文言を含めるか
+    private boolean includeValues = true;
+
+    // --- Getters and Setters ---
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public FetchRequestDto getLeft() {
+        return left;
+    }
+
+    public void setLeft(FetchRequestDto left) {
+        this.left = left;
+    }
+
+    public FetchRequestDto getRight() {
+        return right;
+    }
+
+    public void setRight(FetchRequestDto right) {
+        this.right = right;
+    }
+
+    public FilterDto getFilter() {
+        return filter;
+    }
+
+    public void setFilter(FilterDto filter) {
+        this.filter = filter;
+    }
+
+    public List<String> getLanguages() {
+        return languages;
+    }
+
+    public void setLanguages(List<String> languages) {
+        this.languages = languages;
+    }
+
+    public boolean isIncludeValues() {
+        return includeValues;
+    }
+
+    public void setIncludeValues(boolean includeValues) {
+        this.includeValues = includeValues;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 翻訳の充足状況レポートを返すDTO
+ * totals はテーブル × 言語ごと、categories はラベルのカテゴリ × 言語ごとの件数
+ */
+public class CoverageReportDto {
+
+    private long builtAt;       // 集計日時 (epoch ミリ秒)
+    private long buildMillis;   // 集計にかかった時間
+    private List<Entry> totals = new ArrayList<>();
+    private List<Entry> categories = new ArrayList<>();
+
+    // --- Getters and Setters ---
+
+    public long getBuiltAt() { return builtAt; }
+    public void setBuiltAt(long builtAt) { this.builtAt = builtAt; }
+
+    public long getBuildMillis() { return buildMillis; }
+    public void setBuildMillis(long buildMillis) { this.buildMillis = buildMillis; }
+
+    public List<Entry> getTotals() { return totals; }
+    public void setTotals(List<Entry> totals) { this.totals = totals; }
+
+    public List<Entry> getCategories() { return categories; }
+    public void setCategories(List<Entry> categories) { this.categories = categories; }
+
+    /**
+     * 1言語分の件数
+     */
+    public static class Entry {
+        private String table;        // "labels" (SLocalizationLabel) / "localizations" (SLocalization)
+        private String categoryName; // totals では null
+        private String language;     // country2 〜 country5
+        private long rows;           // 対象行数
+        private long missing;        // null
+        private long empty;          // 空文字・空白のみ
+        private long identical;      // country1 と同一
+
+        public String getTable() { return table; }
+        public void setTable(String table) { this.table = table; }
+
+        public String getCategoryName() { return categoryName; }
+        public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+
+        public String getLanguage() { return language; }
+        public void setLanguage(String language) { this.language = language; }
+
+        public long getRows() { return rows; }
+        public void setRows(long rows) { this.rows = rows; }
+
+        public long getMissing() { return missing; }
+        public void setMissing(long missing) { this.missing = missing; }
+
+        public long getEmpty() { return empty; }
+        public void setEmpty(long empty) { this.empty = empty; }
+
+        public long getIdentical() { return identical; }
+        public void setIdentical(long identical) { this.identical = identical; }
+    }
+}
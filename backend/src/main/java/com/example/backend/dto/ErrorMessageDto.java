@@ -12,6 +12,25 @@ public class ErrorMessageDto {
     private String country4;
     private String country5;
 
+    public ErrorMessageDto() {
+    }
+
+    /**
+     * 固定DBの SError と SLocalization を結合するクエリのコンストラクタ式用
+     */
+    public ErrorMessageDto(String objectID, String errorNo, String errorType, String messageObjectID,
+            String country1, String country2, String country3, String country4, String country5) {
+        this.objectID = objectID;
+        this.errorNo = errorNo;
+        this.errorType = errorType;
+        this.messageObjectID = messageObjectID;
+        this.country1 = country1;
+        this.country2 = country2;
+        this.country3 = country3;
+        this.country4 = country4;
+        this.country5 = country5;
+    }
+
     // Getter / Setter
     public String getObjectID() { return objectID; }
     public void setObjectID(String objectID) { this.objectID = objectID; }
@@ -0,0 +1,114 @@
+package com.example.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * エクスポートジョブ登録リクエストを受け取るDTO
+ * DB接続情報とフィルター条件は FetchRequestDto を継承（page / size は使用しない）
+ */
+public class ExportJobRequestDto extends FetchRequestDto {
+
+    // 出力対象 ("labels" = SLocalizationLabel, "error-messages" = SError)
+    private String target;
+
+    // 出力形式 ("properties" / "xml" / "json" / "yaml" / "i18next" / "android" / "ios")。
+    // 未指定の場合は対象に応じたデフォルト
+    private String format;
+
+    // 複数の出力形式 (指定時は format より優先し、1回のスキャンで全形式を出力)
+    private List<String> formats;
+
+    // 出力言語 (country1 〜 country5)
+    private List<String> languages = new ArrayList<>(List.of("country1"));
+
+    // 優先度 (大きいほど先に実行される)
+    private int priority = 5;
+
+    // 並列スキャンの分割数 (0 = サーバー設定のデフォルト, 1 = 逐次)
+    private int partitions;
+
+    // 差分エクスポートの基準とする完了済みジョブID (未指定の場合は全件出力)
+    private String baseJobId;
+
+    // 差分の出力方法 ("changed" = 追加・変更行のみの各形式ファイル, "patch" = JSON パッチ)
+    private String deltaMode;
+
+    // エラーメッセージの差分で SError.updateDate を信頼し、ウォーターマーク以降に更新された行と、
+    // 参照先 SLocalization の文言が基準から変わった行・基準に無い行だけを読み直す（既定は false = 全行のハッシュ比較）
+    private boolean trustUpdateDate;
+
+    // --- Getters and Setters ---
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public List<String> getFormats() {
+        return formats;
+    }
+
+    public void setFormats(List<String> formats) {
+        this.formats = formats;
+    }
+
+    public List<String> getLanguages() {
+        return languages;
+    }
+
+    public void setLanguages(List<String> languages) {
+        this.languages = languages;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public String getBaseJobId() {
+        return baseJobId;
+    }
+
+    public void setBaseJobId(String baseJobId) {
+        this.baseJobId = baseJobId;
+    }
+
+    public String getDeltaMode() {
+        return deltaMode;
+    }
+
+    public void setDeltaMode(String deltaMode) {
+        this.deltaMode = deltaMode;
+    }
+
+    public boolean isTrustUpdateDate() {
+        return trustUpdateDate;
+    }
+
+    public void setTrustUpdateDate(boolean trustUpdateDate) {
+        this.trustUpdateDate = trustUpdateDate;
+    }
+}
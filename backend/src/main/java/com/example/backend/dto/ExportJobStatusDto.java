@@ -0,0 +1,109 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+/**
+ * エクスポートジョブの状態を返すDTO
+ * スプールディレクトリに JSON として永続化されるため、接続情報は保持しない
+ */
+public class ExportJobStatusDto {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private String jobId;
+    private String target;
+    private String format;      // 先頭の出力形式 (単一形式の場合はその形式)
+    private List<String> formats; // 出力形式の一覧 (1回のスキャンで全形式を出力)
+    private List<String> languages;
+    private int priority;
+    private String status;
+    private long rowsDone;      // 処理済み件数
+    private long rowsTotal;     // 総件数 (件数確定前は -1)
+    private String fileName;    // ダウンロード時のファイル名
+    private long fileSize;      // 生成済みファイルのバイト数
+    private String message;     // 失敗時のエラーメッセージ
+    private long createdAt;     // 登録日時 (epoch ミリ秒)
+    private long finishedAt;    // 完了日時 (epoch ミリ秒, 未完了は 0)
+    private String etag;        // 成果物の強い ETag
+    private String baseJobId;   // 差分の基準ジョブ (全件出力の場合は null)
+    private String deltaMode;   // 差分の出力方法 ("changed" / "patch")
+    private long rowsAdded;     // 基準から追加された件数
+    private long rowsChanged;   // 基準から変更された件数
+    private long rowsRemoved;   // 基準から削除された件数
+    private String sharedFrom;  // スキャン・成果物を共有した元のジョブ (単独実行の場合は null)
+
+    // --- Getters and Setters ---
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getTarget() { return target; }
+    public void setTarget(String target) { this.target = target; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public List<String> getFormats() { return formats; }
+    public void setFormats(List<String> formats) { this.formats = formats; }
+
+    public List<String> getLanguages() { return languages; }
+    public void setLanguages(List<String> languages) { this.languages = languages; }
+
+    public int getPriority() { return priority; }
+    public void setPriority(int priority) { this.priority = priority; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getRowsDone() { return rowsDone; }
+    public void setRowsDone(long rowsDone) { this.rowsDone = rowsDone; }
+
+    public long getRowsTotal() { return rowsTotal; }
+    public void setRowsTotal(long rowsTotal) { this.rowsTotal = rowsTotal; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    public long getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(long finishedAt) { this.finishedAt = finishedAt; }
+
+    public String getEtag() { return etag; }
+    public void setEtag(String etag) { this.etag = etag; }
+
+    public String getBaseJobId() { return baseJobId; }
+    public void setBaseJobId(String baseJobId) { this.baseJobId = baseJobId; }
+
+    public String getDeltaMode() { return deltaMode; }
+    public void setDeltaMode(String deltaMode) { this.deltaMode = deltaMode; }
+
+    public long getRowsAdded() { return rowsAdded; }
+    public void setRowsAdded(long rowsAdded) { this.rowsAdded = rowsAdded; }
+
+    public long getRowsChanged() { return rowsChanged; }
+    public void setRowsChanged(long rowsChanged) { this.rowsChanged = rowsChanged; }
+
+    public long getRowsRemoved() { return rowsRemoved; }
+    public void setRowsRemoved(long rowsRemoved) { this.rowsRemoved = rowsRemoved; }
+
+    public String getSharedFrom() { return sharedFrom; }
+    public void setSharedFrom(String sharedFrom) { this.sharedFrom = sharedFrom; }
+
+    /**
+     * 終了状態 (COMPLETED / FAILED) かどうか
+     */
+    public boolean isFinished() {
+        return COMPLETED.equals(status) || FAILED.equals(status);
+    }
+}
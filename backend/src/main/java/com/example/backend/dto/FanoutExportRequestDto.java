@@ -0,0 +1,89 @@
+package com.example.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 複数の接続先に同じ条件でエクスポートを実行するリクエストを受け取るDTO
+ */
+public class FanoutExportRequestDto {
+
+    // 出力対象 ("labels" = SLocalizationLabel, "error-messages" = SError)
+    private String target;
+
+    // 出力形式 (未指定の場合は対象に応じたデフォルト)
+    private String format;
+
+    // 複数の出力形式 (指定時は format より優先)
+    private List<String> formats;
+
+    // 出力言語 (country1 〜 country5)
+    private List<String> languages = new ArrayList<>(List.of("country1"));
+
+    // 全接続先に共通のフィルター条件
+    private FilterDto filter;
+
+    // 接続先の一覧
+    private List<FanoutTargetDto> targets;
+
+    // 接続先ごとのタイムアウト秒数 (0 = サーバー設定のデフォルト)
+    private int timeoutSeconds;
+
+    // --- Getters and Setters ---
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public List<String> getFormats() {
+        return formats;
+    }
+
+    public void setFormats(List<String> formats) {
+        this.formats = formats;
+    }
+
+    public List<String> getLanguages() {
+        return languages;
+    }
+
+    public void setLanguages(List<String> languages) {
+        this.languages = languages;
+    }
+
+    public FilterDto getFilter() {
+        return filter;
+    }
+
+    public void setFilter(FilterDto filter) {
+        this.filter = filter;
+    }
+
+    public List<FanoutTargetDto> getTargets() {
+        return targets;
+    }
+
+    public void setTargets(List<FanoutTargetDto> targets) {
+        this.targets = targets;
+    }
+
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    public void setTimeoutSeconds(int timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.backend.dto;
+
+/**
+ * 一括エクスポートの接続先1件
+ * DB接続情報は FetchRequestDto を継承（フィルター・ページネーションは使用しない）
+ */
+public class FanoutTargetDto extends FetchRequestDto {
+
+    // ZIP 内のフォルダ名 (未指定の場合は "ホスト_DB名")
+    private String name;
+
+    // --- Getters and Setters ---
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
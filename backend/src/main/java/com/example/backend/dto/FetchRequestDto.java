@@ -1,5 +1,6 @@
 package com.example.backend.dto;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,6 +23,15 @@ public class FetchRequestDto {
     private int page = 0; // デフォルトは0ページ目
     private int size = 50; // デフォルトは1ページあたり50件
 
+    // 並び順（優先度の高い順。未指定は objectID 順）と、前ページの応答の nextCursor
+    // cursor を指定した場合は page を使わずにカーソルより後ろの size 件を返す
+    private List<SortDto> sort;
+    private String cursor;
+
+    // クエリキャンセル用 (画面ごとのセッションID + フィルター変更ごとに増える世代番号)
+    private String sessionId;
+    private long queryGeneration;
+
     // --- Getters and Setters ---
 
     public String getDbType() {
@@ -97,6 +107,40 @@ public class FetchRequestDto {
         this.size = size;
     }
 
+    // --- 並び順・カーソル用 Getters and Setters
+    public List<SortDto> getSort() {
+        return sort;
+    }
+
+    public void setSort(List<SortDto> sort) {
+        this.sort = sort;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    // --- クエリキャンセル用 Getters and Setters
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public long getQueryGeneration() {
+        return queryGeneration;
+    }
+
+    public void setQueryGeneration(long queryGeneration) {
+        this.queryGeneration = queryGeneration;
+    }
+
     /**
      * DBConnectionService に渡すためのMapを生成するユーティリティ
      * 
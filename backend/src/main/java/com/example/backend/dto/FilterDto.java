@@ -1,5 +1,7 @@
 package com.example.backend.dto;
 
+import java.util.List;
+
 /**
  * 検索フィルター条件を保持するDTO
  */
@@ -15,6 +17,10 @@ public class FilterDto {
     private String errorNo;
     private String errorType;
 
+    // ファセットの複数選択（完全一致。同じ項目内は OR、項目間および他の条件とは AND）
+    private List<String> categoryNames;
+    private List<String> errorTypes;
+
     // --- Getters and Setters ---
 
     public String getObjectID() { return objectID; }
@@ -31,4 +37,53 @@ public class FilterDto {
 
     public String getErrorType() { return errorType; }
     public void setErrorType(String errorType) { this.errorType = errorType; }
+
+    public List<String> getCategoryNames() { return categoryNames; }
+    public void setCategoryNames(List<String> categoryNames) { this.categoryNames = categoryNames; }
+
+    public List<String> getErrorTypes() { return errorTypes; }
+    public void setErrorTypes(List<String> errorTypes) { this.errorTypes = errorTypes; }
+
+    /**
+     * 複数選択の値（null・空文字を除き重複を除いたもの。選択が無い場合は空）
+     */
+    public static List<String> selectedValues(List<String> values) {
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream().filter(v -> v != null && !v.isEmpty()).distinct().toList();
+    }
+
+    /**
+     * 正規化したフィルター条件をキャッシュ・重複判定用のキーに変換する
+     * 空文字と null はどちらも条件なしとなるため同一として扱う
+     *
+     * @param filter フィルター条件 (null 可)
+     * @return 条件が同じであれば同一となる文字列
+     */
+    public static String toCacheKey(FilterDto filter) {
+        if (filter == null) {
+            filter = new FilterDto();
+        }
+        return normalize(filter.objectID)
+                + normalize(filter.message)
+                + normalize(filter.categoryName)
+                + normalize(filter.errorNo)
+                + normalize(filter.errorType)
+                + normalizeSelection(filter.categoryNames)
+                + normalizeSelection(filter.errorTypes);
+    }
+
+    // 選択の順序は結果に影響しないため並べ替えてから連結する
+    private static String normalizeSelection(List<String> values) {
+        StringBuilder key = new StringBuilder();
+        selectedValues(values).stream().sorted().forEach(v -> key.append(normalize(v)));
+        return key.length() + "[" + key + "]";
+    }
+
+    // 区切り文字を含む値でも衝突しないよう「長さ:値;」の形式にする
+    private static String normalize(String value) {
+        String v = value == null ? "" : value;
+        return v.length() + ":" + v + ";";
+    }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.example.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
+import java.util.Map;
 
 /**
  * ページネーション結果を返すためのDTO
@@ -11,6 +14,15 @@ public class PagedResponseDto<T> {
     private List<T> content; // 現在のページのデータリスト
     private long totalElements; // フィルター条件に一致する総件数
 
+    // ファセット件数（項目名 → 値 → 件数）。スナップショットの索引、または DB の GROUP BY で求める。
+    // 値の種類が snapshot.facets.max-values を超える項目は含まれない（含む項目が無い場合は設定されない）
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Map<String, Long>> facets;
+
+    // 次ページのキーセットカーソル。並び順を指定して取得し、ページが埋まった場合のみ設定される
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     // Constructor
     public PagedResponseDto(List<T> content, long totalElements) {
         this.content = content;
@@ -32,4 +44,20 @@ public class PagedResponseDto<T> {
     public void setTotalElements(long totalElements) {
         this.totalElements = totalElements;
     }
+
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, Map<String, Long>> facets) {
+        this.facets = facets;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.backend.dto;
+
+/**
+ * 並び順の指定（1列分）。FetchRequestDto の sort に優先度の高い順に並べる
+ */
+public class SortDto {
+
+    private String field;      // 列名 (objectID / categoryName / errorNo / errorType / country1 〜 country5 など)
+    private String direction;  // "asc"（既定） / "desc"
+    private String collation;  // 言語別の照合順序 (BCP 47 の言語タグ。例: "ja", "de")。省略時は文字コード順
+
+    public SortDto() {
+    }
+
+    public SortDto(String field, String direction, String collation) {
+        this.field = field;
+        this.direction = direction;
+        this.collation = collation;
+    }
+
+    // --- Getters and Setters ---
+
+    public String getField() { return field; }
+    public void setField(String field) { this.field = field; }
+
+    public String getDirection() { return direction; }
+    public void setDirection(String direction) { this.direction = direction; }
+
+    public String getCollation() { return collation; }
+    public void setCollation(String collation) { this.collation = collation; }
+}
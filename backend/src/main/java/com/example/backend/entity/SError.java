@@ -41,6 +41,28 @@ public class SError {
     @Column(name = "description", length = 255)
     private String description;
 
+    public SError() {
+    }
+
+    /**
+     * 読み取り専用クエリのコンストラクタ式用（永続化コンテキストの管理対象にならない）
+     */
+    public SError(String objectID, String errorNo, String errorMessageID, String entryUserID, LocalDate entryDate,
+            String updateUserID, LocalDate updateDate, String exclusiveFlag, String errorType, String url,
+            String description) {
+        this.objectID = objectID;
+        this.errorNo = errorNo;
+        this.errorMessageID = errorMessageID;
+        this.entryUserID = entryUserID;
+        this.entryDate = entryDate;
+        this.updateUserID = updateUserID;
+        this.updateDate = updateDate;
+        this.exclusiveFlag = exclusiveFlag;
+        this.errorType = errorType;
+        this.url = url;
+        this.description = description;
+    }
+
     // getter / setter
     public String getObjectID() { return objectID; }
     public void setObjectID(String objectID) { this.objectID = objectID; }
@@ -28,6 +28,22 @@ public class SLocalization {
     @Column(name = "country5", length = 255)
     private String country5;
 
+    public SLocalization() {
+    }
+
+    /**
+     * 読み取り専用クエリのコンストラクタ式用（永続化コンテキストの管理対象にならない）
+     */
+    public SLocalization(String objectID, String country1, String country2, String country3, String country4,
+            String country5) {
+        this.objectID = objectID;
+        this.country1 = country1;
+        this.country2 = country2;
+        this.country3 = country3;
+        this.country4 = country4;
+        this.country5 = country5;
+    }
+
     // Getter / Setter
     public String getObjectID() { return objectID; }
     public void setObjectID(String objectID) { this.objectID = objectID; }
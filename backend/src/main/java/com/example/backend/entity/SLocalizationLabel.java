@@ -36,6 +36,23 @@ public class SLocalizationLabel {
     @Transient
     private String userKey;
 
+    public SLocalizationLabel() {
+    }
+
+    /**
+     * 読み取り専用クエリのコンストラクタ式用（永続化コンテキストの管理対象にならない）
+     */
+    public SLocalizationLabel(String objectID, String categoryName, String country1, String country2,
+            String country3, String country4, String country5) {
+        this.objectID = objectID;
+        this.categoryName = categoryName;
+        this.country1 = country1;
+        this.country2 = country2;
+        this.country3 = country3;
+        this.country4 = country4;
+        this.country5 = country5;
+    }
+
     // --- getter / setter ---
     public String getObjectID() { return objectID; }
     public void setObjectID(String objectID) { this.objectID = objectID; }
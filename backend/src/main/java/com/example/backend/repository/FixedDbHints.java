@@ -0,0 +1,16 @@
+package com.example.backend.repository;
+
+/**
+ * 固定DB (MySQL) 向けのクエリヒント値
+ */
+final class FixedDbHints {
+
+    /**
+     * ストリーミング取得時のフェッチサイズ
+     * MySQL Connector/J は Integer.MIN_VALUE 指定時のみ結果を一括で読み込まず1行ずつ受け取る
+     */
+    static final String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    private FixedDbHints() {
+    }
+}
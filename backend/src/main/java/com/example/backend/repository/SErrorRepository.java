@@ -1,10 +1,61 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.ErrorMessageDto;
 import com.example.backend.entity.SError;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface SErrorRepository extends JpaRepository<SError, String> {
     // JpaRepository<S, ID> → SError エンティティ、ID は objectID
+
+    String SELECT_ERROR = "SELECT new com.example.backend.entity.SError(e.objectID, e.errorNo, e.errorMessageID,"
+            + " e.entryUserID, e.entryDate, e.updateUserID, e.updateDate, e.exclusiveFlag, e.errorType, e.url,"
+            + " e.description) FROM SError e";
+
+    // SError と文言 (SLocalization) の結合。文言が無いエラーは messageObjectID 以降が null
+    String SELECT_ERROR_MESSAGE = "SELECT new com.example.backend.dto.ErrorMessageDto(e.objectID, e.errorNo,"
+            + " e.errorType, l.objectID, l.country1, l.country2, l.country3, l.country4, l.country5)"
+            + " FROM SError e LEFT JOIN SLocalization l ON l.objectID = e.errorMessageID";
+
+    /**
+     * 1ページ分（管理対象外のオブジェクトとして取得）
+     */
+    @Query(value = SELECT_ERROR, countQuery = "SELECT COUNT(e) FROM SError e")
+    Page<SError> findPageBy(Pageable pageable);
+
+    /**
+     * objectID 順に全件を1行ずつ読み出す（トランザクション内で使用し、使用後は close すること）
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FixedDbHints.STREAMING_FETCH_SIZE))
+    @Query(SELECT_ERROR + " ORDER BY e.objectID")
+    Stream<SError> streamAllBy();
+
+    /**
+     * エラーメッセージ（文言を結合済み）の全件
+     */
+    @Query(SELECT_ERROR_MESSAGE + " ORDER BY e.objectID")
+    List<ErrorMessageDto> findAllErrorMessages();
+
+    /**
+     * エラーメッセージ（文言を結合済み）の1ページ分
+     */
+    @Query(value = SELECT_ERROR_MESSAGE, countQuery = "SELECT COUNT(e) FROM SError e")
+    Page<ErrorMessageDto> findErrorMessagePage(Pageable pageable);
+
+    /**
+     * エラーメッセージ（文言を結合済み）を objectID 順に1行ずつ読み出す
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FixedDbHints.STREAMING_FETCH_SIZE))
+    @Query(SELECT_ERROR_MESSAGE + " ORDER BY e.objectID")
+    Stream<ErrorMessageDto> streamErrorMessages();
 }
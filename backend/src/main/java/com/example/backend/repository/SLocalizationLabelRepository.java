@@ -1,12 +1,35 @@
 package com.example.backend.repository;
 
 import com.example.backend.entity.SLocalizationLabel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
 public interface SLocalizationLabelRepository extends JpaRepository<SLocalizationLabel, String> {
     // 必要に応じて追加検索メソッドも作れます
     // 例: List<SLocalizationLabel> findByCategoryName(String categoryName);
-}
 
+    String SELECT_LABEL = "SELECT new com.example.backend.entity.SLocalizationLabel(l.objectID, l.categoryName,"
+            + " l.country1, l.country2, l.country3, l.country4, l.country5) FROM SLocalizationLabel l";
+
+    /**
+     * 1ページ分（管理対象外のオブジェクトとして取得）
+     */
+    @Query(value = SELECT_LABEL, countQuery = "SELECT COUNT(l) FROM SLocalizationLabel l")
+    Page<SLocalizationLabel> findPageBy(Pageable pageable);
+
+    /**
+     * objectID 順に全件を1行ずつ読み出す（トランザクション内で使用し、使用後は close すること）
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FixedDbHints.STREAMING_FETCH_SIZE))
+    @Query(SELECT_LABEL + " ORDER BY l.objectID")
+    Stream<SLocalizationLabel> streamAllBy();
+}
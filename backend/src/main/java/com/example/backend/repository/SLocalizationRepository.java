@@ -1,10 +1,33 @@
 package com.example.backend.repository;
 
 import com.example.backend.entity.SLocalization;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
 public interface SLocalizationRepository extends JpaRepository<SLocalization, String> {
 
+    String SELECT_LOCALIZATION = "SELECT new com.example.backend.entity.SLocalization(l.objectID, l.country1,"
+            + " l.country2, l.country3, l.country4, l.country5) FROM SLocalization l";
+
+    /**
+     * 1ページ分（管理対象外のオブジェクトとして取得）
+     */
+    @Query(value = SELECT_LOCALIZATION, countQuery = "SELECT COUNT(l) FROM SLocalization l")
+    Page<SLocalization> findPageBy(Pageable pageable);
+
+    /**
+     * objectID 順に全件を1行ずつ読み出す（トランザクション内で使用し、使用後は close すること）
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FixedDbHints.STREAMING_FETCH_SIZE))
+    @Query(SELECT_LOCALIZATION + " ORDER BY l.objectID")
+    Stream<SLocalization> streamAllBy();
 }
@@ -0,0 +1,104 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 並び順を指定したページ取得で、索引もスナップショットも使えない場合のメモリ内ソート
+ * <p>
+ * フィルターに一致する行を並び順なしで1回走査し、並び順の先頭から（カーソルがあればその後ろから）
+ * skip + size 件だけを最大ヒープに保持する。保持する行数は skip + size 件以下（{@link SortPlanner#canSortInMemory} で上限を判定）
+ * のため、一致する行の件数によらずメモリ量は一定。比較は {@link SortSpec#compare} で、スナップショット上の並べ替えと同じ順序になる。
+ * SortSpec と同じく、1つのインスタンスを複数スレッドで同時に使用しない。
+ *
+ * @param <T> 行の型
+ */
+final class BoundedPageSort<T> implements Consumer<T> {
+
+    private final SortSpec sort;
+    private final Function<T, String[]> tupleOf;
+    private final Comparable<?>[] after;
+    private final int skip;
+    private final int limit;
+    private final PriorityQueue<Keyed<T>> heap;
+    private long matched;
+    private List<Keyed<T>> sorted;
+
+    /**
+     * @param tupleOf 行のソートキー（{@link SortSpec#tuple}）
+     * @param cursor  カーソルのソートキー（null の場合は skip 件目から）
+     * @param skip    読み飛ばす件数（カーソルがある場合は 0）
+     * @param size    ページの件数
+     */
+    BoundedPageSort(SortSpec sort, Function<T, String[]> tupleOf, String[] cursor, int skip, int size) {
+        this.sort = sort;
+        this.tupleOf = tupleOf;
+        this.after = cursor != null ? sort.comparableKey(cursor) : null;
+        this.skip = cursor != null ? 0 : skip;
+        this.limit = this.skip + size;
+        Comparator<Keyed<T>> order = (a, b) -> sort.compare(a.key, b.key);
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(limit + 1, 1024)), order.reversed());
+    }
+
+    @Override
+    public void accept(T row) {
+        matched++;
+        if (limit == 0) {
+            return;
+        }
+        String[] tuple = tupleOf.apply(row);
+        Comparable<?>[] key = sort.comparableKey(tuple);
+        if (after != null && sort.compare(key, after) <= 0) {
+            return;
+        }
+        if (heap.size() >= limit) {
+            if (sort.compare(key, heap.peek().key) >= 0) {
+                return;
+            }
+            heap.poll();
+        }
+        heap.add(new Keyed<>(row, tuple, key));
+    }
+
+    /**
+     * 走査した（フィルターに一致した）行の件数
+     */
+    long getMatched() {
+        return matched;
+    }
+
+    /**
+     * 並び順のページ（skip 件目から size 件）
+     */
+    List<T> page() {
+        List<Keyed<T>> sorted = sortedRows();
+        List<T> rows = new ArrayList<>();
+        for (int i = skip; i < sorted.size(); i++) {
+            rows.add(sorted.get(i).row);
+        }
+        return rows;
+    }
+
+    /**
+     * ページが size 件で埋まった場合は最後の行のソートキー（次ページのカーソル用）、それ以外は null
+     */
+    String[] lastTuple() {
+        List<Keyed<T>> sorted = sortedRows();
+        return limit > skip && sorted.size() == limit ? sorted.get(sorted.size() - 1).tuple : null;
+    }
+
+    private List<Keyed<T>> sortedRows() {
+        if (sorted == null) {
+            sorted = new ArrayList<>(heap);
+            sorted.sort((a, b) -> sort.compare(a.key, b.key));
+        }
+        return sorted;
+    }
+
+    private record Keyed<T>(T row, String[] tuple, Comparable<?>[] key) {
+    }
+}
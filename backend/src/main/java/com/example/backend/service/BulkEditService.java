@@ -0,0 +1,538 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BulkEditRequestDto;
+import com.example.backend.dto.BulkEditResultDto;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 翻訳 (SLocalizationLabel / SLocalization の country 列) と SError の定義の一括更新
+ * <p>
+ * 更新はテーブルごとに objectID 順に並べて chunk-size 件ずつに分け、チャンクごとに1トランザクションで
+ * JDBC バッチの UPDATE として実行する（同じ列を更新する行は1つのバッチにまとまる）。チャンクは並列に実行する。
+ * SError は exclusiveFlag を楽観ロックのトークンとして WHERE に含め、更新時に新しい値に置き換える。
+ * labels / localizations は更新する列すべての読み込み時の値を expected で必須とし、WHERE に含める（上書きの取り違えを防ぐ）。
+ * ドライバーが更新件数を返さない (SUCCESS_NO_INFO) 行は後から現在の行を読み、新しい exclusiveFlag・値と一致すれば更新済みとする。
+ * 更新件数が 0 の行は後から現在の行を読んで not_found / stale に分類し、
+ * バッチが DB エラーになったチャンクは1行ずつ再実行して失敗した行だけを error として返す。
+ */
+@Service
+public class BulkEditService {
+
+    static final String LABELS = "labels";
+    static final String LOCALIZATIONS = "localizations";
+    static final String ERRORS = "errors";
+
+    private static final List<String> COUNTRY_COLUMNS = List.of("country1", "country2", "country3", "country4",
+            "country5");
+    // SError の更新可能な列 → 最大長
+    private static final Map<String, Integer> ERROR_COLUMNS = Map.of("errorType", 1, "url", 255,
+            "description", 255);
+    private static final int COUNTRY_MAX_LENGTH = 255;
+    private static final int LOOKUP_BATCH = 500;
+    private static final String EXCLUSIVE_FLAG = "exclusiveFlag";
+
+    private final DBConnectionService dbConnectionService;
+    private final ConnectionSnapshotService connectionSnapshotService;
+    private final TranslationCoverageService translationCoverageService;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int maxEdits;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong appliedRows = new AtomicLong();
+    private final AtomicLong conflictRows = new AtomicLong();
+    private final AtomicLong retriedChunks = new AtomicLong();
+    private ExecutorService executor;
+
+    public BulkEditService(DBConnectionService dbConnectionService,
+            ConnectionSnapshotService connectionSnapshotService,
+            TranslationCoverageService translationCoverageService,
+            @Value("${bulk-edit.chunk-size:500}") int chunkSize,
+            @Value("${bulk-edit.parallelism:4}") int parallelism,
+            @Value("${bulk-edit.max-edits:20000}") int maxEdits) {
+        this.dbConnectionService = dbConnectionService;
+        this.connectionSnapshotService = connectionSnapshotService;
+        this.translationCoverageService = translationCoverageService;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.maxEdits = maxEdits;
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNo = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "bulk-edit-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 一括更新を実行する
+     *
+     * @throws IllegalArgumentException 接続情報が無い、または件数が上限を超える場合
+     */
+    public BulkEditResultDto apply(BulkEditRequestDto request) {
+        if (request.getConnection() == null) {
+            throw new IllegalArgumentException("connection is required");
+        }
+        List<BulkEditRequestDto.Edit> edits = request.getEdits() != null ? request.getEdits() : List.of();
+        if (edits.size() > maxEdits) {
+            throw new IllegalArgumentException("too many edits: " + edits.size() + " (max " + maxEdits + ")");
+        }
+        Map<String, Object> config = request.getConnection().asDbConfigMap();
+        JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+        BulkEditResultDto result = apply(jdbc, edits, request.getUpdateUserID());
+        if (result.getApplied() > 0) {
+            // 値だけの変更は件数・objectID の範囲による検証では検出できないため、明示的に作り直させる
+            // （このサービスを経由しない変更は検出できないため、スナップショットは既定で無効）
+            connectionSnapshotService.invalidate(config);
+            translationCoverageService.invalidate(config);
+        }
+        return result;
+    }
+
+    BulkEditResultDto apply(JdbcTemplate jdbc, List<BulkEditRequestDto.Edit> edits, String updateUserID) {
+        long started = System.currentTimeMillis();
+        requests.incrementAndGet();
+        Outcome outcome = new Outcome();
+        Date today = Date.valueOf(LocalDate.now());
+
+        // 検証して、テーブルごとに objectID 順に並べる（並列のトランザクション間でロックの順序を揃える）
+        Map<String, List<Row>> byTable = new TreeMap<>();
+        Set<String> seen = new HashSet<>();
+        for (BulkEditRequestDto.Edit edit : edits) {
+            String problem = validate(edit);
+            if (problem == null && !seen.add(edit.getTable() + "|" + edit.getObjectID())) {
+                problem = "duplicate edit for the same row";
+            }
+            if (problem != null) {
+                outcome.conflict(edit != null ? edit.getTable() : null, edit != null ? edit.getObjectID() : null,
+                        "invalid", problem);
+                continue;
+            }
+            byTable.computeIfAbsent(edit.getTable(), t -> new ArrayList<>()).add(prepare(edit, updateUserID, today));
+        }
+        List<List<Row>> chunks = new ArrayList<>();
+        for (List<Row> rows : byTable.values()) {
+            rows.sort(Comparator.comparing(row -> row.objectID));
+            for (int i = 0; i < rows.size(); i += chunkSize) {
+                chunks.add(rows.subList(i, Math.min(rows.size(), i + chunkSize)));
+            }
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (List<Row> chunk : chunks) {
+            futures.add(CompletableFuture.runAsync(() -> applyChunk(jdbc, chunk, outcome), executor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        confirmUnknown(jdbc, outcome);
+        classifyUnmatched(jdbc, outcome);
+
+        BulkEditResultDto result = new BulkEditResultDto();
+        result.setTotal(edits.size());
+        result.setApplied(outcome.applied.get());
+        List<BulkEditResultDto.Conflict> conflicts = new ArrayList<>(outcome.conflicts);
+        conflicts.sort(Comparator.comparing((BulkEditResultDto.Conflict c) -> String.valueOf(c.getTable()))
+                .thenComparing(c -> String.valueOf(c.getObjectID())));
+        result.setConflicts(conflicts);
+        result.setExclusiveFlags(new TreeMap<>(outcome.exclusiveFlags));
+        result.setElapsedMillis(System.currentTimeMillis() - started);
+        appliedRows.addAndGet(result.getApplied());
+        conflictRows.addAndGet(conflicts.size());
+        return result;
+    }
+
+    /**
+     * 統計情報
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.get());
+        stats.put("appliedRows", appliedRows.get());
+        stats.put("conflictRows", conflictRows.get());
+        stats.put("retriedChunks", retriedChunks.get());
+        return stats;
+    }
+
+    // --- 検証・SQL ---
+
+    /**
+     * 更新内容の検証（問題が無ければ null）
+     */
+    static String validate(BulkEditRequestDto.Edit edit) {
+        if (edit == null || edit.getTable() == null) {
+            return "table is required";
+        }
+        if (!LABELS.equals(edit.getTable()) && !LOCALIZATIONS.equals(edit.getTable())
+                && !ERRORS.equals(edit.getTable())) {
+            return "unknown table: " + edit.getTable();
+        }
+        if (edit.getObjectID() == null || edit.getObjectID().isEmpty()) {
+            return "objectID is required";
+        }
+        if (edit.getValues() == null || edit.getValues().isEmpty()) {
+            return "values is required";
+        }
+        boolean errors = ERRORS.equals(edit.getTable());
+        for (Map.Entry<String, String> value : edit.getValues().entrySet()) {
+            Integer maxLength = errors ? ERROR_COLUMNS.get(value.getKey())
+                    : COUNTRY_COLUMNS.contains(value.getKey()) ? COUNTRY_MAX_LENGTH : null;
+            if (maxLength == null) {
+                return "column cannot be edited: " + value.getKey();
+            }
+            if (value.getValue() != null && value.getValue().length() > maxLength) {
+                return value.getKey() + " is longer than " + maxLength + " characters";
+            }
+            if (errors && "errorType".equals(value.getKey()) && value.getValue() == null) {
+                return "errorType cannot be null";
+            }
+        }
+        if (errors) {
+            return edit.getExpected() != null ? "expected is not supported for errors (use exclusiveFlag)" : null;
+        }
+        if (edit.getExpected() == null) {
+            return "expected is required (values read before editing)";
+        }
+        for (String column : edit.getExpected().keySet()) {
+            if (!COUNTRY_COLUMNS.contains(column)) {
+                return "unknown expected column: " + column;
+            }
+        }
+        for (String column : edit.getValues().keySet()) {
+            if (!edit.getExpected().containsKey(column)) {
+                return "expected is required for " + column;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * UPDATE 文とパラメーターを作る（列は名前順に並べ、同じ列を更新する行が同じ文になるようにする）
+     */
+    static Row prepare(BulkEditRequestDto.Edit edit, String updateUserID, Date today) {
+        boolean errors = ERRORS.equals(edit.getTable());
+        String table = switch (edit.getTable()) {
+            case LABELS -> "SLocalizationLabel";
+            case LOCALIZATIONS -> "SLocalization";
+            default -> "SError";
+        };
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        List<Object> params = new ArrayList<>();
+        String separator = "";
+        for (Map.Entry<String, String> value : new TreeMap<>(edit.getValues()).entrySet()) {
+            sql.append(separator).append(value.getKey()).append(" = ?");
+            params.add(value.getValue());
+            separator = ", ";
+        }
+        String newFlag = null;
+        if (errors) {
+            newFlag = UUID.randomUUID().toString().replace("-", "");
+            sql.append(", exclusiveFlag = ?, updateUserID = ?, updateDate = ?");
+            params.add(newFlag);
+            params.add(updateUserID);
+            params.add(today);
+        }
+        sql.append(" WHERE ").append(LOCALIZATIONS.equals(edit.getTable()) ? "ObjectID" : "objectID").append(" = ?");
+        params.add(edit.getObjectID());
+        if (errors) {
+            if (edit.getExclusiveFlag() != null) {
+                sql.append(" AND exclusiveFlag = ?");
+                params.add(edit.getExclusiveFlag());
+            } else {
+                sql.append(" AND exclusiveFlag IS NULL");
+            }
+        } else if (edit.getExpected() != null) {
+            for (Map.Entry<String, String> expected : new TreeMap<>(edit.getExpected()).entrySet()) {
+                if (expected.getValue() != null) {
+                    sql.append(" AND ").append(expected.getKey()).append(" = ?");
+                    params.add(expected.getValue());
+                } else {
+                    sql.append(" AND ").append(expected.getKey()).append(" IS NULL");
+                }
+            }
+        }
+        return new Row(edit.getTable(), edit.getObjectID(), sql.toString(), params.toArray(),
+                new TreeMap<>(edit.getValues()), newFlag);
+    }
+
+    /**
+     * 更新件数が返らなかった行が更新済みか（現在の行の新しい exclusiveFlag、または更新した列の値が一致する）
+     *
+     * @param current 現在の行の列名 → 値（行が無い場合は null）
+     */
+    static boolean confirms(Row row, Map<String, String> current) {
+        if (current == null) {
+            return false;
+        }
+        if (row.newExclusiveFlag != null) {
+            return row.newExclusiveFlag.equals(current.get(EXCLUSIVE_FLAG));
+        }
+        for (Map.Entry<String, String> value : row.values.entrySet()) {
+            if (!Objects.equals(value.getValue(), current.get(value.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --- 実行 ---
+
+    /**
+     * 1チャンクを1トランザクションで実行する。バッチが失敗した場合は取り消して1行ずつ再実行する
+     */
+    private void applyChunk(JdbcTemplate jdbc, List<Row> chunk, Outcome outcome) {
+        try {
+            jdbc.execute((ConnectionCallback<Void>) con -> {
+                boolean autoCommit = con.getAutoCommit();
+                con.setAutoCommit(false);
+                try {
+                    int[] counts = executeBatches(con, chunk);
+                    con.commit();
+                    for (int i = 0; i < chunk.size(); i++) {
+                        outcome.record(chunk.get(i), counts[i]);
+                    }
+                } catch (SQLException e) {
+                    con.rollback();
+                    retriedChunks.incrementAndGet();
+                    for (Row row : chunk) {
+                        try (PreparedStatement ps = con.prepareStatement(row.sql)) {
+                            bind(ps, row.params);
+                            int count = ps.executeUpdate();
+                            con.commit();
+                            outcome.record(row, count);
+                        } catch (SQLException rowError) {
+                            con.rollback();
+                            outcome.conflict(row.table, row.objectID, "error", rowError.getMessage());
+                        }
+                    }
+                } finally {
+                    con.setAutoCommit(autoCommit);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // 接続できないなど、チャンク全体が実行できなかった
+            for (Row row : chunk) {
+                outcome.conflict(row.table, row.objectID, "error", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 同じ UPDATE 文の行を1つのバッチにまとめて実行し、行ごとの更新件数を返す
+     */
+    private static int[] executeBatches(Connection con, List<Row> chunk) throws SQLException {
+        Map<String, List<Integer>> bySql = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            bySql.computeIfAbsent(chunk.get(i).sql, s -> new ArrayList<>()).add(i);
+        }
+        int[] counts = new int[chunk.size()];
+        for (Map.Entry<String, List<Integer>> group : bySql.entrySet()) {
+            try (PreparedStatement ps = con.prepareStatement(group.getKey())) {
+                for (int index : group.getValue()) {
+                    bind(ps, chunk.get(index).params);
+                    ps.addBatch();
+                }
+                int[] result = ps.executeBatch();
+                for (int i = 0; i < result.length; i++) {
+                    counts[group.getValue().get(i)] = result[i];
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static void bind(PreparedStatement ps, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            ps.setObject(i + 1, params[i]);
+        }
+    }
+
+    /**
+     * 更新件数が返らなかった (SUCCESS_NO_INFO) 行を現在の行と照合し、更新済みでなければ不一致として分類に回す
+     */
+    private void confirmUnknown(JdbcTemplate jdbc, Outcome outcome) {
+        for (Map.Entry<String, List<Row>> entry : byTable(outcome.unknown).entrySet()) {
+            List<Row> rows = entry.getValue();
+            Map<String, Map<String, String>> current;
+            try {
+                current = lookup(jdbc, entry.getKey(), rows);
+            } catch (RuntimeException e) {
+                for (Row row : rows) {
+                    outcome.conflict(row.table, row.objectID, "error", "update result is unknown: " + e.getMessage());
+                }
+                continue;
+            }
+            for (Row row : rows) {
+                if (confirms(row, current.get(row.objectID))) {
+                    outcome.applied(row);
+                } else {
+                    outcome.unmatched.add(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * 更新件数が 0 の行を、現在の行の有無と exclusiveFlag から not_found / stale に分類する
+     */
+    private void classifyUnmatched(JdbcTemplate jdbc, Outcome outcome) {
+        for (Map.Entry<String, List<Row>> entry : byTable(outcome.unmatched).entrySet()) {
+            boolean errors = ERRORS.equals(entry.getKey());
+            List<Row> rows = entry.getValue();
+            Map<String, Map<String, String>> current;
+            try {
+                current = lookup(jdbc, entry.getKey(), rows);
+            } catch (RuntimeException e) {
+                for (Row row : rows) {
+                    outcome.conflict(row.table, row.objectID, "error", "row was not updated: " + e.getMessage());
+                }
+                continue;
+            }
+            for (Row row : rows) {
+                if (!current.containsKey(row.objectID)) {
+                    outcome.conflict(row.table, row.objectID, "not_found", "row does not exist");
+                } else {
+                    BulkEditResultDto.Conflict conflict = outcome.conflict(row.table, row.objectID, "stale",
+                            errors ? "exclusiveFlag does not match" : "expected values do not match");
+                    conflict.setCurrentExclusiveFlag(errors ? current.get(row.objectID).get(EXCLUSIVE_FLAG) : null);
+                }
+            }
+        }
+    }
+
+    private static Map<String, List<Row>> byTable(List<Row> rows) {
+        Map<String, List<Row>> byTable = new TreeMap<>();
+        synchronized (rows) {
+            for (Row row : rows) {
+                byTable.computeIfAbsent(row.table, t -> new ArrayList<>()).add(row);
+            }
+        }
+        return byTable;
+    }
+
+    /**
+     * 現在の行を読む（objectID → 列名 → 値。SError は exclusiveFlag、labels / localizations は country 列）
+     */
+    private static Map<String, Map<String, String>> lookup(JdbcTemplate jdbc, String table, List<Row> rows) {
+        List<String> columns = ERRORS.equals(table) ? List.of(EXCLUSIVE_FLAG) : COUNTRY_COLUMNS;
+        String from = switch (table) {
+            case LABELS -> " FROM SLocalizationLabel WHERE objectID IN (";
+            case LOCALIZATIONS -> " FROM SLocalization WHERE ObjectID IN (";
+            default -> " FROM SError WHERE objectID IN (";
+        };
+        String sql = "SELECT " + (LOCALIZATIONS.equals(table) ? "ObjectID" : "objectID") + ", "
+                + String.join(", ", columns) + from;
+        Map<String, Map<String, String>> current = new HashMap<>();
+        for (int i = 0; i < rows.size(); i += LOOKUP_BATCH) {
+            List<Row> batch = rows.subList(i, Math.min(rows.size(), i + LOOKUP_BATCH));
+            jdbc.query(sql + String.join(",", Collections.nCopies(batch.size(), "?")) + ")",
+                    (RowCallbackHandler) rs -> {
+                        Map<String, String> values = new HashMap<>();
+                        for (int c = 0; c < columns.size(); c++) {
+                            values.put(columns.get(c), rs.getString(c + 2));
+                        }
+                        current.put(rs.getString(1), values);
+                    },
+                    batch.stream().map(row -> row.objectID).toArray());
+        }
+        return current;
+    }
+
+    /**
+     * 1行分の UPDATE
+     */
+    static final class Row {
+        final String table;
+        final String objectID;
+        final String sql;
+        final Object[] params;
+        final Map<String, String> values;
+        final String newExclusiveFlag;
+
+        Row(String table, String objectID, String sql, Object[] params, Map<String, String> values,
+                String newExclusiveFlag) {
+            this.table = table;
+            this.objectID = objectID;
+            this.sql = sql;
+            this.params = params;
+            this.values = values;
+            this.newExclusiveFlag = newExclusiveFlag;
+        }
+    }
+
+    /**
+     * チャンク間で共有する結果の集計
+     */
+    private static final class Outcome {
+        private final AtomicInteger applied = new AtomicInteger();
+        private final List<BulkEditResultDto.Conflict> conflicts = Collections.synchronizedList(new ArrayList<>());
+        private final List<Row> unmatched = Collections.synchronizedList(new ArrayList<>());
+        private final List<Row> unknown = Collections.synchronizedList(new ArrayList<>());
+        private final Map<String, String> exclusiveFlags = new ConcurrentHashMap<>();
+
+        void record(Row row, int count) {
+            if (count > 0) {
+                applied(row);
+            } else if (count == Statement.SUCCESS_NO_INFO) {
+                // ドライバーが件数を返さない（バッチの書き換え等）。後から現在の行で確認する
+                unknown.add(row);
+            } else {
+                unmatched.add(row);
+            }
+        }
+
+        void applied(Row row) {
+            applied.incrementAndGet();
+            if (row.newExclusiveFlag != null) {
+                exclusiveFlags.put(row.objectID, row.newExclusiveFlag);
+            }
+        }
+
+        BulkEditResultDto.Conflict conflict(String table, String objectID, String reason, String message) {
+            BulkEditResultDto.Conflict conflict = new BulkEditResultDto.Conflict(table, objectID, reason, message);
+            conflicts.add(conflict);
+            return conflict;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.backend.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * ID 指定の取得で、分割して取得する ID を DB の objectID 順（DB の照合順序）に並べる
+ * <p>
+ * Java 側の比較 (String#compareTo) は DB の照合順序と一致しない場合があるため、ID どうしの比較は常に DB に任せる
+ * （IN 句 + ORDER BY objectID）。件数によらずメモリ量が一定になるよう、DB による標本ソートとする。
+ * <ol>
+ * <li>分割した IN 句で存在する ID を取得して SpillingSortBuffer に退避し、同時に標本を無作為に抽出する</li>
+ * <li>標本を DB で並べて区切りの ID とし、退避した ID を区切りと一緒に IN 句で並べて、区切りの間の番号（バケット）を付ける</li>
+ * <li>バケット番号（整数）で並べ替え（上限を超えた分はランとして退避して k-way マージ）、バケットごとに DB で並べて渡す。
+ * 分割サイズを超えたバケットは同じ手順で分割する</li>
+ * </ol>
+ * 問い合わせは 1段あたり ID 数 / 分割サイズ の数倍で、バケットは1段ごとに (分割サイズ / 2) 個程度に分かれるため、
+ * 分割サイズ 1000 なら 25 万件程度までは2段で済む。範囲スキャンは行わない。
+ * 渡す ID の分割は分割サイズ以下で、つなげると全体の objectID 順になるため、分割ごとに ORDER BY 付きで取得すれば
+ * 行を保持して並べ替える必要がない。
+ */
+final class ByIdsOrder {
+
+    /** 区切りと ID を1回の問い合わせに収めるための最小の分割サイズ */
+    private static final int MIN_CHUNK_SIZE = 4;
+
+    private ByIdsOrder() {
+    }
+
+    /**
+     * ID の並べ替えに使う問い合わせ
+     */
+    interface Db {
+        /**
+         * ids のうち存在する objectID を重複なしで objectID 順に取得（ids は分割サイズ以下）
+         */
+        List<String> existing(List<String> ids);
+    }
+
+    /**
+     * 存在する ID を重複なしで objectID 順に、分割サイズ以下の分割ごとに渡す
+     */
+    static void order(Db db, List<String> objectIDs, int chunkSize, SpillSortService spillSort,
+            Consumer<List<String>> consumer) throws IOException {
+        order(db, objectIDs::forEach, false, Math.max(MIN_CHUNK_SIZE, chunkSize), spillSort, consumer);
+    }
+
+    /**
+     * @param verified ids が存在を確認済みの ID（DB に格納された表記）の場合は true（分割したバケットの再帰）
+     */
+    private static void order(Db db, Source ids, boolean verified, int size, SpillSortService spillSort,
+            Consumer<List<String>> consumer) throws IOException {
+        // 1. 存在する ID（DB に格納された表記）の退避と標本の抽出
+        int sampleSize = size / 2;
+        List<String> sample = new ArrayList<>(sampleSize);
+        List<String> first = new ArrayList<>();
+        int[] chunks = { 0 };
+        long[] present = { 0 };
+        try (SpillingSortBuffer<String> existing = spillSort.newBuffer(UNORDERED, ID_CODEC)) {
+            forEachChunk(ids, size, chunk -> {
+                List<String> found = verified ? chunk : db.existing(chunk);
+                if (chunks[0]++ == 0) {
+                    first.addAll(found);
+                }
+                for (String id : found) {
+                    long seen = present[0]++;
+                    if (seen < sampleSize) {
+                        sample.add(id);
+                    } else {
+                        long slot = ThreadLocalRandom.current().nextLong(seen + 1);
+                        if (slot < sampleSize) {
+                            sample.set((int) slot, id);
+                        }
+                    }
+                    add(existing, id);
+                }
+            });
+            if (present[0] == 0) {
+                return;
+            }
+            if (chunks[0] == 1 && !verified) {
+                // 1回の問い合わせで並べ済み
+                consumer.accept(first);
+                return;
+            }
+            first.clear();
+            if (present[0] <= size) {
+                List<String> all = new ArrayList<>((int) present[0]);
+                existing.forEachSorted(all::add);
+                emit(db, all, consumer);
+                return;
+            }
+
+            // 2. 区切り（バケットの平均が分割サイズの半分になる数を、並べた標本から等間隔に選ぶ）
+            List<String> sorted = db.existing(sample);
+            if (sorted.isEmpty()) {
+                // 標本がすべて削除された（選択した ID が問い合わせの間に削除された）
+                return;
+            }
+            int splitterCount = (int) Math.min(sorted.size(), Math.max(1, present[0] * 2 / size));
+            Map<String, Integer> splitters = new HashMap<>();
+            List<String> splitterList = new ArrayList<>(splitterCount);
+            for (int i = 0; i < splitterCount; i++) {
+                String splitter = sorted.get((int) ((long) i * sorted.size() / splitterCount));
+                splitters.put(splitter, splitterList.size());
+                splitterList.add(splitter);
+            }
+            try (SpillingSortBuffer<Bucketed> bucketed = spillSort.newBuffer(BY_BUCKET, BUCKETED_CODEC)) {
+                // 区切りの ID 自身は、その区切りから始まるバケットの先頭に1回だけ加える
+                for (int i = 0; i < splitterList.size(); i++) {
+                    add(bucketed, new Bucketed(i + 1, splitterList.get(i)));
+                }
+                forEachChunk(existing::forEachSorted, size - splitterList.size(), chunk -> {
+                    List<String> query = new ArrayList<>(chunk.size() + splitterList.size());
+                    query.addAll(chunk);
+                    query.addAll(splitterList);
+                    int bucket = 0;
+                    for (String id : db.existing(query)) {
+                        Integer splitter = splitters.get(id);
+                        if (splitter != null) {
+                            bucket = splitter + 1;
+                        } else {
+                            add(bucketed, new Bucketed(bucket, id));
+                        }
+                    }
+                });
+                existing.close();
+
+                // 3. バケット順に、バケットごとに並べて渡す
+                BucketCollector collector = new BucketCollector(db, size, spillSort, consumer);
+                bucketed.forEachSorted(collector);
+                collector.flush();
+            }
+        }
+    }
+
+    private static void emit(Db db, List<String> ids, Consumer<List<String>> consumer) {
+        List<String> ordered = db.existing(ids);
+        if (!ordered.isEmpty()) {
+            consumer.accept(ordered);
+        }
+    }
+
+    /**
+     * 同じバケットの ID を集め、バケットが変わるたびに並べて渡す（分割サイズを超えたバケットは退避して再帰的に並べる）
+     */
+    private static final class BucketCollector implements Consumer<Bucketed> {
+        private final Db db;
+        private final int size;
+        private final SpillSortService spillSort;
+        private final Consumer<List<String>> consumer;
+        private int bucket = -1;
+        private List<String> ids = new ArrayList<>();
+        private SpillingSortBuffer<String> overflow;
+
+        BucketCollector(Db db, int size, SpillSortService spillSort, Consumer<List<String>> consumer) {
+            this.db = db;
+            this.size = size;
+            this.spillSort = spillSort;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void accept(Bucketed row) {
+            if (row.bucket != bucket) {
+                flush();
+                bucket = row.bucket;
+            }
+            if (overflow != null) {
+                add(overflow, row.id);
+            } else if (ids.size() < size) {
+                ids.add(row.id);
+            } else {
+                overflow = spillSort.newBuffer(UNORDERED, ID_CODEC);
+                ids.forEach(id -> add(overflow, id));
+                ids = new ArrayList<>();
+                add(overflow, row.id);
+            }
+        }
+
+        void flush() {
+            try {
+                if (overflow != null) {
+                    try (SpillingSortBuffer<String> bucketIds = overflow) {
+                        overflow = null;
+                        order(db, bucketIds::forEachSorted, true, size, spillSort, consumer);
+                    }
+                } else if (!ids.isEmpty()) {
+                    emit(db, ids, consumer);
+                    ids = new ArrayList<>();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // --- 入力と退避 ---
+
+    /**
+     * ID を1回だけ順に渡す入力
+     */
+    @FunctionalInterface
+    private interface Source {
+        void forEach(Consumer<String> consumer) throws IOException;
+    }
+
+    private static void forEachChunk(Source ids, int size, Consumer<List<String>> consumer) throws IOException {
+        List<String> chunk = new ArrayList<>(size);
+        try {
+            ids.forEach(id -> {
+                chunk.add(id);
+                if (chunk.size() >= size) {
+                    consumer.accept(chunk);
+                    chunk.clear();
+                }
+            });
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> void add(SpillingSortBuffer<T> buffer, T row) {
+        try {
+            buffer.add(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** 退避するだけで並べ替えない（順序を問わない ID の集合） */
+    private static final Comparator<String> UNORDERED = (a, b) -> 0;
+
+    private static final SpillingSortBuffer.RowCodec<String> ID_CODEC = new SpillingSortBuffer.RowCodec<>() {
+        @Override
+        public String[] toFields(String id) {
+            return new String[] { id };
+        }
+
+        @Override
+        public String fromFields(String[] fields) {
+            return fields[0];
+        }
+    };
+
+    /**
+     * バケット番号を付けた ID（バケット番号は DB が決めた順序のため、整数の比較で並べてよい）
+     */
+    private record Bucketed(int bucket, String id) {
+    }
+
+    private static final Comparator<Bucketed> BY_BUCKET = Comparator.comparingInt(Bucketed::bucket);
+
+    private static final SpillingSortBuffer.RowCodec<Bucketed> BUCKETED_CODEC = new SpillingSortBuffer.RowCodec<>() {
+        @Override
+        public String[] toFields(Bucketed row) {
+            return new String[] { Integer.toString(row.bucket), row.id };
+        }
+
+        @Override
+        public Bucketed fromFields(String[] fields) {
+            return new Bucketed(Integer.parseInt(fields[0]), fields[1]);
+        }
+    };
+
+    /**
+     * table の objectID 列を問い合わせる Db
+     */
+    static Db jdbc(JdbcTemplate jdbc, String table) {
+        return ids -> jdbc.queryForList("SELECT objectID FROM " + table + " WHERE objectID IN ("
+                + String.join(",", Collections.nCopies(ids.size(), "?")) + ") ORDER BY objectID",
+                String.class, ids.toArray());
+    }
+}
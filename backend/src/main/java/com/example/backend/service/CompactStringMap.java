@@ -0,0 +1,95 @@
+package com.example.backend.service;
+
+import java.util.Arrays;
+
+/**
+ * String キーから行番号を引く読み取り専用のオープンアドレス法ハッシュ表
+ * <p>
+ * 構築後は変更しないため、複数スレッドからロック無しで参照できる。
+ * 容量は 2 のべき乗で負荷率 0.5 以下に保ち、線形探索で衝突を解決する。
+ * 同じキーが複数回登録された場合は最初の行が優先される。
+ */
+public final class CompactStringMap {
+
+    private final String[] keys;
+    private final int[] hashes;
+    private final int[] rows;
+    private final int mask;
+    private final int size;
+    private final int duplicates;
+
+    /**
+     * @param keys 行番号順のキー（null のキーは登録しない）
+     */
+    public CompactStringMap(String[] keys) {
+        int capacity = Integer.highestOneBit(Math.max(4, keys.length * 2 - 1)) << 1;
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.rows = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(this.rows, -1);
+
+        int count = 0;
+        int duplicateCount = 0;
+        for (int row = 0; row < keys.length; row++) {
+            String key = keys[row];
+            if (key == null) {
+                continue;
+            }
+            int hash = spread(key.hashCode());
+            int slot = hash & mask;
+            boolean duplicate = false;
+            while (this.rows[slot] >= 0) {
+                if (this.hashes[slot] == hash && this.keys[slot].equals(key)) {
+                    duplicate = true;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (duplicate) {
+                duplicateCount++;
+                continue;
+            }
+            this.keys[slot] = key;
+            this.hashes[slot] = hash;
+            this.rows[slot] = row;
+            count++;
+        }
+        this.size = count;
+        this.duplicates = duplicateCount;
+    }
+
+    /**
+     * キーに対応する行番号（無い場合は -1）
+     */
+    public int indexOf(String key) {
+        int hash = spread(key.hashCode());
+        int slot = hash & mask;
+        int row;
+        while ((row = rows[slot]) >= 0) {
+            if (hashes[slot] == hash && keys[slot].equals(key)) {
+                return row;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 重複のため登録されなかったキーの数
+     */
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    private static int spread(int h) {
+        // 上位ビットを下位へ混ぜ、連番に近いキーの偏りを抑える
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+}
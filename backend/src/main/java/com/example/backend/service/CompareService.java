@@ -0,0 +1,552 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CompareRequestDto;
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.dto.FilterDto;
+import com.example.backend.entity.SLocalizationLabel;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 2つの接続先の SLocalizationLabel / SError の比較
+ * <p>
+ * 両側を objectID 順に別スレッドでストリーミング読み出しし、行ハッシュを使ったソート済みマージで差分を求める。
+ * 読み出した行は容量固定のキューを介して受け渡すため、メモリ使用量は行数によらず一定。
+ * 差分は1行1オブジェクトの NDJSON として逐次書き出し、最後に言語ごとの件数を含むサマリーを出力する。
+ */
+@Service
+public class CompareService {
+
+    public static final String TARGET_LABELS = ExportJobService.TARGET_LABELS;
+    public static final String TARGET_ERROR_MESSAGES = ExportJobService.TARGET_ERROR_MESSAGES;
+
+    private static final Set<String> LANGUAGES = Set.of("country1", "country2", "country3", "country4", "country5");
+    private static final KeyRange ALL_KEYS = new KeyRange(null, null, 0);
+
+    private final SLocalizationLabelService labelService;
+    private final ErrorMessageService errorMessageService;
+    private final int batchSize;
+    private final int queueBatches;
+    private final int flushLines;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public CompareService(SLocalizationLabelService labelService, ErrorMessageService errorMessageService,
+            @Value("${compare.batch-size:500}") int batchSize,
+            @Value("${compare.queue-batches:4}") int queueBatches,
+            @Value("${compare.flush-lines:1000}") int flushLines,
+            @Value("${compare.max-concurrent:2}") int maxConcurrent) {
+        this.labelService = labelService;
+        this.errorMessageService = errorMessageService;
+        this.batchSize = Math.max(1, batchSize);
+        this.queueBatches = Math.max(1, queueBatches);
+        this.flushLines = Math.max(1, flushLines);
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "compare-scan-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * リクエストの検証（出力開始前に呼び出し、不正な場合は IllegalArgumentException）
+     */
+    public void validate(CompareRequestDto request) {
+        if (!TARGET_LABELS.equals(request.getTarget()) && !TARGET_ERROR_MESSAGES.equals(request.getTarget())) {
+            throw new IllegalArgumentException("Unsupported target: " + request.getTarget());
+        }
+        if (request.getLeft() == null || request.getRight() == null) {
+            throw new IllegalArgumentException("left / right の接続情報が必要です");
+        }
+        if (request.getLanguages() == null || request.getLanguages().isEmpty()) {
+            throw new IllegalArgumentException("languages が空です");
+        }
+        for (String lang : request.getLanguages()) {
+            if (!LANGUAGES.contains(lang)) {
+                throw new IllegalArgumentException("Unsupported language: " + lang);
+            }
+        }
+    }
+
+    /**
+     * 比較を実行し、差分を NDJSON で書き出す
+     * 同時実行数の上限を超えた場合は IllegalStateException
+     */
+    public void compare(CompareRequestDto request, OutputStream out) throws IOException {
+        validate(request);
+        if (!permits.tryAcquire()) {
+            throw new IllegalStateException("比較処理の同時実行数が上限に達しています");
+        }
+        try {
+            FilterDto filter = request.getFilter();
+            if (TARGET_LABELS.equals(request.getTarget())) {
+                run(request, out, LABEL_ROWS,
+                        (config, consumer) -> labelService.scanLabelRange(config, filter, ALL_KEYS, consumer));
+            } else {
+                run(request, out, ERROR_MESSAGE_ROWS,
+                        (config, consumer) -> errorMessageService.scanErrorMessageRange(config, filter, ALL_KEYS,
+                                consumer));
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Scanner<T> {
+        void scan(Map<String, Object> config, Consumer<T> consumer);
+    }
+
+    private <T> void run(CompareRequestDto request, OutputStream out, RowAdapter<T> adapter, Scanner<T> scanner)
+            throws IOException {
+        long started = System.currentTimeMillis();
+        Map<String, Object> leftConfig = request.getLeft().asDbConfigMap();
+        Map<String, Object> rightConfig = request.getRight().asDbConfigMap();
+        ScanStream<T> left = new ScanStream<>("left", batchSize, queueBatches);
+        ScanStream<T> right = new ScanStream<>("right", batchSize, queueBatches);
+        left.start(executor, consumer -> scanner.scan(leftConfig, consumer));
+        right.start(executor, consumer -> scanner.scan(rightConfig, consumer));
+
+        JsonGenerator gen = jsonFactory.createGenerator(out);
+        gen.setRootValueSeparator(null);
+        NdjsonWriter<T> writer = new NdjsonWriter<>(gen, adapter, request.getLanguages(), request.isIncludeValues(),
+                flushLines);
+        try {
+            DiffSummary summary = diff(left, right, adapter, request.getLanguages(), writer);
+            writer.summary(summary, System.currentTimeMillis() - started);
+        } catch (UncheckedIOException e) {
+            // クライアント切断など。読み出しは finally で止める
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            System.err.println("Compare failed: " + e.getMessage());
+            writer.error(e.getMessage());
+        } finally {
+            left.cancel();
+            right.cancel();
+            gen.flush();
+        }
+    }
+
+    // --- ソート済みマージ ---
+
+    /**
+     * 行から比較に使う値を取り出す
+     */
+    interface RowAdapter<T> {
+        String objectID(T row);
+
+        String key(T row);
+
+        String hash(T row);
+
+        String value(T row, String lang);
+    }
+
+    /**
+     * objectID 昇順の行の列（終端で null）
+     */
+    @FunctionalInterface
+    interface RowSource<T> {
+        T next();
+    }
+
+    /**
+     * 差分1件ごとの通知先
+     */
+    interface DiffListener<T> {
+        void added(T right);
+
+        void removed(T left);
+
+        void changed(T left, T right, List<String> languages);
+    }
+
+    static final RowAdapter<SLocalizationLabel> LABEL_ROWS = new RowAdapter<>() {
+        @Override
+        public String objectID(SLocalizationLabel row) {
+            return row.getObjectID();
+        }
+
+        @Override
+        public String key(SLocalizationLabel row) {
+            return ExportManifest.outputKey(row);
+        }
+
+        @Override
+        public String hash(SLocalizationLabel row) {
+            return ExportManifest.rowHash(row);
+        }
+
+        @Override
+        public String value(SLocalizationLabel row, String lang) {
+            return OutputEncoder.labelValue(row, lang);
+        }
+    };
+
+    static final RowAdapter<ErrorMessageDto> ERROR_MESSAGE_ROWS = new RowAdapter<>() {
+        @Override
+        public String objectID(ErrorMessageDto row) {
+            return row.getObjectID();
+        }
+
+        @Override
+        public String key(ErrorMessageDto row) {
+            return ExportManifest.outputKey(row);
+        }
+
+        @Override
+        public String hash(ErrorMessageDto row) {
+            return ExportManifest.rowHash(row);
+        }
+
+        @Override
+        public String value(ErrorMessageDto row, String lang) {
+            return OutputEncoder.errorMessage(row, lang);
+        }
+    };
+
+    /**
+     * objectID 昇順の2つの列をマージして差分を通知する。
+     * ハッシュが一致する行は文言を比較せずに一致とみなし、異なる行だけ言語ごとに比較する。
+     * 文言以外 (分類・エラー番号など) のみが異なる行は languages が空の changed となる。
+     * 並び順が String の比較順と異なる場合 (DB の照合順序の違い) は正しくマージできないため中断する
+     */
+    static <T> DiffSummary diff(RowSource<T> left, RowSource<T> right, RowAdapter<T> adapter,
+            List<String> languages, DiffListener<T> listener) {
+        DiffSummary summary = new DiffSummary(languages);
+        OrderGuard<T> leftRows = new OrderGuard<>("left", left, adapter);
+        OrderGuard<T> rightRows = new OrderGuard<>("right", right, adapter);
+        T l = leftRows.next();
+        T r = rightRows.next();
+        List<String> changedLanguages = new ArrayList<>(languages.size());
+        while (l != null || r != null) {
+            int c = l == null ? 1 : r == null ? -1 : adapter.objectID(l).compareTo(adapter.objectID(r));
+            if (c < 0) {
+                summary.removed++;
+                summary.leftRows++;
+                listener.removed(l);
+                l = leftRows.next();
+            } else if (c > 0) {
+                summary.added++;
+                summary.rightRows++;
+                listener.added(r);
+                r = rightRows.next();
+            } else {
+                summary.leftRows++;
+                summary.rightRows++;
+                if (adapter.hash(l).equals(adapter.hash(r))) {
+                    summary.unchanged++;
+                } else {
+                    changedLanguages.clear();
+                    for (String lang : languages) {
+                        if (!Objects.equals(adapter.value(l, lang), adapter.value(r, lang))) {
+                            changedLanguages.add(lang);
+                            summary.changedByLanguage.merge(lang, 1L, Long::sum);
+                        }
+                    }
+                    summary.changed++;
+                    listener.changed(l, r, Collections.unmodifiableList(changedLanguages));
+                }
+                l = leftRows.next();
+                r = rightRows.next();
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * 比較結果の件数
+     */
+    static final class DiffSummary {
+        long leftRows;
+        long rightRows;
+        long added;
+        long removed;
+        long changed;
+        long unchanged;
+        final Map<String, Long> changedByLanguage = new LinkedHashMap<>();
+
+        DiffSummary(List<String> languages) {
+            for (String lang : languages) {
+                changedByLanguage.put(lang, 0L);
+            }
+        }
+    }
+
+    /**
+     * objectID が厳密に昇順であることを確認しながら行を取り出す
+     */
+    private static final class OrderGuard<T> {
+        private final String side;
+        private final RowSource<T> source;
+        private final RowAdapter<T> adapter;
+        private String previous;
+
+        OrderGuard(String side, RowSource<T> source, RowAdapter<T> adapter) {
+            this.side = side;
+            this.source = source;
+            this.adapter = adapter;
+        }
+
+        T next() {
+            T row = source.next();
+            if (row != null) {
+                String objectID = adapter.objectID(row);
+                if (previous != null && objectID.compareTo(previous) <= 0) {
+                    throw new IllegalStateException(side + " の objectID の並び順が比較順と一致しません ("
+                            + previous + " → " + objectID + ")。照合順序の異なる DB 同士は比較できません");
+                }
+                previous = objectID;
+            }
+            return row;
+        }
+    }
+
+    // --- 読み出し ---
+
+    /**
+     * 別スレッドで読み出した行をバッチ単位で受け渡す有界キュー。
+     * 受け手が遅い場合は読み出し側が待機し、取り消し後は読み出し側のコールバックで例外を投げて SQL を中断する
+     */
+    private static final class ScanStream<T> implements RowSource<T> {
+        private final List<T> end = new ArrayList<>();
+        private final String side;
+        private final int batchSize;
+        private final BlockingQueue<List<T>> queue;
+        private volatile boolean cancelled;
+        private volatile Throwable failure;
+        private Iterator<T> current = Collections.emptyIterator();
+        private boolean ended;
+        private List<T> batch;
+
+        ScanStream(String side, int batchSize, int queueBatches) {
+            this.side = side;
+            this.batchSize = batchSize;
+            this.queue = new ArrayBlockingQueue<>(queueBatches + 1);
+        }
+
+        void start(ExecutorService executor, Consumer<Consumer<T>> scan) {
+            executor.execute(() -> {
+                batch = new ArrayList<>(batchSize);
+                try {
+                    scan.accept(row -> {
+                        batch.add(row);
+                        if (batch.size() >= batchSize) {
+                            put(batch);
+                            batch = new ArrayList<>(batchSize);
+                        }
+                    });
+                    if (!batch.isEmpty()) {
+                        put(batch);
+                    }
+                } catch (Throwable t) {
+                    failure = t;
+                } finally {
+                    batch = null;
+                    try {
+                        put(end);
+                    } catch (CancellationException ignored) {
+                        // 受け手は既に終了している
+                    }
+                }
+            });
+        }
+
+        private void put(List<T> rows) {
+            try {
+                while (!queue.offer(rows, 100, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) {
+                        throw new CancellationException("比較が中断されました");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("比較が中断されました");
+            }
+        }
+
+        @Override
+        public T next() {
+            while (!current.hasNext()) {
+                if (ended) {
+                    return null;
+                }
+                List<T> rows;
+                try {
+                    rows = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("比較が中断されました");
+                }
+                if (rows == end) {
+                    ended = true;
+                    if (failure != null) {
+                        throw new IllegalStateException(side + " の読み出しに失敗しました: " + failure.getMessage(),
+                                failure);
+                    }
+                    return null;
+                }
+                current = rows.iterator();
+            }
+            return current.next();
+        }
+
+        void cancel() {
+            cancelled = true;
+            queue.clear();
+        }
+    }
+
+    // --- NDJSON 出力 ---
+
+    /**
+     * 差分を1行1オブジェクトで書き出す
+     * <pre>
+     * {"type":"added","objectID":"...","key":"..."}
+     * {"type":"changed","objectID":"...","key":"...","languages":["country1"],"left":{...},"right":{...}}
+     * {"type":"summary", ...}
+     * </pre>
+     */
+    private static final class NdjsonWriter<T> implements DiffListener<T> {
+        private final JsonGenerator gen;
+        private final RowAdapter<T> adapter;
+        private final List<String> languages;
+        private final boolean includeValues;
+        private final int flushLines;
+        private int pending;
+
+        NdjsonWriter(JsonGenerator gen, RowAdapter<T> adapter, List<String> languages, boolean includeValues,
+                int flushLines) {
+            this.gen = gen;
+            this.adapter = adapter;
+            this.languages = languages;
+            this.includeValues = includeValues;
+            this.flushLines = flushLines;
+        }
+
+        @Override
+        public void added(T right) {
+            row("added", right);
+        }
+
+        @Override
+        public void removed(T left) {
+            row("removed", left);
+        }
+
+        @Override
+        public void changed(T left, T right, List<String> changedLanguages) {
+            try {
+                begin("changed", right);
+                gen.writeArrayFieldStart("languages");
+                for (String lang : changedLanguages) {
+                    gen.writeString(lang);
+                }
+                gen.writeEndArray();
+                if (!adapter.key(left).equals(adapter.key(right))) {
+                    gen.writeStringField("leftKey", adapter.key(left));
+                }
+                if (includeValues && !changedLanguages.isEmpty()) {
+                    values("left", left, changedLanguages);
+                    values("right", right, changedLanguages);
+                }
+                end();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void summary(DiffSummary summary, long elapsedMillis) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("type", "summary");
+            gen.writeNumberField("leftRows", summary.leftRows);
+            gen.writeNumberField("rightRows", summary.rightRows);
+            gen.writeNumberField("added", summary.added);
+            gen.writeNumberField("removed", summary.removed);
+            gen.writeNumberField("changed", summary.changed);
+            gen.writeNumberField("unchanged", summary.unchanged);
+            gen.writeObjectFieldStart("changedByLanguage");
+            for (String lang : languages) {
+                gen.writeNumberField(lang, summary.changedByLanguage.get(lang));
+            }
+            gen.writeEndObject();
+            gen.writeNumberField("elapsedMillis", elapsedMillis);
+            end();
+        }
+
+        void error(String message) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("type", "error");
+            gen.writeStringField("message", message);
+            end();
+        }
+
+        private void row(String type, T row) {
+            try {
+                begin(type, row);
+                end();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void begin(String type, T row) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("type", type);
+            gen.writeStringField("objectID", adapter.objectID(row));
+            gen.writeStringField("key", adapter.key(row));
+        }
+
+        private void values(String field, T row, List<String> changedLanguages) throws IOException {
+            gen.writeObjectFieldStart(field);
+            for (String lang : changedLanguages) {
+                gen.writeStringField(lang, adapter.value(row, lang));
+            }
+            gen.writeEndObject();
+        }
+
+        private void end() throws IOException {
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+            if (++pending >= flushLines) {
+                gen.flush();
+                pending = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.backend.service;
+
+/**
+ * 接続先1件の直近の確認結果（不変）
+ */
+public final class ConnectionHealth {
+
+    private final ConnectionHealthMonitor.State state;
+    private final long checkedAt;
+    private final long connectMillis;
+    private final long rttMicros;
+    private final String driverVersion;
+    private final String serverVersion;
+    private final String error;
+    private final int consecutiveFailures;
+    private final boolean authFailure;
+
+    private ConnectionHealth(ConnectionHealthMonitor.State state, long checkedAt, long connectMillis, long rttMicros,
+            String driverVersion, String serverVersion, String error, int consecutiveFailures, boolean authFailure) {
+        this.state = state;
+        this.checkedAt = checkedAt;
+        this.connectMillis = connectMillis;
+        this.rttMicros = rttMicros;
+        this.driverVersion = driverVersion;
+        this.serverVersion = serverVersion;
+        this.error = error;
+        this.consecutiveFailures = consecutiveFailures;
+        this.authFailure = authFailure;
+    }
+
+    static ConnectionHealth unknown() {
+        return new ConnectionHealth(ConnectionHealthMonitor.State.UNKNOWN, 0, -1, -1, null, null, null, 0, false);
+    }
+
+    static ConnectionHealth up(long connectMillis, long rttMicros, String driverVersion, String serverVersion) {
+        return new ConnectionHealth(ConnectionHealthMonitor.State.UP, System.currentTimeMillis(), connectMillis,
+                rttMicros, driverVersion, serverVersion, null, 0, false);
+    }
+
+    static ConnectionHealth down(String error) {
+        return new ConnectionHealth(ConnectionHealthMonitor.State.DOWN, System.currentTimeMillis(), -1, -1, null,
+                null, error, 1, false);
+    }
+
+    /**
+     * 認証に失敗した（ユーザー名・パスワードが誤っている）
+     */
+    static ConnectionHealth authFailed(String error) {
+        return new ConnectionHealth(ConnectionHealthMonitor.State.DOWN, System.currentTimeMillis(), -1, -1, null,
+                null, error, 1, true);
+    }
+
+    ConnectionHealth withConsecutiveFailures(int failures) {
+        return new ConnectionHealth(state, checkedAt, connectMillis, rttMicros, driverVersion, serverVersion, error,
+                failures, authFailure);
+    }
+
+    public ConnectionHealthMonitor.State getState() {
+        return state;
+    }
+
+    public boolean isUp() {
+        return state == ConnectionHealthMonitor.State.UP;
+    }
+
+    /**
+     * 確認した時刻（エポックミリ秒、未確認は 0）
+     */
+    public long getCheckedAt() {
+        return checkedAt;
+    }
+
+    /**
+     * 物理接続の確立にかかった時間（ミリ秒、失敗時は -1）
+     */
+    public long getConnectMillis() {
+        return connectMillis;
+    }
+
+    /**
+     * 接続の検証 (Connection#isValid) の往復時間（マイクロ秒、失敗時は -1）
+     */
+    public long getRttMicros() {
+        return rttMicros;
+    }
+
+    public String getDriverVersion() {
+        return driverVersion;
+    }
+
+    public String getServerVersion() {
+        return serverVersion;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * 認証に失敗したため、バックグラウンドでの確認を止めている
+     */
+    public boolean isAuthFailure() {
+        return authFailure;
+    }
+}
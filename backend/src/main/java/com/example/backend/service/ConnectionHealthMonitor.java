@@ -0,0 +1,490 @@
+package com.example.backend.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 登録済みの接続先の死活監視
+ * <p>
+ * 接続確認 (/api/db/test) や取得処理で使われた接続先を登録し、バックグラウンドで probe-interval-millis ごとに
+ * 短い接続タイムアウトで接続・往復時間・ドライバ / サーバーのバージョンを確認する。
+ * 接続確認はこの状態から即座に応答し、取得処理は到達できないと分かっている接続先に対して
+ * TCP 接続タイムアウトを待たずに {@link ConnectionUnavailableException} で失敗する。
+ * 一定時間使われなかった接続先は監視対象から外し、{@link EvictionListener} に通知して接続先ごとのプールを解放させる。
+ * <p>
+ * 到達できない接続先は連続失敗回数に応じて確認間隔を max-backoff-millis まで倍々に延ばす。
+ * 認証に失敗した接続先 (SQLState 28xxx 等) はアカウントのロックを避けるためバックグラウンドでの確認を止め、
+ * 接続確認で再確認 (refresh) されるまで取得処理を即座に失敗させる（パスワードが変われば別の接続先になる）。
+ * <p>
+ * 接続先はパスワードのハッシュを含むキー (DBConnectionService#connectionKey) で識別し、パスワードは保持しない。
+ * 接続確認・取得処理からの確認は呼び出し元の接続設定で行い、バックグラウンドの確認は関連付けたプールの資格情報で行う
+ * （プールの無い接続先はバックグラウンドでは確認しない）。
+ */
+@Component
+public class ConnectionHealthMonitor {
+
+    public enum State {
+        UNKNOWN, UP, DOWN
+    }
+
+    /**
+     * 監視対象から外す接続先の通知（接続先ごとに保持しているプールの解放用）
+     */
+    @FunctionalInterface
+    public interface EvictionListener {
+        /**
+         * @param key 接続先 (DBConnectionService#connectionKey)
+         * @return 使用中のため解放しなかった場合は false（監視対象に残し、次の期限まで待つ）
+         */
+        boolean evict(String key);
+    }
+
+    /**
+     * 1回の確認処理（テストで差し替えられるよう分離）。config は確認の間だけ使い、保持しない
+     */
+    @FunctionalInterface
+    interface Prober {
+        ConnectionHealth probe(Map<String, Object> config, int timeoutMillis);
+    }
+
+    private final boolean enabled;
+    private final long probeIntervalMillis;
+    private final int probeTimeoutMillis;
+    private final int failFastAfter;
+    private final long evictAfterMillis;
+    private final long maxBackoffMillis;
+    private final int probeThreads;
+    private final Prober prober;
+
+    private final Map<String, Target> targets = new ConcurrentHashMap<>();
+    private final List<EvictionListener> evictionListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong probes = new AtomicLong();
+    private final AtomicLong failedProbes = new AtomicLong();
+    private final AtomicLong failFasts = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService probeExecutor;
+
+    @Autowired
+    public ConnectionHealthMonitor(@Value("${db.health.enabled:true}") boolean enabled,
+            @Value("${db.health.probe-interval-millis:15000}") long probeIntervalMillis,
+            @Value("${db.health.probe-timeout-millis:3000}") int probeTimeoutMillis,
+            @Value("${db.health.fail-fast-after:2}") int failFastAfter,
+            @Value("${db.health.evict-after-millis:1800000}") long evictAfterMillis,
+            @Value("${db.health.max-backoff-millis:300000}") long maxBackoffMillis,
+            @Value("${db.health.probe-threads:2}") int probeThreads) {
+        this(enabled, probeIntervalMillis, probeTimeoutMillis, failFastAfter, evictAfterMillis, maxBackoffMillis,
+                probeThreads, ConnectionHealthMonitor::probeJdbc);
+    }
+
+    ConnectionHealthMonitor(boolean enabled, long probeIntervalMillis, int probeTimeoutMillis, int failFastAfter,
+            long evictAfterMillis, long maxBackoffMillis, int probeThreads, Prober prober) {
+        this.enabled = enabled;
+        this.probeIntervalMillis = Math.max(1000, probeIntervalMillis);
+        this.probeTimeoutMillis = Math.max(100, probeTimeoutMillis);
+        this.failFastAfter = Math.max(1, failFastAfter);
+        this.evictAfterMillis = evictAfterMillis;
+        this.maxBackoffMillis = Math.max(this.probeIntervalMillis, maxBackoffMillis);
+        this.probeThreads = Math.max(1, probeThreads);
+        this.prober = prober;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger threadNo = new AtomicInteger();
+        probeExecutor = Executors.newFixedThreadPool(probeThreads, r -> {
+            Thread t = new Thread(r, "db-health-probe-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-health-monitor");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, 1000, 1000, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            probeExecutor.shutdownNow();
+        }
+    }
+
+    // --- 参照 ---
+
+    /**
+     * 接続先の状態。未確認・到達できない場合（または監視無効時）はその場で確認する
+     * （到達できない結果をそのまま返すと、復旧後も次のバックグラウンド確認まで接続失敗と応答してしまうため）
+     *
+     * @param refresh true の場合は到達できる結果があっても確認し直す
+     */
+    public ConnectionHealth check(String key, Map<String, Object> config, boolean refresh) {
+        if (!enabled) {
+            return prober.probe(config, probeTimeoutMillis);
+        }
+        Target target = track(key, config);
+        ConnectionHealth health = target.health;
+        if (refresh || health.getState() != State.UP) {
+            return record(target, prober.probe(config, probeTimeoutMillis));
+        }
+        return health;
+    }
+
+    /**
+     * 取得処理の前に呼び出す。連続して確認に失敗している接続先は ConnectionUnavailableException で即座に失敗させ、
+     * 復旧を早く検知できるよう確認を前倒しする。認証に失敗した接続先は1回目から失敗させ、確認も前倒ししない
+     */
+    public void ensureAvailable(String key, Map<String, Object> config) {
+        if (!enabled) {
+            return;
+        }
+        Target target = track(key, config);
+        ConnectionHealth health = target.health;
+        if (health.getState() != State.DOWN) {
+            return;
+        }
+        long age = System.currentTimeMillis() - health.getCheckedAt();
+        if (health.isAuthFailure()) {
+            failFasts.incrementAndGet();
+            throw new ConnectionUnavailableException("接続先の認証に失敗しています (" + target.label()
+                    + "、接続確認で再確認してください): " + health.getError());
+        }
+        if (health.getConsecutiveFailures() < failFastAfter) {
+            return;
+        }
+        if (age > probeDelay(health) * 3) {
+            // 監視が止まっている等で結果が古い場合は、実際に接続させる
+            return;
+        }
+        failFasts.incrementAndGet();
+        if (age >= 1000) {
+            submitProbe(target, config);
+        }
+        throw new ConnectionUnavailableException("接続先に到達できません (" + target.label() + "、"
+                + age / 1000 + " 秒前の確認結果): " + health.getError());
+    }
+
+    /**
+     * 接続先のコネクションプールを関連付け、状態に使用状況を含める
+     */
+    public void attachPool(String key, Map<String, Object> config, HikariDataSource pool) {
+        if (enabled) {
+            track(key, config).pool = pool;
+        }
+    }
+
+    /**
+     * evict-after-millis の間使われなかった接続先を外す際の通知先を登録する
+     */
+    public void addEvictionListener(EvictionListener listener) {
+        evictionListeners.add(listener);
+    }
+
+    /**
+     * 接続先の状態（パスワードは含めない）。監視していない接続先は null
+     * 他の接続先の状態は返さない（呼び出し元が接続設定を持つ接続先のみ）
+     */
+    public Map<String, Object> getStatus(String key) {
+        Target target = targets.get(key);
+        return target != null ? target.describe() : null;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("targets", targets.size());
+        long down = targets.values().stream().filter(t -> t.health.getState() == State.DOWN).count();
+        stats.put("downTargets", down);
+        long authFailed = targets.values().stream().filter(t -> t.health.isAuthFailure()).count();
+        stats.put("authFailedTargets", authFailed);
+        stats.put("probes", probes.get());
+        stats.put("failedProbes", failedProbes.get());
+        stats.put("failFasts", failFasts.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    // --- 確認処理 ---
+
+    private Target track(String key, Map<String, Object> config) {
+        Target target = targets.computeIfAbsent(key, k -> new Target(redact(config)));
+        target.lastUsedAt = System.currentTimeMillis();
+        return target;
+    }
+
+    void tick() {
+        long now = System.currentTimeMillis();
+        for (Iterator<Map.Entry<String, Target>> it = targets.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<String, Target> entry = it.next();
+            Target target = entry.getValue();
+            if (evictAfterMillis > 0 && now - target.lastUsedAt > evictAfterMillis) {
+                if (evict(entry.getKey())) {
+                    it.remove();
+                    evictions.incrementAndGet();
+                } else {
+                    target.lastUsedAt = now;
+                }
+            } else if (dueForProbe(target.health, now)) {
+                submitProbe(target, poolCredentials(target));
+            }
+        }
+    }
+
+    /**
+     * バックグラウンドで確認する時期か（認証に失敗した接続先は確認しない）
+     */
+    boolean dueForProbe(ConnectionHealth health, long now) {
+        return !health.isAuthFailure() && now - health.getCheckedAt() >= probeDelay(health);
+    }
+
+    /**
+     * 次の確認までの間隔。到達できない間は連続失敗回数に応じて probe-interval-millis の 2 倍、4 倍 … と延ばす
+     */
+    private long probeDelay(ConnectionHealth health) {
+        if (health.getState() != State.DOWN || health.getConsecutiveFailures() <= 1) {
+            return probeIntervalMillis;
+        }
+        int shift = Math.min(health.getConsecutiveFailures() - 1, 20);
+        return Math.min(probeIntervalMillis << shift, maxBackoffMillis);
+    }
+
+    /**
+     * @return すべての通知先が解放した場合は true
+     */
+    private boolean evict(String key) {
+        boolean released = true;
+        for (EvictionListener listener : evictionListeners) {
+            try {
+                released &= listener.evict(key);
+            } catch (RuntimeException e) {
+                System.err.println("Pool eviction failed: " + e.getMessage());
+            }
+        }
+        return released;
+    }
+
+    /**
+     * 接続設定からパスワードを除いた監視用の写し
+     */
+    private static Map<String, Object> redact(Map<String, Object> config) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        for (String name : List.of("dbType", "host", "port", "dbName", "username")) {
+            copy.put(name, config.get(name));
+        }
+        return copy;
+    }
+
+    /**
+     * バックグラウンドの確認に使う接続設定（関連付けたプールの資格情報。プールが無い・閉じている場合は null）
+     */
+    private static Map<String, Object> poolCredentials(Target target) {
+        HikariDataSource ds = target.pool;
+        if (ds == null || ds.isClosed()) {
+            return null;
+        }
+        Map<String, Object> config = new LinkedHashMap<>(target.config);
+        config.put("username", ds.getUsername());
+        config.put("password", ds.getPassword());
+        return config;
+    }
+
+    /**
+     * @param config 確認に使う接続設定（null の場合は確認しない）
+     */
+    private void submitProbe(Target target, Map<String, Object> config) {
+        if (config != null && probeExecutor != null && target.probing.compareAndSet(false, true)) {
+            try {
+                probeExecutor.execute(() -> {
+                    try {
+                        record(target, prober.probe(config, probeTimeoutMillis));
+                    } finally {
+                        target.probing.set(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                target.probing.set(false);
+            }
+        }
+    }
+
+    private ConnectionHealth record(Target target, ConnectionHealth result) {
+        probes.incrementAndGet();
+        synchronized (target) {
+            ConnectionHealth previous = target.health;
+            ConnectionHealth health = result;
+            if (result.getState() == State.DOWN) {
+                failedProbes.incrementAndGet();
+                health = result.withConsecutiveFailures(previous.getConsecutiveFailures() + 1);
+            }
+            target.health = health;
+            return health;
+        }
+    }
+
+    /**
+     * 短い接続タイムアウトで新しい物理接続を開き、往復時間とバージョン情報を取得する
+     */
+    static ConnectionHealth probeJdbc(Map<String, Object> config, int timeoutMillis) {
+        String dbType = (String) config.get("dbType");
+        long started = System.nanoTime();
+        try {
+            Class.forName(DBConnectionService.driverClassName(dbType));
+            String url = DBConnectionService.jdbcUrl(dbType, (String) config.get("host"),
+                    ((Number) config.get("port")).intValue(), (String) config.get("dbName"));
+            Properties props = new Properties();
+            if (config.get("username") != null) {
+                props.setProperty("user", (String) config.get("username"));
+            }
+            if (config.get("password") != null) {
+                props.setProperty("password", (String) config.get("password"));
+            }
+            props.putAll(timeoutProperties(dbType, timeoutMillis));
+            try (Connection connection = DriverManager.getConnection(url, props)) {
+                long connectMillis = (System.nanoTime() - started) / 1_000_000;
+                long pingStarted = System.nanoTime();
+                if (!connection.isValid(Math.max(1, timeoutMillis / 1000))) {
+                    return ConnectionHealth.down("接続の検証に失敗しました");
+                }
+                long rttMicros = (System.nanoTime() - pingStarted) / 1000;
+                DatabaseMetaData meta = connection.getMetaData();
+                return ConnectionHealth.up(connectMillis, rttMicros,
+                        meta.getDriverName() + " " + meta.getDriverVersion(),
+                        meta.getDatabaseProductName() + " " + meta.getDatabaseProductVersion());
+            }
+        } catch (SQLException e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            return isAuthFailure(e) ? ConnectionHealth.authFailed(message) : ConnectionHealth.down(message);
+        } catch (Exception e) {
+            return ConnectionHealth.down(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+        }
+    }
+
+    /**
+     * 認証エラーか。SQLState のクラス 28 (invalid authorization specification) のほか、
+     * SQLState を返さない SQL Server (18456) と Oracle (ORA-01017) はエラーコードで判定する
+     */
+    static boolean isAuthFailure(SQLException e) {
+        for (SQLException next = e; next != null; next = next.getNextException()) {
+            for (Throwable t = next; t != null; t = t.getCause()) {
+                if (t instanceof SQLException sql && (sql.getSQLState() != null && sql.getSQLState().startsWith("28")
+                        || sql.getErrorCode() == 18456 || sql.getErrorCode() == 1017)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // DBタイプごとの接続・読み込みタイムアウト
+    static Properties timeoutProperties(String dbType, int timeoutMillis) {
+        Properties props = new Properties();
+        String seconds = String.valueOf(Math.max(1, (timeoutMillis + 999) / 1000));
+        switch (dbType) {
+            case "MySQL" -> {
+                props.setProperty("connectTimeout", String.valueOf(timeoutMillis));
+                props.setProperty("socketTimeout", String.valueOf(timeoutMillis));
+            }
+            case "PostgreSQL" -> {
+                props.setProperty("connectTimeout", seconds);
+                props.setProperty("loginTimeout", seconds);
+                props.setProperty("socketTimeout", seconds);
+            }
+            case "Oracle" -> {
+                props.setProperty("oracle.net.CONNECT_TIMEOUT", String.valueOf(timeoutMillis));
+                props.setProperty("oracle.jdbc.ReadTimeout", String.valueOf(timeoutMillis));
+            }
+            case "SQLServer" -> {
+                props.setProperty("loginTimeout", seconds);
+                props.setProperty("socketTimeout", String.valueOf(timeoutMillis));
+            }
+            default -> {
+            }
+        }
+        return props;
+    }
+
+    /**
+     * 監視対象の接続先（config はパスワードを含まない）
+     */
+    private static final class Target {
+        private final Map<String, Object> config;
+        private final AtomicBoolean probing = new AtomicBoolean();
+        private volatile ConnectionHealth health = ConnectionHealth.unknown();
+        private volatile HikariDataSource pool;
+        private volatile long lastUsedAt;
+
+        Target(Map<String, Object> config) {
+            this.config = config;
+        }
+
+        String label() {
+            return config.get("dbType") + " " + config.get("host") + ":" + config.get("port") + "/"
+                    + config.get("dbName");
+        }
+
+        Map<String, Object> describe() {
+            ConnectionHealth h = health;
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("dbType", config.get("dbType"));
+            map.put("host", config.get("host"));
+            map.put("port", config.get("port"));
+            map.put("dbName", config.get("dbName"));
+            map.put("username", config.get("username"));
+            map.put("state", h.getState().name());
+            map.put("checkedAt", h.getCheckedAt());
+            map.put("connectMillis", h.getConnectMillis());
+            map.put("rttMicros", h.getRttMicros());
+            map.put("driverVersion", h.getDriverVersion());
+            map.put("serverVersion", h.getServerVersion());
+            map.put("consecutiveFailures", h.getConsecutiveFailures());
+            map.put("authFailure", h.isAuthFailure());
+            map.put("error", h.getError());
+            HikariDataSource ds = pool;
+            HikariPoolMXBean bean = ds != null && !ds.isClosed() ? ds.getHikariPoolMXBean() : null;
+            if (bean != null) {
+                Map<String, Object> poolStats = new LinkedHashMap<>();
+                int max = ds.getMaximumPoolSize();
+                poolStats.put("active", bean.getActiveConnections());
+                poolStats.put("idle", bean.getIdleConnections());
+                poolStats.put("total", bean.getTotalConnections());
+                poolStats.put("max", max);
+                poolStats.put("waiting", bean.getThreadsAwaitingConnection());
+                poolStats.put("saturation", max > 0 ? (double) bean.getActiveConnections() / max : 0.0);
+                map.put("pool", poolStats);
+            }
+            return map;
+        }
+    }
+}
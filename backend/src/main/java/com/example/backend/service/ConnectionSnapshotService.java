@@ -0,0 +1,772 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.dto.FilterDto;
+import com.example.backend.dto.PagedResponseDto;
+import com.example.backend.entity.SLocalizationLabel;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * 接続先ごとの永続スナップショット (SLocalizationLabel と SError + SLocalization) の管理
+ * <p>
+ * 接続先 (DBConnectionService#connectionKey) ごとに列指向のファイルをスプールへ保存し、
+ * {@link MappedSnapshot} でマップして一覧・フィルターのページ取得に応答する。
+ * 起動時は既存ファイルを開くだけなので、再起動直後でもリモートDBに問い合わせずに応答できる。
+ * 使用時に一定間隔でバックグラウンド検証（行ごとのハッシュを集約したチェックサム、{@link ContentChecksum}）を行い、
+ * 不一致または最大保持期間の経過で再作成して差し替える。チェックサムは文言だけの変更も検出するため、
+ * 他の経路で元DBが更新されても検証間隔のうちに反映される。ID 指定取得とエクスポートは常に元DBから読む。
+ * 接続先を初めて参照したときは、両テーブルの全件をバックグラウンドで読み出して作成する。
+ * categoryName / errorType は値ごとの行ビットマップ ({@link FacetIndex}) を持ち、複数選択のフィルターと
+ * ページ結果に添えるファセット件数をビットマップ演算で求める。
+ * 並び順を指定したページ取得では、並び順ごとに全行を並べた行番号の配列を作ってキャッシュし、
+ * キーセットカーソルの位置は二分探索で求める。
+ */
+@Service
+public class ConnectionSnapshotService {
+
+    static final String LABELS = "labels";
+    static final String ERRORS = "errors";
+    static final String[] LABEL_COLUMNS = { "objectID", "categoryName", "country1", "country2", "country3",
+            "country4", "country5" };
+    static final String[] ERROR_COLUMNS = { "objectID", "errorNo", "errorType", "messageObjectID", "country1",
+            "country2", "country3", "country4", "country5" };
+    private static final String SUFFIX = ".snap";
+    private static final List<String> LABEL_FACETS = List.of("categoryName");
+    private static final List<String> ERROR_FACETS = List.of("errorType");
+
+    private final SLocalizationLabelService labelService;
+    private final ErrorMessageService errorMessageService;
+    private final DBConnectionService dbConnectionService;
+    private final boolean enabled;
+    private final Path dir;
+    private final long validateIntervalMillis;
+    private final long maxAgeMillis;
+    private final int facetMaxValues;
+    private final int maxSortedOrders;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong validations = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private ExecutorService background;
+
+    public ConnectionSnapshotService(SLocalizationLabelService labelService,
+            ErrorMessageService errorMessageService,
+            DBConnectionService dbConnectionService,
+            @Value("${snapshot.enabled:true}") boolean enabled,
+            @Value("${snapshot.dir:${java.io.tmpdir}/resource-convert/snapshots}") String dir,
+            @Value("${snapshot.validate-interval-millis:30000}") long validateIntervalMillis,
+            @Value("${snapshot.max-age-millis:600000}") long maxAgeMillis,
+            @Value("${snapshot.facets.max-values:256}") int facetMaxValues,
+            @Value("${snapshot.sort.max-orders:8}") int maxSortedOrders) {
+        this.labelService = labelService;
+        this.errorMessageService = errorMessageService;
+        this.dbConnectionService = dbConnectionService;
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.validateIntervalMillis = validateIntervalMillis;
+        this.maxAgeMillis = maxAgeMillis;
+        this.facetMaxValues = facetMaxValues;
+        this.maxSortedOrders = Math.max(1, maxSortedOrders);
+    }
+
+    @PostConstruct
+    void start() {
+        background = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "connection-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            reopen();
+        } catch (IOException e) {
+            System.err.println("Snapshot directory initialization failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        background.shutdownNow();
+    }
+
+    /**
+     * 起動時に既存のスナップショットファイルをマップする（同じ接続先のファイルは最新のみ残す）
+     */
+    private void reopen() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                String key = name.substring(0, name.indexOf('.'));
+                try {
+                    Loaded loaded = new Loaded(MappedSnapshot.open(file));
+                    Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+                    Loaded previous = entry.loaded;
+                    if (previous == null || previous.snapshot.getCreatedAt() < loaded.snapshot.getCreatedAt()) {
+                        entry.loaded = loaded;
+                        deleteQuietly(previous);
+                    } else {
+                        deleteQuietly(loaded);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Discarding unreadable snapshot " + file + ": " + e.getMessage());
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    // --- ラベル ---
+
+    /**
+     * スナップショットからラベルをページング取得（スナップショットが無い場合は null）
+     */
+    public PagedResponseDto<SLocalizationLabel> findLabelPage(Map<String, Object> config, FilterDto filter,
+            int page, int size) {
+        Loaded loaded = loaded(config);
+        MappedSnapshot.Section section = loaded != null ? loaded.snapshot.section(LABELS) : null;
+        if (section == null) {
+            return null;
+        }
+        Matched matched = match(loaded, LABELS, section, labelFilter(section, filter, config),
+                labelSelections(filter), isCaseInsensitive(config), true);
+        List<SLocalizationLabel> content = new ArrayList<>();
+        matched.rows.forEach((int) Math.min((long) page * size, Integer.MAX_VALUE), size,
+                row -> content.add(toLabel(section, row)));
+        PagedResponseDto<SLocalizationLabel> result = new PagedResponseDto<>(content, matched.rows.cardinality());
+        result.setFacets(matched.facets);
+        return result;
+    }
+
+    /**
+     * スナップショットから並び順を指定してラベルをページング取得（スナップショットが無い場合は null）
+     *
+     * @param cursor カーソルのソートキー（null の場合は page で位置を決める）
+     */
+    public PagedResponseDto<SLocalizationLabel> findSortedLabelPage(Map<String, Object> config, FilterDto filter,
+            SortSpec sort, String[] cursor, int page, int size) {
+        Loaded loaded = loaded(config);
+        MappedSnapshot.Section section = loaded != null ? loaded.snapshot.section(LABELS) : null;
+        if (section == null) {
+            return null;
+        }
+        Matched matched = match(loaded, LABELS, section, labelFilter(section, filter, config),
+                labelSelections(filter), isCaseInsensitive(config), true);
+        List<SLocalizationLabel> content = new ArrayList<>();
+        String[] last = sortedPage(loaded, LABELS, sort, matched.rows, cursor, page, size,
+                row -> content.add(toLabel(section, row)));
+        PagedResponseDto<SLocalizationLabel> result = new PagedResponseDto<>(content, matched.rows.cardinality());
+        result.setFacets(matched.facets);
+        result.setNextCursor(last != null ? sort.encodeCursor(last) : null);
+        return result;
+    }
+
+    // --- エラーメッセージ ---
+
+    /**
+     * スナップショットからエラーメッセージをページング取得（スナップショットが無い場合は null）
+     */
+    public PagedResponseDto<ErrorMessageDto> findErrorMessagePage(Map<String, Object> config, FilterDto filter,
+            int page, int size) {
+        Loaded loaded = loaded(config);
+        MappedSnapshot.Section section = loaded != null ? loaded.snapshot.section(ERRORS) : null;
+        if (section == null) {
+            return null;
+        }
+        Matched matched = match(loaded, ERRORS, section, errorFilter(section, filter, config),
+                errorSelections(filter), isCaseInsensitive(config), true);
+        List<ErrorMessageDto> content = new ArrayList<>();
+        matched.rows.forEach((int) Math.min((long) page * size, Integer.MAX_VALUE), size,
+                row -> content.add(toErrorMessage(section, row)));
+        PagedResponseDto<ErrorMessageDto> result = new PagedResponseDto<>(content, matched.rows.cardinality());
+        result.setFacets(matched.facets);
+        return result;
+    }
+
+    /**
+     * スナップショットから並び順を指定してエラーメッセージをページング取得（スナップショットが無い場合は null）
+     *
+     * @param cursor カーソルのソートキー（null の場合は page で位置を決める）
+     */
+    public PagedResponseDto<ErrorMessageDto> findSortedErrorMessagePage(Map<String, Object> config,
+            FilterDto filter, SortSpec sort, String[] cursor, int page, int size) {
+        Loaded loaded = loaded(config);
+        MappedSnapshot.Section section = loaded != null ? loaded.snapshot.section(ERRORS) : null;
+        if (section == null) {
+            return null;
+        }
+        Matched matched = match(loaded, ERRORS, section, errorFilter(section, filter, config),
+                errorSelections(filter), isCaseInsensitive(config), true);
+        List<ErrorMessageDto> content = new ArrayList<>();
+        String[] last = sortedPage(loaded, ERRORS, sort, matched.rows, cursor, page, size,
+                row -> content.add(toErrorMessage(section, row)));
+        PagedResponseDto<ErrorMessageDto> result = new PagedResponseDto<>(content, matched.rows.cardinality());
+        result.setFacets(matched.facets);
+        result.setNextCursor(last != null ? sort.encodeCursor(last) : null);
+        return result;
+    }
+
+    /**
+     * 元データを更新したため、次回の参照時に検証を待たずに作り直させる（作り直すまでは今の内容で応答する）
+     */
+    public void invalidate(Map<String, Object> config) {
+        Entry entry = entries.get(fileKey(config));
+        if (entry != null) {
+            entry.stale = true;
+            entry.checkedAt = 0;
+        }
+    }
+
+    /**
+     * 統計情報
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("snapshots", entries.values().stream().filter(e -> e.loaded != null).count());
+        stats.put("served", served.get());
+        stats.put("builds", builds.get());
+        stats.put("validations", validations.get());
+        stats.put("failures", failures.get());
+        stats.put("facetIndexBytes", entries.values().stream().map(e -> e.loaded).filter(l -> l != null)
+                .mapToLong(Loaded::facetBytes).sum());
+        stats.put("sortedOrders", entries.values().stream().map(e -> e.loaded).filter(l -> l != null)
+                .mapToInt(Loaded::orderCount).sum());
+        return stats;
+    }
+
+    // --- 参照・検証 ---
+
+    /**
+     * 接続先のスナップショット。無ければ作成を、古ければ検証をバックグラウンドで開始し、
+     * 今ある内容（無ければ null）を返す
+     */
+    private Loaded loaded(Map<String, Object> config) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.computeIfAbsent(fileKey(config), k -> new Entry());
+        Loaded loaded = entry.loaded;
+        long now = System.currentTimeMillis();
+        if (now - entry.checkedAt > validateIntervalMillis && entry.busy.compareAndSet(false, true)) {
+            entry.checkedAt = now;
+            Map<String, Object> configCopy = new LinkedHashMap<>(config);
+            background.execute(() -> {
+                try {
+                    validateOrRebuild(configCopy, entry);
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                    System.err.println("Snapshot refresh failed: " + e.getMessage());
+                } finally {
+                    entry.busy.set(false);
+                }
+            });
+        }
+        if (loaded != null) {
+            served.incrementAndGet();
+        }
+        return loaded;
+    }
+
+    private void validateOrRebuild(Map<String, Object> config, Entry entry) throws IOException {
+        boolean stale = entry.stale;
+        entry.stale = false;
+        String labelFingerprint = labelFingerprint(config);
+        String errorFingerprint = errorFingerprint(config);
+        Loaded current = entry.loaded;
+        if (current != null) {
+            validations.incrementAndGet();
+            boolean fresh = System.currentTimeMillis() - current.snapshot.getCreatedAt() < maxAgeMillis;
+            MappedSnapshot.Section labels = current.snapshot.section(LABELS);
+            MappedSnapshot.Section errors = current.snapshot.section(ERRORS);
+            if (fresh && !stale && labels != null && errors != null
+                    && labelFingerprint.equals(labels.getFingerprint())
+                    && errorFingerprint.equals(errors.getFingerprint())) {
+                return;
+            }
+        }
+
+        // 元DBをストリーミングで読み、列ごとに書き出す
+        Path target = dir.resolve(fileKey(config) + "." + System.currentTimeMillis() + SUFFIX);
+        KeyRange all = new KeyRange(null, null, 0);
+        try (MappedSnapshotWriter writer = new MappedSnapshotWriter(target, dir)) {
+            writer.beginSection(LABELS, LABEL_COLUMNS, labelFingerprint);
+            labelService.scanLabelRange(config, null, all, label -> addRow(writer, label.getObjectID(),
+                    label.getCategoryName(), label.getCountry1(), label.getCountry2(), label.getCountry3(),
+                    label.getCountry4(), label.getCountry5()));
+            writer.endSection();
+            writer.beginSection(ERRORS, ERROR_COLUMNS, errorFingerprint);
+            errorMessageService.scanErrorMessageRange(config, null, all, dto -> addRow(writer, dto.getObjectID(),
+                    dto.getErrorNo(), dto.getErrorType(), dto.getMessageObjectID(), dto.getCountry1(),
+                    dto.getCountry2(), dto.getCountry3(), dto.getCountry4(), dto.getCountry5()));
+            writer.endSection();
+            writer.finish();
+        } catch (RuntimeException | IOException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        Loaded previous = entry.loaded;
+        entry.loaded = new Loaded(MappedSnapshot.open(target));
+        builds.incrementAndGet();
+        // マップ中のファイルも削除できる OS では即時削除、できない場合は次回起動時に整理される
+        deleteQuietly(previous);
+    }
+
+    private static void addRow(MappedSnapshotWriter writer, String... values) {
+        try {
+            writer.addRow(values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * スナップショットに含む列の内容のチェックサム（文言だけの変更も検出する）
+     */
+    private String labelFingerprint(Map<String, Object> config) {
+        JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+        return checksum(jdbc, ContentChecksum.sql((String) config.get("dbType"), "SLocalizationLabel",
+                LABEL_COLUMNS));
+    }
+
+    /**
+     * SError の結合キーと分類、SLocalization の文言のチェックサム（参照されない文言の変更でも作り直す）
+     */
+    private String errorFingerprint(Map<String, Object> config) {
+        JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+        String dbType = (String) config.get("dbType");
+        return checksum(jdbc, ContentChecksum.sql(dbType, "SError", "objectID", "errorNo", "errorType",
+                "errorMessageID")) + "/"
+                + checksum(jdbc, ContentChecksum.sql(dbType, "SLocalization", "objectID", "country1", "country2",
+                        "country3", "country4", "country5"));
+    }
+
+    private static String checksum(JdbcTemplate jdbc, String sql) {
+        return jdbc.queryForObject(sql, (rs, rowNum) -> {
+            StringBuilder checksum = new StringBuilder();
+            int columns = rs.getMetaData().getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                checksum.append(i > 1 ? "|" : "").append(rs.getString(i));
+            }
+            return checksum.toString();
+        });
+    }
+
+    private String fileKey(Map<String, Object> config) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(dbConnectionService.connectionKey(config).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Loaded loaded) {
+        if (loaded == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(loaded.snapshot.getFile());
+        } catch (IOException ignored) {
+            // 後始末のため無視
+        }
+    }
+
+    // --- フィルター ---
+
+    private List<Pattern[]> labelFilter(MappedSnapshot.Section section, FilterDto filter,
+            Map<String, Object> config) {
+        List<Pattern[]> conditions = new ArrayList<>();
+        if (filter == null) {
+            return conditions;
+        }
+        boolean ci = isCaseInsensitive(config);
+        boolean escape = isBackslashEscape(config);
+        addCondition(conditions, filter.getObjectID(), ci, escape, section, "objectID");
+        addCondition(conditions, filter.getCategoryName(), ci, escape, section, "categoryName");
+        addCondition(conditions, filter.getMessage(), ci, escape, section, "country1", "country2", "country3",
+                "country4", "country5");
+        return conditions;
+    }
+
+    private List<Pattern[]> errorFilter(MappedSnapshot.Section section, FilterDto filter,
+            Map<String, Object> config) {
+        List<Pattern[]> conditions = new ArrayList<>();
+        if (filter == null) {
+            return conditions;
+        }
+        boolean ci = isCaseInsensitive(config);
+        boolean escape = isBackslashEscape(config);
+        addCondition(conditions, filter.getObjectID(), ci, escape, section, "objectID");
+        addCondition(conditions, filter.getErrorNo(), ci, escape, section, "errorNo");
+        addCondition(conditions, filter.getErrorType(), ci, escape, section, "errorType");
+        addCondition(conditions, filter.getMessage(), ci, escape, section, "country1", "country2", "country3",
+                "country4", "country5");
+        return conditions;
+    }
+
+    /**
+     * 1条件 = 列ごとのパターン（列番号の位置に格納し、対象外の列は null）。いずれかの列が一致すれば真
+     */
+    private static void addCondition(List<Pattern[]> conditions, String value, boolean ci,
+            boolean backslashEscape, MappedSnapshot.Section section, String... columns) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        Pattern pattern = likePattern(value, ci, backslashEscape);
+        Pattern[] byColumn = new Pattern[section.getColumnCount()];
+        for (String column : columns) {
+            byColumn[section.column(column)] = pattern;
+        }
+        conditions.add(byColumn);
+    }
+
+    /**
+     * SQL の "LIKE %value%" と同じ判定を行う正規表現（value 中の % と _ はワイルドカード）
+     *
+     * @param backslashEscape \ の直後の1文字をワイルドカードではなく文字そのものとして扱う（末尾の \ は文字そのもの）
+     */
+    static Pattern likePattern(String value, boolean caseInsensitive, boolean backslashEscape) {
+        StringBuilder regex = new StringBuilder(".*");
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (backslashEscape && c == '\\' && i + 1 < value.length()) {
+                literal.append(value.charAt(++i));
+            } else if (c == '%' || c == '_') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        regex.append(".*");
+        int flags = Pattern.DOTALL | (caseInsensitive ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0);
+        return Pattern.compile(regex.toString(), flags);
+    }
+
+    /**
+     * 既定の照合順序で LIKE が大文字小文字を区別しない DB
+     */
+    private static boolean isCaseInsensitive(Map<String, Object> config) {
+        String dbType = (String) config.get("dbType");
+        return "MySQL".equals(dbType) || "SQLServer".equals(dbType);
+    }
+
+    /**
+     * ESCAPE 句なしの LIKE で \ をエスケープ文字として扱う DB（SQL Server は既定のエスケープ文字を持たない）
+     */
+    private static boolean isBackslashEscape(Map<String, Object> config) {
+        return !"SQLServer".equals(config.get("dbType"));
+    }
+
+    private static Map<String, List<String>> labelSelections(FilterDto filter) {
+        Map<String, List<String>> selected = new LinkedHashMap<>();
+        if (filter != null && !FilterDto.selectedValues(filter.getCategoryNames()).isEmpty()) {
+            selected.put("categoryName", FilterDto.selectedValues(filter.getCategoryNames()));
+        }
+        return selected;
+    }
+
+    private static Map<String, List<String>> errorSelections(FilterDto filter) {
+        Map<String, List<String>> selected = new LinkedHashMap<>();
+        if (filter != null && !FilterDto.selectedValues(filter.getErrorTypes()).isEmpty()) {
+            selected.put("errorType", FilterDto.selectedValues(filter.getErrorTypes()));
+        }
+        return selected;
+    }
+
+    /**
+     * 条件に一致する行とファセット件数を求める
+     * <p>
+     * 複数選択はファセット索引のビットマップ（同じ列内は OR、列間は AND）で解決し、索引の無い列は完全一致の条件として走査する。
+     * ファセット件数が不要な場合は、選択に一致する行だけを走査する。
+     *
+     * @param selected   列名 → 選択中の値
+     * @param withFacets ファセット件数も求める
+     */
+    private Matched match(Loaded loaded, String sectionName, MappedSnapshot.Section section,
+            List<Pattern[]> conditions, Map<String, List<String>> selected, boolean ci, boolean withFacets) {
+        FacetIndex facets = loaded.facets(sectionName, LABELS.equals(sectionName) ? LABEL_FACETS : ERROR_FACETS,
+                facetMaxValues);
+        Map<String, RowBitmap> selections = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : selected.entrySet()) {
+            if (facets.isIndexed(entry.getKey())) {
+                selections.put(entry.getKey(), facets.select(entry.getKey(), entry.getValue(), ci));
+            } else {
+                conditions.add(exactCondition(section, entry.getKey(), entry.getValue(), ci));
+            }
+        }
+        RowBitmap selectedRows = null;
+        for (RowBitmap selection : selections.values()) {
+            selectedRows = selectedRows == null ? selection : selectedRows.and(selection);
+        }
+        if (!withFacets) {
+            RowBitmap candidates = selectedRows != null ? selectedRows : loaded.allRows(sectionName);
+            return new Matched(conditions.isEmpty() ? candidates : matchingRows(section, conditions, candidates),
+                    null);
+        }
+        RowBitmap all = loaded.allRows(sectionName);
+        RowBitmap base = conditions.isEmpty() ? all : matchingRows(section, conditions, all);
+        RowBitmap rows = selectedRows != null ? base.and(selectedRows) : base;
+        Map<String, Map<String, Long>> counts = facets.counts(base, selections, selected);
+        return new Matched(rows, counts.isEmpty() ? null : counts);
+    }
+
+    /**
+     * 値のいずれかに完全一致する条件（ファセット索引の無い列の複数選択用）
+     */
+    private static Pattern[] exactCondition(MappedSnapshot.Section section, String column, List<String> values,
+            boolean ci) {
+        StringBuilder regex = new StringBuilder();
+        for (String value : values) {
+            regex.append(regex.length() == 0 ? "" : "|").append(Pattern.quote(value));
+        }
+        int flags = Pattern.DOTALL | (ci ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0);
+        Pattern[] byColumn = new Pattern[section.getColumnCount()];
+        byColumn[section.column(column)] = Pattern.compile(regex.toString(), flags);
+        return byColumn;
+    }
+
+    private static RowBitmap matchingRows(MappedSnapshot.Section section, List<Pattern[]> conditions,
+            RowBitmap candidates) {
+        RowBitmap.Builder rows = new RowBitmap.Builder();
+        candidates.forEach(row -> {
+            if (matches(section, row, conditions)) {
+                rows.add(row);
+            }
+        });
+        return rows.build();
+    }
+
+    private static boolean matches(MappedSnapshot.Section section, int row, List<Pattern[]> conditions) {
+        for (Pattern[] byColumn : conditions) {
+            boolean any = false;
+            for (int column = 0; column < byColumn.length && !any; column++) {
+                if (byColumn[column] == null) {
+                    continue;
+                }
+                String value = section.get(column, row);
+                any = value != null && byColumn[column].matcher(value).matches();
+            }
+            if (!any) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --- 並び順 ---
+
+    /**
+     * 並び順に沿って、一致する行のうちカーソルより後ろ（カーソルが無い場合は page * size 件目から）の size 件を渡す
+     *
+     * @return ページが size 件で埋まった場合は最後の行のソートキー（次ページのカーソル用）、それ以外は null
+     */
+    private String[] sortedPage(Loaded loaded, String sectionName, SortSpec sort, RowBitmap rows, String[] cursor,
+            int page, int size, IntConsumer consumer) {
+        MappedSnapshot.Section section = loaded.snapshot.section(sectionName);
+        int[] order = loaded.order(sectionName, sort, maxSortedOrders);
+        int[] columns = sortColumns(section, sort);
+        int start = 0;
+        long skip = (long) page * size;
+        if (cursor != null) {
+            Comparable<?>[] after = sort.comparableKey(cursor);
+            int high = order.length;
+            while (start < high) {
+                int mid = (start + high) >>> 1;
+                if (sort.compare(sort.comparableKey(tuple(section, sort, columns, order[mid])), after) <= 0) {
+                    start = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            skip = 0;
+        }
+        boolean all = rows.cardinality() == section.getRowCount();
+        int taken = 0;
+        int last = -1;
+        for (int pos = start; pos < order.length && taken < size; pos++) {
+            int row = order[pos];
+            if (!all && !rows.contains(row)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            consumer.accept(row);
+            taken++;
+            last = row;
+        }
+        return taken > 0 && taken == size ? tuple(section, sort, columns, last) : null;
+    }
+
+    /**
+     * 全行を並び順に並べた行番号
+     */
+    static int[] sortRows(MappedSnapshot.Section section, SortSpec sort) {
+        int[] columns = sortColumns(section, sort);
+        Comparable<?>[][] keys = new Comparable<?>[section.getRowCount()][];
+        for (int row = 0; row < keys.length; row++) {
+            keys[row] = sort.comparableKey(tuple(section, sort, columns, row));
+        }
+        return IntStream.range(0, keys.length).boxed()
+                .sorted((a, b) -> sort.compare(keys[a], keys[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static int[] sortColumns(MappedSnapshot.Section section, SortSpec sort) {
+        List<String> names = sort.columns();
+        int[] columns = new int[names.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = section.column(names.get(i));
+        }
+        return columns;
+    }
+
+    private static String[] tuple(MappedSnapshot.Section section, SortSpec sort, int[] columns, int row) {
+        String[] values = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = section.get(columns[i], row);
+        }
+        return sort.tuple(values, section.get(0, row));
+    }
+
+    private static SLocalizationLabel toLabel(MappedSnapshot.Section section, int row) {
+        SLocalizationLabel label = new SLocalizationLabel();
+        label.setObjectID(section.get(0, row));
+        label.setCategoryName(section.get(1, row));
+        label.setCountry1(section.get(2, row));
+        label.setCountry2(section.get(3, row));
+        label.setCountry3(section.get(4, row));
+        label.setCountry4(section.get(5, row));
+        label.setCountry5(section.get(6, row));
+        return label;
+    }
+
+    private static ErrorMessageDto toErrorMessage(MappedSnapshot.Section section, int row) {
+        ErrorMessageDto dto = new ErrorMessageDto();
+        dto.setObjectID(section.get(0, row));
+        dto.setErrorNo(section.get(1, row));
+        dto.setErrorType(section.get(2, row));
+        dto.setMessageObjectID(section.get(3, row));
+        dto.setCountry1(section.get(4, row));
+        dto.setCountry2(section.get(5, row));
+        dto.setCountry3(section.get(6, row));
+        dto.setCountry4(section.get(7, row));
+        dto.setCountry5(section.get(8, row));
+        return dto;
+    }
+
+    /**
+     * 接続先ごとの状態
+     */
+    private static final class Entry {
+        private volatile Loaded loaded;
+        private volatile long checkedAt;
+        private volatile boolean stale;
+        private final AtomicBoolean busy = new AtomicBoolean();
+    }
+
+    /**
+     * 条件に一致する行と、ファセット件数（求めなかった場合は null）
+     */
+    private record Matched(RowBitmap rows, Map<String, Map<String, Long>> facets) {
+    }
+
+    /**
+     * マップ済みスナップショットと、ファセット索引・並び順（いずれも初回使用時に作成）
+     */
+    private static final class Loaded {
+        private final MappedSnapshot snapshot;
+        private final Map<String, FacetIndex> facetIndexes = new ConcurrentHashMap<>();
+        private final Map<String, RowBitmap> allRows = new ConcurrentHashMap<>();
+        // セクション名 + 並び順 → 行番号（使用順、上限を超えたら最も古いものを捨てる）
+        private final LinkedHashMap<String, int[]> orders = new LinkedHashMap<>(16, 0.75f, true);
+
+        Loaded(MappedSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        FacetIndex facets(String sectionName, List<String> columns, int maxValues) {
+            return facetIndexes.computeIfAbsent(sectionName,
+                    name -> FacetIndex.build(snapshot.section(name), columns, maxValues));
+        }
+
+        RowBitmap allRows(String sectionName) {
+            return allRows.computeIfAbsent(sectionName,
+                    name -> RowBitmap.all(snapshot.section(name).getRowCount()));
+        }
+
+        int[] order(String sectionName, SortSpec sort, int maxOrders) {
+            String key = sectionName + "|" + sort.cacheKey();
+            synchronized (orders) {
+                int[] order = orders.get(key);
+                if (order != null) {
+                    return order;
+                }
+            }
+            // 並べ替えはロックの外で行う（同時に要求された場合は重複して作成されうる）
+            int[] order = sortRows(snapshot.section(sectionName), sort);
+            synchronized (orders) {
+                orders.put(key, order);
+                while (orders.size() > maxOrders) {
+                    orders.remove(orders.keySet().iterator().next());
+                }
+            }
+            return order;
+        }
+
+        int orderCount() {
+            synchronized (orders) {
+                return orders.size();
+            }
+        }
+
+        long facetBytes() {
+            return facetIndexes.values().stream().mapToLong(FacetIndex::sizeInBytes).sum();
+        }
+    }
+}
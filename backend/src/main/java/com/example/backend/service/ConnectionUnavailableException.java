@@ -0,0 +1,15 @@
+package com.example.backend.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 死活監視で到達できないと判定されている接続先への取得を、接続を試みずに打ち切ったことを示す例外
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ConnectionUnavailableException extends RuntimeException {
+
+    public ConnectionUnavailableException(String message) {
+        super(message);
+    }
+}
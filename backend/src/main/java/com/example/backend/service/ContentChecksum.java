@@ -0,0 +1,80 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * テーブルの内容の検証用に、行ごとのハッシュを集約する SQL を DB 種別ごとに組み立てる
+ * <p>
+ * 行の全列（NULL は専用の文字に置き換え、列の区切りも専用の文字）をつないだ文字列のハッシュを、
+ * 行の順序によらない集約 (BIT_XOR / SUM) で1行にまとめる。件数・最小/最大 objectID と異なり、
+ * 行数の変わらない文言だけの変更（大文字小文字のみの変更を含む）も検出できる。
+ * 全行を読むため、索引だけで済む件数の集計より重い。
+ * <ul>
+ * <li>MySQL: MD5 の先頭 64 ビットの BIT_XOR（objectID は一意のため、同じハッシュの行が打ち消し合うことはない）</li>
+ * <li>PostgreSQL: MD5 の先頭 60 ビットの SUM（bigint の SUM は numeric のため桁あふれしない）</li>
+ * <li>Oracle: シードを変えた2つの ORA_HASH (32 ビット) の SUM</li>
+ * <li>SQL Server: HASHBYTES('MD5') の先頭 4 バイトと次の 4 バイトをそれぞれ bigint にした SUM</li>
+ * </ul>
+ */
+final class ContentChecksum {
+
+    private ContentChecksum() {
+    }
+
+    /**
+     * SELECT COUNT(*), ハッシュの集約 ... FROM table
+     *
+     * @param columns ハッシュに含める文字列型の列（先頭は objectID とする）
+     */
+    static String sql(String dbType, String table, String... columns) {
+        String row = row(dbType, columns);
+        String aggregate = switch (dbType) {
+            case "MySQL" -> "BIT_XOR(CAST(CONV(LEFT(MD5(" + row + "), 16), 16, 10) AS UNSIGNED))";
+            case "PostgreSQL" -> "SUM(('x' || SUBSTR(MD5(" + row + "), 1, 15))::bit(60)::bigint)";
+            case "Oracle" -> "SUM(ORA_HASH(" + row + ", 4294967295, 0)), SUM(ORA_HASH(" + row + ", 4294967295, 1))";
+            case "SQLServer" -> "SUM(CAST(CAST(SUBSTRING(HASHBYTES('MD5', " + row + "), 1, 4) AS INT) AS BIGINT)), "
+                    + "SUM(CAST(CAST(SUBSTRING(HASHBYTES('MD5', " + row + "), 5, 4) AS INT) AS BIGINT))";
+            default -> throw new IllegalArgumentException("Unsupported DB type: " + dbType);
+        };
+        return "SELECT COUNT(*), " + aggregate + " FROM " + table;
+    }
+
+    /**
+     * 1行のハッシュ（16進などの文字列）の式。値は DB 種別ごとに異なり、同じ DB 種別の式の結果どうしでのみ比較できる
+     *
+     * @param columns ハッシュに含める文字列型の列（別名付き可）
+     */
+    static String rowHash(String dbType, String... columns) {
+        String row = row(dbType, columns);
+        return switch (dbType) {
+            case "MySQL", "PostgreSQL" -> "MD5(" + row + ")";
+            case "Oracle" -> "TO_CHAR(ORA_HASH(" + row + ", 4294967295, 0)) || '-' || TO_CHAR(ORA_HASH(" + row
+                    + ", 4294967295, 1))";
+            case "SQLServer" -> "CONVERT(VARCHAR(32), HASHBYTES('MD5', " + row + "), 2)";
+            default -> throw new IllegalArgumentException("Unsupported DB type: " + dbType);
+        };
+    }
+
+    /**
+     * 行の全列をつないだ文字列（NULL は文字コード 30、列の区切りは文字コード 31 の文字）
+     */
+    private static String row(String dbType, String... columns) {
+        String nul = switch (dbType) {
+            case "MySQL" -> "CHAR(30 USING utf8mb4)";
+            case "SQLServer" -> "NCHAR(30)";
+            default -> "CHR(30)";
+        };
+        String separator = nul.replace("30", "31");
+        List<String> parts = new ArrayList<>();
+        for (String column : columns) {
+            if (!parts.isEmpty()) {
+                parts.add(separator);
+            }
+            // Oracle は空文字列も NULL のため区別しない
+            parts.add("COALESCE(" + column + ", " + nul + ")");
+        }
+        // Oracle の CONCAT は2引数のみ
+        return "Oracle".equals(dbType) ? String.join(" || ", parts) : "CONCAT(" + String.join(", ", parts) + ")";
+    }
+}
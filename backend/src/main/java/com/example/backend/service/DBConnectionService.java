@@ -1,11 +1,45 @@
 package com.example.backend.service;
 
+import com.example.backend.service.jfr.JdbcTemplateCreateEvent;
+import com.example.backend.service.jfr.TracingJdbcTemplate;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
 public class DBConnectionService {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ConnectionHealthMonitor healthMonitor;
+
+    // 接続先ごとのコネクションプール（並列スキャンなど複数接続を同時に使う処理用）
+    // 死活監視が接続先を監視対象から外した時点で閉じる
+    private final Map<String, HikariDataSource> pools = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerEviction() {
+        healthMonitor.addEvictionListener(this::evictPool);
+    }
+
     /**
      * ユーザー入力値から JdbcTemplate を生成
      *
@@ -16,6 +50,7 @@ public class DBConnectionService {
      * @param username ユーザー名
      * @param password パスワード
      * @return JdbcTemplate
+     * @throws ConnectionUnavailableException 死活監視で到達できないと判定されている場合
      */
     public JdbcTemplate createJdbcTemplate(String dbType,
             String host,
@@ -23,35 +58,174 @@ public class DBConnectionService {
             String dbName,
             String username,
             String password) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("dbType", dbType);
+        config.put("host", host);
+        config.put("port", port);
+        config.put("dbName", dbName);
+        config.put("username", username);
+        config.put("password", password);
+        healthMonitor.ensureAvailable(connectionKey(config), config);
+        JdbcTemplateCreateEvent event = new JdbcTemplateCreateEvent();
+        event.begin();
         DriverManagerDataSource dataSource = new DriverManagerDataSource();
+        dataSource.setDriverClassName(driverClassName(dbType));
+        String url = jdbcUrl(dbType, host, port, dbName);
+        dataSource.setUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+
+        JdbcTemplate jdbcTemplate = new TracingJdbcTemplate(dataSource, dbType);
+        jdbcTemplate.setQueryTimeout(getQueryTimeoutSeconds(dbType));
+        commit(event, dbType, host, dbName, false, false);
+        return jdbcTemplate;
+    }
+
+    /**
+     * 接続先ごとにプールされた DataSource を使う JdbcTemplate を取得
+     * プールは接続先 ({@link #connectionKey(Map)}) 単位で作成・再利用される
+     *
+     * @param config DB接続設定
+     * @return JdbcTemplate
+     * @throws ConnectionUnavailableException 死活監視で到達できないと判定されている場合
+     */
+    public JdbcTemplate createPooledJdbcTemplate(Map<String, Object> config) {
+        String poolKey = connectionKey(config);
+        healthMonitor.ensureAvailable(poolKey, config);
+        JdbcTemplateCreateEvent event = new JdbcTemplateCreateEvent();
+        event.begin();
+        String dbType = (String) config.get("dbType");
+        boolean[] created = { false };
+        HikariDataSource dataSource = pools.computeIfAbsent(poolKey, key -> {
+            created[0] = true;
+            HikariDataSource ds = new HikariDataSource();
+            ds.setPoolName("dynamic-" + config.get("host") + "-" + config.get("dbName"));
+            ds.setDriverClassName(driverClassName(dbType));
+            ds.setJdbcUrl(jdbcUrl(dbType, (String) config.get("host"), ((Number) config.get("port")).intValue(),
+                    (String) config.get("dbName")));
+            ds.setUsername((String) config.get("username"));
+            ds.setPassword((String) config.get("password"));
+            ds.setMaximumPoolSize(environment.getProperty("db.pool.max-size", Integer.class, 8));
+            ds.setMinimumIdle(0);
+            ds.setIdleTimeout(environment.getProperty("db.pool.idle-timeout-millis", Long.class, 300000L));
+            return ds;
+        });
+        if (created[0]) {
+            healthMonitor.attachPool(poolKey, config, dataSource);
+        }
+        JdbcTemplate jdbcTemplate = new TracingJdbcTemplate(dataSource, dbType);
+        jdbcTemplate.setQueryTimeout(getQueryTimeoutSeconds(dbType));
+        commit(event, dbType, (String) config.get("host"), (String) config.get("dbName"), true, created[0]);
+        return jdbcTemplate;
+    }
+
+    private static void commit(JdbcTemplateCreateEvent event, String dbType, String host, String dbName,
+            boolean pooled, boolean poolCreated) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.dbType = dbType;
+            event.host = host;
+            event.dbName = dbName;
+            event.pooled = pooled;
+            event.poolCreated = poolCreated;
+            event.commit();
+        }
+    }
+
+    /**
+     * 全件スキャン時にサーバー側カーソルでストリーミングさせるためのフェッチサイズ
+     * MySQL Connector/J は Integer.MIN_VALUE 指定時のみ行単位のストリーミングとなる
+     */
+    public int getStreamingFetchSize(String dbType) {
+        return "MySQL".equals(dbType) ? Integer.MIN_VALUE : 1000;
+    }
+
+    /**
+     * エクスポート用の全件スキャンに適用するクエリタイムアウト（秒、0 は無制限）
+     */
+    public int getExportQueryTimeoutSeconds() {
+        return environment.getProperty("query.timeout.export", Integer.class, 0);
+    }
+
+    /**
+     * 一定時間使われなかった接続先のプールを閉じる
+     *
+     * @return 接続を貸し出し中・待機中のため閉じなかった場合は false
+     */
+    boolean evictPool(String key) {
+        HikariDataSource dataSource = pools.get(key);
+        if (dataSource == null) {
+            return true;
+        }
+        HikariPoolMXBean bean = dataSource.getHikariPoolMXBean();
+        if (bean != null && (bean.getActiveConnections() > 0 || bean.getThreadsAwaitingConnection() > 0)) {
+            return false;
+        }
+        pools.remove(key, dataSource);
+        dataSource.close();
+        return true;
+    }
+
+    @PreDestroy
+    void closePools() {
+        pools.values().forEach(HikariDataSource::close);
+        pools.clear();
+    }
 
-        // JDBC URLをDBタイプごとに作成
-        String url = switch (dbType) {
+    // JDBC URLをDBタイプごとに作成
+    static String jdbcUrl(String dbType, String host, int port, String dbName) {
+        return switch (dbType) {
             case "MySQL" -> "jdbc:mysql://" + host + ":" + port + "/" + dbName + "?useSSL=false&serverTimezone=UTC";
             case "PostgreSQL" -> "jdbc:postgresql://" + host + ":" + port + "/" + dbName;
             case "Oracle" -> "jdbc:oracle:thin:@" + host + ":" + port + ":" + dbName;
             case "SQLServer" -> "jdbc:sqlserver://" + host + ":" + port + ";databaseName=" + dbName;
             default -> throw new IllegalArgumentException("Unsupported DB type: " + dbType);
         };
+    }
 
-        // ドライバ設定
-        dataSource.setDriverClassName(
-                switch (dbType) {
-                    case "MySQL" -> "com.mysql.cj.jdbc.Driver";
-                    case "PostgreSQL" -> "org.postgresql.Driver";
-                    case "Oracle" -> "oracle.jdbc.driver.OracleDriver";
-                    case "SQLServer" -> "com.microsoft.sqlserver.jdbc.SQLServerDriver";
-                    default -> throw new IllegalArgumentException("Unsupported DB type: " + dbType);
-                });
-
-        dataSource.setUrl(url);
-        dataSource.setUsername(username);
-        dataSource.setPassword(password);
-
-        return new JdbcTemplate(dataSource);
+    // ドライバ設定
+    static String driverClassName(String dbType) {
+        return switch (dbType) {
+            case "MySQL" -> "com.mysql.cj.jdbc.Driver";
+            case "PostgreSQL" -> "org.postgresql.Driver";
+            case "Oracle" -> "oracle.jdbc.driver.OracleDriver";
+            case "SQLServer" -> "com.microsoft.sqlserver.jdbc.SQLServerDriver";
+            default -> throw new IllegalArgumentException("Unsupported DB type: " + dbType);
+        };
     }
 
+    /**
+     * 接続先を一意に識別するキーを生成（パスワードはハッシュ化して含める）
+     *
+     * @param config DB接続設定
+     * @return dbType / host / port / dbName / username / パスワードハッシュ を連結したキー
+     */
+    public String connectionKey(Map<String, Object> config) {
+        Object port = config.get("port");
+        String password = (String) config.get("password");
+        return config.get("dbType") + "://" + config.get("username") + "@" + config.get("host") + ":"
+                + (port instanceof Number n ? n.intValue() : port) + "/" + config.get("dbName")
+                + "#" + sha256(password != null ? password : "");
+    }
 
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-    
+    /**
+     * DBタイプごとのクエリタイムアウト（秒）を取得
+     * query.timeout.&lt;dbType&gt; が未設定の場合は query.timeout.default を使用
+     *
+     * @param dbType データベース種別
+     * @return タイムアウト秒数（0 以下はドライバのデフォルト）
+     */
+    public int getQueryTimeoutSeconds(String dbType) {
+        int defaultTimeout = environment.getProperty("query.timeout.default", Integer.class, 60);
+        return environment.getProperty("query.timeout." + dbType, Integer.class, defaultTimeout);
+    }
 }
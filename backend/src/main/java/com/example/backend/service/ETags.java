@@ -0,0 +1,84 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * ダウンロード応答用の強い ETag
+ * <p>
+ * 内容の SHA-256 の先頭16バイトを16進で表し、引用符で囲んだ値。
+ * 内容が同じであれば生成し直しても同じ値になる。
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * バイト列の ETag
+     */
+    public static String of(byte[] content) {
+        MessageDigest digest = newDigest();
+        return format(digest.digest(content));
+    }
+
+    /**
+     * バッファ内容の ETag（コピーを作らない）
+     */
+    public static String of(EncodedBuffer content) {
+        MessageDigest digest = newDigest();
+        content.updateDigest(digest);
+        return format(digest.digest());
+    }
+
+    /**
+     * ファイル内容の ETag（全体をメモリに読み込まない）
+     */
+    public static String of(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return format(digest.digest());
+    }
+
+    /**
+     * If-None-Match ("*" またはカンマ区切りの ETag 一覧) の判定
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if ("*".equals(trimmed) || etag.equals(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String format(byte[] hash) {
+        return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * 変換結果をバイト列として直接書き込む伸長可能なバッファ
+ * {@link OutputEncoder#acquire()} で取得し、使用後は {@link OutputEncoder#release(EncodedBuffer)} で返却する
+ */
+public final class EncodedBuffer {
+
+    private byte[] buf;
+    private int count;
+
+    EncodedBuffer(int initialCapacity) {
+        this.buf = new byte[initialCapacity];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    int capacity() {
+        return buf.length;
+    }
+
+    public void reset() {
+        count = 0;
+    }
+
+    public void write(int b) {
+        ensureCapacity(1);
+        buf[count++] = (byte) b;
+    }
+
+    public void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buf, count, bytes.length);
+        count += bytes.length;
+    }
+
+    /**
+     * 文字列の [from, to) を UTF-8 で書き込む（不正なサロゲートは String#getBytes と同様に '?' とする）
+     */
+    public void writeUtf8(CharSequence s, int from, int to) {
+        ensureCapacity((to - from) * 3);
+        byte[] b = buf;
+        int n = count;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                b[n++] = (byte) c;
+            } else if (c < 0x800) {
+                b[n++] = (byte) (0xC0 | (c >> 6));
+                b[n++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    b[n++] = (byte) (0xF0 | (cp >> 18));
+                    b[n++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    b[n++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    b[n++] = (byte) (0x80 | (cp & 0x3F));
+                } else {
+                    b[n++] = '?';
+                }
+            } else {
+                b[n++] = (byte) (0xE0 | (c >> 12));
+                b[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[n++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        count = n;
+    }
+
+    public void writeUtf8(String s) {
+        writeUtf8(s, 0, s.length());
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buf, 0, count);
+    }
+
+    void updateDigest(MessageDigest digest) {
+        digest.update(buf, 0, count);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buf, 0, count, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int extra) {
+        int required = count + extra;
+        if (required > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(required, buf.length * 2));
+        }
+    }
+}
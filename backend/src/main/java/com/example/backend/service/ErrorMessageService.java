@@ -3,45 +3,117 @@ package com.example.backend.service;
 import com.example.backend.dto.ErrorMessageDto;
 import com.example.backend.dto.FilterDto;
 import com.example.backend.dto.PagedResponseDto;
-import com.example.backend.entity.SError;
+import com.example.backend.dto.SortDto;
 import com.example.backend.entity.SLocalization;
 import com.example.backend.repository.SErrorRepository;
+import com.example.backend.service.jfr.QueryEvents;
 import com.example.backend.repository.SLocalizationRepository;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.dao.EmptyResultDataAccessException;
 
 import java.util.ArrayList;
 import java.util.Collections; // 追加
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 public class ErrorMessageService {
 
+    // SError + SLocalization の行マッピング
+    private static final RowMapper<ErrorMessageDto> ERROR_MESSAGE_ROW_MAPPER = QueryEvents.timed("ErrorMessage",
+            (rs, rowNum) -> {
+        ErrorMessageDto dto = new ErrorMessageDto();
+        dto.setObjectID(rs.getString("objectID"));
+        dto.setErrorNo(rs.getString("errorNo"));
+        dto.setErrorType(rs.getString("errorType"));
+        dto.setMessageObjectID(rs.getString("messageObjectID"));
+        dto.setCountry1(rs.getString("country1"));
+        dto.setCountry2(rs.getString("country2"));
+        dto.setCountry3(rs.getString("country3"));
+        dto.setCountry4(rs.getString("country4"));
+        dto.setCountry5(rs.getString("country5"));
+        return dto;
+    });
+
     // 固定DB用
     private final SErrorRepository sErrorRepository;
     private final SLocalizationRepository sLocalizationRepository;
 
+    // 並び順に指定できる列と、そのうち SError 側の列（SLocalization 側は結合のため索引で並べ替えられない）
+    static final List<String> ERROR_SORT_COLUMNS = List.of("objectID", "errorNo", "errorType", "messageObjectID",
+            "country1", "country2", "country3", "country4", "country5");
+    private static final List<String> ERROR_TABLE_COLUMNS = List.of("objectID", "errorNo", "errorType");
+
     @Autowired
     private DBConnectionService dbConnectionService; // 動的接続用
 
+    @Autowired
+    private SortPlanner sortPlanner;
+
+    @Autowired
+    private SpillSortService spillSortService;
+
+    // 接続先ごとの永続スナップショット（相互に参照するため遅延注入）
+    @Autowired
+    @Lazy
+    private ConnectionSnapshotService connectionSnapshotService;
+
+    // 同一条件のページ取得を1回のDB実行にまとめる
+    private final SingleFlight<String, PagedResponseDto<ErrorMessageDto>> errorMessageFetchFlight = new SingleFlight<>();
+
+    // 連続したページ送り時の次ページ先読み
+    private PagePrefetcher<ErrorMessageDto> errorMessagePrefetcher;
+
+    @Value("${prefetch.cache.max-entries:32}")
+    private int prefetchMaxEntries;
+    @Value("${prefetch.ttl-millis:30000}")
+    private long prefetchTtlMillis;
+    @Value("${prefetch.wait-millis:5000}")
+    private long prefetchWaitMillis;
+    @Value("${prefetch.workers:2}")
+    private int prefetchWorkers;
+    // ID 指定の取得で1回のクエリに含める ID の数
+    @Value("${by-ids.chunk-size:1000}")
+    private int byIdsChunkSize;
+    // errorType のファセット件数を返す値の種類の上限（スナップショットの索引と同じ）
+    @Value("${snapshot.facets.max-values:256}")
+    private int facetMaxValues;
+
     public ErrorMessageService(SErrorRepository sErrorRepository, SLocalizationRepository sLocalizationRepository) {
         this.sErrorRepository = sErrorRepository;
         this.sLocalizationRepository = sLocalizationRepository;
     }
 
+    @PostConstruct
+    void initPrefetcher() {
+        errorMessagePrefetcher = new PagePrefetcher<>(ErrorMessageDto::getObjectID, prefetchMaxEntries,
+                prefetchTtlMillis, prefetchWaitMillis, prefetchWorkers);
+    }
+
+    @PreDestroy
+    void stopPrefetcher() {
+        errorMessagePrefetcher.stop();
+    }
+
     /**
      * 固定DBから取得
+     * SError と SLocalization を1回のクエリで結合し、管理対象外の DTO として受け取る
      */
     public List<ErrorMessageDto> getAllErrorMessages() {
-        List<SError> errors = sErrorRepository.findAll();
-        List<SLocalization> localizations = sLocalizationRepository.findAll();
-        return mapErrorsAndLocalizations(errors, localizations);
+        return sErrorRepository.findAllErrorMessages();
     }
 
     /**
@@ -49,6 +121,97 @@ public class ErrorMessageService {
      */
     public PagedResponseDto<ErrorMessageDto> getAllErrorMessagesFromDynamicDB(
             Map<String, Object> config, FilterDto filter, int page, int size) {
+        return getAllErrorMessagesFromDynamicDB(config, filter, page, size, QueryTicket.untracked());
+    }
+
+    /**
+     * 動的DBからページング取得（キャンセル可能）
+     * 同一セッションでより新しいリクエストが届いた場合、実行中のクエリは Statement.cancel() で中断される
+     */
+    public PagedResponseDto<ErrorMessageDto> getAllErrorMessagesFromDynamicDB(
+            Map<String, Object> config, FilterDto filter, int page, int size, QueryTicket ticket) {
+        PagedResponseDto<ErrorMessageDto> snapshotPage = connectionSnapshotService.findErrorMessagePage(config,
+                filter, page, size);
+        if (snapshotPage != null) {
+            return snapshotPage;
+        }
+        String streamKey = dbConnectionService.connectionKey(config) + "|" + FilterDto.toCacheKey(filter)
+                + "|" + size;
+        PagedResponseDto<ErrorMessageDto> result = errorMessagePrefetcher.take(streamKey, page);
+        while (result == null) {
+            try {
+                result = errorMessageFetchFlight.execute(streamKey + "|" + page,
+                        () -> queryErrorMessagePage(config, filter, page, size, ticket));
+            } catch (QueryCancelledException e) {
+                if (ticket.isCancelled()) {
+                    throw e;
+                }
+                // 共有していた他セッションのクエリがキャンセルされたため、自分で再実行する
+            }
+        }
+        long totalElements = result.getTotalElements();
+        Map<String, Map<String, Long>> facets = result.getFacets();
+        errorMessagePrefetcher.onServed(ticket.getSessionKey(), streamKey, page, size, result,
+                (afterObjectID, prefetchTicket) -> {
+                    // 件数とファセットは同じ条件のため、先読みしたページにも引き継ぐ
+                    PagedResponseDto<ErrorMessageDto> next = new PagedResponseDto<>(
+                            queryErrorMessagePageAfter(config, filter, afterObjectID, size, prefetchTicket),
+                            totalElements);
+                    next.setFacets(facets);
+                    return next;
+                });
+        return result;
+    }
+
+    /**
+     * 並び順・カーソルを指定してページング取得（キャンセル可能）
+     * 並び順が objectID 順でカーソルも無い場合は上記の取得（先読み・同一リクエストの集約あり）と同じ。
+     * それ以外は、ソートキーが SError の列で、それを先頭に持つ索引があれば DB で並べ替え、無ければスナップショット上で並べ替える。
+     * スナップショットも無い場合は、ページの終わりまでの件数が上限以下ならフィルター結果を走査してメモリ内で並べ替える
+     *
+     * @throws InvalidSortException 並び順またはカーソルが不正な場合
+     */
+    public PagedResponseDto<ErrorMessageDto> getAllErrorMessagesFromDynamicDB(Map<String, Object> config,
+            FilterDto filter, int page, int size, List<SortDto> sortOrder, String cursor, QueryTicket ticket) {
+        SortSpec sort = SortSpec.parse(sortOrder, ERROR_SORT_COLUMNS);
+        if (sort.isDefault() && cursor == null) {
+            return getAllErrorMessagesFromDynamicDB(config, filter, page, size, ticket);
+        }
+        String[] after = cursor != null ? sort.decodeCursor(cursor) : null;
+        if (sortPlanner.canPushDown(config, "SError", sort, ERROR_TABLE_COLUMNS.containsAll(sort.columns()))) {
+            sortPlanner.recordPushDown();
+        } else {
+            PagedResponseDto<ErrorMessageDto> snapshotPage = connectionSnapshotService.findSortedErrorMessagePage(
+                    config, filter, sort, after, page, size);
+            if (snapshotPage != null) {
+                sortPlanner.recordInMemory();
+                return snapshotPage;
+            }
+            if (sortPlanner.canSortInMemory(after != null ? size : (long) page * size + size)) {
+                sortPlanner.recordBoundedInMemory();
+                return queryInMemorySortedErrorMessagePage(config, filter, sort, after, page, size, ticket);
+            }
+            sortPlanner.recordFallback();
+        }
+        return querySortedErrorMessagePage(config, filter, sort, after, page, size, ticket);
+    }
+
+    /**
+     * 次ページ先読みの統計情報（ヒット率など）
+     */
+    public Map<String, Object> getPrefetchStats() {
+        return errorMessagePrefetcher.getStats();
+    }
+
+    /**
+     * 同時実行中の同一リクエスト（接続先・フィルター・ページ・件数が一致）をまとめた回数
+     */
+    public long getCoalescedFetchCount() {
+        return errorMessageFetchFlight.getCoalescedCount();
+    }
+
+    private PagedResponseDto<ErrorMessageDto> queryErrorMessagePage(
+            Map<String, Object> config, FilterDto filter, int page, int size, QueryTicket ticket) {
         try {
             JdbcTemplate dynamicJdbcTemplate = createDynamicJdbcTemplate(config);
             StringBuilder sqlData = new StringBuilder(
@@ -65,36 +228,242 @@ public class ErrorMessageService {
             params.add(size);
             params.add(page * size);
 
-            RowMapper<ErrorMessageDto> rowMapper = (rs, rowNum) -> {
-                ErrorMessageDto dto = new ErrorMessageDto();
-                dto.setObjectID(rs.getString("objectID"));
-                dto.setErrorNo(rs.getString("errorNo"));
-                dto.setErrorType(rs.getString("errorType"));
-                dto.setMessageObjectID(rs.getString("messageObjectID"));
-                dto.setCountry1(rs.getString("country1"));
-                dto.setCountry2(rs.getString("country2"));
-                dto.setCountry3(rs.getString("country3"));
-                dto.setCountry4(rs.getString("country4"));
-                dto.setCountry5(rs.getString("country5"));
-                return dto;
-            };
 
-            List<ErrorMessageDto> content = dynamicJdbcTemplate.query(sqlData.toString(), rowMapper, params.toArray());
+            List<ErrorMessageDto> content = dynamicJdbcTemplate.query(
+                    ticket.statement(sqlData.toString(), params.toArray()), ERROR_MESSAGE_ROW_MAPPER);
             List<Object> countParams = params.subList(0, params.size() - 2);
             long totalElements = 0;
             try {
-                Long countResult = dynamicJdbcTemplate.queryForObject(sqlCount.toString(), Long.class,
-                        countParams.toArray());
+                Long countResult = dynamicJdbcTemplate.query(
+                        ticket.statement(sqlCount.toString(), countParams.toArray()),
+                        rs -> rs.next() ? rs.getLong(1) : null);
                 totalElements = (countResult != null) ? countResult : 0L;
             } catch (EmptyResultDataAccessException | NullPointerException e) {
                 totalElements = 0L;
             }
-            return new PagedResponseDto<>(content, totalElements);
+            PagedResponseDto<ErrorMessageDto> result = new PagedResponseDto<>(content, totalElements);
+            result.setFacets(queryErrorFacets(dynamicJdbcTemplate, filter, ticket));
+            return result;
+        } catch (QueryCancelledException e) {
+            throw e;
+        } catch (Exception e) {
+            if (ticket.isCancelled()) {
+                throw new QueryCancelledException("新しいリクエストによりクエリがキャンセルされました");
+            }
+            throw new RuntimeException("動的DBからのエラーメッセージ取得に失敗しました: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 並び順を指定して1ページを取得（カーソルがあればその後ろから、無ければ OFFSET で位置を決める）
+     */
+    private PagedResponseDto<ErrorMessageDto> querySortedErrorMessagePage(Map<String, Object> config,
+            FilterDto filter, SortSpec sort, String[] after, int page, int size, QueryTicket ticket) {
+        try {
+            JdbcTemplate dynamicJdbcTemplate = createDynamicJdbcTemplate(config);
+            // NULL を含みうる列は空文字として並べる（スナップショット上の並べ替えと同じ扱い）
+            Function<String, String> expression = column -> switch (column) {
+                case "objectID" -> "e.objectID";
+                case "errorNo", "errorType" -> sortPlanner.isNotNull(config, "SError", column) ? "e." + column
+                        : "COALESCE(e." + column + ", '')";
+                case "messageObjectID" -> "COALESCE(l.ObjectID, '')";
+                default -> "COALESCE(l." + column + ", '')";
+            };
+            StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+            List<Object> params = new ArrayList<>();
+            buildWhereClauseAndParams(filter, whereClause, params);
+            List<Object> countParams = new ArrayList<>(params);
+            String countWhere = whereClause.toString();
+            if (after != null) {
+                sort.appendSeek(expression, "e.objectID", after, whereClause, params);
+            }
+            StringBuilder sqlData = new StringBuilder(
+                    "SELECT e.objectID, e.errorNo, e.errorMessageID, e.errorType, l.ObjectID as messageObjectID, l.country1, l.country2, l.country3, l.country4, l.country5 "
+                            + "FROM SError e LEFT JOIN SLocalization l ON e.errorMessageID = l.ObjectID ");
+            sqlData.append(whereClause).append(sort.orderBy(expression, "e.objectID")).append(" LIMIT ?");
+            params.add(size);
+            if (after == null) {
+                sqlData.append(" OFFSET ?");
+                params.add(page * size);
+            }
+            List<ErrorMessageDto> content = dynamicJdbcTemplate.query(
+                    ticket.statement(sqlData.toString(), params.toArray()), ERROR_MESSAGE_ROW_MAPPER);
+            Long countResult = dynamicJdbcTemplate.query(
+                    ticket.statement("SELECT COUNT(*) FROM SError e LEFT JOIN SLocalization l ON e.errorMessageID = l.ObjectID "
+                            + countWhere, countParams.toArray()),
+                    rs -> rs.next() ? rs.getLong(1) : null);
+            PagedResponseDto<ErrorMessageDto> result = new PagedResponseDto<>(content,
+                    countResult != null ? countResult : 0L);
+            result.setFacets(queryErrorFacets(dynamicJdbcTemplate, filter, ticket));
+            if (size > 0 && content.size() == size) {
+                ErrorMessageDto last = content.get(content.size() - 1);
+                String[] values = sort.columns().stream().map(column -> sortValue(last, column))
+                        .toArray(String[]::new);
+                result.setNextCursor(sort.encodeCursor(sort.tuple(values, last.getObjectID())));
+            }
+            return result;
+        } catch (QueryCancelledException e) {
+            throw e;
         } catch (Exception e) {
+            if (ticket.isCancelled()) {
+                throw new QueryCancelledException("新しいリクエストによりクエリがキャンセルされました");
+            }
             throw new RuntimeException("動的DBからのエラーメッセージ取得に失敗しました: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * フィルター結果を並び順なしで走査し、ページの終わりまでの上位の行だけを保持して並べ替える（索引もスナップショットも無い場合）
+     */
+    private PagedResponseDto<ErrorMessageDto> queryInMemorySortedErrorMessagePage(Map<String, Object> config,
+            FilterDto filter, SortSpec sort, String[] after, int page, int size, QueryTicket ticket) {
+        try {
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            jdbc.setFetchSize(dbConnectionService.getStreamingFetchSize((String) config.get("dbType")));
+            StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+            List<Object> params = new ArrayList<>();
+            buildWhereClauseAndParams(filter, whereClause, params);
+            BoundedPageSort<ErrorMessageDto> sorter = new BoundedPageSort<>(sort,
+                    dto -> sort.tuple(sort.columns().stream().map(column -> sortValue(dto, column))
+                            .toArray(String[]::new), dto.getObjectID()),
+                    after, page * size, size);
+            jdbc.query(ticket.statement(
+                    "SELECT e.objectID, e.errorNo, e.errorMessageID, e.errorType, l.ObjectID as messageObjectID, l.country1, l.country2, l.country3, l.country4, l.country5 "
+                            + "FROM SError e LEFT JOIN SLocalization l ON e.errorMessageID = l.ObjectID " + whereClause,
+                    params.toArray()),
+                    (RowCallbackHandler) rs -> sorter.accept(ERROR_MESSAGE_ROW_MAPPER.mapRow(rs, 0)));
+            PagedResponseDto<ErrorMessageDto> result = new PagedResponseDto<>(sorter.page(), sorter.getMatched());
+            result.setFacets(queryErrorFacets(jdbc, filter, ticket));
+            String[] last = sorter.lastTuple();
+            result.setNextCursor(last != null ? sort.encodeCursor(last) : null);
+            return result;
+        } catch (QueryCancelledException e) {
+            throw e;
+        } catch (Exception e) {
+            if (ticket.isCancelled()) {
+                throw new QueryCancelledException("新しいリクエストによりクエリがキャンセルされました");
+            }
+            throw new RuntimeException("動的DBからのエラーメッセージ取得に失敗しました: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * errorType のファセット件数（errorType の選択だけを外した条件で GROUP BY）
+     */
+    private Map<String, Map<String, Long>> queryErrorFacets(JdbcTemplate jdbc, FilterDto filter, QueryTicket ticket) {
+        StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        buildWhereClauseAndParams(filter, whereClause, params, false);
+        return FacetQuery.counts(jdbc, ticket, "errorType", "e.errorType",
+                "FROM SError e LEFT JOIN SLocalization l ON e.errorMessageID = l.ObjectID", whereClause.toString(),
+                params, filter != null ? FilterDto.selectedValues(filter.getErrorTypes()) : List.of(),
+                facetMaxValues);
+    }
+
+    private static String sortValue(ErrorMessageDto dto, String column) {
+        return switch (column) {
+            case "objectID" -> dto.getObjectID();
+            case "errorNo" -> dto.getErrorNo();
+            case "errorType" -> dto.getErrorType();
+            case "messageObjectID" -> dto.getMessageObjectID();
+            case "country1" -> dto.getCountry1();
+            case "country2" -> dto.getCountry2();
+            case "country3" -> dto.getCountry3();
+            case "country4" -> dto.getCountry4();
+            case "country5" -> dto.getCountry5();
+            default -> throw new IllegalArgumentException("unknown column: " + column);
+        };
+    }
+
+    /**
+     * 指定 objectID より後ろの1ページを取得（キーセットページング、先読み用）
+     */
+    private List<ErrorMessageDto> queryErrorMessagePageAfter(Map<String, Object> config, FilterDto filter,
+            String afterObjectID, int size, QueryTicket ticket) {
+        JdbcTemplate dynamicJdbcTemplate = createDynamicJdbcTemplate(config);
+        StringBuilder sql = new StringBuilder(
+                "SELECT e.objectID, e.errorNo, e.errorMessageID, e.errorType, l.ObjectID as messageObjectID, l.country1, l.country2, l.country3, l.country4, l.country5 "
+                        + "FROM SError e LEFT JOIN SLocalization l ON e.errorMessageID = l.ObjectID ");
+        StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        buildWhereClauseAndParams(filter, whereClause, params);
+        whereClause.append(" AND e.objectID > ?");
+        params.add(afterObjectID);
+        sql.append(" ").append(whereClause);
+        sql.append(" ORDER BY e.objectID LIMIT ?");
+        params.add(size);
+        return dynamicJdbcTemplate.query(ticket.statement(sql.toString(), params.toArray()),
+                ERROR_MESSAGE_ROW_MAPPER);
+    }
+
+    /**
+     * objectID のキー空間を NTILE で partitions 個の範囲に分割（並列スキャン用）
+     */
+    public List<KeyRange> getErrorKeyRanges(Map<String, Object> config, FilterDto filter, int partitions) {
+        try {
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            jdbc.setQueryTimeout(dbConnectionService.getExportQueryTimeoutSeconds());
+            StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+            List<Object> params = new ArrayList<>();
+            buildWhereClauseAndParams(filter, whereClause, params);
+            String sql = "SELECT MAX(objectID) AS upperID, COUNT(*) AS cnt FROM (SELECT e.objectID AS objectID, NTILE("
+                    + partitions + ") OVER (ORDER BY e.objectID) AS bucket "
+                    + "FROM SError e LEFT JOIN SLocalization l ON e.errorMessageID = l.ObjectID " + whereClause
+                    + ") t GROUP BY bucket ORDER BY bucket";
+            List<String> upperBounds = new ArrayList<>();
+            List<Long> counts = new ArrayList<>();
+            jdbc.query(sql, (RowCallbackHandler) rs -> {
+                upperBounds.add(rs.getString("upperID"));
+                counts.add(rs.getLong("cnt"));
+            }, params.toArray());
+            return KeyRange.fromUpperBounds(upperBounds, counts);
+        } catch (Exception e) {
+            throw new RuntimeException("動的DBからのエラー範囲分割に失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 指定キー範囲のエラーメッセージを objectID 順にストリーミングで読み出す（全件を List に保持しない）
+     */
+    public void scanErrorMessageRange(Map<String, Object> config, FilterDto filter, KeyRange range,
+            Consumer<ErrorMessageDto> consumer) {
+        try {
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            jdbc.setQueryTimeout(dbConnectionService.getExportQueryTimeoutSeconds());
+            jdbc.setFetchSize(dbConnectionService.getStreamingFetchSize((String) config.get("dbType")));
+            StringBuilder sql = new StringBuilder(
+                    "SELECT e.objectID, e.errorNo, e.errorMessageID, e.errorType, l.ObjectID as messageObjectID, l.country1, l.country2, l.country3, l.country4, l.country5 "
+                            + "FROM SError e LEFT JOIN SLocalization l ON e.errorMessageID = l.ObjectID ");
+            StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+            List<Object> params = new ArrayList<>();
+            buildWhereClauseAndParams(filter, whereClause, params);
+            range.appendCondition("e.objectID", whereClause, params);
+            sql.append(" ").append(whereClause);
+            sql.append(" ORDER BY e.objectID");
+            jdbc.query(sql.toString(),
+                    (RowCallbackHandler) rs -> consumer.accept(ERROR_MESSAGE_ROW_MAPPER.mapRow(rs, 0)),
+                    params.toArray());
+        } catch (Exception e) {
+            throw new RuntimeException("動的DBからのエラー範囲スキャンに失敗: " + e.getMessage(), e);
+        }
+    }
+
+    // SLocalization の全行を objectID 順にストリーミングで読み出す（SError からの参照有無によらない）
+    public void scanLocalizations(Map<String, Object> config, Consumer<SLocalization> consumer) {
+        try {
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            jdbc.setQueryTimeout(dbConnectionService.getExportQueryTimeoutSeconds());
+            jdbc.setFetchSize(dbConnectionService.getStreamingFetchSize((String) config.get("dbType")));
+            jdbc.query("SELECT objectID, country1, country2, country3, country4, country5 FROM SLocalization "
+                    + "ORDER BY objectID",
+                    (RowCallbackHandler) rs -> consumer.accept(new SLocalization(rs.getString("objectID"),
+                            rs.getString("country1"), rs.getString("country2"), rs.getString("country3"),
+                            rs.getString("country4"), rs.getString("country5"))));
+        } catch (Exception e) {
+            throw new RuntimeException("動的DBからの文言スキャンに失敗: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * フィルター条件に一致するすべての ObjectID を取得
      * 
@@ -119,6 +488,92 @@ public class ErrorMessageService {
         }
     }
 
+    /**
+     * SError.updateDate の最大値（差分エクスポートのウォーターマーク）
+     *
+     * @return "yyyy-MM-dd" 形式の日付（行が無い・すべて null の場合は null）
+     */
+    public String getMaxErrorUpdateDate(Map<String, Object> config) {
+        try {
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            jdbc.setQueryTimeout(dbConnectionService.getExportQueryTimeoutSeconds());
+            String max = jdbc.queryForObject("SELECT MAX(updateDate) FROM SError", String.class);
+            return max != null && max.length() >= 10 ? max.substring(0, 10) : max;
+        } catch (Exception e) {
+            throw new RuntimeException("動的DBからの更新日の取得に失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * フィルター条件に一致し、updateDate がウォーターマーク以降（同日を含む）の ObjectID を取得
+     * 日付単位のため、ウォーターマーク当日に更新された行は前回出力済みでも再度対象になる
+     */
+    public List<String> getErrorObjectIDsUpdatedSince(Map<String, Object> config, FilterDto filter,
+            String watermark) {
+        try {
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            jdbc.setQueryTimeout(dbConnectionService.getExportQueryTimeoutSeconds());
+            StringBuilder sql = new StringBuilder(
+                    "SELECT e.objectID FROM SError e LEFT JOIN SLocalization l ON e.errorMessageID = l.ObjectID ");
+            StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+            List<Object> params = new ArrayList<>();
+            buildWhereClauseAndParams(filter, whereClause, params);
+            whereClause.append(" AND e.updateDate >= ?");
+            params.add(java.sql.Date.valueOf(watermark.substring(0, 10)));
+            sql.append(" ").append(whereClause);
+            sql.append(" ORDER BY e.objectID");
+            return jdbc.queryForList(sql.toString(), String.class, params.toArray());
+        } catch (Exception e) {
+            throw new RuntimeException("動的DBからの更新行の取得に失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * フィルター条件に一致する行の objectID → 参照先 SLocalization の objectID（結合できない場合は null）を objectID 順に取得
+     * 参照先は DB に格納された SLocalization 側の表記で返す（{@link #getReferencedMessageHashes} のキーと一致する）
+     */
+    public Map<String, String> getErrorMessageRefs(Map<String, Object> config, FilterDto filter) {
+        try {
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            jdbc.setQueryTimeout(dbConnectionService.getExportQueryTimeoutSeconds());
+            jdbc.setFetchSize(dbConnectionService.getStreamingFetchSize((String) config.get("dbType")));
+            StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+            List<Object> params = new ArrayList<>();
+            buildWhereClauseAndParams(filter, whereClause, params);
+            Map<String, String> refs = new LinkedHashMap<>();
+            jdbc.query("SELECT e.objectID, l.ObjectID FROM SError e LEFT JOIN SLocalization l"
+                    + " ON e.errorMessageID = l.ObjectID " + whereClause + " ORDER BY e.objectID",
+                    (RowCallbackHandler) rs -> refs.put(rs.getString(1), rs.getString(2)), params.toArray());
+            return refs;
+        } catch (Exception e) {
+            throw new RuntimeException("動的DBからの参照先の取得に失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * フィルター条件に一致する行が参照する SLocalization の objectID → 全言語の文言の DB 側ハッシュ
+     * 文言は DB から転送せず、ハッシュ ({@link ContentChecksum#rowHash}) だけを受け取る
+     */
+    public Map<String, String> getReferencedMessageHashes(Map<String, Object> config, FilterDto filter) {
+        try {
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            jdbc.setQueryTimeout(dbConnectionService.getExportQueryTimeoutSeconds());
+            jdbc.setFetchSize(dbConnectionService.getStreamingFetchSize((String) config.get("dbType")));
+            StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+            List<Object> params = new ArrayList<>();
+            buildWhereClauseAndParams(filter, whereClause, params);
+            String hash = ContentChecksum.rowHash((String) config.get("dbType"), "l.ObjectID", "l.country1",
+                    "l.country2", "l.country3", "l.country4", "l.country5");
+            Map<String, String> hashes = new HashMap<>();
+            jdbc.query("SELECT DISTINCT l.ObjectID, " + hash + " FROM SError e JOIN SLocalization l"
+                    + " ON e.errorMessageID = l.ObjectID " + whereClause,
+                    (RowCallbackHandler) rs -> hashes.put(rs.getString(1), rs.getString(2)), params.toArray());
+            return hashes;
+        } catch (Exception e) {
+            throw new RuntimeException("動的DBからの文言ハッシュの取得に失敗: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * 指定された ObjectID のリストに一致する ErrorMessageDto を取得
      * 
@@ -128,106 +583,68 @@ public class ErrorMessageService {
      */
     public List<ErrorMessageDto> getErrorMessagesByIdsFromDynamicDB(Map<String, Object> config,
             List<String> objectIDs) {
+        List<ErrorMessageDto> result = new ArrayList<>();
+        forEachErrorMessageByIds(config, objectIDs, result::add);
+        return result;
+    }
+
+    /**
+     * 指定された ObjectID のエラーメッセージを objectID 順に1件ずつ渡す（重複した ID は1回のみ）
+     * <p>
+     * ID が byIdsChunkSize 件を超える場合は、ByIdsOrder で ID を DB の objectID 順に並べた分割ごとに取得する
+     * （並べ替え中の ID は上限を超えると一時ファイルへ退避するため、件数によらずヒープの使用量は一定）。
+     */
+    public void forEachErrorMessageByIds(Map<String, Object> config, List<String> objectIDs,
+            Consumer<ErrorMessageDto> consumer) {
         if (objectIDs == null || objectIDs.isEmpty()) {
-            return Collections.emptyList();
+            return;
         }
         try {
-            JdbcTemplate dynamicJdbcTemplate = createDynamicJdbcTemplate(config);
-            StringBuilder sql = new StringBuilder(
-                    "SELECT e.objectID, e.errorNo, e.errorMessageID, e.errorType, " +
-                            "l.ObjectID as messageObjectID, l.country1, l.country2, l.country3, l.country4, l.country5 "
-                            +
-                            "FROM SError e LEFT JOIN SLocalization l ON e.errorMessageID = l.ObjectID " +
-                            "WHERE e.objectID IN (");
-
-            // IN句のプレースホルダーを生成 (?, ?, ...)
-            sql.append(String.join(",", Collections.nCopies(objectIDs.size(), "?")));
-            sql.append(") ORDER BY e.objectID");
-
-            RowMapper<ErrorMessageDto> rowMapper = (rs, rowNum) -> {
-                ErrorMessageDto dto = new ErrorMessageDto();
-                dto.setObjectID(rs.getString("objectID"));
-                dto.setErrorNo(rs.getString("errorNo"));
-                dto.setErrorType(rs.getString("errorType"));
-                dto.setMessageObjectID(rs.getString("messageObjectID"));
-                dto.setCountry1(rs.getString("country1"));
-                dto.setCountry2(rs.getString("country2"));
-                dto.setCountry3(rs.getString("country3"));
-                dto.setCountry4(rs.getString("country4"));
-                dto.setCountry5(rs.getString("country5"));
-                return dto;
-            };
-
-            return dynamicJdbcTemplate.query(sql.toString(), rowMapper, objectIDs.toArray());
-
+            if (objectIDs.size() <= byIdsChunkSize) {
+                JdbcTemplate dynamicJdbcTemplate = createDynamicJdbcTemplate(config);
+                dynamicJdbcTemplate.query(errorMessagesByIdsSql(objectIDs.size()) + " ORDER BY e.objectID",
+                        (RowCallbackHandler) rs -> consumer.accept(ERROR_MESSAGE_ROW_MAPPER.mapRow(rs, 0)),
+                        objectIDs.toArray());
+                return;
+            }
+            // 分割した回数だけ接続するため、プールした接続を使う
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            jdbc.setFetchSize(dbConnectionService.getStreamingFetchSize((String) config.get("dbType")));
+            ByIdsOrder.order(ByIdsOrder.jdbc(jdbc, "SError"), objectIDs, byIdsChunkSize, spillSortService,
+                    chunk -> jdbc.query(errorMessagesByIdsSql(chunk.size()) + " ORDER BY e.objectID",
+                            (RowCallbackHandler) rs -> consumer.accept(ERROR_MESSAGE_ROW_MAPPER.mapRow(rs, 0)),
+                            chunk.toArray()));
         } catch (Exception e) {
             throw new RuntimeException("動的DBからのID指定でのエラーメッセージ取得に失敗: " + e.getMessage(), e);
         }
     }
 
-    private List<ErrorMessageDto> mapErrorsAndLocalizations(List<SError> errors, List<SLocalization> localizations) {
-        return errors.stream().map(err -> {
-            ErrorMessageDto dto = new ErrorMessageDto();
-            dto.setObjectID(err.getObjectID());
-            dto.setErrorNo(err.getErrorNo());
-            dto.setErrorType(err.getErrorType());
-            SLocalization loc = localizations.stream().filter(l -> l.getObjectID().equals(err.getErrorMessageID()))
-                    .findFirst().orElse(null);
-            if (loc != null) {
-                dto.setMessageObjectID(loc.getObjectID());
-                dto.setCountry1(loc.getCountry1());
-                dto.setCountry2(loc.getCountry2());
-                dto.setCountry3(loc.getCountry3());
-                dto.setCountry4(loc.getCountry4());
-                dto.setCountry5(loc.getCountry5());
-            }
-            return dto;
-        }).collect(Collectors.toList());
+    private static String errorMessagesByIdsSql(int ids) {
+        return "SELECT e.objectID, e.errorNo, e.errorMessageID, e.errorType, " +
+                "l.ObjectID as messageObjectID, l.country1, l.country2, l.country3, l.country4, l.country5 " +
+                "FROM SError e LEFT JOIN SLocalization l ON e.errorMessageID = l.ObjectID " +
+                "WHERE e.objectID IN (" + String.join(",", Collections.nCopies(ids, "?")) + ")";
     }
 
+    /** XML 出力の先頭部分 */
+    public static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<error-messages>\n";
+    /** XML 出力の末尾部分 */
+    public static final String XML_FOOTER = "</error-messages>";
+
     /**
      * XML変換ロジック
      */
     public String convertToXml(List<ErrorMessageDto> list, String lang) {
+        EncodedBuffer buffer = OutputEncoder.acquire();
         try {
-            StringBuilder sb = new StringBuilder();
-            sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<error-messages>\n");
-            for (ErrorMessageDto dto : list) {
-                String type;
-                switch (dto.getErrorType()) {
-                    case "1":
-                        type = "error";
-                        break;
-                    case "2":
-                        type = "warning";
-                        break;
-                    case "3":
-                    case "4":
-                        type = "info";
-                        break;
-                    default:
-                        type = "info";
-                }
-                String message = switch (lang) {
-                    case "country1" -> dto.getCountry1();
-                    case "country2" -> dto.getCountry2();
-                    case "country3" -> dto.getCountry3();
-                    case "country4" -> dto.getCountry4();
-                    case "country5" -> dto.getCountry5();
-                    default -> dto.getCountry1();
-                };
-                String safeMessage = (message != null) ? message : "";
-                safeMessage = safeMessage.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
-                        .replace("\"", "&quot;").replace("'", "&apos;");
-                sb.append(String.format("  <error code=\"%s\">\n", dto.getErrorNo()));
-                sb.append(String.format("    <type>%s</type>\n", type));
-                sb.append(String.format("    <message>%s</message>\n", safeMessage));
-                sb.append("  </error>\n");
-            }
-            sb.append("</error-messages>");
-            return sb.toString();
+            OutputEncoder.writeXmlHeader(buffer);
+            OutputEncoder.writeXmlEntries(list, lang, buffer);
+            OutputEncoder.writeXmlFooter(buffer);
+            return buffer.toString();
         } catch (Exception e) {
             throw new RuntimeException("XML変換に失敗しました", e);
+        } finally {
+            OutputEncoder.release(buffer);
         }
     }
 
@@ -241,7 +658,15 @@ public class ErrorMessageService {
         return dbConnectionService.createJdbcTemplate(dbType, host, port, dbName, username, password);
     }
 
-    private void buildWhereClauseAndParams(FilterDto filter, StringBuilder whereClause, List<Object> params) {
+    static void buildWhereClauseAndParams(FilterDto filter, StringBuilder whereClause, List<Object> params) {
+        buildWhereClauseAndParams(filter, whereClause, params, true);
+    }
+
+    /**
+     * @param withSelection errorType の複数選択 (IN) も条件に含める（false はファセット件数用）
+     */
+    private static void buildWhereClauseAndParams(FilterDto filter, StringBuilder whereClause, List<Object> params,
+            boolean withSelection) {
         if (filter != null) {
             if (filter.getObjectID() != null && !filter.getObjectID().isEmpty()) {
                 whereClause.append(" AND e.objectID LIKE ?");
@@ -255,6 +680,10 @@ public class ErrorMessageService {
                 whereClause.append(" AND e.errorType LIKE ?");
                 params.add("%" + filter.getErrorType() + "%");
             }
+            if (withSelection) {
+                SLocalizationLabelService.appendInClause("e.errorType",
+                        FilterDto.selectedValues(filter.getErrorTypes()), whereClause, params);
+            }
             if (filter.getMessage() != null && !filter.getMessage().isEmpty()) {
                 whereClause.append(
                         " AND (l.country1 LIKE ? OR l.country2 LIKE ? OR l.country3 LIKE ? OR l.country4 LIKE ? OR l.country5 LIKE ?)");
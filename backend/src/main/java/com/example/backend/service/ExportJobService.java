@@ -0,0 +1,1352 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.dto.ExportJobRequestDto;
+import com.example.backend.dto.ExportJobStatusDto;
+import com.example.backend.dto.FilterDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.format.OutputFormat;
+import com.example.backend.service.format.OutputFormatRegistry;
+import com.example.backend.service.format.OutputFormatWriter;
+import com.example.backend.service.jfr.ConversionEvent;
+import com.example.backend.service.jfr.ExportJobEvent;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 非同期エクスポートジョブの管理
+ * <p>
+ * 登録されたジョブは優先度付きキューを持つ固定サイズのワーカープールで実行され、
+ * 出力はスプールディレクトリに書き出される。進捗は SSE で通知し、
+ * ジョブ状態は JSON としてスプールに保存するため再起動後も完了済みファイルを取得できる。
+ * 完了したジョブは出力行のハッシュを記録したマニフェストを残し、後続のジョブはそれを基準に
+ * 追加・変更・削除された行だけを出力できる（差分エクスポート）。
+ * 同じ接続先・対象・フィルターのスキャンが実行中であれば、後から実行されたジョブはそれを購読して
+ * 読み出しを共有し、同じ内容の成果物が直前に完成していればそれを再利用する。
+ * 終了したジョブは、終了（最後の利用）から保持期間が過ぎると定期的な掃除で状態・成果物・マニフェストごと削除する。
+ * ダウンロード・成果物の再利用・差分の基準として使用中のジョブは、利用が終わるまで削除しない。
+ */
+@Service
+public class ExportJobService {
+
+    public static final String TARGET_LABELS = "labels";
+    public static final String TARGET_ERROR_MESSAGES = "error-messages";
+
+    public static final String DELTA_CHANGED = "changed";
+    public static final String DELTA_PATCH = "patch";
+
+    private static final Set<String> LANGUAGES = Set.of("country1", "country2", "country3", "country4", "country5");
+
+    private final SLocalizationLabelService labelService;
+    private final ErrorMessageService errorMessageService;
+    private final PartitionedScanService partitionedScanService;
+    private final OutputFormatRegistry outputFormats;
+    private final DBConnectionService dbConnectionService;
+    private final SharedScanRegistry sharedScans;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path spoolDir;
+    private final int workers;
+    private final int maxQueued;
+    private final int chunkSize;
+    private final long sseTimeoutMillis;
+    private final int defaultPartitions;
+    private final long retentionMillis;
+    private final long sweepIntervalMillis;
+
+    private final Map<String, ExportJobStatusDto> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    // 使用中のジョブ（ジョブID → 利用状況）。取得・解放・削除の判定は leases のロック内で行う
+    private final Map<String, Lease> leases = new HashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong expiredJobs = new AtomicLong();
+    private final AtomicLong deletedJobs = new AtomicLong();
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService sweeper;
+
+    public ExportJobService(SLocalizationLabelService labelService,
+            ErrorMessageService errorMessageService,
+            PartitionedScanService partitionedScanService,
+            OutputFormatRegistry outputFormats,
+            DBConnectionService dbConnectionService,
+            SharedScanRegistry sharedScans,
+            @Value("${export.job.spool-dir:${java.io.tmpdir}/resource-convert/export-jobs}") String spoolDir,
+            @Value("${export.job.workers:2}") int workers,
+            @Value("${export.job.max-queued:100}") int maxQueued,
+            @Value("${export.job.chunk-size:1000}") int chunkSize,
+            @Value("${export.job.sse-timeout-millis:1800000}") long sseTimeoutMillis,
+            @Value("${export.partition.default-partitions:1}") int defaultPartitions,
+            @Value("${export.job.retention-millis:86400000}") long retentionMillis,
+            @Value("${export.job.sweep-interval-millis:600000}") long sweepIntervalMillis) {
+        this.labelService = labelService;
+        this.errorMessageService = errorMessageService;
+        this.partitionedScanService = partitionedScanService;
+        this.outputFormats = outputFormats;
+        this.dbConnectionService = dbConnectionService;
+        this.sharedScans = sharedScans;
+        this.spoolDir = Paths.get(spoolDir);
+        this.workers = workers;
+        this.maxQueued = maxQueued;
+        this.chunkSize = chunkSize;
+        this.sseTimeoutMillis = sseTimeoutMillis;
+        this.defaultPartitions = defaultPartitions;
+        this.retentionMillis = retentionMillis;
+        this.sweepIntervalMillis = sweepIntervalMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNo = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "export-job-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        try {
+            Files.createDirectories(spoolDir);
+            restoreJobs();
+        } catch (IOException e) {
+            System.err.println("Export spool directory initialization failed: " + e.getMessage());
+        }
+        if (retentionMillis > 0) {
+            // 復元した期限切れのジョブは起動時に削除し、以降は一定間隔で掃除する
+            sweep();
+            sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "export-job-sweeper");
+                t.setDaemon(true);
+                return t;
+            });
+            long interval = Math.max(1000, sweepIntervalMillis);
+            sweeper.scheduleWithFixedDelay(this::sweepQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        executor.shutdownNow();
+        try {
+            // 割り込んだ実行中のジョブが状態を保存し終えるのを待つ
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * ジョブを登録し、キューに投入する
+     *
+     * @param request 接続情報・フィルター・形式・言語
+     * @return 登録されたジョブの状態
+     */
+    public ExportJobStatusDto submit(ExportJobRequestDto request) {
+        String target = request.getTarget();
+        List<String> formats = outputFormats.resolve(target, request.getFormat(), request.getFormats());
+        List<String> languages = request.getLanguages();
+        if (languages == null || languages.isEmpty()) {
+            languages = List.of("country1");
+        }
+        for (String lang : languages) {
+            if (!LANGUAGES.contains(lang)) {
+                throw new IllegalArgumentException("Unsupported language: " + lang);
+            }
+        }
+        String baseJobId = request.getBaseJobId();
+        String deltaMode = null;
+        if (baseJobId != null && !baseJobId.isBlank()) {
+            ExportJobStatusDto base = jobs.get(baseJobId);
+            if (base == null || !ExportJobStatusDto.COMPLETED.equals(base.getStatus())) {
+                throw new IllegalArgumentException("差分の基準ジョブが見つかりません: " + baseJobId);
+            }
+            if (!target.equals(base.getTarget())) {
+                throw new IllegalArgumentException("差分の基準ジョブと出力対象が異なります");
+            }
+            if (!Files.exists(manifestPath(baseJobId))) {
+                throw new IllegalArgumentException("差分の基準ジョブのマニフェストがありません: " + baseJobId);
+            }
+            if (!acquire(baseJobId)) {
+                throw new IllegalArgumentException("差分の基準ジョブが見つかりません: " + baseJobId);
+            }
+            deltaMode = request.getDeltaMode() != null ? request.getDeltaMode() : DELTA_CHANGED;
+            if (!DELTA_CHANGED.equals(deltaMode) && !DELTA_PATCH.equals(deltaMode)) {
+                throw new IllegalArgumentException("Unsupported delta mode: " + deltaMode);
+            }
+            if (DELTA_PATCH.equals(deltaMode)) {
+                // パッチは言語ごとの JSON 配列を1ファイルにまとめる
+                formats = List.of("json");
+            }
+        } else {
+            baseJobId = null;
+        }
+        if (executor.getQueue().size() >= maxQueued) {
+            if (baseJobId != null) {
+                release(baseJobId);
+            }
+            throw new IllegalStateException("エクスポートジョブのキューが上限に達しています");
+        }
+
+        ExportJobStatusDto status = new ExportJobStatusDto();
+        status.setJobId(UUID.randomUUID().toString());
+        status.setTarget(target);
+        status.setFormat(formats.get(0));
+        status.setFormats(List.copyOf(formats));
+        status.setLanguages(List.copyOf(languages));
+        status.setPriority(request.getPriority());
+        status.setBaseJobId(baseJobId);
+        status.setDeltaMode(deltaMode);
+        status.setStatus(ExportJobStatusDto.QUEUED);
+        status.setRowsTotal(-1);
+        status.setCreatedAt(System.currentTimeMillis());
+        jobs.put(status.getJobId(), status);
+        persist(status);
+
+        // 基準ジョブの利用は run() の終了時に解放する
+        executor.execute(new JobTask(status, request, sequence.incrementAndGet()));
+        return status;
+    }
+
+    /**
+     * 終了したジョブを状態・成果物・マニフェストごと削除する
+     *
+     * @return ジョブが存在しない場合は false
+     * @throws IllegalStateException 実行中・実行待ち、またはダウンロードなどで使用中の場合
+     */
+    public boolean delete(String jobId) {
+        ExportJobStatusDto status = jobs.get(jobId);
+        if (status == null) {
+            return false;
+        }
+        if (!status.isFinished()) {
+            throw new IllegalStateException("実行中のジョブは削除できません: " + jobId);
+        }
+        if (!remove(jobId, Long.MAX_VALUE)) {
+            throw new IllegalStateException("使用中のジョブは削除できません: " + jobId);
+        }
+        deletedJobs.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * ジョブの利用を開始する（ダウンロードなど）。release を呼ぶまで削除されない
+     *
+     * @return ジョブが存在しない（削除済み）場合は false
+     */
+    public boolean acquire(String jobId) {
+        synchronized (leases) {
+            if (!jobs.containsKey(jobId)) {
+                return false;
+            }
+            leases.computeIfAbsent(jobId, k -> new Lease()).count++;
+            return true;
+        }
+    }
+
+    /**
+     * ジョブの利用を終了する。保持期間は最後に利用を終えた時点から数える
+     */
+    public void release(String jobId) {
+        synchronized (leases) {
+            Lease lease = leases.get(jobId);
+            if (lease != null && lease.count > 0) {
+                lease.count--;
+                lease.lastUsedAt = System.currentTimeMillis();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("jobs", jobs.size());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("retentionMillis", retentionMillis);
+        stats.put("expiredJobs", expiredJobs.get());
+        stats.put("deletedJobs", deletedJobs.get());
+        return stats;
+    }
+
+    public ExportJobStatusDto getStatus(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    public List<ExportJobStatusDto> getAllStatuses() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    /**
+     * 完了済みジョブの成果物ファイル
+     */
+    public Path getArtifact(String jobId) {
+        ExportJobStatusDto status = jobs.get(jobId);
+        if (status == null || !ExportJobStatusDto.COMPLETED.equals(status.getStatus())) {
+            return null;
+        }
+        Path artifact = artifactPath(status);
+        return Files.exists(artifact) ? artifact : null;
+    }
+
+    /**
+     * 完了済みジョブのマニフェストファイル
+     */
+    public Path getManifest(String jobId) {
+        ExportJobStatusDto status = jobs.get(jobId);
+        if (status == null || !ExportJobStatusDto.COMPLETED.equals(status.getStatus())) {
+            return null;
+        }
+        Path manifest = manifestPath(jobId);
+        return Files.exists(manifest) ? manifest : null;
+    }
+
+    /**
+     * 進捗通知用の SseEmitter を登録する。終了済みジョブは最終状態を送って即座に閉じる
+     */
+    public SseEmitter subscribe(String jobId) {
+        ExportJobStatusDto status = jobs.get(jobId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        if (status == null) {
+            emitter.completeWithError(new IllegalArgumentException("Unknown job: " + jobId));
+            return emitter;
+        }
+        // 完了時の通知（一覧の削除）と競合しないよう、登録と現在の状態の送信は状態のロック内で行う
+        synchronized (status) {
+            if (!status.isFinished()) {
+                List<SseEmitter> list = emitters.computeIfAbsent(jobId, k -> new CopyOnWriteArrayList<>());
+                list.add(emitter);
+                emitter.onCompletion(() -> list.remove(emitter));
+                emitter.onTimeout(() -> list.remove(emitter));
+                emitter.onError(e -> list.remove(emitter));
+            }
+            send(emitter, status);
+        }
+        return emitter;
+    }
+
+    // --- ジョブ実行 ---
+
+    private void run(ExportJobStatusDto status, ExportJobRequestDto request) {
+        status.setStatus(ExportJobStatusDto.RUNNING);
+        persist(status);
+        publish(status);
+
+        // 形式 × 言語ごとの完成済みファイル（ヘッダー・フッター込み）
+        List<Output> outputs = new ArrayList<>();
+        List<Path> scratch = new ArrayList<>();
+        ExportJobEvent event = new ExportJobEvent();
+        event.begin();
+        try {
+            boolean labels = TARGET_LABELS.equals(status.getTarget());
+            // 差分エクスポートは基準ごとに出力が異なるため共有しない
+            String scanKey = status.getDeltaMode() == null && sharedScans.isEnabled() ? scanKey(status, request)
+                    : null;
+            String contentKey = scanKey != null ? scanKey + "|" + formatsOf(status) + "|" + status.getLanguages()
+                    : null;
+            SharedScanRegistry.CachedArtifact cached = contentKey != null ? sharedScans.findArtifact(contentKey)
+                    : null;
+            if (cached != null && acquire(cached.getJobId())) {
+                try {
+                    reuseArtifact(status, cached);
+                } finally {
+                    release(cached.getJobId());
+                }
+                return;
+            }
+
+            DeltaTracker tracker = newTracker(status, request, labels);
+            for (String formatName : formatsOf(status)) {
+                OutputFormat format = outputFormats.get(formatName);
+                for (String lang : status.getLanguages()) {
+                    outputs.add(new Output(format, lang,
+                            spoolDir.resolve(status.getJobId() + "." + formatName + "." + lang + ".part")));
+                }
+            }
+            int partitions = request.getPartitions() > 0 ? request.getPartitions() : defaultPartitions;
+            SharedScanRegistry.Subscription subscription = scanKey != null ? sharedScans.join(scanKey) : null;
+            if (subscription != null && writeShared(status, request, labels, outputs, scratch, tracker,
+                    subscription)) {
+                // 実行中のスキャンを共有して出力済み
+            } else if (partitions > 1 && !tracker.usesWatermark()) {
+                // ウォーターマークで読み直す行を絞る場合は ID 一覧が必要なため逐次モードで実行する
+                writePartitioned(status, request, labels, partitions, outputs, scratch, tracker);
+            } else {
+                // objectID 順に読み出す逐次モードのみ、後続のジョブへ配信できる
+                SharedScanRegistry.Broadcast broadcast = scanKey != null
+                        ? sharedScans.lead(scanKey, status.getJobId())
+                        : null;
+                Exception failure = null;
+                try {
+                    writeSequential(status, request, labels, outputs, tracker, broadcast);
+                } catch (Exception e) {
+                    failure = e;
+                    throw e;
+                } finally {
+                    if (broadcast != null) {
+                        sharedScans.end(broadcast, failure);
+                    }
+                }
+            }
+
+            Path artifact = artifactPath(status);
+            List<Map<String, String>> removed = tracker.removed();
+            if (DELTA_PATCH.equals(status.getDeltaMode())) {
+                writePatch(status, outputs, removed, artifact);
+            } else if (outputs.size() == 1 && status.getDeltaMode() == null) {
+                Files.move(outputs.get(0).file, artifact, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                try (OutputStream out = Files.newOutputStream(artifact);
+                        ZipOutputStream zip = new ZipOutputStream(out)) {
+                    for (Output output : outputs) {
+                        zip.putNextEntry(new ZipEntry(entryName(status, output.format, output.lang)));
+                        Files.copy(output.file, zip);
+                        zip.closeEntry();
+                    }
+                    if (status.getDeltaMode() != null) {
+                        zip.putNextEntry(new ZipEntry("delta.json"));
+                        zip.write(objectMapper.writeValueAsBytes(tracker.summary(status.getBaseJobId(), removed)));
+                        zip.closeEntry();
+                    }
+                }
+            }
+            writeManifest(tracker.next);
+            if (status.getDeltaMode() != null) {
+                status.setRowsAdded(tracker.added.size());
+                status.setRowsChanged(tracker.changed.size());
+                status.setRowsRemoved(removed.size());
+            }
+            status.setFileName(downloadName(status));
+            status.setFileSize(Files.size(artifact));
+            status.setEtag(ETags.of(artifact));
+            status.setStatus(ExportJobStatusDto.COMPLETED);
+            if (contentKey != null) {
+                sharedScans.putArtifact(contentKey, status.getJobId(), artifact, manifestPath(status.getJobId()));
+            }
+        } catch (Exception e) {
+            System.err.println("Export job " + status.getJobId() + " failed: " + e.getMessage());
+            e.printStackTrace();
+            status.setStatus(ExportJobStatusDto.FAILED);
+            status.setMessage(e.getMessage());
+        } finally {
+            for (Output output : outputs) {
+                scratch.add(output.file);
+            }
+            for (Path file : scratch) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // 後始末のため無視
+                }
+            }
+            if (status.getBaseJobId() != null) {
+                release(status.getBaseJobId());
+            }
+            status.setFinishedAt(System.currentTimeMillis());
+            persist(status);
+            publish(status);
+            event.end();
+            if (event.shouldCommit()) {
+                event.jobId = status.getJobId();
+                event.target = status.getTarget();
+                event.formats = String.join(",", formatsOf(status));
+                event.rows = status.getRowsDone();
+                event.status = status.getStatus();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * 逐次モード: 対象IDを取得し、チャンクごとに全形式・全言語分を書き出す
+     */
+    private void writeSequential(ExportJobStatusDto status, ExportJobRequestDto request, boolean labels,
+            List<Output> outputs, DeltaTracker tracker, SharedScanRegistry.Broadcast broadcast) throws Exception {
+        Map<String, Object> config = request.asDbConfigMap();
+        List<String> objectIDs;
+        if (labels) {
+            objectIDs = labelService.getAllLabelObjectIDsFromDynamicDB(config, request.getFilter());
+        } else if (tracker.usesWatermark()) {
+            // ウォーターマーク以降に更新された行・基準に無い行・参照先の文言が変わった行だけを読み直し、
+            // 残りは基準のハッシュを引き継ぐ（削除は基準と今回の objectID の差で求める）
+            Map<String, String> refs = errorMessageService.getErrorMessageRefs(config, request.getFilter());
+            Set<String> updated = new HashSet<>(errorMessageService.getErrorObjectIDsUpdatedSince(config,
+                    request.getFilter(), tracker.base.getWatermark()));
+            objectIDs = new ArrayList<>();
+            for (Map.Entry<String, String> ref : refs.entrySet()) {
+                if (updated.contains(ref.getKey()) || tracker.needsReread(ref.getKey(), ref.getValue())) {
+                    objectIDs.add(ref.getKey());
+                } else {
+                    tracker.carry(ref.getKey());
+                }
+            }
+        } else {
+            objectIDs = errorMessageService.getAllErrorObjectIDsFromDynamicDB(config, request.getFilter());
+        }
+        status.setRowsTotal(objectIDs.size());
+        publish(status);
+
+        List<Path> files = new ArrayList<>();
+        for (Output output : outputs) {
+            files.add(output.file);
+        }
+        List<OpenOutput> writers = openWriters(status.getTarget(), outputs, files);
+        try {
+            writeEach(writers, 0, OutputFormatWriter::writeHeader);
+            // 1回の取得で全形式・全言語分を書き出す
+            for (int from = 0; from < objectIDs.size(); from += chunkSize) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException("エクスポートジョブが中断されました");
+                }
+                List<String> chunkIDs = objectIDs.subList(from, Math.min(from + chunkSize, objectIDs.size()));
+                if (labels) {
+                    List<SLocalizationLabel> rows = labelService.getLabelsByIdsFromDynamicDB(config, chunkIDs);
+                    writeLabels(writers, tracker.admitLabels(rows));
+                    if (broadcast != null && !rows.isEmpty()) {
+                        broadcast.publish(rows, rows.get(rows.size() - 1).getObjectID());
+                    }
+                } else {
+                    List<ErrorMessageDto> rows = errorMessageService.getErrorMessagesByIdsFromDynamicDB(config,
+                            chunkIDs);
+                    writeErrorMessages(writers, tracker.admitErrorMessages(rows));
+                    if (broadcast != null && !rows.isEmpty()) {
+                        broadcast.publish(rows, rows.get(rows.size() - 1).getObjectID());
+                    }
+                }
+                status.setRowsDone(from + chunkIDs.size());
+                publish(status);
+            }
+            writeEach(writers, 0, OutputFormatWriter::writeFooter);
+        } finally {
+            closeAll(writers);
+        }
+    }
+
+    /**
+     * 分割モード: objectID のキー空間を範囲分割し、各範囲を別接続で並列にスキャンして
+     * 範囲ごとの一時ファイルに書き出した後、objectID 順に連結する（出力は逐次モードと同一）
+     */
+    private void writePartitioned(ExportJobStatusDto status, ExportJobRequestDto request, boolean labels,
+            int partitions, List<Output> outputs, List<Path> scratch, DeltaTracker tracker) throws Exception {
+        Map<String, Object> config = request.asDbConfigMap();
+        List<KeyRange> ranges = labels
+                ? labelService.getLabelKeyRanges(config, request.getFilter(), partitions)
+                : errorMessageService.getErrorKeyRanges(config, request.getFilter(), partitions);
+        status.setRowsTotal(ranges.stream().mapToLong(KeyRange::getRowCount).sum());
+        publish(status);
+
+        // rangeFiles.get(範囲).get(出力)
+        List<List<Path>> rangeFiles = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            List<Path> files = new ArrayList<>();
+            for (Output output : outputs) {
+                Path file = output.file.resolveSibling(output.file.getFileName() + ".p" + i);
+                files.add(file);
+                scratch.add(file);
+            }
+            rangeFiles.add(files);
+        }
+
+        AtomicLong rowsDone = new AtomicLong();
+        partitionedScanService.forEachPartition(ranges, (index, range) -> {
+            List<OpenOutput> writers = openWriters(status.getTarget(), outputs, rangeFiles.get(index));
+            try {
+                if (labels) {
+                    List<SLocalizationLabel> batch = new ArrayList<>(chunkSize);
+                    labelService.scanLabelRange(config, request.getFilter(), range, row -> {
+                        batch.add(row);
+                        if (batch.size() >= chunkSize) {
+                            flushBatch(status, rowsDone, batch, b -> writeLabels(writers, tracker.admitLabels(b)));
+                        }
+                    });
+                    flushBatch(status, rowsDone, batch, b -> writeLabels(writers, tracker.admitLabels(b)));
+                } else {
+                    List<ErrorMessageDto> batch = new ArrayList<>(chunkSize);
+                    errorMessageService.scanErrorMessageRange(config, request.getFilter(), range, row -> {
+                        batch.add(row);
+                        if (batch.size() >= chunkSize) {
+                            flushBatch(status, rowsDone, batch, b -> writeErrorMessages(writers, tracker.admitErrorMessages(b)));
+                        }
+                    });
+                    flushBatch(status, rowsDone, batch, b -> writeErrorMessages(writers, tracker.admitErrorMessages(b)));
+                }
+            } finally {
+                closeAll(writers);
+            }
+        });
+
+        concatenate(status, outputs, rangeFiles);
+    }
+
+    /**
+     * 範囲ごとの一時ファイルを範囲の順に連結し、ヘッダー・フッターを付けて出力ファイルを完成させる
+     * （空でない範囲の間には形式ごとの区切りを挟む）
+     *
+     * @param rangeFiles rangeFiles.get(範囲).get(出力)
+     */
+    private void concatenate(ExportJobStatusDto status, List<Output> outputs, List<List<Path>> rangeFiles)
+            throws IOException {
+        EncodedBuffer buffer = OutputEncoder.acquire();
+        try {
+            for (int o = 0; o < outputs.size(); o++) {
+                Output output = outputs.get(o);
+                OutputFormatWriter frame = output.format.newWriter(status.getTarget(), output.lang);
+                byte[] separator = output.format.getEntrySeparator();
+                try (FileChannel out = FileChannel.open(output.file, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    buffer.reset();
+                    frame.writeHeader(buffer);
+                    out.write(ByteBuffer.wrap(buffer.toByteArray()));
+                    boolean wroteAny = false;
+                    for (List<Path> files : rangeFiles) {
+                        try (FileChannel in = FileChannel.open(files.get(o), StandardOpenOption.READ)) {
+                            long size = in.size();
+                            if (size == 0) {
+                                continue;
+                            }
+                            if (wroteAny) {
+                                out.write(ByteBuffer.wrap(separator));
+                            }
+                            wroteAny = true;
+                            long position = 0;
+                            while (position < size) {
+                                position += in.transferTo(position, size - position, out);
+                            }
+                        }
+                    }
+                    buffer.reset();
+                    frame.writeFooter(buffer);
+                    out.write(ByteBuffer.wrap(buffer.toByteArray()));
+                }
+            }
+        } finally {
+            OutputEncoder.release(buffer);
+        }
+    }
+
+    /**
+     * 実行中の同じスキャンを購読して出力する。
+     * 購読開始前に配信済みだった範囲 (boundary 以前) は自分で読み出し、購読で受け取った行の前に連結する
+     *
+     * @return 配信元の失敗により出力できなかった場合は false（呼び出し側で単独の実行に切り替える）
+     */
+    private boolean writeShared(ExportJobStatusDto status, ExportJobRequestDto request, boolean labels,
+            List<Output> outputs, List<Path> scratch, DeltaTracker tracker,
+            SharedScanRegistry.Subscription subscription) throws Exception {
+        status.setSharedFrom(subscription.getLeaderJobId());
+        publish(status);
+        List<Path> headFiles = new ArrayList<>();
+        List<Path> tailFiles = new ArrayList<>();
+        for (Output output : outputs) {
+            headFiles.add(output.file.resolveSibling(output.file.getFileName() + ".head"));
+            tailFiles.add(output.file.resolveSibling(output.file.getFileName() + ".tail"));
+        }
+        scratch.addAll(headFiles);
+        scratch.addAll(tailFiles);
+
+        AtomicLong rowsDone = new AtomicLong();
+        try {
+            List<OpenOutput> writers = openWriters(status.getTarget(), outputs, tailFiles);
+            try {
+                if (labels) {
+                    List<SLocalizationLabel> rows;
+                    while ((rows = subscription.take()) != null) {
+                        writeLabels(writers, tracker.admitLabels(rows));
+                        status.setRowsDone(rowsDone.addAndGet(rows.size()));
+                        publish(status);
+                    }
+                } else {
+                    List<ErrorMessageDto> rows;
+                    while ((rows = subscription.take()) != null) {
+                        writeErrorMessages(writers, tracker.admitErrorMessages(rows));
+                        status.setRowsDone(rowsDone.addAndGet(rows.size()));
+                        publish(status);
+                    }
+                }
+            } finally {
+                closeAll(writers);
+            }
+        } catch (IllegalStateException e) {
+            System.err.println("Export job " + status.getJobId() + " falls back to its own scan: " + e.getMessage());
+            status.setSharedFrom(null);
+            status.setRowsDone(0);
+            return false;
+        } finally {
+            subscription.detach();
+        }
+
+        // 購読開始前に配信済みだった範囲
+        Map<String, Object> config = request.asDbConfigMap();
+        List<OpenOutput> writers = openWriters(status.getTarget(), outputs, headFiles);
+        try {
+            if (subscription.getBoundary() != null) {
+                KeyRange head = new KeyRange(null, subscription.getBoundary(), 0);
+                if (labels) {
+                    List<SLocalizationLabel> batch = new ArrayList<>(chunkSize);
+                    labelService.scanLabelRange(config, request.getFilter(), head, row -> {
+                        batch.add(row);
+                        if (batch.size() >= chunkSize) {
+                            flushBatch(status, rowsDone, batch, b -> writeLabels(writers, tracker.admitLabels(b)));
+                        }
+                    });
+                    flushBatch(status, rowsDone, batch, b -> writeLabels(writers, tracker.admitLabels(b)));
+                } else {
+                    List<ErrorMessageDto> batch = new ArrayList<>(chunkSize);
+                    errorMessageService.scanErrorMessageRange(config, request.getFilter(), head, row -> {
+                        batch.add(row);
+                        if (batch.size() >= chunkSize) {
+                            flushBatch(status, rowsDone, batch,
+                                    b -> writeErrorMessages(writers, tracker.admitErrorMessages(b)));
+                        }
+                    });
+                    flushBatch(status, rowsDone, batch,
+                            b -> writeErrorMessages(writers, tracker.admitErrorMessages(b)));
+                }
+            }
+        } finally {
+            closeAll(writers);
+        }
+        status.setRowsTotal(rowsDone.get());
+        concatenate(status, outputs, List.of(headFiles, tailFiles));
+        return true;
+    }
+
+    /**
+     * スキャン共有のキー（接続先・対象・フィルター条件）
+     */
+    private String scanKey(ExportJobStatusDto status, ExportJobRequestDto request) {
+        return dbConnectionService.connectionKey(request.asDbConfigMap()) + "|" + status.getTarget() + "|"
+                + FilterDto.toCacheKey(request.getFilter());
+    }
+
+    /**
+     * 同じ内容のキャッシュ済み成果物を自分のジョブの成果物として登録する（読み出し・変換を行わない）
+     */
+    private void reuseArtifact(ExportJobStatusDto status, SharedScanRegistry.CachedArtifact cached)
+            throws IOException {
+        Path artifact = artifactPath(status);
+        try {
+            Files.deleteIfExists(artifact);
+            Files.createLink(artifact, cached.getArtifact());
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(cached.getArtifact(), artifact, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (Files.exists(cached.getManifest())) {
+            ExportManifest manifest = objectMapper.readValue(cached.getManifest().toFile(), ExportManifest.class);
+            manifest.setJobId(status.getJobId());
+            writeManifest(manifest);
+        }
+        ExportJobStatusDto source = jobs.get(cached.getJobId());
+        status.setSharedFrom(cached.getJobId());
+        status.setRowsTotal(source != null ? source.getRowsTotal() : -1);
+        status.setRowsDone(source != null ? source.getRowsDone() : 0);
+        status.setFileName(downloadName(status));
+        status.setFileSize(Files.size(artifact));
+        status.setEtag(source != null && source.getEtag() != null ? source.getEtag() : ETags.of(artifact));
+        status.setStatus(ExportJobStatusDto.COMPLETED);
+    }
+
+    @FunctionalInterface
+    private interface BatchWriter<T> {
+        void write(List<T> batch) throws IOException;
+    }
+
+    private <T> void flushBatch(ExportJobStatusDto status, AtomicLong rowsDone, List<T> batch,
+            BatchWriter<T> writer) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new IllegalStateException("エクスポートジョブが中断されました");
+        }
+        try {
+            writer.write(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        status.setRowsDone(rowsDone.addAndGet(batch.size()));
+        batch.clear();
+        publish(status);
+    }
+
+    /**
+     * 基準ジョブのマニフェストを読み込み、差分判定器を作る。
+     * 接続先・フィルター条件が基準と異なる場合は、範囲外の行が削除扱いになるため失敗とする
+     */
+    private DeltaTracker newTracker(ExportJobStatusDto status, ExportJobRequestDto request, boolean labels)
+            throws IOException {
+        Map<String, Object> config = request.asDbConfigMap();
+        ExportManifest next = new ExportManifest();
+        next.setJobId(status.getJobId());
+        next.setTarget(status.getTarget());
+        next.setConnection(ExportManifest.connectionHash(config));
+        next.setFilterKey(FilterDto.toCacheKey(request.getFilter()));
+        if (!labels) {
+            // スキャン前に取得し、スキャン中の更新は次回の差分で拾う
+            try {
+                next.setWatermark(errorMessageService.getMaxErrorUpdateDate(config));
+                next.setMessageHashes(errorMessageService.getReferencedMessageHashes(config, request.getFilter()));
+            } catch (RuntimeException e) {
+                System.err.println("Export job " + status.getJobId() + " watermark unavailable: " + e.getMessage());
+                next.setWatermark(null);
+                next.setMessageHashes(null);
+            }
+        }
+
+        ExportManifest base = null;
+        if (status.getBaseJobId() != null) {
+            base = objectMapper.readValue(manifestPath(status.getBaseJobId()).toFile(), ExportManifest.class);
+            if (!next.getConnection().equals(base.getConnection())
+                    || !next.getFilterKey().equals(base.getFilterKey())) {
+                throw new IllegalStateException("差分の基準ジョブと接続先またはフィルター条件が異なります");
+            }
+        }
+        boolean watermark = !labels && base != null && request.isTrustUpdateDate() && base.getWatermark() != null
+                && base.getMessageHashes() != null && next.getMessageHashes() != null;
+        return new DeltaTracker(base, next, watermark);
+    }
+
+    private Path manifestPath(String jobId) {
+        return spoolDir.resolve(jobId + ".manifest.json");
+    }
+
+    private void writeManifest(ExportManifest manifest) throws IOException {
+        manifest.setCreatedAt(System.currentTimeMillis());
+        Path tmp = spoolDir.resolve(manifest.getJobId() + ".manifest.json.tmp");
+        objectMapper.writeValue(tmp.toFile(), manifest);
+        Files.move(tmp, manifestPath(manifest.getJobId()), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * JSON パッチの組み立て（言語ごとの追加・変更行は JSON 形式の出力をそのまま埋め込む）
+     * <pre>
+     * {"baseJobId": "...", "target": "...", "upsert": {"country1": [...], ...}, "remove": [{"objectID": "...", "key": "..."}]}
+     * </pre>
+     */
+    private void writePatch(ExportJobStatusDto status, List<Output> outputs, List<Map<String, String>> removed,
+            Path artifact) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(artifact), 64 * 1024)) {
+            out.write(("{\n\"baseJobId\": " + objectMapper.writeValueAsString(status.getBaseJobId())
+                    + ",\n\"target\": " + objectMapper.writeValueAsString(status.getTarget())
+                    + ",\n\"upsert\": {").getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < outputs.size(); i++) {
+                Output output = outputs.get(i);
+                out.write(((i > 0 ? ",\n" : "\n") + objectMapper.writeValueAsString(output.lang) + ": ")
+                        .getBytes(StandardCharsets.UTF_8));
+                Files.copy(output.file, out);
+            }
+            out.write("},\n\"remove\": ".getBytes(StandardCharsets.UTF_8));
+            out.write(objectMapper.writeValueAsBytes(removed));
+            out.write("\n}\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void writeLabels(List<OpenOutput> writers, List<SLocalizationLabel> rows) throws IOException {
+        writeEach(writers, rows.size(), (writer, buffer) -> writer.writeLabels(rows, buffer));
+    }
+
+    private static void writeErrorMessages(List<OpenOutput> writers, List<ErrorMessageDto> rows)
+            throws IOException {
+        writeEach(writers, rows.size(), (writer, buffer) -> writer.writeErrorMessages(rows, buffer));
+    }
+
+    /**
+     * 出力ごとにプールしたバッファへ直接エンコードし、そのままファイルへ書き出す
+     */
+    private static void writeEach(List<OpenOutput> writers, int rows,
+            BiConsumer<OutputFormatWriter, EncodedBuffer> encoder) throws IOException {
+        EncodedBuffer buffer = OutputEncoder.acquire();
+        try {
+            for (OpenOutput writer : writers) {
+                ConversionEvent event = new ConversionEvent();
+                event.begin();
+                buffer.reset();
+                encoder.accept(writer.writer, buffer);
+                event.end();
+                // ヘッダー・フッター (rows = 0) は記録しない
+                if (rows > 0 && event.shouldCommit()) {
+                    event.format = writer.format;
+                    event.lang = writer.lang;
+                    event.rows = rows;
+                    event.bytes = buffer.size();
+                    event.commit();
+                }
+                buffer.writeTo(writer.stream);
+            }
+        } finally {
+            OutputEncoder.release(buffer);
+        }
+    }
+
+    private static List<OpenOutput> openWriters(String target, List<Output> outputs, List<Path> files)
+            throws IOException {
+        List<OpenOutput> writers = new ArrayList<>();
+        try {
+            for (int i = 0; i < outputs.size(); i++) {
+                Output output = outputs.get(i);
+                writers.add(new OpenOutput(output.format.getName(), output.lang,
+                        output.format.newWriter(target, output.lang),
+                        new BufferedOutputStream(Files.newOutputStream(files.get(i)), 64 * 1024)));
+            }
+        } catch (IOException e) {
+            closeAll(writers);
+            throw e;
+        }
+        return writers;
+    }
+
+    private static void closeAll(List<OpenOutput> writers) throws IOException {
+        IOException failure = null;
+        for (OpenOutput writer : writers) {
+            try {
+                writer.stream.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static List<String> formatsOf(ExportJobStatusDto status) {
+        return status.getFormats() != null && !status.getFormats().isEmpty()
+                ? status.getFormats()
+                : List.of(status.getFormat());
+    }
+
+    private boolean isSingleFile(ExportJobStatusDto status) {
+        return status.getDeltaMode() == null && formatsOf(status).size() == 1 && status.getLanguages().size() == 1;
+    }
+
+    private Path artifactPath(ExportJobStatusDto status) {
+        if (DELTA_PATCH.equals(status.getDeltaMode())) {
+            return spoolDir.resolve(status.getJobId() + ".patch.json");
+        }
+        String ext = isSingleFile(status) ? extensionOf(status.getFormat()) : "zip";
+        return spoolDir.resolve(status.getJobId() + "." + ext);
+    }
+
+    private String extensionOf(String formatName) {
+        OutputFormat format = outputFormats.get(formatName);
+        return format != null ? format.getFileExtension() : formatName;
+    }
+
+    /**
+     * ZIP 内のファイル名。複数形式の場合は拡張子が重なる形式 (json / i18next など) があるため形式名のフォルダに分ける
+     */
+    private String entryName(ExportJobStatusDto status, OutputFormat format, String lang) {
+        String name = status.getTarget() + "_" + lang + "." + format.getFileExtension();
+        return formatsOf(status).size() > 1 ? format.getName() + "/" + name : name;
+    }
+
+    private String downloadName(ExportJobStatusDto status) {
+        if (DELTA_PATCH.equals(status.getDeltaMode())) {
+            return status.getTarget() + "_patch.json";
+        }
+        if (status.getDeltaMode() != null) {
+            return status.getTarget() + "_delta.zip";
+        }
+        if (isSingleFile(status)) {
+            return status.getTarget() + "_" + status.getLanguages().get(0) + "." + extensionOf(status.getFormat());
+        }
+        return status.getTarget() + "_export.zip";
+    }
+
+    /**
+     * ダウンロード時の Content-Type
+     */
+    public String getContentType(ExportJobStatusDto status) {
+        if (DELTA_PATCH.equals(status.getDeltaMode())) {
+            return "application/json";
+        }
+        if (!isSingleFile(status)) {
+            return "application/zip";
+        }
+        OutputFormat format = outputFormats.get(status.getFormat());
+        return format != null ? format.getContentType() : "application/octet-stream";
+    }
+
+    /**
+     * 形式 × 言語ごとの出力先
+     */
+    private static final class Output {
+        private final OutputFormat format;
+        private final String lang;
+        private final Path file;
+
+        Output(OutputFormat format, String lang, Path file) {
+            this.format = format;
+            this.lang = lang;
+            this.file = file;
+        }
+    }
+
+    private static final class OpenOutput {
+        private final String format;
+        private final String lang;
+        private final OutputFormatWriter writer;
+        private final OutputStream stream;
+
+        OpenOutput(String format, String lang, OutputFormatWriter writer, OutputStream stream) {
+            this.format = format;
+            this.lang = lang;
+            this.writer = writer;
+            this.stream = stream;
+        }
+    }
+
+    /**
+     * 基準マニフェストとの比較で出力する行を選び、今回のマニフェストを組み立てる。
+     * 分割モードでは複数スレッドから呼ばれるため、記録はロックして行う
+     */
+    private static final class DeltaTracker {
+        private final ExportManifest base;
+        private final ExportManifest next;
+        private final List<String> added = new ArrayList<>();
+        private final List<String> changed = new ArrayList<>();
+        private final boolean watermark;
+
+        DeltaTracker(ExportManifest base, ExportManifest next, boolean watermark) {
+            this.base = base;
+            this.next = next;
+            this.watermark = watermark;
+        }
+
+        boolean usesWatermark() {
+            return watermark;
+        }
+
+        /**
+         * updateDate がウォーターマークより前の行でも読み直しが必要か
+         * （基準に無い、参照先が変わった、または参照先の文言のハッシュが基準と異なる）
+         */
+        boolean needsReread(String objectID, String messageObjectID) {
+            if (!base.getHashes().containsKey(objectID)
+                    || !Objects.equals(messageObjectID, base.getMessageRefs().get(objectID))) {
+                return true;
+            }
+            return messageObjectID != null && !Objects.equals(next.getMessageHashes().get(messageObjectID),
+                    base.getMessageHashes().get(messageObjectID));
+        }
+
+        /**
+         * 読み直さなかった行は基準のハッシュ・キー・参照先を引き継ぐ
+         */
+        synchronized void carry(String objectID) {
+            next.put(objectID, base.getHashes().get(objectID), base.getKeys().get(objectID));
+            next.putMessageRef(objectID, base.getMessageRefs().get(objectID));
+        }
+
+        List<SLocalizationLabel> admitLabels(List<SLocalizationLabel> rows) {
+            String[] hashes = new String[rows.size()];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = ExportManifest.rowHash(rows.get(i));
+            }
+            List<SLocalizationLabel> admitted = new ArrayList<>();
+            synchronized (this) {
+                for (int i = 0; i < hashes.length; i++) {
+                    SLocalizationLabel label = rows.get(i);
+                    if (admit(label.getObjectID(), hashes[i], ExportManifest.outputKey(label))) {
+                        admitted.add(label);
+                    }
+                }
+            }
+            return admitted;
+        }
+
+        List<ErrorMessageDto> admitErrorMessages(List<ErrorMessageDto> rows) {
+            String[] hashes = new String[rows.size()];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = ExportManifest.rowHash(rows.get(i));
+            }
+            List<ErrorMessageDto> admitted = new ArrayList<>();
+            synchronized (this) {
+                for (int i = 0; i < hashes.length; i++) {
+                    ErrorMessageDto dto = rows.get(i);
+                    next.putMessageRef(dto.getObjectID(), dto.getMessageObjectID());
+                    if (admit(dto.getObjectID(), hashes[i], ExportManifest.outputKey(dto))) {
+                        admitted.add(dto);
+                    }
+                }
+            }
+            return admitted;
+        }
+
+        private boolean admit(String objectID, String hash, String key) {
+            next.put(objectID, hash, key);
+            if (base == null) {
+                return true;
+            }
+            String previous = base.getHashes().get(objectID);
+            if (previous == null) {
+                added.add(objectID);
+                return true;
+            }
+            if (!previous.equals(hash)) {
+                changed.add(objectID);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * 基準にあって今回のスキャンに現れなかった行
+         */
+        synchronized List<Map<String, String>> removed() {
+            if (base == null) {
+                return Collections.emptyList();
+            }
+            List<Map<String, String>> removed = new ArrayList<>();
+            for (String objectID : base.getHashes().keySet()) {
+                if (!next.getHashes().containsKey(objectID)) {
+                    Map<String, String> entry = new LinkedHashMap<>();
+                    entry.put("objectID", objectID);
+                    entry.put("key", base.getKeys().get(objectID));
+                    removed.add(entry);
+                }
+            }
+            return removed;
+        }
+
+        /**
+         * 差分 ZIP に同梱する delta.json の内容
+         */
+        synchronized Map<String, Object> summary(String baseJobId, List<Map<String, String>> removed) {
+            Collections.sort(added);
+            Collections.sort(changed);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("baseJobId", baseJobId);
+            summary.put("added", added);
+            summary.put("changed", changed);
+            summary.put("removed", removed);
+            return summary;
+        }
+    }
+
+    // --- 進捗通知・永続化 ---
+
+    private void publish(ExportJobStatusDto status) {
+        synchronized (status) {
+            publishLocked(status);
+        }
+    }
+
+    private void publishLocked(ExportJobStatusDto status) {
+        List<SseEmitter> list = emitters.get(status.getJobId());
+        if (list == null) {
+            return;
+        }
+        for (SseEmitter emitter : list) {
+            if (!send(emitter, status)) {
+                list.remove(emitter);
+            }
+        }
+        if (status.isFinished()) {
+            emitters.remove(status.getJobId());
+        }
+    }
+
+    /**
+     * 状態を1件送り、終了済みであれば閉じる
+     *
+     * @return 送信に失敗した場合は false
+     */
+    private static boolean send(SseEmitter emitter, ExportJobStatusDto status) {
+        try {
+            emitter.send(SseEmitter.event().name("progress").data(status));
+            if (status.isFinished()) {
+                emitter.complete();
+            }
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void persist(ExportJobStatusDto status) {
+        try {
+            Path tmp = spoolDir.resolve(status.getJobId() + ".json.tmp");
+            objectMapper.writeValue(tmp.toFile(), status);
+            Files.move(tmp, spoolDir.resolve(status.getJobId() + ".json"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Export job state persistence failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 起動時にスプール内のジョブ状態を復元する。
+     * 実行途中だったジョブは接続情報を保持していないため失敗扱いとする
+     */
+    private void restoreJobs() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(spoolDir, "*.json")) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (name.substring(0, name.length() - ".json".length()).contains(".")) {
+                    // マニフェスト (*.manifest.json) やパッチ (*.patch.json) はジョブ状態ではない
+                    continue;
+                }
+                try {
+                    ExportJobStatusDto status = objectMapper.readValue(file.toFile(), ExportJobStatusDto.class);
+                    if (!status.isFinished()) {
+                        status.setStatus(ExportJobStatusDto.FAILED);
+                        status.setMessage("サーバー再起動によりジョブが中断されました");
+                        status.setFinishedAt(System.currentTimeMillis());
+                        persist(status);
+                    }
+                    jobs.put(status.getJobId(), status);
+                } catch (IOException e) {
+                    System.err.println("Skipping unreadable export job state " + file + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // --- 保持期間の管理 ---
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            System.err.println("Export spool sweep failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 保持期間を過ぎた終了済みジョブと、どのジョブにも属さない古いファイルを削除する
+     */
+    void sweep() {
+        long now = System.currentTimeMillis();
+        for (ExportJobStatusDto status : new ArrayList<>(jobs.values())) {
+            if (status.isFinished() && remove(status.getJobId(), now - retentionMillis)) {
+                expiredJobs.incrementAndGet();
+            }
+        }
+        // 削除の途中で停止した場合などに残ったファイル（ファイル名の先頭がジョブID）
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(spoolDir)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                int dot = name.indexOf('.');
+                String jobId = dot > 0 ? name.substring(0, dot) : name;
+                if (!jobs.containsKey(jobId) && Files.getLastModifiedTime(file).toMillis() < now - retentionMillis) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Export spool sweep failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 使用中でなく、最後の利用（終了・解放）が usedBefore より前のジョブを一覧から外し、ファイルを削除する
+     *
+     * @return 削除した場合は true
+     */
+    private boolean remove(String jobId, long usedBefore) {
+        ExportJobStatusDto status;
+        synchronized (leases) {
+            status = jobs.get(jobId);
+            Lease lease = leases.get(jobId);
+            if (status == null || (lease != null && lease.count > 0)) {
+                return false;
+            }
+            long lastUsedAt = Math.max(status.getFinishedAt(), lease != null ? lease.lastUsedAt : 0);
+            if (lastUsedAt >= usedBefore) {
+                return false;
+            }
+            // 一覧から外した後は acquire できないため、以降のファイル削除と競合する利用は無い
+            jobs.remove(jobId);
+            leases.remove(jobId);
+        }
+        sharedScans.forgetJob(jobId);
+        // 状態ファイル・成果物・マニフェスト・パッチ（<jobId>.*）
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(spoolDir, jobId + ".*")) {
+            for (Path file : stream) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            // 残ったファイルは次回の掃除で削除する
+            System.err.println("Export job " + jobId + " cleanup failed: " + e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * ジョブの利用状況（leases のロック内で参照・更新する）
+     */
+    private static final class Lease {
+        private int count;
+        private long lastUsedAt;
+    }
+
+    /**
+     * 優先度 (降順) → 登録順 でソートされるジョブ
+     */
+    private final class JobTask implements Runnable, Comparable<JobTask> {
+        private final ExportJobStatusDto status;
+        private final ExportJobRequestDto request;
+        private final long seq;
+
+        JobTask(ExportJobStatusDto status, ExportJobRequestDto request, long seq) {
+            this.status = status;
+            this.request = request;
+            this.seq = seq;
+        }
+
+        @Override
+        public void run() {
+            ExportJobService.this.run(status, request);
+        }
+
+        @Override
+        public int compareTo(JobTask other) {
+            int byPriority = Integer.compare(other.status.getPriority(), status.getPriority());
+            return byPriority != 0 ? byPriority : Long.compare(seq, other.seq);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * エクスポートジョブのマニフェスト（差分エクスポートの基準）
+ * <p>
+ * 出力した全行について objectID → 行ハッシュ と objectID → 出力キー を保持する。
+ * ラベル・エラーメッセージとも行ハッシュの比較で変更を判定する。
+ * エラーメッセージは SError.updateDate の最大値をウォーターマークとして、参照先 SLocalization の行ごとの
+ * DB 側ハッシュ (messageHashes) と併せて記録する。SLocalization には更新日時の列が無いため、
+ * ウォーターマークで読み直す行を絞る差分でも、文言の変更は messageHashes の比較で検出する。
+ * スプールディレクトリに JSON として保存される。
+ */
+public class ExportManifest {
+
+    private String jobId;
+    private String target;
+    private String connection;  // 接続先キーのハッシュ（接続情報そのものは保持しない）
+    private String filterKey;   // フィルター条件の正規化キー
+    private String watermark;   // SError.updateDate の最大値 (エラーメッセージのみ)
+    private Map<String, String> messageHashes;  // 参照先 SLocalization の objectID → DB 側の行ハッシュ (エラーメッセージのみ)
+    private Map<String, String> messageRefs = new TreeMap<>();  // objectID → 参照先 SLocalization の objectID
+    private long createdAt;
+    private Map<String, String> hashes = new TreeMap<>();
+    private Map<String, String> keys = new TreeMap<>();
+
+    // --- Getters and Setters ---
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getTarget() { return target; }
+    public void setTarget(String target) { this.target = target; }
+
+    public String getConnection() { return connection; }
+    public void setConnection(String connection) { this.connection = connection; }
+
+    public String getFilterKey() { return filterKey; }
+    public void setFilterKey(String filterKey) { this.filterKey = filterKey; }
+
+    public String getWatermark() { return watermark; }
+    public void setWatermark(String watermark) { this.watermark = watermark; }
+
+    public Map<String, String> getMessageHashes() { return messageHashes; }
+    public void setMessageHashes(Map<String, String> messageHashes) {
+        this.messageHashes = messageHashes != null ? new TreeMap<>(messageHashes) : null;
+    }
+
+    public Map<String, String> getMessageRefs() { return messageRefs; }
+    public void setMessageRefs(Map<String, String> messageRefs) { this.messageRefs = new TreeMap<>(messageRefs); }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    public Map<String, String> getHashes() { return hashes; }
+    public void setHashes(Map<String, String> hashes) { this.hashes = new TreeMap<>(hashes); }
+
+    public Map<String, String> getKeys() { return keys; }
+    public void setKeys(Map<String, String> keys) { this.keys = new TreeMap<>(keys); }
+
+    /**
+     * 1行分を記録する
+     */
+    public void put(String objectID, String hash, String key) {
+        hashes.put(objectID, hash);
+        if (key != null) {
+            keys.put(objectID, key);
+        }
+    }
+
+    /**
+     * エラーメッセージ1行の参照先を記録する（参照先が無い場合は記録しない）
+     */
+    public void putMessageRef(String objectID, String messageObjectID) {
+        if (messageObjectID != null) {
+            messageRefs.put(objectID, messageObjectID);
+        }
+    }
+
+    // --- 行ハッシュ ---
+
+    /**
+     * ラベル1行のハッシュ（全言語の文言・分類・キーを含む）
+     */
+    public static String rowHash(SLocalizationLabel label) {
+        return hash(label.getObjectID(), label.getUserKey(), label.getCategoryName(), label.getCountry1(),
+                label.getCountry2(), label.getCountry3(), label.getCountry4(), label.getCountry5());
+    }
+
+    /**
+     * エラーメッセージ1行のハッシュ（SError の列と参照先 SLocalization の全言語の文言を含む）
+     */
+    public static String rowHash(ErrorMessageDto dto) {
+        return hash(dto.getObjectID(), dto.getErrorNo(), dto.getErrorType(), dto.getMessageObjectID(),
+                dto.getCountry1(), dto.getCountry2(), dto.getCountry3(), dto.getCountry4(), dto.getCountry5());
+    }
+
+    /**
+     * 出力時のキー（ラベルは userKey → objectID、エラーは errorNo → objectID）
+     */
+    public static String outputKey(SLocalizationLabel label) {
+        return OutputEncoder.labelKey(label);
+    }
+
+    public static String outputKey(ErrorMessageDto dto) {
+        return dto.getErrorNo() != null && !dto.getErrorNo().trim().isEmpty() ? dto.getErrorNo() : dto.getObjectID();
+    }
+
+    /**
+     * 接続先 (種別・ホスト・ポート・DB名・ユーザー) のハッシュ。パスワードは含めない
+     */
+    public static String connectionHash(Map<String, Object> config) {
+        Object port = config.get("port");
+        return hash(String.valueOf(config.get("dbType")), String.valueOf(config.get("host")),
+                String.valueOf(port instanceof Number n ? n.intValue() : port), String.valueOf(config.get("dbName")),
+                String.valueOf(config.get("username")));
+    }
+
+    /**
+     * 文字列列の SHA-256 先頭8バイト (16進)。null と空文字を区別し、区切りで列の境界を保つ
+     */
+    static String hash(String... fields) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (String field : fields) {
+            if (field == null) {
+                digest.update((byte) 0);
+            } else {
+                digest.update((byte) 1);
+                digest.update(field.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0x1f);
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+}
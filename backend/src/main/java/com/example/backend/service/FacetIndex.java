@@ -0,0 +1,129 @@
+package com.example.backend.service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * スナップショットの低カーディナリティ列 (categoryName / errorType) の値ごとの行ビットマップ
+ * <p>
+ * 複数選択のフィルターはビットマップの OR（同じ列内）と AND（列間）で解決し、
+ * ファセット件数は対象列以外の条件を適用した行集合との積集合の要素数として求める（選択中の列でも他の値の件数が分かる）。
+ * 値の種類が max-values を超える列は索引を作らない。
+ */
+public final class FacetIndex {
+
+    // 列名 → 値（昇順） → 行。索引を作らなかった列は含まない
+    private final Map<String, Map<String, RowBitmap>> columns;
+
+    private FacetIndex(Map<String, Map<String, RowBitmap>> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * セクションを1回走査して索引を作成する（null の値は索引に含めない）
+     */
+    public static FacetIndex build(MappedSnapshot.Section section, List<String> columnNames, int maxValues) {
+        Map<String, Map<String, RowBitmap>> columns = new LinkedHashMap<>();
+        for (String name : columnNames) {
+            int column = section.column(name);
+            Map<String, RowBitmap.Builder> builders = new TreeMap<>();
+            boolean overflow = false;
+            for (int row = 0; row < section.getRowCount() && !overflow; row++) {
+                String value = section.get(column, row);
+                if (value == null) {
+                    continue;
+                }
+                RowBitmap.Builder builder = builders.get(value);
+                if (builder == null) {
+                    if (builders.size() >= maxValues) {
+                        overflow = true;
+                        continue;
+                    }
+                    builder = new RowBitmap.Builder();
+                    builders.put(value, builder);
+                }
+                builder.add(row);
+            }
+            if (!overflow) {
+                Map<String, RowBitmap> values = new LinkedHashMap<>();
+                builders.forEach((value, builder) -> values.put(value, builder.build()));
+                columns.put(name, values);
+            }
+        }
+        return new FacetIndex(columns);
+    }
+
+    /**
+     * 索引を作成した列か
+     */
+    public boolean isIndexed(String column) {
+        return columns.containsKey(column);
+    }
+
+    /**
+     * 指定値のいずれかを持つ行（値の OR）
+     *
+     * @param caseInsensitive 値を大文字小文字を区別せずに比較する
+     */
+    public RowBitmap select(String column, Collection<String> values, boolean caseInsensitive) {
+        RowBitmap result = RowBitmap.EMPTY;
+        for (Map.Entry<String, RowBitmap> entry : columns.get(column).entrySet()) {
+            for (String value : values) {
+                if (caseInsensitive ? entry.getKey().equalsIgnoreCase(value) : entry.getKey().equals(value)) {
+                    result = result.or(entry.getValue());
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 列ごとの値別件数
+     *
+     * @param base       選択以外の条件に一致する行
+     * @param selections 列名 → その列の選択に一致する行（選択の無い列は含まない）
+     * @param selected   列名 → 選択中の値（件数が 0 でも結果に含める）
+     * @return 列名 → 値 → 件数（件数 0 の値は選択中のもの以外は含めない）
+     */
+    public Map<String, Map<String, Long>> counts(RowBitmap base, Map<String, RowBitmap> selections,
+            Map<String, ? extends Collection<String>> selected) {
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, RowBitmap>> column : columns.entrySet()) {
+            RowBitmap scope = base;
+            for (Map.Entry<String, RowBitmap> selection : selections.entrySet()) {
+                if (!selection.getKey().equals(column.getKey())) {
+                    scope = scope.and(selection.getValue());
+                }
+            }
+            Collection<String> selectedValues = selected.containsKey(column.getKey())
+                    ? selected.get(column.getKey())
+                    : List.of();
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (Map.Entry<String, RowBitmap> value : column.getValue().entrySet()) {
+                int count = scope.andCardinality(value.getValue());
+                if (count > 0 || selectedValues.contains(value.getKey())) {
+                    counts.put(value.getKey(), (long) count);
+                }
+            }
+            result.put(column.getKey(), counts);
+        }
+        return result;
+    }
+
+    /**
+     * 索引が使用する概算バイト数
+     */
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Map<String, RowBitmap> values : columns.values()) {
+            for (RowBitmap bitmap : values.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+        }
+        return bytes;
+    }
+}
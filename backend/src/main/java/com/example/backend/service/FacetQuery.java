@@ -0,0 +1,54 @@
+package com.example.backend.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * スナップショットから応答できない場合のファセット件数を、DB の GROUP BY で求める
+ * <p>
+ * スナップショットの {@link FacetIndex#counts} と同じく、対象列の選択だけを外した条件（他の条件はすべて適用）で
+ * 値ごとの件数を数え、選択中の値は件数 0 でも含める。null の値は含めず、値の種類が max-values を超える列は件数を返さない。
+ */
+final class FacetQuery {
+
+    private FacetQuery() {
+    }
+
+    /**
+     * @param name       結果の項目名
+     * @param column     集計する列（別名付き可）
+     * @param from       FROM 句（"FROM" を含む）
+     * @param where      対象列の選択を除いた WHERE 句
+     * @param params     where のパラメーター
+     * @param selected   対象列の選択中の値
+     * @param maxValues  値の種類の上限
+     * @return 項目名 → 値 → 件数（上限を超えた場合は null）
+     */
+    static Map<String, Map<String, Long>> counts(JdbcTemplate jdbc, QueryTicket ticket, String name, String column,
+            String from, String where, List<Object> params, List<String> selected, int maxValues) {
+        String sql = "SELECT " + column + ", COUNT(*) " + from + " " + where + " AND " + column + " IS NOT NULL"
+                + " GROUP BY " + column + " ORDER BY " + column;
+        Map<String, Long> counts = jdbc.query(ticket.statement(sql, params.toArray()), rs -> {
+            Map<String, Long> values = new LinkedHashMap<>();
+            while (rs.next()) {
+                if (values.size() >= maxValues) {
+                    return null;
+                }
+                values.put(rs.getString(1), rs.getLong(2));
+            }
+            return values;
+        });
+        if (counts == null) {
+            return null;
+        }
+        for (String value : selected) {
+            counts.putIfAbsent(value, 0L);
+        }
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        result.put(name, counts);
+        return result;
+    }
+}
@@ -0,0 +1,501 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.dto.FanoutExportRequestDto;
+import com.example.backend.dto.FanoutTargetDto;
+import com.example.backend.dto.FilterDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.format.OutputFormat;
+import com.example.backend.service.format.OutputFormatRegistry;
+import com.example.backend.service.format.OutputFormatWriter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 複数の接続先への一括エクスポート
+ * <p>
+ * 同じフィルター・形式・言語で全接続先を並列に読み出し・変換し、完了した順に接続先ごとのフォルダとして
+ * 1つの ZIP にストリーミングで書き出す。同時に実行する接続先の数はサーバー全体で上限を設け、
+ * 接続先ごとに実行開始からのタイムアウトを適用する。ZIP の末尾には接続先ごとの所要時間をまとめた
+ * summary.json を追加する。
+ */
+@Service
+public class FanoutExportService {
+
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    public static final String TIMEOUT = "TIMEOUT";
+
+    private static final Set<String> LANGUAGES = Set.of("country1", "country2", "country3", "country4", "country5");
+    private static final KeyRange ALL_KEYS = new KeyRange(null, null, 0);
+
+    // タイムアウト後、読み出しスレッドの割り込みまで待つ猶予
+    private static final long CANCEL_GRACE_MILLIS = 5000;
+
+    private final SLocalizationLabelService labelService;
+    private final ErrorMessageService errorMessageService;
+    private final OutputFormatRegistry outputFormats;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Path spoolDir;
+    private final int maxConcurrent;
+    private final int maxTargets;
+    private final int batchSize;
+    private final int defaultTimeoutSeconds;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+
+    public FanoutExportService(SLocalizationLabelService labelService, ErrorMessageService errorMessageService,
+            OutputFormatRegistry outputFormats,
+            @Value("${fanout.spool-dir:${java.io.tmpdir}/resource-convert/fanout}") String spoolDir,
+            @Value("${fanout.max-concurrent:4}") int maxConcurrent,
+            @Value("${fanout.max-targets:50}") int maxTargets,
+            @Value("${fanout.batch-size:1000}") int batchSize,
+            @Value("${fanout.target-timeout-seconds:300}") int defaultTimeoutSeconds) {
+        this.labelService = labelService;
+        this.errorMessageService = errorMessageService;
+        this.outputFormats = outputFormats;
+        this.spoolDir = Paths.get(spoolDir);
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxTargets = maxTargets;
+        this.batchSize = Math.max(1, batchSize);
+        this.defaultTimeoutSeconds = defaultTimeoutSeconds;
+        this.permits = new Semaphore(this.maxConcurrent, true);
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "fanout-export-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * リクエストの検証（出力開始前に呼び出し、不正な場合は IllegalArgumentException）
+     */
+    public void validate(FanoutExportRequestDto request) {
+        outputFormats.resolve(request.getTarget(), request.getFormat(), request.getFormats());
+        List<FanoutTargetDto> targets = request.getTargets();
+        if (targets == null || targets.isEmpty()) {
+            throw new IllegalArgumentException("targets が空です");
+        }
+        if (targets.size() > maxTargets) {
+            throw new IllegalArgumentException("接続先が多すぎます (上限 " + maxTargets + ")");
+        }
+        if (request.getLanguages() == null || request.getLanguages().isEmpty()) {
+            throw new IllegalArgumentException("languages が空です");
+        }
+        for (String lang : request.getLanguages()) {
+            if (!LANGUAGES.contains(lang)) {
+                throw new IllegalArgumentException("Unsupported language: " + lang);
+            }
+        }
+    }
+
+    /**
+     * 全接続先のエクスポートを実行し、ZIP として書き出す
+     */
+    public void export(FanoutExportRequestDto request, OutputStream out) throws IOException {
+        validate(request);
+        long started = System.currentTimeMillis();
+        String target = request.getTarget();
+        List<OutputFormat> formats = new ArrayList<>();
+        for (String name : outputFormats.resolve(target, request.getFormat(), request.getFormats())) {
+            formats.add(outputFormats.get(name));
+        }
+        List<String> languages = List.copyOf(request.getLanguages());
+        int timeoutSeconds = request.getTimeoutSeconds() > 0 ? request.getTimeoutSeconds() : defaultTimeoutSeconds;
+        long timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+
+        // リクエストごとの作業ディレクトリ。終了時にまとめて削除する
+        Path workDir = spoolDir.resolve(UUID.randomUUID().toString());
+        Files.createDirectories(workDir);
+
+        List<String> folders = folderNames(request.getTargets());
+        List<TargetTask> tasks = new ArrayList<>();
+        ExecutorCompletionService<TargetResult> completion = new ExecutorCompletionService<>(executor);
+        ZipOutputStream zip = new ZipOutputStream(out);
+        try {
+            for (int i = 0; i < folders.size(); i++) {
+                TargetTask task = new TargetTask(request.getTargets().get(i), folders.get(i),
+                        workDir.resolve(String.valueOf(i)), target, formats, languages, request.getFilter(),
+                        timeoutMillis);
+                task.future = completion.submit(task);
+                tasks.add(task);
+            }
+
+            int remaining = tasks.size();
+            while (remaining > 0) {
+                Future<TargetResult> done = completion.poll(500, TimeUnit.MILLISECONDS);
+                if (done == null) {
+                    // 読み出し中のコールバックで止まらない（最初の行が返らないなど）場合は割り込む
+                    long now = System.currentTimeMillis();
+                    for (TargetTask task : tasks) {
+                        long startedAt = task.result.startedAt;
+                        if (startedAt > 0 && now - startedAt > timeoutMillis + CANCEL_GRACE_MILLIS) {
+                            task.future.cancel(true);
+                        }
+                    }
+                    continue;
+                }
+                remaining--;
+                TargetTask task = taskOf(tasks, done);
+                try {
+                    done.get();
+                } catch (CancellationException e) {
+                    task.result.status = TIMEOUT;
+                    task.result.message = "タイムアウト (" + timeoutSeconds + " 秒) により中断しました";
+                    task.result.elapsedMillis = System.currentTimeMillis() - task.result.startedAt;
+                } catch (ExecutionException e) {
+                    task.result.status = FAILED;
+                    task.result.message = String.valueOf(e.getCause().getMessage());
+                }
+                if (COMPLETED.equals(task.result.status)) {
+                    writeTarget(zip, task, formats.size() > 1);
+                }
+            }
+
+            zip.putNextEntry(new ZipEntry("summary.json"));
+            zip.write(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(
+                    summary(request, formats, languages, timeoutSeconds, tasks, started)));
+            zip.closeEntry();
+            zip.finish();
+            zip.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("一括エクスポートが中断されました", e);
+        } finally {
+            for (TargetTask task : tasks) {
+                task.future.cancel(true);
+            }
+            deleteRecursively(workDir);
+        }
+    }
+
+    private static TargetTask taskOf(List<TargetTask> tasks, Future<TargetResult> future) {
+        for (TargetTask task : tasks) {
+            if (task.future == future) {
+                return task;
+            }
+        }
+        throw new IllegalStateException("Unknown fan-out task");
+    }
+
+    /**
+     * 完了した接続先の出力を ZIP の接続先フォルダへ追加する
+     */
+    private void writeTarget(ZipOutputStream zip, TargetTask task, boolean multipleFormats) throws IOException {
+        long bytes = 0;
+        for (TargetOutput output : task.outputs) {
+            String name = task.target + "_" + output.lang + "." + output.format.getFileExtension();
+            String entry = task.folder + "/" + (multipleFormats ? output.format.getName() + "/" : "") + name;
+            zip.putNextEntry(new ZipEntry(entry));
+            bytes += Files.copy(output.file, zip);
+            zip.closeEntry();
+            Files.deleteIfExists(output.file);
+        }
+        task.result.bytes = bytes;
+        zip.flush();
+    }
+
+    private Map<String, Object> summary(FanoutExportRequestDto request, List<OutputFormat> formats,
+            List<String> languages, int timeoutSeconds, List<TargetTask> tasks, long started) {
+        List<String> formatNames = new ArrayList<>();
+        for (OutputFormat format : formats) {
+            formatNames.add(format.getName());
+        }
+        List<Map<String, Object>> targets = new ArrayList<>();
+        for (TargetTask task : tasks) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("folder", task.folder);
+            entry.put("dbType", task.config.getDbType());
+            entry.put("host", task.config.getHost());
+            entry.put("dbName", task.config.getDbName());
+            entry.put("status", task.result.status);
+            entry.put("rows", task.result.rows);
+            entry.put("bytes", task.result.bytes);
+            entry.put("queuedMillis", task.result.queuedMillis);
+            entry.put("elapsedMillis", task.result.elapsedMillis);
+            entry.put("message", task.result.message);
+            targets.add(entry);
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("target", request.getTarget());
+        summary.put("formats", formatNames);
+        summary.put("languages", languages);
+        summary.put("maxConcurrent", maxConcurrent);
+        summary.put("timeoutSeconds", timeoutSeconds);
+        summary.put("completed", tasks.stream().filter(t -> COMPLETED.equals(t.result.status)).count());
+        summary.put("totalMillis", System.currentTimeMillis() - started);
+        summary.put("targets", targets);
+        return summary;
+    }
+
+    /**
+     * ZIP 内のフォルダ名。未指定の場合は "ホスト_DB名"、使用できない文字は "_" に置き換え、重複には連番を付ける
+     */
+    static List<String> folderNames(List<FanoutTargetDto> targets) {
+        List<String> names = new ArrayList<>();
+        Set<String> used = new HashSet<>();
+        for (FanoutTargetDto target : targets) {
+            String base = target.getName() != null && !target.getName().isBlank()
+                    ? target.getName()
+                    : target.getHost() + "_" + target.getDbName();
+            base = base.replaceAll("[^A-Za-z0-9._-]", "_");
+            if (base.isEmpty() || base.chars().allMatch(c -> c == '.')) {
+                base = "target";
+            }
+            String name = base;
+            for (int n = 2; !used.add(name); n++) {
+                name = base + "-" + n;
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // 後始末のため無視
+                }
+            });
+        } catch (IOException ignored) {
+            // 後始末のため無視
+        }
+    }
+
+    // --- 接続先ごとの実行 ---
+
+    /**
+     * 接続先ごとの実行結果（summary.json に出力）
+     */
+    private static final class TargetResult {
+        private volatile String status = FAILED;
+        private volatile long startedAt;
+        private long rows;
+        private long bytes;
+        private long queuedMillis;
+        private long elapsedMillis;
+        private String message;
+    }
+
+    /**
+     * 形式 × 言語ごとの一時ファイル
+     */
+    private static final class TargetOutput {
+        private final OutputFormat format;
+        private final String lang;
+        private final Path file;
+
+        TargetOutput(OutputFormat format, String lang, Path file) {
+            this.format = format;
+            this.lang = lang;
+            this.file = file;
+        }
+    }
+
+    /**
+     * 実行開始からのタイムアウト（読み出しのコールバック内で検出する）
+     */
+    private static final class TargetTimeoutException extends RuntimeException {
+        TargetTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    private final class TargetTask implements Callable<TargetResult> {
+        private final FanoutTargetDto config;
+        private final String folder;
+        private final Path dir;
+        private final String target;
+        private final List<OpenTargetOutput> writers = new ArrayList<>();
+        private final List<TargetOutput> outputs = new ArrayList<>();
+        private final FilterDto filter;
+        private final long timeoutMillis;
+        private final long submittedAt = System.currentTimeMillis();
+        private final TargetResult result = new TargetResult();
+        private volatile Future<TargetResult> future;
+
+        TargetTask(FanoutTargetDto config, String folder, Path dir, String target, List<OutputFormat> formats,
+                List<String> languages, FilterDto filter, long timeoutMillis) {
+            this.config = config;
+            this.folder = folder;
+            this.dir = dir;
+            this.target = target;
+            this.filter = filter;
+            this.timeoutMillis = timeoutMillis;
+            for (OutputFormat format : formats) {
+                for (String lang : languages) {
+                    outputs.add(new TargetOutput(format, lang, dir.resolve(format.getName() + "." + lang)));
+                }
+            }
+        }
+
+        @Override
+        public TargetResult call() throws Exception {
+            permits.acquire();
+            try {
+                long startedAt = System.currentTimeMillis();
+                result.queuedMillis = startedAt - submittedAt;
+                result.startedAt = startedAt;
+                try {
+                    Files.createDirectories(dir);
+                    export(startedAt + timeoutMillis);
+                    result.status = COMPLETED;
+                } catch (Exception e) {
+                    result.status = isTimeout(e) ? TIMEOUT : FAILED;
+                    result.message = isTimeout(e)
+                            ? "タイムアウト (" + timeoutMillis / 1000 + " 秒) により中断しました"
+                            : e.getMessage();
+                    System.err.println("Fan-out export to " + folder + " failed: " + e.getMessage());
+                    for (TargetOutput output : outputs) {
+                        Files.deleteIfExists(output.file);
+                    }
+                } finally {
+                    result.elapsedMillis = System.currentTimeMillis() - startedAt;
+                }
+                return result;
+            } finally {
+                permits.release();
+            }
+        }
+
+        private void export(long deadline) throws IOException {
+            Map<String, Object> dbConfig = config.asDbConfigMap();
+            try {
+                for (TargetOutput output : outputs) {
+                    writers.add(new OpenTargetOutput(output.format.newWriter(target, output.lang),
+                            new BufferedOutputStream(Files.newOutputStream(output.file), 64 * 1024)));
+                }
+                writeEach((writer, buffer) -> writer.writeHeader(buffer));
+                if (ExportJobService.TARGET_LABELS.equals(target)) {
+                    List<SLocalizationLabel> batch = new ArrayList<>(batchSize);
+                    labelService.scanLabelRange(dbConfig, filter, ALL_KEYS, row -> {
+                        batch.add(row);
+                        if (batch.size() >= batchSize) {
+                            flush(batch, deadline, b -> writeEach((writer, buffer) -> writer.writeLabels(b, buffer)));
+                        }
+                    });
+                    flush(batch, deadline, b -> writeEach((writer, buffer) -> writer.writeLabels(b, buffer)));
+                } else {
+                    List<ErrorMessageDto> batch = new ArrayList<>(batchSize);
+                    errorMessageService.scanErrorMessageRange(dbConfig, filter, ALL_KEYS, row -> {
+                        batch.add(row);
+                        if (batch.size() >= batchSize) {
+                            flush(batch, deadline,
+                                    b -> writeEach((writer, buffer) -> writer.writeErrorMessages(b, buffer)));
+                        }
+                    });
+                    flush(batch, deadline,
+                            b -> writeEach((writer, buffer) -> writer.writeErrorMessages(b, buffer)));
+                }
+                writeEach((writer, buffer) -> writer.writeFooter(buffer));
+            } finally {
+                IOException failure = null;
+                for (OpenTargetOutput writer : writers) {
+                    try {
+                        writer.stream.close();
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+        }
+
+        private <T> void flush(List<T> batch, long deadline, Consumer<List<T>> writer) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new TargetTimeoutException("タイムアウト");
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new TargetTimeoutException("中断されました");
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            writer.accept(batch);
+            result.rows += batch.size();
+            batch.clear();
+        }
+
+        private void writeEach(BiConsumer<OutputFormatWriter, EncodedBuffer> encoder) {
+            EncodedBuffer buffer = OutputEncoder.acquire();
+            try {
+                for (OpenTargetOutput writer : writers) {
+                    buffer.reset();
+                    encoder.accept(writer.writer, buffer);
+                    buffer.writeTo(writer.stream);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                OutputEncoder.release(buffer);
+            }
+        }
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TargetTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class OpenTargetOutput {
+        private final OutputFormatWriter writer;
+        private final OutputStream stream;
+
+        OpenTargetOutput(OutputFormatWriter writer, OutputStream stream) {
+            this.writer = writer;
+            this.stream = stream;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.dto.PagedResponseDto;
+import com.example.backend.entity.SError;
+import com.example.backend.entity.SLocalization;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.repository.SErrorRepository;
+import com.example.backend.repository.SLocalizationLabelRepository;
+import com.example.backend.repository.SLocalizationRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 固定DBのテーブルをページ単位、または NDJSON (1行1オブジェクト) のストリーミングで読み出す
+ * <p>
+ * いずれもコンストラクタ式で管理対象外のオブジェクトとして受け取るため、永続化コンテキストに
+ * エンティティ（変更検知用のスナップショットを含む）が溜まらない。エンティティのストリーミングは
+ * クエリの形に依存しないよう、管理対象となっている行があれば読み出した時点で永続化コンテキストから外す。
+ * ストリーミングは1行ずつ書き出すので、テーブルの件数によらずヒープ使用量は一定となる。
+ */
+@Service
+public class FixedDataService {
+
+    private final SErrorRepository sErrorRepository;
+    private final SLocalizationRepository sLocalizationRepository;
+    private final SLocalizationLabelRepository labelRepository;
+    private final ObjectWriter rowWriter;
+    private final int maxPageSize;
+    private final int flushLines;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public FixedDataService(SErrorRepository sErrorRepository, SLocalizationRepository sLocalizationRepository,
+            SLocalizationLabelRepository labelRepository, ObjectMapper objectMapper,
+            @Value("${fixed-db.max-page-size:1000}") int maxPageSize,
+            @Value("${fixed-db.stream.flush-lines:1000}") int flushLines) {
+        this.sErrorRepository = sErrorRepository;
+        this.sLocalizationRepository = sLocalizationRepository;
+        this.labelRepository = labelRepository;
+        // 1行ごとの flush を行わない（flushLines 行ごとにまとめて送る）
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.maxPageSize = Math.max(1, maxPageSize);
+        this.flushLines = Math.max(1, flushLines);
+    }
+
+    // --- ページ取得 ---
+
+    public PagedResponseDto<SError> getErrorPage(int page, int size) {
+        return toPaged(sErrorRepository.findPageBy(pageRequest(page, size)));
+    }
+
+    public PagedResponseDto<SLocalization> getLocalizationPage(int page, int size) {
+        return toPaged(sLocalizationRepository.findPageBy(pageRequest(page, size)));
+    }
+
+    public PagedResponseDto<SLocalizationLabel> getLabelPage(int page, int size) {
+        return toPaged(labelRepository.findPageBy(pageRequest(page, size)));
+    }
+
+    public PagedResponseDto<ErrorMessageDto> getErrorMessagePage(int page, int size) {
+        return toPaged(sErrorRepository.findErrorMessagePage(pageRequest(page, size)));
+    }
+
+    // --- ストリーミング (objectID 順) ---
+
+    /**
+     * @return 出力した行数
+     */
+    @Transactional(readOnly = true)
+    public long streamErrors(OutputStream out) throws IOException {
+        try (Stream<SError> rows = sErrorRepository.streamAllBy()) {
+            return writeNdjson(detached(rows), out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long streamLocalizations(OutputStream out) throws IOException {
+        try (Stream<SLocalization> rows = sLocalizationRepository.streamAllBy()) {
+            return writeNdjson(detached(rows), out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long streamLabels(OutputStream out) throws IOException {
+        try (Stream<SLocalizationLabel> rows = labelRepository.streamAllBy()) {
+            return writeNdjson(detached(rows), out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long streamErrorMessages(OutputStream out) throws IOException {
+        try (Stream<ErrorMessageDto> rows = sErrorRepository.streamErrorMessages()) {
+            return writeNdjson(rows, out);
+        }
+    }
+
+    // --- 1行ずつの読み出し (objectID 順、管理対象外) ---
+
+    @Transactional(readOnly = true)
+    public void forEachErrorMessage(Consumer<ErrorMessageDto> action) {
+        try (Stream<ErrorMessageDto> rows = sErrorRepository.streamErrorMessages()) {
+            rows.forEach(action);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachLabel(Consumer<SLocalizationLabel> action) {
+        try (Stream<SLocalizationLabel> rows = labelRepository.streamAllBy()) {
+            detached(rows).forEach(action);
+        }
+    }
+
+    /**
+     * 読み出したエンティティが管理対象であれば永続化コンテキストから外す（関連を持たないため書き出しに影響しない）
+     */
+    private <T> Stream<T> detached(Stream<T> rows) {
+        if (entityManager == null) {
+            return rows;
+        }
+        return rows.peek(row -> {
+            if (entityManager.contains(row)) {
+                entityManager.detach(row);
+            }
+        });
+    }
+
+    /**
+     * ページ番号・件数を補正したページ要求（objectID 順、件数は最大 maxPageSize 件）
+     */
+    PageRequest pageRequest(int page, int size) {
+        return PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), maxPageSize), Sort.by("objectID"));
+    }
+
+    private static <T> PagedResponseDto<T> toPaged(Page<T> page) {
+        return new PagedResponseDto<>(page.getContent(), page.getTotalElements());
+    }
+
+    <T> long writeNdjson(Stream<T> rows, OutputStream out) throws IOException {
+        JsonGenerator gen = rowWriter.createGenerator(out);
+        gen.setRootValueSeparator(null);
+        long count = 0;
+        for (Iterator<T> it = rows.iterator(); it.hasNext();) {
+            rowWriter.writeValue(gen, it.next());
+            gen.writeRaw('\n');
+            if (++count % flushLines == 0) {
+                gen.flush();
+            }
+        }
+        gen.flush();
+        return count;
+    }
+}
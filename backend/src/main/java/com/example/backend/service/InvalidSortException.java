@@ -0,0 +1,15 @@
+package com.example.backend.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 並び順の指定またはページングのカーソルが不正であることを示す例外
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidSortException extends IllegalArgumentException {
+
+    public InvalidSortException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * objectID のキー範囲 (lowerExclusive, upperInclusive]
+ * 下限・上限が null の場合はその方向に制限なし
+ */
+public class KeyRange {
+
+    private final String lowerExclusive;
+    private final String upperInclusive;
+    private final long rowCount;
+
+    public KeyRange(String lowerExclusive, String upperInclusive, long rowCount) {
+        this.lowerExclusive = lowerExclusive;
+        this.upperInclusive = upperInclusive;
+        this.rowCount = rowCount;
+    }
+
+    public String getLowerExclusive() {
+        return lowerExclusive;
+    }
+
+    public String getUpperInclusive() {
+        return upperInclusive;
+    }
+
+    /**
+     * 分割時点での範囲内の件数（進捗表示用の目安）
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * バケットごとの最大 objectID と件数から、キー空間全体を覆う範囲の列を作る
+     * 先頭の範囲は下限なし、末尾の範囲は上限なしとし、分割後に追加された行も取りこぼさない
+     *
+     * @param upperBounds バケットごとの最大 objectID（昇順）
+     * @param counts      バケットごとの件数
+     * @return 昇順に並んだキー範囲
+     */
+    public static List<KeyRange> fromUpperBounds(List<String> upperBounds, List<Long> counts) {
+        List<KeyRange> ranges = new ArrayList<>();
+        if (upperBounds.isEmpty()) {
+            ranges.add(new KeyRange(null, null, 0));
+            return ranges;
+        }
+        String lower = null;
+        for (int i = 0; i < upperBounds.size(); i++) {
+            String upper = (i == upperBounds.size() - 1) ? null : upperBounds.get(i);
+            ranges.add(new KeyRange(lower, upper, counts.get(i)));
+            lower = upperBounds.get(i);
+        }
+        return ranges;
+    }
+
+    /**
+     * 範囲条件を WHERE 句に追加する
+     *
+     * @param column     objectID 列名（テーブル別名付き可）
+     * @param whereClause WHERE 句
+     * @param params     バインドパラメータ
+     */
+    public void appendCondition(String column, StringBuilder whereClause, List<Object> params) {
+        if (lowerExclusive != null) {
+            whereClause.append(" AND ").append(column).append(" > ?");
+            params.add(lowerExclusive);
+        }
+        if (upperInclusive != null) {
+            whereClause.append(" AND ").append(column).append(" <= ?");
+            params.add(upperInclusive);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 列指向スナップショットファイルの読み取り (MappedByteBuffer)
+ * <p>
+ * ファイル全体を読み取り専用でマップし、値は要求時に絶対位置の読み出しでデコードする。
+ * 読み出しはバッファの position を変更しないため、複数スレッドから同時に参照できる。
+ * 形式は {@link MappedSnapshotWriter} を参照。
+ */
+public final class MappedSnapshot {
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final long createdAt;
+    private final Map<String, Section> sections = new LinkedHashMap<>();
+
+    private MappedSnapshot(Path file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        byte[] magic = new byte[MappedSnapshotWriter.MAGIC.length];
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, MappedSnapshotWriter.MAGIC)) {
+            throw new IllegalArgumentException("スナップショットファイルではありません: " + file);
+        }
+        ByteBuffer header = buffer.duplicate();
+        header.position(magic.length);
+        this.createdAt = header.getLong();
+        int sectionCount = header.getInt();
+        for (int s = 0; s < sectionCount; s++) {
+            String name = readUtf(header);
+            String fingerprint = readUtf(header);
+            int rowCount = header.getInt();
+            int columnCount = header.getInt();
+            String[] columnNames = new String[columnCount];
+            long[][] positions = new long[columnCount][];
+            for (int c = 0; c < columnCount; c++) {
+                columnNames[c] = readUtf(header);
+                positions[c] = new long[] { header.getLong(), header.getLong(), header.getLong(), header.getLong() };
+                if (positions[c][2] + positions[c][3] > buffer.capacity()) {
+                    throw new IllegalArgumentException("スナップショットファイルが破損しています: " + file);
+                }
+            }
+            sections.put(name, new Section(name, fingerprint, rowCount, columnNames, positions));
+        }
+    }
+
+    /**
+     * ファイルを開いてマップする（2GB を超えるファイルは対象外）
+     */
+    public static MappedSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("スナップショットファイルが大きすぎます: " + file);
+            }
+            return new MappedSnapshot(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } catch (RuntimeException e) {
+            throw new IOException("スナップショットファイルを読み込めません: " + file + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * セクション（無い場合は null）
+     */
+    public Section section(String name) {
+        return sections.get(name);
+    }
+
+    private static String readUtf(ByteBuffer header) {
+        byte[] bytes = new byte[header.getInt()];
+        header.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 1テーブル分の列の集まり
+     */
+    public final class Section {
+        private final String name;
+        private final String fingerprint;
+        private final int rowCount;
+        private final String[] columnNames;
+        private final int[] offsetsPos;
+        private final int[] nullsPos;
+        private final int[] heapPos;
+
+        private Section(String name, String fingerprint, int rowCount, String[] columnNames, long[][] positions) {
+            this.name = name;
+            this.fingerprint = fingerprint;
+            this.rowCount = rowCount;
+            this.columnNames = columnNames;
+            this.offsetsPos = new int[columnNames.length];
+            this.nullsPos = new int[columnNames.length];
+            this.heapPos = new int[columnNames.length];
+            for (int c = 0; c < columnNames.length; c++) {
+                offsetsPos[c] = (int) positions[c][0];
+                nullsPos[c] = (int) positions[c][1];
+                heapPos[c] = (int) positions[c][2];
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 作成時の元DBの状態を表す値（検証時に比較する）
+         */
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        /**
+         * 列番号（無い場合は -1）
+         */
+        public int column(String columnName) {
+            for (int c = 0; c < columnNames.length; c++) {
+                if (columnNames[c].equals(columnName)) {
+                    return c;
+                }
+            }
+            return -1;
+        }
+
+        public boolean isNull(int column, int row) {
+            byte bits = buffer.get(nullsPos[column] + (row >> 3));
+            return (bits & (1 << (row & 7))) != 0;
+        }
+
+        /**
+         * 値をデコードして返す（null はそのまま null）
+         */
+        public String get(int column, int row) {
+            if (isNull(column, row)) {
+                return null;
+            }
+            int base = offsetsPos[column] + row * 4;
+            int start = buffer.getInt(base);
+            int end = buffer.getInt(base + 4);
+            if (start == end) {
+                return "";
+            }
+            byte[] bytes = new byte[end - start];
+            buffer.get(heapPos[column] + start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.backend.service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * {@link MappedSnapshot} 形式のファイルをストリーミングで書き出す
+ * <p>
+ * 列ごとに文字列本体 (UTF-8) を一時ファイルへ追記し、メモリには列ごとのオフセットと
+ * null ビットだけを保持する。{@link #finish()} でヘッダー・オフセット・本体を1ファイルに組み立て、
+ * 完成後にアトミックに配置する。
+ * <pre>
+ * "RCSNAP01" createdAt:long sectionCount:int
+ * section*: name:utf fingerprint:utf rowCount:int columnCount:int
+ *           column*: name:utf offsetsPos:long nullsPos:long heapPos:long heapLen:long
+ * data: 列ごとに offsets:int[rowCount + 1] nulls:byte[(rowCount + 7) / 8] heap:byte[heapLen]
+ * </pre>
+ */
+public class MappedSnapshotWriter implements Closeable {
+
+    static final byte[] MAGIC = "RCSNAP01".getBytes(StandardCharsets.US_ASCII);
+
+    private final Path target;
+    private final Path tempDir;
+    private final List<SectionBuffer> sections = new ArrayList<>();
+    private final List<Path> scratch = new ArrayList<>();
+    private SectionBuffer current;
+
+    public MappedSnapshotWriter(Path target, Path tempDir) {
+        this.target = target;
+        this.tempDir = tempDir;
+    }
+
+    public void beginSection(String name, String[] columns, String fingerprint) throws IOException {
+        if (current != null) {
+            throw new IllegalStateException("前のセクションが終了していません");
+        }
+        current = new SectionBuffer(name, fingerprint, columns);
+    }
+
+    public void addRow(String... values) throws IOException {
+        current.addRow(values);
+    }
+
+    public void endSection() throws IOException {
+        current.closeHeaps();
+        sections.add(current);
+        current = null;
+    }
+
+    /**
+     * ファイルを組み立てて配置する
+     */
+    public void finish() throws IOException {
+        if (current != null) {
+            throw new IllegalStateException("セクションが終了していません");
+        }
+        byte[] header = buildHeader();
+        Path tmp = Files.createTempFile(tempDir, target.getFileName().toString(), ".tmp");
+        scratch.add(tmp);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024))) {
+            out.write(header);
+            for (SectionBuffer section : sections) {
+                for (ColumnBuffer column : section.columns) {
+                    for (int i = 0; i <= section.rowCount; i++) {
+                        out.writeInt(column.offsets[i]);
+                    }
+                    byte[] nulls = Arrays.copyOf(column.nulls.toByteArray(), (section.rowCount + 7) / 8);
+                    out.write(nulls);
+                    Files.copy(column.heapFile, out);
+                }
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private byte[] buildHeader() throws IOException {
+        // 1回目でヘッダー長を求め、2回目で実際の位置を書き込む
+        int headerLength = writeHeader(new DataOutputStream(OutputStream.nullOutputStream()), 0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(headerLength);
+        writeHeader(new DataOutputStream(bytes), headerLength);
+        return bytes.toByteArray();
+    }
+
+    private int writeHeader(DataOutputStream out, long dataStart) throws IOException {
+        out.write(MAGIC);
+        out.writeLong(System.currentTimeMillis());
+        out.writeInt(sections.size());
+        long position = dataStart;
+        for (SectionBuffer section : sections) {
+            writeUtf(out, section.name);
+            writeUtf(out, section.fingerprint);
+            out.writeInt(section.rowCount);
+            out.writeInt(section.columns.size());
+            for (ColumnBuffer column : section.columns) {
+                long offsetsPos = position;
+                long nullsPos = offsetsPos + 4L * (section.rowCount + 1);
+                long heapPos = nullsPos + (section.rowCount + 7) / 8;
+                writeUtf(out, column.name);
+                out.writeLong(offsetsPos);
+                out.writeLong(nullsPos);
+                out.writeLong(heapPos);
+                out.writeLong(column.heapLength);
+                position = heapPos + column.heapLength;
+            }
+        }
+        out.flush();
+        return out.size();
+    }
+
+    private static void writeUtf(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (SectionBuffer section : sections) {
+            section.closeHeaps();
+        }
+        if (current != null) {
+            current.closeHeaps();
+        }
+        for (Path file : scratch) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private final class SectionBuffer {
+        private final String name;
+        private final String fingerprint;
+        private final List<ColumnBuffer> columns = new ArrayList<>();
+        private int rowCount;
+
+        SectionBuffer(String name, String fingerprint, String[] columnNames) throws IOException {
+            this.name = name;
+            this.fingerprint = fingerprint;
+            for (String columnName : columnNames) {
+                Path heap = Files.createTempFile(tempDir, "snapshot-column", ".heap");
+                scratch.add(heap);
+                columns.add(new ColumnBuffer(columnName, heap));
+            }
+        }
+
+        void addRow(String[] values) throws IOException {
+            if (values.length != columns.size()) {
+                throw new IllegalArgumentException("列数が一致しません: " + values.length);
+            }
+            for (int i = 0; i < values.length; i++) {
+                columns.get(i).append(rowCount, values[i]);
+            }
+            rowCount++;
+        }
+
+        void closeHeaps() throws IOException {
+            for (ColumnBuffer column : columns) {
+                column.heap.close();
+            }
+        }
+    }
+
+    private static final class ColumnBuffer {
+        private final String name;
+        private final Path heapFile;
+        private final OutputStream heap;
+        private final BitSet nulls = new BitSet();
+        private int[] offsets = new int[1024];
+        private long heapLength;
+
+        ColumnBuffer(String name, Path heapFile) throws IOException {
+            this.name = name;
+            this.heapFile = heapFile;
+            this.heap = new BufferedOutputStream(Files.newOutputStream(heapFile), 64 * 1024);
+        }
+
+        void append(int row, String value) throws IOException {
+            if (row + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            if (value == null) {
+                nulls.set(row);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                heap.write(bytes);
+                heapLength += bytes.length;
+                if (heapLength > Integer.MAX_VALUE) {
+                    throw new IOException("スナップショットの列サイズが上限を超えました: " + name);
+                }
+            }
+            offsets[row + 1] = (int) heapLength;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * XML / Properties 出力の共通エンコーダー
+ * <p>
+ * 文字ごとのエスケープ表を引き、エスケープ不要な連続区間はまとめてコピーしながら
+ * 行ごとの中間 String を作らずに UTF-8（Properties は ISO-8859-1 + \\uXXXX も可）の
+ * バイト列へ直接書き込む。書き込み先のバッファはプールして再利用する。
+ */
+public final class OutputEncoder {
+
+    /**
+     * Properties の出力文字コード
+     */
+    public enum PropertiesCharset {
+        /** UTF-8 でそのまま出力 */
+        UTF_8,
+        /** ISO-8859-1 で出力し、ASCII 印字可能文字以外は \\uXXXX でエスケープ */
+        ISO_8859_1
+    }
+
+    private static final byte[] XML_HEADER = ErrorMessageService.XML_HEADER.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] XML_FOOTER = ErrorMessageService.XML_FOOTER.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] XML_ERROR_OPEN = ascii("  <error code=\"");
+    private static final byte[] XML_TYPE_OPEN = ascii("\">\n    <type>");
+    private static final byte[] XML_MESSAGE_OPEN = ascii("</type>\n    <message>");
+    private static final byte[] XML_ERROR_CLOSE = ascii("</message>\n  </error>\n");
+    private static final byte[] TYPE_ERROR = ascii("error");
+    private static final byte[] TYPE_WARNING = ascii("warning");
+    private static final byte[] TYPE_INFO = ascii("info");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    // ASCII 文字ごとの置換バイト列（null はエスケープ不要）
+    private static final byte[][] XML_ESCAPES = new byte[128][];
+    private static final byte[][] PROPERTIES_KEY_ESCAPES = new byte[128][];
+    private static final byte[][] PROPERTIES_VALUE_ESCAPES = new byte[128][];
+
+    static {
+        XML_ESCAPES['&'] = ascii("&amp;");
+        XML_ESCAPES['<'] = ascii("&lt;");
+        XML_ESCAPES['>'] = ascii("&gt;");
+        XML_ESCAPES['"'] = ascii("&quot;");
+        XML_ESCAPES['\''] = ascii("&apos;");
+
+        // キーはバックスラッシュをエスケープしない（従来の出力と同一）
+        PROPERTIES_KEY_ESCAPES['='] = ascii("\\=");
+        PROPERTIES_KEY_ESCAPES[':'] = ascii("\\:");
+        PROPERTIES_KEY_ESCAPES['#'] = ascii("\\#");
+        PROPERTIES_KEY_ESCAPES['!'] = ascii("\\!");
+        PROPERTIES_KEY_ESCAPES['\n'] = ascii("\\n");
+        PROPERTIES_KEY_ESCAPES['\r'] = ascii("\\r");
+
+        System.arraycopy(PROPERTIES_KEY_ESCAPES, 0, PROPERTIES_VALUE_ESCAPES, 0, 128);
+        PROPERTIES_VALUE_ESCAPES['\\'] = ascii("\\\\");
+    }
+
+    // バッファプール（大きくなり過ぎたバッファはプールに戻さない）
+    private static final int POOL_SIZE = 16;
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    private static final int MAX_POOLED_CAPACITY = 4 * 1024 * 1024;
+    private static final Queue<EncodedBuffer> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    private OutputEncoder() {
+    }
+
+    /**
+     * プールから空のバッファを取得
+     */
+    public static EncodedBuffer acquire() {
+        EncodedBuffer buffer = POOL.poll();
+        if (buffer == null) {
+            return new EncodedBuffer(INITIAL_CAPACITY);
+        }
+        POOLED.decrementAndGet();
+        buffer.reset();
+        return buffer;
+    }
+
+    /**
+     * バッファをプールへ返却
+     */
+    public static void release(EncodedBuffer buffer) {
+        if (buffer.capacity() <= MAX_POOLED_CAPACITY && POOLED.incrementAndGet() <= POOL_SIZE) {
+            buffer.reset();
+            POOL.offer(buffer);
+        } else if (buffer.capacity() <= MAX_POOLED_CAPACITY) {
+            POOLED.decrementAndGet();
+        }
+    }
+
+    public static void writeXmlHeader(EncodedBuffer out) {
+        out.write(XML_HEADER);
+    }
+
+    public static void writeXmlFooter(EncodedBuffer out) {
+        out.write(XML_FOOTER);
+    }
+
+    /**
+     * &lt;error&gt; 要素を書き込む（ヘッダー・フッターは含まない）
+     */
+    public static void writeXmlEntries(List<ErrorMessageDto> list, String lang, EncodedBuffer out) {
+        for (ErrorMessageDto dto : list) {
+            byte[] type = switch (dto.getErrorType()) {
+                case "1" -> TYPE_ERROR;
+                case "2" -> TYPE_WARNING;
+                default -> TYPE_INFO;
+            };
+            String message = errorMessage(dto, lang);
+            out.write(XML_ERROR_OPEN);
+            out.writeUtf8(String.valueOf(dto.getErrorNo()));
+            out.write(XML_TYPE_OPEN);
+            out.write(type);
+            out.write(XML_MESSAGE_OPEN);
+            if (message != null) {
+                writeEscaped(message, XML_ESCAPES, false, out);
+            }
+            out.write(XML_ERROR_CLOSE);
+        }
+    }
+
+    /**
+     * key=value 行を書き込む。キーは userKey があればそれを、無ければ objectID を使用
+     */
+    public static void writeProperties(List<SLocalizationLabel> labels, String langKey, PropertiesCharset charset,
+            EncodedBuffer out) {
+        boolean escapeNonAscii = charset == PropertiesCharset.ISO_8859_1;
+        for (SLocalizationLabel label : labels) {
+            String key = labelKey(label);
+            if (isBlankAfterEscape(key)) {
+                continue;
+            }
+            String value = labelValue(label, langKey);
+            writeEscaped(key, PROPERTIES_KEY_ESCAPES, escapeNonAscii, out);
+            out.write('=');
+            if (value != null) {
+                writeEscaped(value, PROPERTIES_VALUE_ESCAPES, escapeNonAscii, out);
+            }
+            out.write('\n');
+        }
+    }
+
+    /**
+     * ラベルの出力キー（userKey があればそれを、無ければ objectID）
+     */
+    public static String labelKey(SLocalizationLabel label) {
+        if (label.getUserKey() != null && !label.getUserKey().trim().isEmpty()) {
+            return label.getUserKey();
+        }
+        return label.getObjectID();
+    }
+
+    /**
+     * 指定言語のラベル文言（未知の言語は country1）
+     */
+    public static String labelValue(SLocalizationLabel label, String lang) {
+        return switch (lang) {
+            case "country1" -> label.getCountry1();
+            case "country2" -> label.getCountry2();
+            case "country3" -> label.getCountry3();
+            case "country4" -> label.getCountry4();
+            case "country5" -> label.getCountry5();
+            default -> label.getCountry1();
+        };
+    }
+
+    /**
+     * 指定言語のエラーメッセージ（未知の言語は country1）
+     */
+    public static String errorMessage(ErrorMessageDto dto, String lang) {
+        return switch (lang) {
+            case "country1" -> dto.getCountry1();
+            case "country2" -> dto.getCountry2();
+            case "country3" -> dto.getCountry3();
+            case "country4" -> dto.getCountry4();
+            case "country5" -> dto.getCountry5();
+            default -> dto.getCountry1();
+        };
+    }
+
+    /**
+     * エスケープ後のキーが空白のみになるか（改行はエスケープで可視文字になるため空白扱いしない）
+     */
+    private static boolean isBlankAfterEscape(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c > ' ' || c == '\n' || c == '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * エスケープ表に従って文字列を書き込む。エスケープ不要な連続区間は一括で UTF-8 化する
+     *
+     * @param table          ASCII 文字コードを添字とする置換バイト列の表（長さ 128、null はエスケープ不要）
+     * @param escapeNonAscii true の場合、0x20〜0x7E 以外の文字を \\uXXXX で出力（ISO-8859-1 用）
+     */
+    public static void writeEscaped(String s, byte[][] table, boolean escapeNonAscii, EncodedBuffer out) {
+        int runStart = 0;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            byte[] replacement = c < 128 ? table[c] : null;
+            boolean unicodeEscape = replacement == null && escapeNonAscii && (c < 0x20 || c > 0x7E);
+            if (replacement == null && !unicodeEscape) {
+                continue;
+            }
+            if (runStart < i) {
+                out.writeUtf8(s, runStart, i);
+            }
+            if (replacement != null) {
+                out.write(replacement);
+            } else {
+                out.write('\\');
+                out.write('u');
+                out.write(HEX[(c >> 12) & 0xF]);
+                out.write(HEX[(c >> 8) & 0xF]);
+                out.write(HEX[(c >> 4) & 0xF]);
+                out.write(HEX[c & 0xF]);
+            }
+            runStart = i + 1;
+        }
+        if (runStart < length) {
+            out.writeUtf8(s, runStart, length);
+        }
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.PagedResponseDto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 次ページの先読みと、先読み結果を保持する小さな LRU キャッシュ
+ * <p>
+ * 同じ接続先・フィルター・件数 (ストリーム) で連続したページが要求された場合のみ、
+ * 提供したページの最後の objectID をカーソルとして次ページをバックグラウンドで取得する。
+ * 同じセッションでフィルターが変わった場合は実行中の先読みをキャンセルする。
+ * 先読み用のスレッドは {@link #stop()} で停止する（所有するサービスの @PreDestroy から呼び出す）。
+ *
+ * @param <T> 行の型
+ */
+public class PagePrefetcher<T> {
+
+    /**
+     * 指定 objectID より後ろの1ページを取得する処理（キーセットページング）
+     */
+    @FunctionalInterface
+    public interface PageLoader<T> {
+        PagedResponseDto<T> load(String afterObjectID, QueryTicket ticket);
+    }
+
+    private static final AtomicInteger THREAD_NO = new AtomicInteger();
+
+    private final Function<T, String> objectIdExtractor;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long waitMillis;
+    private final ExecutorService executor;
+
+    private final LinkedHashMap<String, Prefetch<T>> cache;
+    private final LinkedHashMap<String, Integer> lastPageByStream;
+    private final LinkedHashMap<String, Prefetch<T>> pendingBySession;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong wasted = new AtomicLong();
+
+    public PagePrefetcher(Function<T, String> objectIdExtractor, int maxEntries, long ttlMillis, long waitMillis,
+            int workers) {
+        this.objectIdExtractor = objectIdExtractor;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.waitMillis = waitMillis;
+        this.executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "page-prefetch-" + THREAD_NO.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Prefetch<T>> eldest) {
+                if (size() > PagePrefetcher.this.maxEntries) {
+                    discard(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.lastPageByStream = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > PagePrefetcher.this.maxEntries * 4;
+            }
+        };
+        this.pendingBySession = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Prefetch<T>> eldest) {
+                return size() > PagePrefetcher.this.maxEntries * 4;
+            }
+        };
+    }
+
+    /**
+     * 先読み済みのページを取り出す。先読みが実行中であれば短時間だけ完了を待つ
+     *
+     * @return 先読み結果（無い・失敗・期限切れの場合は null）
+     */
+    public PagedResponseDto<T> take(String streamKey, int page) {
+        Prefetch<T> prefetch;
+        synchronized (this) {
+            prefetch = cache.remove(pageKey(streamKey, page));
+        }
+        if (prefetch == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        prefetch.consumed = true;
+        try {
+            PagedResponseDto<T> result = prefetch.future.get(waitMillis, TimeUnit.MILLISECONDS);
+            if (System.currentTimeMillis() - prefetch.createdAt > ttlMillis) {
+                wasted.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return result;
+        } catch (Exception e) {
+            prefetch.ticket.cancel();
+            prefetch.future.cancel(true);
+            wasted.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * ページを返却した後に呼び出し、アクセスが連続していれば次ページを先読みする
+     *
+     * @param sessionKey 画面セッション（null 可）。フィルター変更時の先読みキャンセルに使用
+     * @param streamKey  接続先・フィルター・件数から成るキー
+     * @param page       返却したページ番号
+     * @param size       1ページあたりの件数
+     * @param served     返却したページ
+     * @param loader     次ページ取得処理
+     */
+    public void onServed(String sessionKey, String streamKey, int page, int size, PagedResponseDto<T> served,
+            PageLoader<T> loader) {
+        synchronized (this) {
+            if (sessionKey != null) {
+                Prefetch<T> pending = pendingBySession.get(sessionKey);
+                if (pending != null && !pending.streamKey.equals(streamKey)) {
+                    // フィルター（または接続先・件数）が変わったので不要
+                    pendingBySession.remove(sessionKey);
+                    cache.values().remove(pending);
+                    discard(pending);
+                }
+            }
+
+            Integer lastPage = lastPageByStream.put(streamKey, page);
+            boolean sequential = lastPage != null && page == lastPage + 1;
+            List<T> content = served.getContent();
+            if (!sequential || content == null || content.size() < size
+                    || (long) (page + 1) * size >= served.getTotalElements()) {
+                return;
+            }
+            if (executor.isShutdown()) {
+                return;
+            }
+            String nextKey = pageKey(streamKey, page + 1);
+            String lastObjectID = objectIdExtractor.apply(content.get(content.size() - 1));
+            if (cache.containsKey(nextKey) || lastObjectID == null) {
+                return;
+            }
+
+            Prefetch<T> prefetch = new Prefetch<>(streamKey, QueryTicket.detached());
+            prefetch.future = CompletableFuture.supplyAsync(() -> {
+                try (QueryTicket ticket = prefetch.ticket) {
+                    return loader.load(lastObjectID, ticket);
+                }
+            }, executor);
+            issued.incrementAndGet();
+            cache.put(nextKey, prefetch);
+            if (sessionKey != null) {
+                pendingBySession.put(sessionKey, prefetch);
+            }
+        }
+    }
+
+    /**
+     * 実行中の先読みをキャンセルし、先読み用のスレッドを停止する。以降は先読みしない
+     */
+    public synchronized void stop() {
+        for (Prefetch<T> prefetch : cache.values()) {
+            prefetch.ticket.cancel();
+            prefetch.future.cancel(true);
+        }
+        cache.clear();
+        pendingBySession.clear();
+        executor.shutdownNow();
+    }
+
+    private void discard(Prefetch<T> prefetch) {
+        if (!prefetch.consumed) {
+            wasted.incrementAndGet();
+        }
+        prefetch.ticket.cancel();
+        prefetch.future.cancel(true);
+    }
+
+    private static String pageKey(String streamKey, int page) {
+        return streamKey + "#" + page;
+    }
+
+    /**
+     * 先読みの統計情報（ヒット率など）
+     */
+    public Map<String, Object> getStats() {
+        long h = hits.get();
+        long m = misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hitRatio", (h + m) == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("prefetchesIssued", issued.get());
+        stats.put("prefetchesWasted", wasted.get());
+        synchronized (this) {
+            stats.put("cachedPages", cache.size());
+        }
+        return stats;
+    }
+
+    private static final class Prefetch<T> {
+        private final String streamKey;
+        private final QueryTicket ticket;
+        private final long createdAt = System.currentTimeMillis();
+        private CompletableFuture<PagedResponseDto<T>> future;
+        private volatile boolean consumed;
+
+        Prefetch(String streamKey, QueryTicket ticket) {
+            this.streamKey = streamKey;
+            this.ticket = ticket;
+        }
+    }
+}
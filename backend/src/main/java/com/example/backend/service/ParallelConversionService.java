@@ -0,0 +1,185 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.jfr.ConversionEvent;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * XML / Properties 変換の並列実行エンジン
+ * <p>
+ * 入力リストをチャンクに分割し、ForkJoinPool 上でチャンクごとに {@link OutputEncoder} でバイト列へ変換した後、
+ * 元の順序で連結する。行数が閾値未満の場合は分割のオーバーヘッドを避けて逐次変換する。
+ * 出力は {@link ErrorMessageService#convertToXml} / {@link SLocalizationLabelService#convertToProperties}
+ * の結果を UTF-8 でエンコードしたものとバイト単位で一致する。
+ */
+@Service
+public class ParallelConversionService {
+
+    private final int threshold;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    public ParallelConversionService(@Value("${conversion.parallel.threshold:5000}") int threshold,
+            @Value("${conversion.parallel.chunk-size:2000}") int chunkSize,
+            @Value("${conversion.parallel.parallelism:0}") int parallelism) {
+        this.threshold = threshold;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * エラーメッセージ一覧を XML (UTF-8) に変換
+     */
+    public byte[] convertToXmlBytes(List<ErrorMessageDto> list, String lang) {
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+        byte[] xml = encodeXml(list, lang);
+        commit(event, "xml", lang, list.size(), xml.length);
+        return xml;
+    }
+
+    private byte[] encodeXml(List<ErrorMessageDto> list, String lang) {
+        try {
+            if (list.size() < threshold) {
+                return encode(buffer -> {
+                    OutputEncoder.writeXmlHeader(buffer);
+                    OutputEncoder.writeXmlEntries(list, lang, buffer);
+                    OutputEncoder.writeXmlFooter(buffer);
+                });
+            }
+            byte[] body = convertChunks(list,
+                    chunk -> encode(buffer -> OutputEncoder.writeXmlEntries(chunk, lang, buffer)));
+            return concat(List.of(
+                    encode(OutputEncoder::writeXmlHeader),
+                    body,
+                    encode(OutputEncoder::writeXmlFooter)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("XML変換に失敗しました", e);
+        }
+    }
+
+    /**
+     * ラベル一覧を Properties (UTF-8) に変換
+     */
+    public byte[] convertToPropertiesBytes(List<SLocalizationLabel> labels, String langKey) {
+        return convertToPropertiesBytes(labels, langKey, OutputEncoder.PropertiesCharset.UTF_8);
+    }
+
+    /**
+     * ラベル一覧を指定文字コードの Properties に変換
+     */
+    public byte[] convertToPropertiesBytes(List<SLocalizationLabel> labels, String langKey,
+            OutputEncoder.PropertiesCharset charset) {
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+        byte[] properties;
+        if (labels.size() < threshold) {
+            properties = encode(buffer -> OutputEncoder.writeProperties(labels, langKey, charset, buffer));
+        } else {
+            properties = convertChunks(labels,
+                    chunk -> encode(buffer -> OutputEncoder.writeProperties(chunk, langKey, charset, buffer)));
+        }
+        commit(event, charset == OutputEncoder.PropertiesCharset.UTF_8 ? "properties" : "properties-iso-8859-1",
+                langKey, labels.size(), properties.length);
+        return properties;
+    }
+
+    private void commit(ConversionEvent event, String format, String lang, int rows, int bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.format = format;
+            event.lang = lang;
+            event.rows = rows;
+            event.bytes = bytes;
+            event.parallel = rows >= threshold;
+            event.commit();
+        }
+    }
+
+    private <T> byte[] convertChunks(List<T> rows, Function<List<T>, byte[]> encoder) {
+        List<byte[]> buffers = pool.invoke(new ChunkTask<>(rows, 0, rows.size(), chunkSize, encoder));
+        return concat(buffers);
+    }
+
+    /**
+     * プールしたバッファへ書き込み、結果のバイト列を返す
+     */
+    private static byte[] encode(Consumer<EncodedBuffer> writer) {
+        EncodedBuffer buffer = OutputEncoder.acquire();
+        try {
+            writer.accept(buffer);
+            return buffer.toByteArray();
+        } finally {
+            OutputEncoder.release(buffer);
+        }
+    }
+
+    private static byte[] concat(List<byte[]> buffers) {
+        int length = 0;
+        for (byte[] buffer : buffers) {
+            length += buffer.length;
+        }
+        byte[] result = new byte[length];
+        int offset = 0;
+        for (byte[] buffer : buffers) {
+            System.arraycopy(buffer, 0, result, offset, buffer.length);
+            offset += buffer.length;
+        }
+        return result;
+    }
+
+    /**
+     * [from, to) の範囲を二分割しながら変換し、チャンク順のバッファ列を返すタスク
+     */
+    private static final class ChunkTask<T> extends RecursiveTask<List<byte[]>> {
+        private final List<T> rows;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final Function<List<T>, byte[]> encoder;
+
+        ChunkTask(List<T> rows, int from, int to, int chunkSize, Function<List<T>, byte[]> encoder) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.encoder = encoder;
+        }
+
+        @Override
+        protected List<byte[]> compute() {
+            if (to - from <= chunkSize) {
+                List<byte[]> single = new ArrayList<>(1);
+                single.add(encoder.apply(rows.subList(from, to)));
+                return single;
+            }
+            // チャンク境界で分割し、左側を fork・右側をこのスレッドで処理
+            int chunks = (to - from + chunkSize - 1) / chunkSize;
+            int mid = from + (chunks / 2) * chunkSize;
+            ChunkTask<T> left = new ChunkTask<>(rows, from, mid, chunkSize, encoder);
+            ChunkTask<T> right = new ChunkTask<>(rows, mid, to, chunkSize, encoder);
+            left.fork();
+            List<byte[]> rightResult = right.compute();
+            List<byte[]> result = left.join();
+            result.addAll(rightResult);
+            return result;
+        }
+    }
+}
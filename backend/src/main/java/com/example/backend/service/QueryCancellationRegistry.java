@@ -0,0 +1,60 @@
+package com.example.backend.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * セッションごとに実行中のクエリを管理し、古い世代のクエリをキャンセルするレジストリ
+ * <p>
+ * 画面側はフィルター変更（デバウンス後のキー入力）ごとに世代番号を増やして送信する。
+ * 新しい世代のリクエストが届くと、同じセッションで実行中の前世代クエリは中断される。
+ */
+@Service
+public class QueryCancellationRegistry {
+
+    private final Map<String, QueryTicket> latest = new ConcurrentHashMap<>();
+    private final AtomicLong cancelledCount = new AtomicLong();
+
+    /**
+     * クエリの実行開始を登録する
+     *
+     * @param sessionKey セッション識別子（null / 空の場合はキャンセル管理しない）
+     * @param generation クライアントが採番したクエリ世代
+     * @return 実行中の Statement を登録するチケット
+     */
+    public QueryTicket begin(String sessionKey, long generation) {
+        if (sessionKey == null || sessionKey.isEmpty()) {
+            return QueryTicket.untracked();
+        }
+        QueryTicket ticket = new QueryTicket(this, sessionKey, generation);
+        QueryTicket[] superseded = new QueryTicket[1];
+        latest.compute(sessionKey, (key, current) -> {
+            if (current != null && current.getGeneration() > generation) {
+                // 既により新しい世代が実行中なので、このリクエスト自体が古い
+                superseded[0] = ticket;
+                return current;
+            }
+            superseded[0] = current;
+            return ticket;
+        });
+        if (superseded[0] != null) {
+            superseded[0].cancel();
+            cancelledCount.incrementAndGet();
+        }
+        return ticket;
+    }
+
+    void finish(QueryTicket ticket) {
+        latest.remove(ticket.getSessionKey(), ticket);
+    }
+
+    /**
+     * これまでにキャンセルしたリクエスト数
+     */
+    public long getCancelledCount() {
+        return cancelledCount.get();
+    }
+}
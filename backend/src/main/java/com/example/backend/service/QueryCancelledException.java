@@ -0,0 +1,15 @@
+package com.example.backend.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 同一セッションの新しいクエリによって置き換えられ、キャンセルされたことを示す例外
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class QueryCancelledException extends RuntimeException {
+
+    public QueryCancelledException(String message) {
+        super(message);
+    }
+}
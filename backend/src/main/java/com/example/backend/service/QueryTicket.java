@@ -0,0 +1,144 @@
+package com.example.backend.service;
+
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.SqlProvider;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 1回のリクエストで実行されるクエリ群を表すチケット
+ * <p>
+ * 実行中の Statement を保持し、同一セッションでより新しい世代のリクエストが届いた場合に
+ * {@link Statement#cancel()} で中断できるようにする。
+ */
+public class QueryTicket implements AutoCloseable {
+
+    private static final QueryTicket UNTRACKED = new QueryTicket(null, null, -1);
+
+    private final QueryCancellationRegistry registry;
+    private final String sessionKey;
+    private final long generation;
+    private final Set<Statement> statements = new HashSet<>();
+    private boolean cancelled;
+
+    QueryTicket(QueryCancellationRegistry registry, String sessionKey, long generation) {
+        this.registry = registry;
+        this.sessionKey = sessionKey;
+        this.generation = generation;
+    }
+
+    /**
+     * キャンセル対象として登録しないチケット（セッションIDが無いリクエスト用）
+     */
+    public static QueryTicket untracked() {
+        return UNTRACKED;
+    }
+
+    /**
+     * セッションに紐付かないがキャンセル可能なチケット（バックグラウンド処理用）
+     */
+    public static QueryTicket detached() {
+        return new QueryTicket(null, null, -1);
+    }
+
+    public String getSessionKey() {
+        return sessionKey;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * SQL とパラメータから PreparedStatement を生成し、キャンセル対象として登録する
+     */
+    public PreparedStatementCreator statement(String sql, Object... args) {
+        return new TrackedStatementCreator(sql, args);
+    }
+
+    void register(Statement statement) throws SQLException {
+        if (this == UNTRACKED) {
+            return;
+        }
+        synchronized (this) {
+            if (!cancelled) {
+                statements.add(statement);
+                return;
+            }
+        }
+        statement.close();
+        throw new QueryCancelledException("新しいリクエストによりクエリがキャンセルされました");
+    }
+
+    /**
+     * 実行中の Statement をすべてキャンセルする
+     */
+    public void cancel() {
+        Set<Statement> running;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            running = new HashSet<>(statements);
+            statements.clear();
+        }
+        for (Statement statement : running) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                // 既に完了・クローズ済みの Statement は無視
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this == UNTRACKED) {
+            return;
+        }
+        synchronized (this) {
+            statements.clear();
+        }
+        if (registry != null) {
+            registry.finish(this);
+        }
+    }
+
+    /**
+     * キャンセル対象として登録する PreparedStatementCreator
+     * （SqlProvider として SQL を公開し、例外メッセージ・JFR イベントに SQL が出るようにする）
+     */
+    private final class TrackedStatementCreator implements PreparedStatementCreator, SqlProvider {
+        private final String sql;
+        private final Object[] args;
+
+        TrackedStatementCreator(String sql, Object[] args) {
+            this.sql = sql;
+            this.args = args;
+        }
+
+        @Override
+        public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+            PreparedStatement ps = con.prepareStatement(sql);
+            new ArgumentPreparedStatementSetter(args).setValues(ps);
+            register(ps);
+            return ps;
+        }
+
+        @Override
+        public String getSql() {
+            return sql;
+        }
+    }
+}
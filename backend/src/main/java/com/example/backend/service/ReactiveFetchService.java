@@ -0,0 +1,229 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.dto.FilterDto;
+import com.example.backend.entity.SLocalizationLabel;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 動的DBから R2DBC でラベル・エラーメッセージを読み出す（リアクティブ版のストリーミング取得）
+ * <p>
+ * 接続先ごとに R2DBC のコネクションプールを作成・再利用し、死活監視が接続先を監視対象から外した時点で破棄する。行は要求された件数だけ読み進めるため、
+ * HTTP クライアントの受信が遅い間は DB のカーソルも進まない（fetch-size 件ずつ取得する）。
+ * 対応する DB は MySQL・PostgreSQL・SQL Server。条件はブロッキング版と同じ WHERE 句を使う。
+ */
+@Service
+public class ReactiveFetchService {
+
+    private static final String LABEL_SQL = "SELECT objectID, categoryName, country1, country2, country3, country4, country5 "
+            + "FROM SLocalizationLabel ";
+    private static final String ERROR_MESSAGE_SQL = "SELECT e.objectID, e.errorNo, e.errorType, "
+            + "l.ObjectID as messageObjectID, l.country1, l.country2, l.country3, l.country4, l.country5 "
+            + "FROM SError e LEFT JOIN SLocalization l ON e.errorMessageID = l.ObjectID ";
+
+    private final DBConnectionService dbConnectionService;
+    private final ConnectionHealthMonitor healthMonitor;
+    private final int fetchSize;
+    private final int poolMaxSize;
+    private final long poolIdleTimeoutMillis;
+
+    private final Map<String, ConnectionPool> pools = new ConcurrentHashMap<>();
+    private final AtomicLong activeStreams = new AtomicLong();
+    private final AtomicLong completedStreams = new AtomicLong();
+    private final AtomicLong cancelledStreams = new AtomicLong();
+    private final AtomicLong failedStreams = new AtomicLong();
+    private final AtomicLong rowsStreamed = new AtomicLong();
+
+    public ReactiveFetchService(DBConnectionService dbConnectionService, ConnectionHealthMonitor healthMonitor,
+            @Value("${reactive.fetch-size:500}") int fetchSize,
+            @Value("${reactive.pool.max-size:8}") int poolMaxSize,
+            @Value("${reactive.pool.idle-timeout-millis:300000}") long poolIdleTimeoutMillis) {
+        this.dbConnectionService = dbConnectionService;
+        this.healthMonitor = healthMonitor;
+        this.fetchSize = Math.max(1, fetchSize);
+        this.poolMaxSize = Math.max(1, poolMaxSize);
+        this.poolIdleTimeoutMillis = poolIdleTimeoutMillis;
+    }
+
+    @PostConstruct
+    void registerEviction() {
+        healthMonitor.addEvictionListener(this::evictPool);
+    }
+
+    /**
+     * 一定時間使われなかった接続先のプールを破棄する
+     *
+     * @return 接続を貸し出し中・待機中のため破棄しなかった場合は false
+     */
+    boolean evictPool(String key) {
+        ConnectionPool pool = pools.get(key);
+        if (pool == null) {
+            return true;
+        }
+        boolean inUse = pool.getMetrics().map(m -> m.acquiredSize() > 0 || m.pendingAcquireSize() > 0)
+                .orElse(false);
+        if (inUse) {
+            return false;
+        }
+        pools.remove(key, pool);
+        pool.dispose();
+        return true;
+    }
+
+    @PreDestroy
+    void stop() {
+        pools.values().forEach(ConnectionPool::dispose);
+        pools.clear();
+    }
+
+    /**
+     * フィルター条件に一致するラベルを objectID 順に読み出す
+     *
+     * @throws IllegalArgumentException       対応していない DB 種別の場合
+     * @throws ConnectionUnavailableException 死活監視で到達できないと判定されている場合
+     */
+    public Flux<SLocalizationLabel> streamLabels(Map<String, Object> config, FilterDto filter) {
+        StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        SLocalizationLabelService.buildWhereClauseAndParams(filter, whereClause, params);
+        return stream(config, LABEL_SQL + whereClause + " ORDER BY objectID", params,
+                row -> new SLocalizationLabel(row.get(0, String.class), row.get(1, String.class),
+                        row.get(2, String.class), row.get(3, String.class), row.get(4, String.class),
+                        row.get(5, String.class), row.get(6, String.class)));
+    }
+
+    /**
+     * フィルター条件に一致するエラーメッセージを objectID 順に読み出す
+     *
+     * @throws IllegalArgumentException       対応していない DB 種別の場合
+     * @throws ConnectionUnavailableException 死活監視で到達できないと判定されている場合
+     */
+    public Flux<ErrorMessageDto> streamErrorMessages(Map<String, Object> config, FilterDto filter) {
+        StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        ErrorMessageService.buildWhereClauseAndParams(filter, whereClause, params);
+        return stream(config, ERROR_MESSAGE_SQL + whereClause + " ORDER BY e.objectID", params,
+                row -> new ErrorMessageDto(row.get(0, String.class), row.get(1, String.class),
+                        row.get(2, String.class), row.get(3, String.class), row.get(4, String.class),
+                        row.get(5, String.class), row.get(6, String.class), row.get(7, String.class),
+                        row.get(8, String.class)));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pools", pools.size());
+        stats.put("activeStreams", activeStreams.get());
+        stats.put("completedStreams", completedStreams.get());
+        stats.put("cancelledStreams", cancelledStreams.get());
+        stats.put("failedStreams", failedStreams.get());
+        stats.put("rowsStreamed", rowsStreamed.get());
+        return stats;
+    }
+
+    /**
+     * 接続先の確認とプールの取得は呼び出し時に行い（失敗は例外で返す）、クエリは購読時に実行する
+     */
+    private <T> Flux<T> stream(Map<String, Object> config, String sql, List<Object> params,
+            Function<Readable, T> mapper) {
+        String key = dbConnectionService.connectionKey(config);
+        healthMonitor.ensureAvailable(key, config);
+        DatabaseClient client = DatabaseClient.create(pool(key, config));
+        return Flux.defer(() -> {
+            DatabaseClient.GenericExecuteSpec spec = client.sql(toNamedParameters(sql))
+                    .filter(statement -> statement.fetchSize(fetchSize));
+            for (int i = 0; i < params.size(); i++) {
+                spec = spec.bind("p" + i, params.get(i));
+            }
+            return spec.map(mapper).all();
+        })
+                // 下流の要求を fetch-size 単位にまとめて DB へ伝える
+                .limitRate(fetchSize)
+                .doOnSubscribe(s -> activeStreams.incrementAndGet())
+                .doOnNext(row -> rowsStreamed.incrementAndGet())
+                .doOnComplete(completedStreams::incrementAndGet)
+                .doOnCancel(cancelledStreams::incrementAndGet)
+                .doOnError(e -> failedStreams.incrementAndGet())
+                .doFinally(signal -> activeStreams.decrementAndGet());
+    }
+
+    private ConnectionPool pool(String key, Map<String, Object> config) {
+        ConnectionFactoryOptions options = options(config);
+        return pools.computeIfAbsent(key, k -> new ConnectionPool(
+                ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                        .name("reactive-" + config.get("host") + "-" + config.get("dbName"))
+                        .initialSize(0)
+                        .maxSize(poolMaxSize)
+                        .maxIdleTime(Duration.ofMillis(poolIdleTimeoutMillis))
+                        .build()));
+    }
+
+    /**
+     * 接続設定を R2DBC の接続オプションに変換
+     *
+     * @throws IllegalArgumentException 対応していない DB 種別の場合
+     */
+    static ConnectionFactoryOptions options(Map<String, Object> config) {
+        String dbType = (String) config.get("dbType");
+        String driver = switch (dbType != null ? dbType : "") {
+            case "MySQL" -> "mysql";
+            case "PostgreSQL" -> "postgresql";
+            case "SQLServer" -> "mssql";
+            default -> throw new IllegalArgumentException("Unsupported DB type for reactive fetch: " + dbType);
+        };
+        ConnectionFactoryOptions.Builder builder = ConnectionFactoryOptions.builder()
+                .option(ConnectionFactoryOptions.DRIVER, driver)
+                .option(ConnectionFactoryOptions.HOST, (String) config.get("host"))
+                .option(ConnectionFactoryOptions.PORT, ((Number) config.get("port")).intValue())
+                .option(ConnectionFactoryOptions.DATABASE, (String) config.get("dbName"))
+                .option(ConnectionFactoryOptions.USER, (String) config.get("username"));
+        if ("mysql".equals(driver)) {
+            // JDBC の接続 URL (useSSL=false) に合わせる
+            builder.option(ConnectionFactoryOptions.SSL, false);
+        }
+        if (config.get("password") != null) {
+            builder.option(ConnectionFactoryOptions.PASSWORD, (String) config.get("password"));
+        }
+        return builder.build();
+    }
+
+    /**
+     * JDBC 形式の ? を名前付きパラメーター (:p0, :p1, ...) に置き換える（DB ごとの形式には DatabaseClient が変換する）
+     * 値はすべてパラメーターで渡すため、SQL 中の文字列リテラルに ? は含まれない
+     */
+    static String toNamedParameters(String sql) {
+        StringBuilder named = new StringBuilder(sql.length() + 16);
+        int index = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                named.append(":p").append(index++);
+            } else {
+                named.append(c);
+            }
+        }
+        return named.toString();
+    }
+}
@@ -0,0 +1,400 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * 行番号の集合を表す読み取り専用の圧縮ビットマップ（Roaring 方式）
+ * <p>
+ * 行番号の上位16ビットごとにコンテナを持ち、要素数が 4096 以下のコンテナは下位16ビットの昇順配列 (char[])、
+ * それより多いコンテナは 65536 ビットのビットマップ (long[1024]) で保持する。
+ * 構築後は変更しないため、複数スレッドからロック無しで参照できる。
+ */
+public final class RowBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    public static final RowBitmap EMPTY = new RowBitmap(new char[0], new Object[0], new int[0]);
+
+    private final char[] keys;
+    // char[]（配列コンテナ）または long[]（ビットマップコンテナ）
+    private final Object[] containers;
+    private final int[] cardinalities;
+    private final int cardinality;
+
+    private RowBitmap(char[] keys, Object[] containers, int[] cardinalities) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinalities = cardinalities;
+        int total = 0;
+        for (int c : cardinalities) {
+            total += c;
+        }
+        this.cardinality = total;
+    }
+
+    /**
+     * 0 〜 rowCount - 1 の全行
+     */
+    public static RowBitmap all(int rowCount) {
+        Builder builder = new Builder();
+        for (int row = 0; row < rowCount; row++) {
+            builder.add(row);
+        }
+        return builder.build();
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean contains(int row) {
+        int i = Arrays.binarySearch(keys, (char) (row >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) row;
+        Object container = containers[i];
+        if (container instanceof char[] values) {
+            return Arrays.binarySearch(values, low) >= 0;
+        }
+        return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    /**
+     * 積集合
+     */
+    public RowBitmap and(RowBitmap other) {
+        List<Character> newKeys = new ArrayList<>();
+        List<Object> newContainers = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Object container = and(containers[i], other.containers[j]);
+                if (container != null) {
+                    newKeys.add(keys[i]);
+                    newContainers.add(container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return of(newKeys, newContainers);
+    }
+
+    /**
+     * 和集合
+     */
+    public RowBitmap or(RowBitmap other) {
+        List<Character> newKeys = new ArrayList<>();
+        List<Object> newContainers = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j >= other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                newKeys.add(keys[i]);
+                newContainers.add(containers[i++]);
+            } else if (i >= keys.length || keys[i] > other.keys[j]) {
+                newKeys.add(other.keys[j]);
+                newContainers.add(other.containers[j++]);
+            } else {
+                newKeys.add(keys[i]);
+                newContainers.add(or(containers[i++], other.containers[j++]));
+            }
+        }
+        return of(newKeys, newContainers);
+    }
+
+    /**
+     * 積集合の要素数（集合自体は作らない）
+     */
+    public int andCardinality(RowBitmap other) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                count += andCardinality(containers[i++], other.containers[j++]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 昇順に skip 件を読み飛ばし、最大 limit 件の行番号を渡す（読み飛ばしはコンテナ単位で行う）
+     */
+    public void forEach(int skip, int limit, IntConsumer consumer) {
+        int remainingSkip = Math.max(0, skip);
+        int remaining = limit;
+        for (int i = 0; i < keys.length && remaining > 0; i++) {
+            if (remainingSkip >= cardinalities[i]) {
+                remainingSkip -= cardinalities[i];
+                continue;
+            }
+            int high = keys[i] << 16;
+            Object container = containers[i];
+            if (container instanceof char[] values) {
+                for (int k = remainingSkip; k < values.length && remaining > 0; k++) {
+                    consumer.accept(high | values[k]);
+                    remaining--;
+                }
+            } else {
+                long[] words = (long[]) container;
+                for (int w = 0; w < WORDS && remaining > 0; w++) {
+                    long word = words[w];
+                    while (word != 0 && remaining > 0) {
+                        int bit = Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                        if (remainingSkip > 0) {
+                            remainingSkip--;
+                            continue;
+                        }
+                        consumer.accept(high | (w << 6) | bit);
+                        remaining--;
+                    }
+                }
+            }
+            remainingSkip = 0;
+        }
+    }
+
+    public void forEach(IntConsumer consumer) {
+        forEach(0, Integer.MAX_VALUE, consumer);
+    }
+
+    /**
+     * コンテナが使用する概算バイト数
+     */
+    public long sizeInBytes() {
+        long bytes = keys.length * 6L;
+        for (Object container : containers) {
+            bytes += container instanceof char[] values ? values.length * 2L : WORDS * 8L;
+        }
+        return bytes;
+    }
+
+    // --- コンテナ演算 ---
+
+    private static Object and(Object a, Object b) {
+        if (a instanceof char[] x && b instanceof char[] y) {
+            char[] out = new char[Math.min(x.length, y.length)];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < x.length && j < y.length) {
+                if (x[i] < y[j]) {
+                    i++;
+                } else if (x[i] > y[j]) {
+                    j++;
+                } else {
+                    out[n++] = x[i];
+                    i++;
+                    j++;
+                }
+            }
+            return n == 0 ? null : Arrays.copyOf(out, n);
+        }
+        if (a instanceof long[] && b instanceof char[]) {
+            return and(b, a);
+        }
+        if (a instanceof char[] x) {
+            long[] words = (long[]) b;
+            char[] out = new char[x.length];
+            int n = 0;
+            for (char v : x) {
+                if ((words[v >>> 6] & (1L << v)) != 0) {
+                    out[n++] = v;
+                }
+            }
+            return n == 0 ? null : Arrays.copyOf(out, n);
+        }
+        long[] x = (long[]) a;
+        long[] y = (long[]) b;
+        long[] out = new long[WORDS];
+        int card = 0;
+        for (int w = 0; w < WORDS; w++) {
+            out[w] = x[w] & y[w];
+            card += Long.bitCount(out[w]);
+        }
+        return card == 0 ? null : card <= ARRAY_MAX ? toArray(out, card) : out;
+    }
+
+    private static Object or(Object a, Object b) {
+        if (a instanceof char[] x && b instanceof char[] y && x.length + y.length <= ARRAY_MAX) {
+            char[] out = new char[x.length + y.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < x.length || j < y.length) {
+                if (j >= y.length || (i < x.length && x[i] < y[j])) {
+                    out[n++] = x[i++];
+                } else if (i >= x.length || x[i] > y[j]) {
+                    out[n++] = y[j++];
+                } else {
+                    out[n++] = x[i++];
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+        long[] out = new long[WORDS];
+        orInto(out, a);
+        orInto(out, b);
+        int card = 0;
+        for (long word : out) {
+            card += Long.bitCount(word);
+        }
+        return card <= ARRAY_MAX ? toArray(out, card) : out;
+    }
+
+    private static void orInto(long[] out, Object container) {
+        if (container instanceof char[] values) {
+            for (char v : values) {
+                out[v >>> 6] |= 1L << v;
+            }
+        } else {
+            long[] words = (long[]) container;
+            for (int w = 0; w < WORDS; w++) {
+                out[w] |= words[w];
+            }
+        }
+    }
+
+    private static int andCardinality(Object a, Object b) {
+        if (a instanceof char[] x && b instanceof char[] y) {
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < x.length && j < y.length) {
+                if (x[i] < y[j]) {
+                    i++;
+                } else if (x[i] > y[j]) {
+                    j++;
+                } else {
+                    n++;
+                    i++;
+                    j++;
+                }
+            }
+            return n;
+        }
+        if (a instanceof long[] && b instanceof char[]) {
+            return andCardinality(b, a);
+        }
+        if (a instanceof char[] x) {
+            long[] words = (long[]) b;
+            int n = 0;
+            for (char v : x) {
+                if ((words[v >>> 6] & (1L << v)) != 0) {
+                    n++;
+                }
+            }
+            return n;
+        }
+        long[] x = (long[]) a;
+        long[] y = (long[]) b;
+        int n = 0;
+        for (int w = 0; w < WORDS; w++) {
+            n += Long.bitCount(x[w] & y[w]);
+        }
+        return n;
+    }
+
+    private static char[] toArray(long[] words, int card) {
+        char[] out = new char[card];
+        int n = 0;
+        for (int w = 0; w < WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                out[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return out;
+    }
+
+    private static int containerCardinality(Object container) {
+        if (container instanceof char[] values) {
+            return values.length;
+        }
+        int card = 0;
+        for (long word : (long[]) container) {
+            card += Long.bitCount(word);
+        }
+        return card;
+    }
+
+    private static RowBitmap of(List<Character> keyList, List<Object> containerList) {
+        char[] keys = new char[keyList.size()];
+        int[] cardinalities = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keyList.get(i);
+            cardinalities[i] = containerCardinality(containerList.get(i));
+        }
+        return new RowBitmap(keys, containerList.toArray(), cardinalities);
+    }
+
+    /**
+     * 行番号を昇順に追加して構築する
+     */
+    public static final class Builder {
+        private final List<Character> keys = new ArrayList<>();
+        private final List<Object> containers = new ArrayList<>();
+        private long[] current = new long[WORDS];
+        private int currentKey = -1;
+        private int currentCount;
+        private int last = -1;
+
+        public Builder add(int row) {
+            if (row <= last) {
+                throw new IllegalArgumentException("rows must be added in ascending order: " + row);
+            }
+            last = row;
+            int key = row >>> 16;
+            if (key != currentKey) {
+                flush();
+                currentKey = key;
+            }
+            char low = (char) row;
+            current[low >>> 6] |= 1L << low;
+            currentCount++;
+            return this;
+        }
+
+        public RowBitmap build() {
+            flush();
+            return of(keys, containers);
+        }
+
+        private void flush() {
+            if (currentCount == 0) {
+                return;
+            }
+            keys.add((char) currentKey);
+            if (currentCount <= ARRAY_MAX) {
+                containers.add(toArray(current, currentCount));
+                Arrays.fill(current, 0L);
+            } else {
+                containers.add(current);
+                current = new long[WORDS];
+            }
+            currentCount = 0;
+        }
+    }
+}
@@ -2,9 +2,16 @@ package com.example.backend.service;
 
 import com.example.backend.dto.FilterDto;
 import com.example.backend.dto.PagedResponseDto;
+import com.example.backend.dto.SortDto;
 import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.jfr.QueryEvents;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.dao.EmptyResultDataAccessException;
@@ -13,17 +20,170 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 // import java.util.stream.Collectors;
 
 @Service
 public class SLocalizationLabelService {
 
+    // SLocalizationLabel の行マッピング
+    private static final RowMapper<SLocalizationLabel> LABEL_ROW_MAPPER = QueryEvents.timed("SLocalizationLabel",
+            (rs, rowNum) -> {
+        SLocalizationLabel label = new SLocalizationLabel();
+        label.setObjectID(rs.getString("objectID"));
+        label.setCategoryName(rs.getString("categoryName"));
+        label.setCountry1(rs.getString("country1"));
+        label.setCountry2(rs.getString("country2"));
+        label.setCountry3(rs.getString("country3"));
+        label.setCountry4(rs.getString("country4"));
+        label.setCountry5(rs.getString("country5"));
+        return label;
+    });
+
+    // 並び順に指定できる列
+    static final List<String> LABEL_SORT_COLUMNS = List.of("objectID", "categoryName", "country1", "country2",
+            "country3", "country4", "country5");
+
     @Autowired
     private DBConnectionService dbConnectionService;
 
+    @Autowired
+    private SortPlanner sortPlanner;
+
+    @Autowired
+    private SpillSortService spillSortService;
+
+    // 接続先ごとの永続スナップショット（相互に参照するため遅延注入）
+    @Autowired
+    @Lazy
+    private ConnectionSnapshotService connectionSnapshotService;
+
+    // 同一条件のページ取得を1回のDB実行にまとめる
+    private final SingleFlight<String, PagedResponseDto<SLocalizationLabel>> labelFetchFlight = new SingleFlight<>();
+
+    // 連続したページ送り時の次ページ先読み
+    private PagePrefetcher<SLocalizationLabel> labelPrefetcher;
+
+    @Value("${prefetch.cache.max-entries:32}")
+    private int prefetchMaxEntries;
+    @Value("${prefetch.ttl-millis:30000}")
+    private long prefetchTtlMillis;
+    @Value("${prefetch.wait-millis:5000}")
+    private long prefetchWaitMillis;
+    @Value("${prefetch.workers:2}")
+    private int prefetchWorkers;
+    // ID 指定の取得で1回のクエリに含める ID の数
+    @Value("${by-ids.chunk-size:1000}")
+    private int byIdsChunkSize;
+    // categoryName のファセット件数を返す値の種類の上限（スナップショットの索引と同じ）
+    @Value("${snapshot.facets.max-values:256}")
+    private int facetMaxValues;
+
+    @PostConstruct
+    void initPrefetcher() {
+        labelPrefetcher = new PagePrefetcher<>(SLocalizationLabel::getObjectID, prefetchMaxEntries,
+                prefetchTtlMillis, prefetchWaitMillis, prefetchWorkers);
+    }
+
+    @PreDestroy
+    void stopPrefetcher() {
+        labelPrefetcher.stop();
+    }
+
     // 動的DBからラベルをページング取得
     public PagedResponseDto<SLocalizationLabel> getAllLabelsFromDynamicDB(
             Map<String, Object> config, FilterDto filter, int page, int size) {
+        return getAllLabelsFromDynamicDB(config, filter, page, size, QueryTicket.untracked());
+    }
+
+    /**
+     * 動的DBからページング取得（キャンセル可能）
+     * 同一セッションでより新しいリクエストが届いた場合、実行中のクエリは Statement.cancel() で中断される
+     */
+    public PagedResponseDto<SLocalizationLabel> getAllLabelsFromDynamicDB(
+            Map<String, Object> config, FilterDto filter, int page, int size, QueryTicket ticket) {
+        PagedResponseDto<SLocalizationLabel> snapshotPage = connectionSnapshotService.findLabelPage(config, filter,
+                page, size);
+        if (snapshotPage != null) {
+            return snapshotPage;
+        }
+        String streamKey = dbConnectionService.connectionKey(config) + "|" + FilterDto.toCacheKey(filter)
+                + "|" + size;
+        PagedResponseDto<SLocalizationLabel> result = labelPrefetcher.take(streamKey, page);
+        while (result == null) {
+            try {
+                result = labelFetchFlight.execute(streamKey + "|" + page,
+                        () -> queryLabelPage(config, filter, page, size, ticket));
+            } catch (QueryCancelledException e) {
+                if (ticket.isCancelled()) {
+                    throw e;
+                }
+                // 共有していた他セッションのクエリがキャンセルされたため、自分で再実行する
+            }
+        }
+        long totalElements = result.getTotalElements();
+        Map<String, Map<String, Long>> facets = result.getFacets();
+        labelPrefetcher.onServed(ticket.getSessionKey(), streamKey, page, size, result,
+                (afterObjectID, prefetchTicket) -> {
+                    // 件数とファセットは同じ条件のため、先読みしたページにも引き継ぐ
+                    PagedResponseDto<SLocalizationLabel> next = new PagedResponseDto<>(
+                            queryLabelPageAfter(config, filter, afterObjectID, size, prefetchTicket), totalElements);
+                    next.setFacets(facets);
+                    return next;
+                });
+        return result;
+    }
+
+    /**
+     * 並び順・カーソルを指定してページング取得（キャンセル可能）
+     * 並び順が objectID 順でカーソルも無い場合は上記の取得（先読み・同一リクエストの集約あり）と同じ。
+     * それ以外は、ソートキーを先頭に持つ索引があれば DB で並べ替え、無ければスナップショット上で並べ替える。
+     * スナップショットも無い場合は、ページの終わりまでの件数が上限以下ならフィルター結果を走査してメモリ内で並べ替える
+     *
+     * @throws InvalidSortException 並び順またはカーソルが不正な場合
+     */
+    public PagedResponseDto<SLocalizationLabel> getAllLabelsFromDynamicDB(Map<String, Object> config,
+            FilterDto filter, int page, int size, List<SortDto> sortOrder, String cursor, QueryTicket ticket) {
+        SortSpec sort = SortSpec.parse(sortOrder, LABEL_SORT_COLUMNS);
+        if (sort.isDefault() && cursor == null) {
+            return getAllLabelsFromDynamicDB(config, filter, page, size, ticket);
+        }
+        String[] after = cursor != null ? sort.decodeCursor(cursor) : null;
+        if (sortPlanner.canPushDown(config, "SLocalizationLabel", sort, true)) {
+            sortPlanner.recordPushDown();
+        } else {
+            PagedResponseDto<SLocalizationLabel> snapshotPage = connectionSnapshotService.findSortedLabelPage(config,
+                    filter, sort, after, page, size);
+            if (snapshotPage != null) {
+                sortPlanner.recordInMemory();
+                return snapshotPage;
+            }
+            if (sortPlanner.canSortInMemory(after != null ? size : (long) page * size + size)) {
+                sortPlanner.recordBoundedInMemory();
+                return queryInMemorySortedLabelPage(config, filter, sort, after, page, size, ticket);
+            }
+            sortPlanner.recordFallback();
+        }
+        return querySortedLabelPage(config, filter, sort, after, page, size, ticket);
+    }
+
+    /**
+     * 次ページ先読みの統計情報（ヒット率など）
+     */
+    public Map<String, Object> getPrefetchStats() {
+        return labelPrefetcher.getStats();
+    }
+
+    /**
+     * 同時実行中の同一リクエスト（接続先・フィルター・ページ・件数が一致）をまとめた回数
+     */
+    public long getCoalescedFetchCount() {
+        return labelFetchFlight.getCoalescedCount();
+    }
+
+    private PagedResponseDto<SLocalizationLabel> queryLabelPage(
+            Map<String, Object> config, FilterDto filter, int page, int size, QueryTicket ticket) {
         try {
             JdbcTemplate dynamicJdbcTemplate = createDynamicJdbcTemplate(config);
             StringBuilder sqlData = new StringBuilder(
@@ -37,34 +197,198 @@ public class SLocalizationLabelService {
             sqlData.append(" ORDER BY objectID LIMIT ? OFFSET ?");
             params.add(size);
             params.add(page * size);
-            RowMapper<SLocalizationLabel> rowMapper = (rs, rowNum) -> {
-                SLocalizationLabel label = new SLocalizationLabel();
-                label.setObjectID(rs.getString("objectID"));
-                label.setCategoryName(rs.getString("categoryName"));
-                label.setCountry1(rs.getString("country1"));
-                label.setCountry2(rs.getString("country2"));
-                label.setCountry3(rs.getString("country3"));
-                label.setCountry4(rs.getString("country4"));
-                label.setCountry5(rs.getString("country5"));
-                return label;
-            };
-            List<SLocalizationLabel> content = dynamicJdbcTemplate.query(sqlData.toString(), rowMapper,
-                    params.toArray());
+            List<SLocalizationLabel> content = dynamicJdbcTemplate.query(
+                    ticket.statement(sqlData.toString(), params.toArray()), LABEL_ROW_MAPPER);
             List<Object> countParams = params.subList(0, params.size() - 2);
             long totalElements = 0;
             try {
-                Long countResult = dynamicJdbcTemplate.queryForObject(sqlCount.toString(), Long.class,
-                        countParams.toArray());
+                Long countResult = dynamicJdbcTemplate.query(
+                        ticket.statement(sqlCount.toString(), countParams.toArray()),
+                        rs -> rs.next() ? rs.getLong(1) : null);
                 totalElements = (countResult != null) ? countResult : 0L;
             } catch (EmptyResultDataAccessException | NullPointerException e) {
                 totalElements = 0L;
             }
-            return new PagedResponseDto<>(content, totalElements);
+            PagedResponseDto<SLocalizationLabel> result = new PagedResponseDto<>(content, totalElements);
+            result.setFacets(queryLabelFacets(dynamicJdbcTemplate, filter, ticket));
+            return result;
+        } catch (QueryCancelledException e) {
+            throw e;
         } catch (Exception e) {
+            if (ticket.isCancelled()) {
+                throw new QueryCancelledException("新しいリクエストによりクエリがキャンセルされました");
+            }
             throw new RuntimeException("動的DBからのラベルデータ取得に失敗しました: " + e.getMessage(), e);
         }
     }
 
+    // 並び順を指定して1ページを取得（カーソルがあればその後ろから、無ければ OFFSET で位置を決める）
+    private PagedResponseDto<SLocalizationLabel> querySortedLabelPage(Map<String, Object> config, FilterDto filter,
+            SortSpec sort, String[] after, int page, int size, QueryTicket ticket) {
+        try {
+            JdbcTemplate dynamicJdbcTemplate = createDynamicJdbcTemplate(config);
+            // NULL を含みうる列は空文字として並べる（スナップショット上の並べ替えと同じ扱い）
+            Function<String, String> expression = column -> "objectID".equals(column)
+                    || sortPlanner.isNotNull(config, "SLocalizationLabel", column) ? column
+                            : "COALESCE(" + column + ", '')";
+            StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+            List<Object> params = new ArrayList<>();
+            buildWhereClauseAndParams(filter, whereClause, params);
+            List<Object> countParams = new ArrayList<>(params);
+            String countWhere = whereClause.toString();
+            if (after != null) {
+                sort.appendSeek(expression, "objectID", after, whereClause, params);
+            }
+            StringBuilder sqlData = new StringBuilder(
+                    "SELECT objectID, categoryName, country1, country2, country3, country4, country5 FROM SLocalizationLabel ");
+            sqlData.append(whereClause).append(sort.orderBy(expression, "objectID")).append(" LIMIT ?");
+            params.add(size);
+            if (after == null) {
+                sqlData.append(" OFFSET ?");
+                params.add(page * size);
+            }
+            List<SLocalizationLabel> content = dynamicJdbcTemplate.query(
+                    ticket.statement(sqlData.toString(), params.toArray()), LABEL_ROW_MAPPER);
+            Long countResult = dynamicJdbcTemplate.query(
+                    ticket.statement("SELECT COUNT(*) FROM SLocalizationLabel " + countWhere, countParams.toArray()),
+                    rs -> rs.next() ? rs.getLong(1) : null);
+            PagedResponseDto<SLocalizationLabel> result = new PagedResponseDto<>(content,
+                    countResult != null ? countResult : 0L);
+            result.setFacets(queryLabelFacets(dynamicJdbcTemplate, filter, ticket));
+            if (size > 0 && content.size() == size) {
+                SLocalizationLabel last = content.get(content.size() - 1);
+                String[] values = sort.columns().stream().map(column -> sortValue(last, column))
+                        .toArray(String[]::new);
+                result.setNextCursor(sort.encodeCursor(sort.tuple(values, last.getObjectID())));
+            }
+            return result;
+        } catch (QueryCancelledException e) {
+            throw e;
+        } catch (Exception e) {
+            if (ticket.isCancelled()) {
+                throw new QueryCancelledException("新しいリクエストによりクエリがキャンセルされました");
+            }
+            throw new RuntimeException("動的DBからのラベルデータ取得に失敗しました: " + e.getMessage(), e);
+        }
+    }
+
+    // categoryName のファセット件数（categoryName の選択だけを外した条件で GROUP BY）
+    private Map<String, Map<String, Long>> queryLabelFacets(JdbcTemplate jdbc, FilterDto filter, QueryTicket ticket) {
+        StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        buildWhereClauseAndParams(filter, whereClause, params, false);
+        return FacetQuery.counts(jdbc, ticket, "categoryName", "categoryName", "FROM SLocalizationLabel",
+                whereClause.toString(), params,
+                filter != null ? FilterDto.selectedValues(filter.getCategoryNames()) : List.of(), facetMaxValues);
+    }
+
+    // フィルター結果を並び順なしで走査し、ページの終わりまでの上位の行だけを保持して並べ替える（索引もスナップショットも無い場合）
+    private PagedResponseDto<SLocalizationLabel> queryInMemorySortedLabelPage(Map<String, Object> config,
+            FilterDto filter, SortSpec sort, String[] after, int page, int size, QueryTicket ticket) {
+        try {
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            jdbc.setFetchSize(dbConnectionService.getStreamingFetchSize((String) config.get("dbType")));
+            StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+            List<Object> params = new ArrayList<>();
+            buildWhereClauseAndParams(filter, whereClause, params);
+            BoundedPageSort<SLocalizationLabel> sorter = new BoundedPageSort<>(sort,
+                    label -> sort.tuple(sort.columns().stream().map(column -> sortValue(label, column))
+                            .toArray(String[]::new), label.getObjectID()),
+                    after, page * size, size);
+            jdbc.query(ticket.statement(
+                    "SELECT objectID, categoryName, country1, country2, country3, country4, country5 FROM SLocalizationLabel "
+                            + whereClause, params.toArray()),
+                    (RowCallbackHandler) rs -> sorter.accept(LABEL_ROW_MAPPER.mapRow(rs, 0)));
+            PagedResponseDto<SLocalizationLabel> result = new PagedResponseDto<>(sorter.page(), sorter.getMatched());
+            result.setFacets(queryLabelFacets(jdbc, filter, ticket));
+            String[] last = sorter.lastTuple();
+            result.setNextCursor(last != null ? sort.encodeCursor(last) : null);
+            return result;
+        } catch (QueryCancelledException e) {
+            throw e;
+        } catch (Exception e) {
+            if (ticket.isCancelled()) {
+                throw new QueryCancelledException("新しいリクエストによりクエリがキャンセルされました");
+            }
+            throw new RuntimeException("動的DBからのラベルデータ取得に失敗しました: " + e.getMessage(), e);
+        }
+    }
+
+    private static String sortValue(SLocalizationLabel label, String column) {
+        return switch (column) {
+            case "objectID" -> label.getObjectID();
+            case "categoryName" -> label.getCategoryName();
+            case "country1" -> label.getCountry1();
+            case "country2" -> label.getCountry2();
+            case "country3" -> label.getCountry3();
+            case "country4" -> label.getCountry4();
+            case "country5" -> label.getCountry5();
+            default -> throw new IllegalArgumentException("unknown column: " + column);
+        };
+    }
+
+    // 指定 objectID より後ろの1ページを取得（キーセットページング、先読み用）
+    private List<SLocalizationLabel> queryLabelPageAfter(Map<String, Object> config, FilterDto filter,
+            String afterObjectID, int size, QueryTicket ticket) {
+        JdbcTemplate dynamicJdbcTemplate = createDynamicJdbcTemplate(config);
+        StringBuilder sql = new StringBuilder(
+                "SELECT objectID, categoryName, country1, country2, country3, country4, country5 FROM SLocalizationLabel ");
+        StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        buildWhereClauseAndParams(filter, whereClause, params);
+        whereClause.append(" AND objectID > ?");
+        params.add(afterObjectID);
+        sql.append(" ").append(whereClause);
+        sql.append(" ORDER BY objectID LIMIT ?");
+        params.add(size);
+        return dynamicJdbcTemplate.query(ticket.statement(sql.toString(), params.toArray()), LABEL_ROW_MAPPER);
+    }
+
+    // objectID のキー空間を NTILE で partitions 個の範囲に分割（並列スキャン用）
+    public List<KeyRange> getLabelKeyRanges(Map<String, Object> config, FilterDto filter, int partitions) {
+        try {
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            jdbc.setQueryTimeout(dbConnectionService.getExportQueryTimeoutSeconds());
+            StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+            List<Object> params = new ArrayList<>();
+            buildWhereClauseAndParams(filter, whereClause, params);
+            String sql = "SELECT MAX(objectID) AS upperID, COUNT(*) AS cnt FROM (SELECT objectID, NTILE("
+                    + partitions + ") OVER (ORDER BY objectID) AS bucket FROM SLocalizationLabel " + whereClause
+                    + ") t GROUP BY bucket ORDER BY bucket";
+            List<String> upperBounds = new ArrayList<>();
+            List<Long> counts = new ArrayList<>();
+            jdbc.query(sql, (RowCallbackHandler) rs -> {
+                upperBounds.add(rs.getString("upperID"));
+                counts.add(rs.getLong("cnt"));
+            }, params.toArray());
+            return KeyRange.fromUpperBounds(upperBounds, counts);
+        } catch (Exception e) {
+            throw new RuntimeException("動的DBからのラベル範囲分割に失敗: " + e.getMessage(), e);
+        }
+    }
+
+    // 指定キー範囲のラベルを objectID 順にストリーミングで読み出す（全件を List に保持しない）
+    public void scanLabelRange(Map<String, Object> config, FilterDto filter, KeyRange range,
+            Consumer<SLocalizationLabel> consumer) {
+        try {
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            jdbc.setQueryTimeout(dbConnectionService.getExportQueryTimeoutSeconds());
+            jdbc.setFetchSize(dbConnectionService.getStreamingFetchSize((String) config.get("dbType")));
+            StringBuilder sql = new StringBuilder(
+                    "SELECT objectID, categoryName, country1, country2, country3, country4, country5 FROM SLocalizationLabel ");
+            StringBuilder whereClause = new StringBuilder("WHERE 1=1");
+            List<Object> params = new ArrayList<>();
+            buildWhereClauseAndParams(filter, whereClause, params);
+            range.appendCondition("objectID", whereClause, params);
+            sql.append(" ").append(whereClause);
+            sql.append(" ORDER BY objectID");
+            jdbc.query(sql.toString(), (RowCallbackHandler) rs -> consumer.accept(LABEL_ROW_MAPPER.mapRow(rs, 0)),
+                    params.toArray());
+        } catch (Exception e) {
+            throw new RuntimeException("動的DBからのラベル範囲スキャンに失敗: " + e.getMessage(), e);
+        }
+    }
+
     // フィルター条件に一致するすべての ObjectID を取得
     public List<String> getAllLabelObjectIDsFromDynamicDB(Map<String, Object> config, FilterDto filter) {
         try {
@@ -85,63 +409,57 @@ public class SLocalizationLabelService {
 
     // 指定された ObjectID のリストに一致する SLocalizationLabel を取得
     public List<SLocalizationLabel> getLabelsByIdsFromDynamicDB(Map<String, Object> config, List<String> objectIDs) {
+        List<SLocalizationLabel> result = new ArrayList<>();
+        forEachLabelByIds(config, objectIDs, result::add);
+        return result;
+    }
+
+    /**
+     * 指定された ObjectID のラベルを objectID 順に1件ずつ渡す（重複した ID は1回のみ）
+     * <p>
+     * ID が byIdsChunkSize 件を超える場合は、ByIdsOrder で ID を DB の objectID 順に並べた分割ごとに取得する
+     * （並べ替え中の ID は上限を超えると一時ファイルへ退避し、行は保持しないため、件数によらずヒープの使用量は一定）。
+     */
+    public void forEachLabelByIds(Map<String, Object> config, List<String> objectIDs,
+            Consumer<SLocalizationLabel> consumer) {
         if (objectIDs == null || objectIDs.isEmpty()) {
-            return Collections.emptyList();
+            return;
         }
         try {
-            JdbcTemplate dynamicJdbcTemplate = createDynamicJdbcTemplate(config);
-            StringBuilder sql = new StringBuilder(
-                    "SELECT objectID, categoryName, country1, country2, country3, country4, country5 " +
-                            "FROM SLocalizationLabel " +
-                            "WHERE objectID IN (" +
-                            String.join(",", Collections.nCopies(objectIDs.size(), "?")) +
-                            ") ORDER BY objectID");
-
-            RowMapper<SLocalizationLabel> rowMapper = (rs, rowNum) -> {
-                SLocalizationLabel label = new SLocalizationLabel();
-                label.setObjectID(rs.getString("objectID"));
-                label.setCategoryName(rs.getString("categoryName"));
-                label.setCountry1(rs.getString("country1"));
-                label.setCountry2(rs.getString("country2"));
-                label.setCountry3(rs.getString("country3"));
-                label.setCountry4(rs.getString("country4"));
-                label.setCountry5(rs.getString("country5"));
-                return label;
-            };
-
-            return dynamicJdbcTemplate.query(sql.toString(), rowMapper, objectIDs.toArray());
-
+            if (objectIDs.size() <= byIdsChunkSize) {
+                JdbcTemplate dynamicJdbcTemplate = createDynamicJdbcTemplate(config);
+                dynamicJdbcTemplate.query(labelsByIdsSql(objectIDs.size()) + " ORDER BY objectID",
+                        (RowCallbackHandler) rs -> consumer.accept(LABEL_ROW_MAPPER.mapRow(rs, 0)),
+                        objectIDs.toArray());
+                return;
+            }
+            // 分割した回数だけ接続するため、プールした接続を使う
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            jdbc.setFetchSize(dbConnectionService.getStreamingFetchSize((String) config.get("dbType")));
+            ByIdsOrder.order(ByIdsOrder.jdbc(jdbc, "SLocalizationLabel"), objectIDs, byIdsChunkSize, spillSortService,
+                    chunk -> jdbc.query(labelsByIdsSql(chunk.size()) + " ORDER BY objectID",
+                            (RowCallbackHandler) rs -> consumer.accept(LABEL_ROW_MAPPER.mapRow(rs, 0)),
+                            chunk.toArray()));
         } catch (Exception e) {
             throw new RuntimeException("動的DBからのID指定でのラベル取得に失敗: " + e.getMessage(), e);
         }
     }
 
+    private static String labelsByIdsSql(int ids) {
+        return "SELECT objectID, categoryName, country1, country2, country3, country4, country5 " +
+                "FROM SLocalizationLabel " +
+                "WHERE objectID IN (" + String.join(",", Collections.nCopies(ids, "?")) + ")";
+    }
+
     // Properties変換ロジック
     public String convertToProperties(List<SLocalizationLabel> labels, String langKey) {
-        StringBuilder sb = new StringBuilder();
-        for (SLocalizationLabel label : labels) {
-            String key = label.getObjectID();
-            if (label.getUserKey() != null && !label.getUserKey().trim().isEmpty()) {
-                key = label.getUserKey();
-            }
-            String value = switch (langKey) {
-                case "country1" -> label.getCountry1();
-                case "country2" -> label.getCountry2();
-                case "country3" -> label.getCountry3();
-                case "country4" -> label.getCountry4();
-                case "country5" -> label.getCountry5();
-                default -> label.getCountry1();
-            };
-            String safeValue = (value != null) ? value : "";
-            key = key.replace("=", "\\=").replace(":", "\\:").replace("#", "\\#").replace("!", "\\!")
-                    .replace("\n", "\\n").replace("\r", "\\r");
-            safeValue = safeValue.replace("\\", "\\\\").replace("=", "\\=").replace(":", "\\:").replace("#", "\\#")
-                    .replace("!", "\\!").replace("\n", "\\n").replace("\r", "\\r");
-            if (key != null && !key.trim().isEmpty()) {
-                sb.append(key).append("=").append(safeValue).append("\n");
-            }
+        EncodedBuffer buffer = OutputEncoder.acquire();
+        try {
+            OutputEncoder.writeProperties(labels, langKey, OutputEncoder.PropertiesCharset.UTF_8, buffer);
+            return buffer.toString();
+        } finally {
+            OutputEncoder.release(buffer);
         }
-        return sb.toString();
     }
 
     private JdbcTemplate createDynamicJdbcTemplate(Map<String, Object> config) {
@@ -154,7 +472,28 @@ public class SLocalizationLabelService {
         return dbConnectionService.createJdbcTemplate(dbType, host, port, dbName, username, password);
     }
 
-    private void buildWhereClauseAndParams(FilterDto filter, StringBuilder whereClause, List<Object> params) {
+    // ファセットの複数選択（完全一致の OR）
+    static void appendInClause(String column, List<String> values, StringBuilder whereClause, List<Object> params) {
+        if (values.isEmpty()) {
+            return;
+        }
+        whereClause.append(" AND ").append(column).append(" IN (");
+        for (int i = 0; i < values.size(); i++) {
+            whereClause.append(i == 0 ? "?" : ", ?");
+        }
+        whereClause.append(")");
+        params.addAll(values);
+    }
+
+    static void buildWhereClauseAndParams(FilterDto filter, StringBuilder whereClause, List<Object> params) {
+        buildWhereClauseAndParams(filter, whereClause, params, true);
+    }
+
+    /**
+     * @param withSelection categoryName の複数選択 (IN) も条件に含める（false はファセット件数用）
+     */
+    private static void buildWhereClauseAndParams(FilterDto filter, StringBuilder whereClause, List<Object> params,
+            boolean withSelection) {
         if (filter != null) {
             if (filter.getObjectID() != null && !filter.getObjectID().isEmpty()) {
                 whereClause.append(" AND objectID LIKE ?");
@@ -164,6 +503,10 @@ public class SLocalizationLabelService {
                 whereClause.append(" AND categoryName LIKE ?");
                 params.add("%" + filter.getCategoryName() + "%");
             }
+            if (withSelection) {
+                appendInClause("categoryName", FilterDto.selectedValues(filter.getCategoryNames()), whereClause,
+                        params);
+            }
             if (filter.getMessage() != null && !filter.getMessage().isEmpty()) {
                 whereClause.append(
                         " AND (country1 LIKE ? OR country2 LIKE ? OR country3 LIKE ? OR country4 LIKE ? OR country5 LIKE ?)");
@@ -0,0 +1,312 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 同じデータを対象とするエクスポートのスキャン共有と成果物キャッシュ
+ * <p>
+ * 実行中のスキャン（接続先・対象・フィルターが同じもの）があれば、後から開始したジョブは
+ * そのスキャンを購読して objectID 順に配信されるバッチを受け取る。購読者ごとのキューは容量固定で、
+ * 遅い購読者がいる間は配信側が待機する（バックプレッシャー）。
+ * 完了した成果物は内容キー（スキャンのキー + 形式 + 言語）で短時間キャッシュする。
+ */
+@Component
+public class SharedScanRegistry {
+
+    private final boolean enabled;
+    private final int queueBatches;
+    private final long artifactTtlMillis;
+
+    private final Map<String, Broadcast> active = new ConcurrentHashMap<>();
+    private final Map<String, CachedArtifact> artifacts = new ConcurrentHashMap<>();
+
+    private final AtomicLong sharedScans = new AtomicLong();
+    private final AtomicLong subscriptions = new AtomicLong();
+    private final AtomicLong artifactHits = new AtomicLong();
+
+    public SharedScanRegistry(@Value("${export.share.enabled:true}") boolean enabled,
+            @Value("${export.share.queue-batches:4}") int queueBatches,
+            @Value("${export.share.artifact-ttl-millis:120000}") long artifactTtlMillis) {
+        this.enabled = enabled;
+        this.queueBatches = Math.max(1, queueBatches);
+        this.artifactTtlMillis = artifactTtlMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // --- スキャン共有 ---
+
+    /**
+     * 指定キーのスキャンを配信元として開始する（既に実行中の場合は null）
+     */
+    public Broadcast lead(String scanKey, String jobId) {
+        if (!enabled) {
+            return null;
+        }
+        Broadcast broadcast = new Broadcast(scanKey, jobId);
+        if (active.putIfAbsent(scanKey, broadcast) != null) {
+            return null;
+        }
+        sharedScans.incrementAndGet();
+        return broadcast;
+    }
+
+    /**
+     * 実行中のスキャンを購読する（無い・終了済みの場合は null）
+     */
+    public Subscription join(String scanKey) {
+        if (!enabled) {
+            return null;
+        }
+        Broadcast broadcast = active.get(scanKey);
+        Subscription subscription = broadcast != null ? broadcast.attach(queueBatches) : null;
+        if (subscription != null) {
+            subscriptions.incrementAndGet();
+        }
+        return subscription;
+    }
+
+    /**
+     * スキャンの終了を通知し、以降の購読を受け付けない
+     *
+     * @param failure 失敗した場合の原因（成功時は null）
+     */
+    public void end(Broadcast broadcast, Throwable failure) {
+        active.remove(broadcast.scanKey, broadcast);
+        broadcast.finish(failure);
+    }
+
+    // --- 成果物キャッシュ ---
+
+    public void putArtifact(String contentKey, String jobId, Path artifact, Path manifest) {
+        if (!enabled || artifactTtlMillis <= 0) {
+            return;
+        }
+        artifacts.put(contentKey,
+                new CachedArtifact(jobId, artifact, manifest, System.currentTimeMillis() + artifactTtlMillis));
+        evictExpired();
+    }
+
+    /**
+     * 期限内で、ファイルが残っているキャッシュ済み成果物（無い場合は null）
+     */
+    public CachedArtifact findArtifact(String contentKey) {
+        if (!enabled) {
+            return null;
+        }
+        CachedArtifact cached = artifacts.get(contentKey);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt < System.currentTimeMillis() || !Files.exists(cached.artifact)) {
+            artifacts.remove(contentKey, cached);
+            return null;
+        }
+        artifactHits.incrementAndGet();
+        return cached;
+    }
+
+    /**
+     * 削除されたジョブの成果物をキャッシュから外す
+     */
+    public void forgetJob(String jobId) {
+        artifacts.values().removeIf(cached -> cached.jobId.equals(jobId));
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        for (Iterator<CachedArtifact> it = artifacts.values().iterator(); it.hasNext();) {
+            if (it.next().expiresAt < now) {
+                it.remove();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("activeScans", active.size());
+        stats.put("sharedScans", sharedScans.get());
+        stats.put("subscriptions", subscriptions.get());
+        stats.put("cachedArtifacts", artifacts.size());
+        stats.put("artifactHits", artifactHits.get());
+        return stats;
+    }
+
+    /**
+     * キャッシュ済みの成果物
+     */
+    public static final class CachedArtifact {
+        private final String jobId;
+        private final Path artifact;
+        private final Path manifest;
+        private final long expiresAt;
+
+        CachedArtifact(String jobId, Path artifact, Path manifest, long expiresAt) {
+            this.jobId = jobId;
+            this.artifact = artifact;
+            this.manifest = manifest;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getJobId() {
+            return jobId;
+        }
+
+        public Path getArtifact() {
+            return artifact;
+        }
+
+        public Path getManifest() {
+            return manifest;
+        }
+    }
+
+    /**
+     * 実行中のスキャン1件。配信側のスレッドから publish / finish を呼び出す
+     */
+    public static final class Broadcast {
+        private final String scanKey;
+        private final String jobId;
+        private final List<Subscription> subscribers = new ArrayList<>();
+        private String lastObjectID;
+        private boolean closed;
+
+        Broadcast(String scanKey, String jobId) {
+            this.scanKey = scanKey;
+            this.jobId = jobId;
+        }
+
+        public String getJobId() {
+            return jobId;
+        }
+
+        /**
+         * 購読を追加する。購読者は boundary 以前 (これまでに配信済み) の行を自分で読み出す必要がある
+         */
+        synchronized Subscription attach(int queueBatches) {
+            if (closed) {
+                return null;
+            }
+            Subscription subscription = new Subscription(jobId, lastObjectID, queueBatches);
+            subscribers.add(subscription);
+            return subscription;
+        }
+
+        /**
+         * objectID 順の1バッチを全購読者へ配信する。キューが一杯の購読者がいる間は待機する
+         *
+         * @param rows         行（購読者間で共有されるため変更しないこと）
+         * @param lastObjectID バッチ内の最後の objectID
+         */
+        public void publish(List<?> rows, String lastObjectID) throws InterruptedException {
+            List<Subscription> targets;
+            synchronized (this) {
+                this.lastObjectID = lastObjectID;
+                subscribers.removeIf(s -> s.detached);
+                if (subscribers.isEmpty()) {
+                    return;
+                }
+                targets = new ArrayList<>(subscribers);
+            }
+            for (Subscription subscription : targets) {
+                subscription.offer(rows);
+            }
+        }
+
+        void finish(Throwable failure) {
+            List<Subscription> targets;
+            synchronized (this) {
+                closed = true;
+                targets = new ArrayList<>(subscribers);
+                subscribers.clear();
+            }
+            Object end = failure != null ? failure : Subscription.END;
+            for (Subscription subscription : targets) {
+                try {
+                    subscription.offer(end);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 購読側。take() で配信済みのバッチを順に受け取る
+     */
+    public static final class Subscription {
+        private static final Object END = new Object();
+
+        private final String leaderJobId;
+        private final String boundary;
+        private final BlockingQueue<Object> queue;
+        private volatile boolean detached;
+
+        Subscription(String leaderJobId, String boundary, int queueBatches) {
+            this.leaderJobId = leaderJobId;
+            this.boundary = boundary;
+            this.queue = new ArrayBlockingQueue<>(queueBatches + 1);
+        }
+
+        /**
+         * 配信元のジョブID
+         */
+        public String getLeaderJobId() {
+            return leaderJobId;
+        }
+
+        /**
+         * 購読開始時点で配信済みだった最後の objectID（購読前に配信が無かった場合は null）
+         */
+        public String getBoundary() {
+            return boundary;
+        }
+
+        /**
+         * 次のバッチ（スキャン終了時は null）。配信元が失敗した場合は IllegalStateException
+         */
+        @SuppressWarnings("unchecked")
+        public <T> List<T> take() throws InterruptedException {
+            Object item = queue.take();
+            if (item == END) {
+                return null;
+            }
+            if (item instanceof Throwable failure) {
+                throw new IllegalStateException("共有スキャンが失敗しました: " + failure.getMessage(), failure);
+            }
+            return (List<T>) item;
+        }
+
+        /**
+         * 購読をやめる。配信側は以降このキューへ書き込まない
+         */
+        public void detach() {
+            detached = true;
+            queue.clear();
+        }
+
+        private void offer(Object item) throws InterruptedException {
+            while (!detached && !queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                // 購読側の消費を待つ（バックプレッシャー）
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.backend.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 同一キーの同時実行をまとめる（シングルフライト）
+ * <p>
+ * 同じキーの処理が実行中の場合、後から来た呼び出しは新たに実行せず、
+ * 実行中の処理の結果（または例外）をそのまま受け取る。
+ * 結果は完了と同時に破棄されるため、TTL キャッシュとは異なり古い値を返すことはない。
+ *
+ * @param <K> キーの型
+ * @param <V> 結果の型
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * キーに対する処理を実行する。同じキーが実行中であればその結果を共有する
+     *
+     * @param key      重複判定キー
+     * @param supplier 実際の処理
+     * @return 処理結果
+     */
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalescedCount.incrementAndGet();
+            return await(existing);
+        }
+        executedCount.incrementAndGet();
+        try {
+            V value = supplier.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 実際に実行された回数
+     */
+    public long getExecutedCount() {
+        return executedCount.get();
+    }
+
+    /**
+     * 実行中の処理にまとめられた呼び出し回数
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 並び順を指定したページ取得の実行方法の選択
+ * <p>
+ * 接続先のメタデータ (DatabaseMetaData の列・索引情報) から、ソートキーを先頭に持つ索引があり、
+ * ソートキーがすべて NOT NULL の列であれば DB へ並べ替えを任せる（キーセットの条件も索引の範囲検索になる）。
+ * それ以外はスナップショット上のメモリ内ソートを使い、スナップショットが無い場合は、ページの終わりまでの件数が
+ * in-memory.max-rows 以下ならフィルター結果を走査して上位の行だけを保持するメモリ内ソート ({@link BoundedPageSort}) とする。
+ * どちらも使えない深いページのみ、索引の無い列でも DB で並べ替える。メタデータは接続先・テーブルごとに一定時間キャッシュする。
+ */
+@Service
+public class SortPlanner {
+
+    private static final TableInfo FAILED = TableInfo.unknown();
+
+    private final DBConnectionService dbConnectionService;
+    private final long metadataTtlMillis;
+    private final int inMemoryMaxRows;
+
+    private final Map<String, TableInfo> tables = new ConcurrentHashMap<>();
+    private final AtomicLong pushDowns = new AtomicLong();
+    private final AtomicLong inMemory = new AtomicLong();
+    private final AtomicLong boundedInMemory = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public SortPlanner(DBConnectionService dbConnectionService,
+            @Value("${sort.planner.metadata-ttl-millis:600000}") long metadataTtlMillis,
+            @Value("${sort.in-memory.max-rows:10000}") int inMemoryMaxRows) {
+        this.dbConnectionService = dbConnectionService;
+        this.metadataTtlMillis = metadataTtlMillis;
+        this.inMemoryMaxRows = inMemoryMaxRows;
+    }
+
+    /**
+     * スナップショットが無い場合に、ページの終わりまでの行 (rows 件) を保持してメモリ内で並べ替えるか
+     */
+    public boolean canSortInMemory(long rows) {
+        return rows <= inMemoryMaxRows;
+    }
+
+    /**
+     * DB で並べ替えるか
+     *
+     * @param table   ソートキーの列を持つテーブル
+     * @param sort    並び順
+     * @param inTable ソートキーがすべて table の列であるか（結合先の列を含む場合は false）
+     */
+    public boolean canPushDown(Map<String, Object> config, String table, SortSpec sort, boolean inTable) {
+        if (sort.isDefault()) {
+            return true;
+        }
+        if (!inTable || !sort.isIndexFriendly()) {
+            return false;
+        }
+        TableInfo info = tableInfo(config, table);
+        for (String column : sort.columns()) {
+            if (!info.isNotNull(column)) {
+                return false;
+            }
+        }
+        return info.hasIndexPrefix(sort.columns());
+    }
+
+    /**
+     * 列が NOT NULL か（メタデータを取得できない場合は false）
+     */
+    public boolean isNotNull(Map<String, Object> config, String table, String column) {
+        return tableInfo(config, table).isNotNull(column);
+    }
+
+    /**
+     * 実行方法の記録（統計用）
+     */
+    public void recordPushDown() {
+        pushDowns.incrementAndGet();
+    }
+
+    public void recordInMemory() {
+        inMemory.incrementAndGet();
+    }
+
+    /**
+     * スナップショットが無いため、フィルター結果を走査してメモリ内で並べ替えた
+     */
+    public void recordBoundedInMemory() {
+        boundedInMemory.incrementAndGet();
+    }
+
+    /**
+     * 索引が無くスナップショットも無く、ページが深いため DB で並べ替えた
+     */
+    public void recordFallback() {
+        fallbacks.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pushDowns", pushDowns.get());
+        stats.put("inMemory", inMemory.get());
+        stats.put("boundedInMemory", boundedInMemory.get());
+        stats.put("fallbacks", fallbacks.get());
+        stats.put("cachedTables", tables.size());
+        return stats;
+    }
+
+    private TableInfo tableInfo(Map<String, Object> config, String table) {
+        String key = dbConnectionService.connectionKey(config) + "|" + table;
+        TableInfo info = tables.get(key);
+        if (info == null || System.currentTimeMillis() - info.loadedAt > metadataTtlMillis) {
+            info = load(config, table);
+            if (info != FAILED) {
+                tables.put(key, info);
+            }
+        }
+        return info;
+    }
+
+    private TableInfo load(Map<String, Object> config, String table) {
+        try {
+            JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+            return jdbc.execute((ConnectionCallback<TableInfo>) con -> {
+                DatabaseMetaData meta = con.getMetaData();
+                // 識別子の大文字小文字の扱いは DB ごとに異なるため、そのまま・小文字・大文字の順に探す
+                for (String name : new String[] { table, table.toLowerCase(Locale.ROOT),
+                        table.toUpperCase(Locale.ROOT) }) {
+                    TableInfo info = read(meta, con.getCatalog(), name);
+                    if (info != null) {
+                        return info;
+                    }
+                }
+                return TableInfo.unknown();
+            });
+        } catch (RuntimeException e) {
+            // 接続できない間はキャッシュせず、次回に再取得する
+            System.err.println("Failed to read table metadata for " + table + ": " + e.getMessage());
+            return FAILED;
+        }
+    }
+
+    private static TableInfo read(DatabaseMetaData meta, String catalog, String table) throws SQLException {
+        Set<String> notNull = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        boolean found = false;
+        try (ResultSet rs = meta.getColumns(catalog, null, table, null)) {
+            while (rs.next()) {
+                found = true;
+                if (rs.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls) {
+                    notNull.add(rs.getString("COLUMN_NAME"));
+                }
+            }
+        }
+        if (!found) {
+            return null;
+        }
+        // 索引名 → 列番号 → 列名
+        Map<String, Map<Integer, String>> indexes = new TreeMap<>();
+        try (ResultSet rs = meta.getIndexInfo(catalog, null, table, false, true)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (name != null && column != null) {
+                    indexes.computeIfAbsent(name, n -> new TreeMap<>()).put((int) rs.getShort("ORDINAL_POSITION"),
+                            column);
+                }
+            }
+        }
+        List<List<String>> columns = new ArrayList<>();
+        for (Map<Integer, String> index : indexes.values()) {
+            columns.add(new ArrayList<>(index.values()));
+        }
+        return new TableInfo(notNull, columns);
+    }
+
+    /**
+     * テーブルの NOT NULL 列と索引（索引ごとの列の並び）
+     */
+    static final class TableInfo {
+        private final Set<String> notNull;
+        private final List<List<String>> indexes;
+        private final long loadedAt = System.currentTimeMillis();
+
+        TableInfo(Set<String> notNull, List<List<String>> indexes) {
+            this.notNull = notNull;
+            this.indexes = indexes;
+        }
+
+        static TableInfo unknown() {
+            return new TableInfo(Set.of(), List.of());
+        }
+
+        boolean isNotNull(String column) {
+            return notNull.contains(column);
+        }
+
+        /**
+         * 指定列を先頭から同じ順に持つ索引があるか
+         */
+        boolean hasIndexPrefix(List<String> columns) {
+            for (List<String> index : indexes) {
+                if (index.size() < columns.size()) {
+                    continue;
+                }
+                boolean prefix = true;
+                for (int i = 0; i < columns.size() && prefix; i++) {
+                    prefix = index.get(i).equalsIgnoreCase(columns.get(i));
+                }
+                if (prefix) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SortDto;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * 検証済みの並び順（複数列・方向・言語別の照合順序）と、(ソートキー, objectID) の組によるキーセットカーソル
+ * <p>
+ * 最後に objectID の昇順を常に加えるため、並び順は一意に決まる。null のソートキーは空文字として扱う。
+ * カーソルは並び順の指定を含めて符号化し、異なる並び順のカーソルは受け付けない。
+ * 照合順序のキー生成は Collator を使うため、1つのインスタンスを複数スレッドで同時に使用しない。
+ */
+public final class SortSpec {
+
+    private static final String ID = "objectID";
+    private static final SortSpec DEFAULT = new SortSpec(List.of());
+
+    private final List<Key> keys;
+    private final String cacheKey;
+
+    private SortSpec(List<Key> keys) {
+        this.keys = keys;
+        StringBuilder key = new StringBuilder();
+        for (Key k : keys) {
+            key.append(k.column).append(k.descending ? " desc" : " asc")
+                    .append(k.collator != null ? " " + k.locale.toLanguageTag() : "").append(',');
+        }
+        this.cacheKey = key.append(ID).toString();
+    }
+
+    /**
+     * 並び順の指定を検証する
+     *
+     * @param sort    リクエストの指定（null・空は objectID 順）
+     * @param columns 指定可能な列名
+     * @throws InvalidSortException 列名・方向・照合順序が不正な場合
+     */
+    public static SortSpec parse(List<SortDto> sort, List<String> columns) {
+        if (sort == null || sort.isEmpty()) {
+            return DEFAULT;
+        }
+        List<Key> keys = new ArrayList<>();
+        for (SortDto dto : sort) {
+            if (dto == null || dto.getField() == null || !columns.contains(dto.getField())) {
+                throw new InvalidSortException("unsupported sort field: " + (dto != null ? dto.getField() : null));
+            }
+            if (ID.equals(dto.getField())) {
+                // objectID は一意なので、以降の列は並び順に影響しない
+                if (isDescending(dto.getDirection()) || dto.getCollation() != null) {
+                    keys.add(new Key(ID, isDescending(dto.getDirection()), locale(dto.getCollation())));
+                }
+                break;
+            }
+            for (Key k : keys) {
+                if (k.column.equals(dto.getField())) {
+                    throw new InvalidSortException("duplicate sort field: " + dto.getField());
+                }
+            }
+            keys.add(new Key(dto.getField(), isDescending(dto.getDirection()), locale(dto.getCollation())));
+        }
+        return keys.isEmpty() ? DEFAULT : new SortSpec(List.copyOf(keys));
+    }
+
+    private static boolean isDescending(String direction) {
+        if (direction == null || direction.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (direction.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new InvalidSortException("unsupported sort direction: " + direction);
+    }
+
+    private static Locale locale(String collation) {
+        if (collation == null || collation.isEmpty()) {
+            return null;
+        }
+        Locale locale = Locale.forLanguageTag(collation);
+        if (locale.getLanguage().isEmpty()) {
+            throw new InvalidSortException("unsupported collation: " + collation);
+        }
+        return locale;
+    }
+
+    /**
+     * objectID の昇順のみ（従来の並び順）
+     */
+    public boolean isDefault() {
+        return keys.isEmpty();
+    }
+
+    /**
+     * ソートキーの列名（objectID の並びを除く）
+     */
+    public List<String> columns() {
+        List<String> columns = new ArrayList<>();
+        for (Key k : keys) {
+            columns.add(k.column);
+        }
+        return columns;
+    }
+
+    /**
+     * すべての列が同じ方向で、照合順序の指定が無い（単一の索引を順方向または逆方向に読むだけで並ぶ）
+     */
+    public boolean isIndexFriendly() {
+        for (Key k : keys) {
+            if (k.collator != null || k.descending != keys.get(0).descending) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 並び順を表す文字列（キャッシュのキー用）
+     */
+    public String cacheKey() {
+        return cacheKey;
+    }
+
+    /**
+     * 行のソートキー（列の値 + objectID）。columns() の順に値を渡す
+     */
+    public String[] tuple(String[] values, String objectID) {
+        String[] tuple = new String[keys.size() + 1];
+        for (int i = 0; i < keys.size(); i++) {
+            tuple[i] = values[i] != null ? values[i] : "";
+        }
+        tuple[keys.size()] = objectID;
+        return tuple;
+    }
+
+    /**
+     * 比較用のキー（照合順序を指定した列は CollationKey に変換する）
+     */
+    public Comparable<?>[] comparableKey(String[] tuple) {
+        Comparable<?>[] key = new Comparable<?>[tuple.length];
+        for (int i = 0; i < keys.size(); i++) {
+            Collator collator = keys.get(i).collator;
+            key[i] = collator != null ? collator.getCollationKey(tuple[i]) : tuple[i];
+        }
+        key[keys.size()] = tuple[keys.size()];
+        return key;
+    }
+
+    /**
+     * comparableKey 同士の比較（同じ SortSpec で作成したキーのみ比較できる）
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public int compare(Comparable<?>[] a, Comparable<?>[] b) {
+        for (int i = 0; i < keys.size(); i++) {
+            int c = ((Comparable) a[i]).compareTo(b[i]);
+            if (c != 0) {
+                return keys.get(i).descending ? -c : c;
+            }
+        }
+        return ((String) a[keys.size()]).compareTo((String) b[keys.size()]);
+    }
+
+    // --- SQL ---
+
+    /**
+     * ORDER BY 句（照合順序の指定は DB 側では使用しない）
+     *
+     * @param expression 列名 → SQL の式
+     * @param idColumn   objectID の列
+     */
+    public String orderBy(Function<String, String> expression, String idColumn) {
+        StringBuilder sql = new StringBuilder(" ORDER BY ");
+        for (Key k : keys) {
+            sql.append(expression.apply(k.column)).append(k.descending ? " DESC, " : " ASC, ");
+        }
+        return sql.append(idColumn).append(" ASC").toString();
+    }
+
+    /**
+     * カーソルより後ろの行に限定する条件を追加する
+     * <pre>
+     * AND k1 &gt;= ? AND ((k1 &gt; ?) OR (k1 = ? AND k2 &gt; ?) OR (k1 = ? AND k2 = ? AND objectID &gt; ?))
+     * </pre>
+     * 先頭の k1 の範囲条件は冗長だが、索引の範囲検索に使われるよう付ける
+     */
+    public void appendSeek(Function<String, String> expression, String idColumn, String[] cursor,
+            StringBuilder whereClause, List<Object> params) {
+        List<String> exprs = new ArrayList<>();
+        for (Key k : keys) {
+            exprs.add(expression.apply(k.column));
+        }
+        exprs.add(idColumn);
+        if (!keys.isEmpty()) {
+            whereClause.append(" AND ").append(exprs.get(0)).append(keys.get(0).descending ? " <= ?" : " >= ?");
+            params.add(cursor[0]);
+        }
+        whereClause.append(" AND (");
+        for (int i = 0; i < exprs.size(); i++) {
+            whereClause.append(i == 0 ? "(" : " OR (");
+            for (int j = 0; j < i; j++) {
+                whereClause.append(exprs.get(j)).append(" = ? AND ");
+                params.add(cursor[j]);
+            }
+            boolean descending = i < keys.size() && keys.get(i).descending;
+            whereClause.append(exprs.get(i)).append(descending ? " < ?" : " > ?").append(")");
+            params.add(cursor[i]);
+        }
+        whereClause.append(")");
+    }
+
+    // --- カーソル ---
+
+    /**
+     * ソートキーをカーソル文字列に符号化する
+     */
+    public String encodeCursor(String[] tuple) {
+        StringBuilder raw = new StringBuilder();
+        raw.append(cacheKey.length()).append(':').append(cacheKey);
+        for (String value : tuple) {
+            raw.append(value.length()).append(':').append(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * カーソル文字列をソートキーに戻す
+     *
+     * @throws InvalidSortException 形式が不正、または別の並び順で作成したカーソルの場合
+     */
+    public String[] decodeCursor(String cursor) {
+        List<String> parts = new ArrayList<>();
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int pos = 0;
+            while (pos < raw.length()) {
+                int colon = raw.indexOf(':', pos);
+                int length = Integer.parseInt(raw.substring(pos, colon));
+                parts.add(raw.substring(colon + 1, colon + 1 + length));
+                pos = colon + 1 + length;
+            }
+        } catch (RuntimeException e) {
+            throw new InvalidSortException("invalid cursor");
+        }
+        if (parts.size() != keys.size() + 2 || !cacheKey.equals(parts.get(0))) {
+            throw new InvalidSortException("cursor does not match the sort order");
+        }
+        return parts.subList(1, parts.size()).toArray(new String[0]);
+    }
+
+    /**
+     * 1列分の並び順
+     */
+    private static final class Key {
+        private final String column;
+        private final boolean descending;
+        private final Locale locale;
+        private final Collator collator;
+
+        Key(String column, boolean descending, Locale locale) {
+            this.column = column;
+            this.descending = descending;
+            this.locale = locale;
+            this.collator = locale != null ? Collator.getInstance(locale) : null;
+        }
+    }
+}
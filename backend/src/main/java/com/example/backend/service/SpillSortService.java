@@ -0,0 +1,94 @@
+package com.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ID 指定の取得など、行数が大きくなり得る並べ替えに使う SpillingSortBuffer の作成
+ * <p>
+ * メモリ量の上限・ランの書き出し先は設定で決め、書き出し・マージの回数を統計として集計する。
+ * 書き出し先に残った前回のランは、起動時に削除する。
+ */
+@Service
+public class SpillSortService {
+
+    private final Path tempDir;
+    private final long memoryBudgetBytes;
+    private final int mergeFanIn;
+
+    private final AtomicLong buffers = new AtomicLong();
+    private final AtomicLong spilledBuffers = new AtomicLong();
+    private final AtomicLong spilledRuns = new AtomicLong();
+    private final AtomicLong spilledBytes = new AtomicLong();
+    private final AtomicLong mergePasses = new AtomicLong();
+
+    public SpillSortService(
+            @Value("${spill-sort.temp-dir:${java.io.tmpdir}/resource-convert/spill}") String tempDir,
+            @Value("${spill-sort.memory-budget-bytes:67108864}") long memoryBudgetBytes,
+            @Value("${spill-sort.merge-fan-in:64}") int mergeFanIn) {
+        this.tempDir = Paths.get(tempDir);
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.mergeFanIn = mergeFanIn;
+    }
+
+    @PostConstruct
+    void start() {
+        try {
+            Files.createDirectories(tempDir);
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(tempDir, "run-*.bin")) {
+                for (Path file : stale) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Spill directory initialization failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 新しいバッファ（使用後は close() で一時ファイルを削除する）
+     */
+    public <T> SpillingSortBuffer<T> newBuffer(Comparator<? super T> order, SpillingSortBuffer.RowCodec<T> codec) {
+        buffers.incrementAndGet();
+        boolean[] spilled = { false };
+        return new SpillingSortBuffer<>(order, codec, memoryBudgetBytes, mergeFanIn, tempDir,
+                new SpillingSortBuffer.Listener() {
+                    @Override
+                    public void spilled(long bytes) {
+                        if (!spilled[0]) {
+                            spilled[0] = true;
+                            spilledBuffers.incrementAndGet();
+                        }
+                        spilledRuns.incrementAndGet();
+                        spilledBytes.addAndGet(bytes);
+                    }
+
+                    @Override
+                    public void merged() {
+                        mergePasses.incrementAndGet();
+                    }
+                });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("buffers", buffers.get());
+        stats.put("spilledBuffers", spilledBuffers.get());
+        stats.put("spilledRuns", spilledRuns.get());
+        stats.put("spilledBytes", spilledBytes.get());
+        stats.put("mergePasses", mergePasses.get());
+        return stats;
+    }
+}
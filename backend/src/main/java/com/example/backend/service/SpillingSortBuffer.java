@@ -0,0 +1,397 @@
+package com.example.backend.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * メモリ量の上限を決めた行バッファ（上限を超えた分はソート済みのランとして一時ファイルへ退避する）
+ * <p>
+ * 追加した行の推定サイズが memoryBudgetBytes を超えるたびに、保持している行を並べ替えて1つのランとして書き出す。
+ * 読み出し時はメモリ上の残りと各ランを k-way マージして順に渡すため、行数によらずヒープの使用量は一定になる。
+ * ランの数が mergeFanIn を超える場合は、先にランどうしをまとめて数を減らす。
+ * ランは各列を (UTF-8 のバイト数 + 1) の可変長整数と本体で表す（0 は null）。
+ * 1つのインスタンスを複数スレッドで同時に使用しない。
+ */
+public final class SpillingSortBuffer<T> implements AutoCloseable {
+
+    /** 1行あたりの固定の推定サイズ（オブジェクトと参照の分） */
+    private static final long ROW_OVERHEAD = 64;
+    /** 1列あたりの固定の推定サイズ（String と内部の配列の分） */
+    private static final long FIELD_OVERHEAD = 48;
+
+    private final Comparator<? super T> order;
+    private final RowCodec<T> codec;
+    private final long memoryBudgetBytes;
+    private final int mergeFanIn;
+    private final Path tempDir;
+    private final Listener listener;
+
+    private List<T> rows = new ArrayList<>();
+    private long bufferedBytes;
+    private final List<Path> runs = new ArrayList<>();
+    private long size;
+    private int spilledRuns;
+    private long spilledBytes;
+    private int mergePasses;
+    private boolean consumed;
+
+    /**
+     * @param order             並び順
+     * @param codec             行と列の値の相互変換
+     * @param memoryBudgetBytes メモリ上に保持する行の推定サイズの上限
+     * @param mergeFanIn        1回のマージで同時に開くランの数の上限（2 以上）
+     * @param tempDir           ランの書き出し先
+     * @param listener          ランの書き出し・マージの通知先（統計用、null 可）
+     */
+    public SpillingSortBuffer(Comparator<? super T> order, RowCodec<T> codec, long memoryBudgetBytes,
+            int mergeFanIn, Path tempDir, Listener listener) {
+        this.order = order;
+        this.codec = codec;
+        this.memoryBudgetBytes = Math.max(1, memoryBudgetBytes);
+        this.mergeFanIn = Math.max(2, mergeFanIn);
+        this.tempDir = tempDir;
+        this.listener = listener != null ? listener : new Listener() {
+        };
+    }
+
+    /**
+     * 行を追加する（上限を超えた場合はここでランを書き出す）
+     */
+    public void add(T row) throws IOException {
+        if (consumed) {
+            throw new IllegalStateException("buffer has already been read");
+        }
+        rows.add(row);
+        size++;
+        bufferedBytes += estimate(row);
+        if (bufferedBytes >= memoryBudgetBytes) {
+            spill();
+        }
+    }
+
+    /**
+     * 追加した行を並び順に渡す（1回のみ）
+     */
+    public void forEachSorted(Consumer<? super T> consumer) throws IOException {
+        if (consumed) {
+            throw new IllegalStateException("buffer has already been read");
+        }
+        consumed = true;
+        rows.sort(order);
+        if (runs.isEmpty()) {
+            // 退避していなければメモリ上で並べ替えるだけ
+            rows.forEach(consumer);
+            rows = new ArrayList<>();
+            return;
+        }
+        while (runs.size() > mergeFanIn) {
+            mergeRuns();
+        }
+        List<Source<T>> sources = new ArrayList<>();
+        try {
+            for (Path run : runs) {
+                sources.add(new RunSource<>(run, codec));
+            }
+            sources.add(new ListSource<>(rows.iterator()));
+            merge(sources, consumer);
+        } finally {
+            closeAll(sources);
+            rows = new ArrayList<>();
+        }
+    }
+
+    /**
+     * 追加した行数
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 書き出したランの数（マージでまとめたランを除く）
+     */
+    public int getSpilledRuns() {
+        return spilledRuns;
+    }
+
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    /**
+     * ランどうしをまとめた回数
+     */
+    public int getMergePasses() {
+        return mergePasses;
+    }
+
+    /**
+     * 一時ファイルを削除する
+     */
+    @Override
+    public void close() {
+        for (Path run : runs) {
+            deleteQuietly(run);
+        }
+        runs.clear();
+        rows = new ArrayList<>();
+    }
+
+    // --- ラン ---
+
+    private void spill() throws IOException {
+        rows.sort(order);
+        Path run = Files.createTempFile(tempDir, "run-", ".bin");
+        runs.add(run);
+        try (RunWriter<T> writer = new RunWriter<>(run, codec)) {
+            for (T row : rows) {
+                writer.write(row);
+            }
+            spilledRuns++;
+            spilledBytes += writer.out.size();
+            listener.spilled(writer.out.size());
+        }
+        rows = new ArrayList<>();
+        bufferedBytes = 0;
+    }
+
+    /**
+     * 先頭の mergeFanIn 個のランを1つにまとめる
+     */
+    private void mergeRuns() throws IOException {
+        List<Path> group = new ArrayList<>(runs.subList(0, mergeFanIn));
+        Path merged = Files.createTempFile(tempDir, "run-", ".bin");
+        List<Source<T>> sources = new ArrayList<>();
+        try (RunWriter<T> writer = new RunWriter<>(merged, codec)) {
+            for (Path run : group) {
+                sources.add(new RunSource<>(run, codec));
+            }
+            merge(sources, row -> {
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            deleteQuietly(merged);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(merged);
+            throw e;
+        } finally {
+            closeAll(sources);
+        }
+        for (Path run : group) {
+            deleteQuietly(run);
+        }
+        runs.subList(0, mergeFanIn).clear();
+        runs.add(merged);
+        mergePasses++;
+        listener.merged();
+    }
+
+    private void merge(List<Source<T>> sources, Consumer<? super T> consumer) throws IOException {
+        PriorityQueue<Source<T>> heads = new PriorityQueue<>(sources.size(),
+                (a, b) -> order.compare(a.head, b.head));
+        for (Source<T> source : sources) {
+            if (source.advance()) {
+                heads.add(source);
+            }
+        }
+        while (!heads.isEmpty()) {
+            Source<T> source = heads.poll();
+            consumer.accept(source.head);
+            if (source.advance()) {
+                heads.add(source);
+            }
+        }
+    }
+
+    private long estimate(T row) {
+        long bytes = ROW_OVERHEAD;
+        for (String value : codec.toFields(row)) {
+            bytes += FIELD_OVERHEAD + (value != null ? 2L * value.length() : 0);
+        }
+        return bytes;
+    }
+
+    private static void closeAll(List<? extends Source<?>> sources) {
+        for (Source<?> source : sources) {
+            source.close();
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // 後始末のため無視
+        }
+    }
+
+    /**
+     * 行と列の値（null 可の文字列）の相互変換。列の数は常に同じであること
+     */
+    public interface RowCodec<T> {
+        String[] toFields(T row);
+
+        T fromFields(String[] fields);
+    }
+
+    /**
+     * ランの書き出し・マージの通知
+     */
+    public interface Listener {
+        default void spilled(long bytes) {
+        }
+
+        default void merged() {
+        }
+    }
+
+    // --- 符号化 ---
+
+    private static final class RunWriter<T> implements AutoCloseable {
+        private final DataOutputStream out;
+        private final RowCodec<T> codec;
+
+        RunWriter(Path file, RowCodec<T> codec) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+            this.codec = codec;
+        }
+
+        void write(T row) throws IOException {
+            String[] fields = codec.toFields(row);
+            writeVarInt(out, fields.length);
+            for (String value : fields) {
+                if (value == null) {
+                    writeVarInt(out, 0);
+                } else {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    writeVarInt(out, bytes.length + 1);
+                    out.write(bytes);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * @return 値（ランの終端では -1）
+     */
+    static int readVarInt(DataInputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return -1;
+        }
+        int value = first & 0x7F;
+        int shift = 7;
+        int b = first;
+        while ((b & 0x80) != 0) {
+            b = in.read();
+            if (b < 0) {
+                throw new EOFException("truncated run file");
+            }
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+
+    // --- マージの入力 ---
+
+    private abstract static class Source<T> {
+        T head;
+
+        /**
+         * 次の行を head に読み込む（終端では false）
+         */
+        abstract boolean advance() throws IOException;
+
+        void close() {
+        }
+    }
+
+    private static final class ListSource<T> extends Source<T> {
+        private final Iterator<T> it;
+
+        ListSource(Iterator<T> it) {
+            this.it = it;
+        }
+
+        @Override
+        boolean advance() {
+            head = it.hasNext() ? it.next() : null;
+            return head != null;
+        }
+    }
+
+    private static final class RunSource<T> extends Source<T> {
+        private final DataInputStream in;
+        private final RowCodec<T> codec;
+
+        RunSource(Path file, RowCodec<T> codec) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+            this.codec = codec;
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            int count = readVarInt(in);
+            if (count < 0) {
+                head = null;
+                return false;
+            }
+            String[] fields = new String[count];
+            for (int i = 0; i < count; i++) {
+                int length = readVarInt(in);
+                if (length < 0) {
+                    throw new EOFException("truncated run file");
+                }
+                if (length > 0) {
+                    byte[] bytes = new byte[length - 1];
+                    in.readFully(bytes);
+                    fields[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+            }
+            head = codec.fromFields(fields);
+            return true;
+        }
+
+        @Override
+        void close() {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // 読み出し専用のため無視
+            }
+        }
+    }
+}
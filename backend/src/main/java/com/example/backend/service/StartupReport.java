@@ -0,0 +1,137 @@
+package com.example.backend.service;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 起動時間の計測結果
+ * <p>
+ * JVM 起動から main 開始・コンテキスト構築完了・ウォームアップ完了・受付開始までの各区間を記録し、
+ * 受付開始時にログへ出力する（/api/metrics/startup でも参照可能）。
+ * AOT 生成物・CDS アーカイブの使用有無も併せて記録し、実行モードごとの比較に使う。
+ * readiness の変化（ウォームアップ中の REFUSING_TRAFFIC、受付開始時の ACCEPTING_TRAFFIC）も記録する。
+ */
+@Component
+public class StartupReport {
+
+    // BackendApplication.main の開始時刻（テストなど main を経由しない場合は 0）
+    private static volatile long mainStartedAt;
+
+    private final Environment environment;
+    private final Map<String, Object> report = new LinkedHashMap<>();
+    private volatile long warmupMillis = -1;
+    private volatile int warmupIterations;
+
+    public StartupReport(Environment environment) {
+        this.environment = environment;
+    }
+
+    public static void markMainStarted() {
+        mainStartedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * ウォームアップの所要時間を記録する
+     */
+    public void recordWarmup(long millis, int iterations) {
+        this.warmupMillis = millis;
+        this.warmupIterations = iterations;
+    }
+
+    @EventListener
+    void onStarted(ApplicationStartedEvent event) {
+        synchronized (report) {
+            report.put("contextStartedMillis", millis(event.getTimeTaken()));
+        }
+    }
+
+    @EventListener
+    void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        synchronized (report) {
+            report.put("readiness", event.getState().name());
+        }
+    }
+
+    @EventListener
+    void onReady(ApplicationReadyEvent event) {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        synchronized (report) {
+            report.put("profiles", Arrays.asList(environment.getActiveProfiles()));
+            report.put("aot", AotDetector.useGeneratedArtifacts());
+            report.put("cds", runtime.getInputArguments().stream().anyMatch(a -> a.startsWith("-XX:SharedArchiveFile")));
+            report.put("jpaBootstrapMode",
+                    environment.getProperty("spring.data.jpa.repositories.bootstrap-mode", "default"));
+            if (mainStartedAt > 0) {
+                report.put("jvmToMainMillis", mainStartedAt - runtime.getStartTime());
+            }
+            report.put("warmupMillis", warmupMillis);
+            report.put("warmupIterations", warmupIterations);
+            report.put("readyMillis", millis(event.getTimeTaken()));
+            report.put("jvmUptimeAtReadyMillis", runtime.getUptime());
+            List<Map<String, Object>> steps = slowestSteps(event.getApplicationContext(), 10);
+            if (!steps.isEmpty()) {
+                report.put("slowestSteps", steps);
+            }
+            System.err.println("Startup report: " + report);
+        }
+    }
+
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+
+    public int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    public Map<String, Object> getReport() {
+        synchronized (report) {
+            return new LinkedHashMap<>(report);
+        }
+    }
+
+    /**
+     * 起動ステップの記録が有効な場合 (-Dstartup.record-steps=true)、所要時間の長い順に limit 件
+     */
+    private static List<Map<String, Object>> slowestSteps(ConfigurableApplicationContext context, int limit) {
+        List<Map<String, Object>> steps = new ArrayList<>();
+        if (!(context.getApplicationStartup() instanceof BufferingApplicationStartup buffering)) {
+            return steps;
+        }
+        StartupTimeline timeline = buffering.getBufferedTimeline();
+        timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(limit)
+                .forEach(e -> {
+                    Map<String, Object> step = new LinkedHashMap<>();
+                    step.put("name", e.getStartupStep().getName());
+                    e.getStartupStep().getTags().forEach(tag -> step.put(tag.getKey(), tag.getValue()));
+                    step.put("millis", millis(e.getDuration()));
+                    steps.add(step);
+                });
+        return steps;
+    }
+
+    private static long millis(Duration duration) {
+        return duration != null ? duration.toMillis() : -1;
+    }
+}
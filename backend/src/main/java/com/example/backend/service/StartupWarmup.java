@@ -0,0 +1,145 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.dto.PagedResponseDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.format.OutputFormat;
+import com.example.backend.service.format.OutputFormatRegistry;
+import com.example.backend.service.format.OutputFormatWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 起動直後のウォームアップ
+ * <p>
+ * 合成データで変換処理（XML / Properties、各出力形式、JSON 応答）を繰り返し実行し、
+ * 初回リクエストがインタプリタ実行・クラスロードの待ちにならないようにする。DB には接続しない
+ * （実行時参照のスナップショットの初回構築も受付開始の後に行うため、ウォームアップとは重ならない）。
+ * startup.warmup.enabled=true の場合のみ実行し、max-millis を超えた時点で打ち切る。
+ * <p>
+ * 組み込みサーバーはコンテキスト構築の完了時点で接続を受け付けるため、ウォームアップ中に届いたリクエストも処理される。
+ * ウォームアップの開始時に readiness を REFUSING_TRAFFIC とし、ApplicationRunner がすべて終わった後に
+ * Spring Boot が ACCEPTING_TRAFFIC とする（/api/metrics/startup の readiness で確認できる）。
+ * 振り分けを行う側は readiness が ACCEPTING_TRAFFIC になってからリクエストを送ること。
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final String[] LANGUAGES = { "country1", "country2", "country3", "country4", "country5" };
+
+    private final ParallelConversionService conversionService;
+    private final OutputFormatRegistry outputFormats;
+    private final ObjectMapper objectMapper;
+    private final StartupReport startupReport;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int iterations;
+    private final int rows;
+    private final long maxMillis;
+
+    public StartupWarmup(ParallelConversionService conversionService, OutputFormatRegistry outputFormats,
+            ObjectMapper objectMapper, StartupReport startupReport, ApplicationEventPublisher eventPublisher,
+            @Value("${startup.warmup.enabled:false}") boolean enabled,
+            @Value("${startup.warmup.iterations:200}") int iterations,
+            @Value("${startup.warmup.rows:500}") int rows,
+            @Value("${startup.warmup.max-millis:10000}") long maxMillis) {
+        this.conversionService = conversionService;
+        this.outputFormats = outputFormats;
+        this.objectMapper = objectMapper;
+        this.startupReport = startupReport;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.rows = rows;
+        this.maxMillis = maxMillis;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        long started = System.currentTimeMillis();
+        int done = 0;
+        try {
+            List<SLocalizationLabel> labels = sampleLabels(rows);
+            List<ErrorMessageDto> errors = sampleErrorMessages(rows);
+            for (; done < iterations; done++) {
+                if (System.currentTimeMillis() - started > maxMillis) {
+                    break;
+                }
+                runOnce(labels, errors, LANGUAGES[done % LANGUAGES.length]);
+            }
+        } catch (Exception e) {
+            // ウォームアップの失敗で起動を止めない
+            System.err.println("Startup warm-up failed: " + e.getMessage());
+        }
+        startupReport.recordWarmup(System.currentTimeMillis() - started, done);
+    }
+
+    /**
+     * 変換処理を一巡する
+     */
+    void runOnce(List<SLocalizationLabel> labels, List<ErrorMessageDto> errors, String lang) throws Exception {
+        conversionService.convertToXmlBytes(errors, lang);
+        for (OutputEncoder.PropertiesCharset charset : OutputEncoder.PropertiesCharset.values()) {
+            conversionService.convertToPropertiesBytes(labels, lang, charset);
+        }
+        EncodedBuffer buffer = OutputEncoder.acquire();
+        try {
+            for (OutputFormat format : outputFormats.getAll()) {
+                if (format.supports(ExportJobService.TARGET_LABELS)) {
+                    OutputFormatWriter writer = format.newWriter(ExportJobService.TARGET_LABELS, lang);
+                    writer.writeHeader(buffer);
+                    writer.writeLabels(labels, buffer);
+                    writer.writeFooter(buffer);
+                    buffer.reset();
+                }
+                if (format.supports(ExportJobService.TARGET_ERROR_MESSAGES)) {
+                    OutputFormatWriter writer = format.newWriter(ExportJobService.TARGET_ERROR_MESSAGES, lang);
+                    writer.writeHeader(buffer);
+                    writer.writeErrorMessages(errors, buffer);
+                    writer.writeFooter(buffer);
+                    buffer.reset();
+                }
+            }
+        } finally {
+            OutputEncoder.release(buffer);
+        }
+        objectMapper.writeValueAsBytes(new PagedResponseDto<>(labels, labels.size()));
+        objectMapper.writeValueAsBytes(new PagedResponseDto<>(errors, errors.size()));
+    }
+
+    /**
+     * エスケープ対象の文字・非 ASCII 文字を含む合成ラベル
+     */
+    static List<SLocalizationLabel> sampleLabels(int count) {
+        List<SLocalizationLabel> labels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            labels.add(new SLocalizationLabel(String.format("W%031d", i), "warmup" + (i % 7),
+                    "ラベル " + i + " = \"値\" <&>", "Label " + i + " : value\\n", "Étiquette " + i + " #1",
+                    i % 3 == 0 ? null : "标签 " + i, i % 5 == 0 ? "" : "레이블 " + i + "\t"));
+        }
+        return labels;
+    }
+
+    static List<ErrorMessageDto> sampleErrorMessages(int count) {
+        List<ErrorMessageDto> errors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            errors.add(new ErrorMessageDto(String.format("W%031d", i), String.format("W%05d", i),
+                    i % 2 == 0 ? "E" : "W", String.format("M%031d", i), "エラー " + i + " <&>",
+                    "Error " + i + " \"quoted\"", "Erreur " + i, i % 3 == 0 ? null : "错误 " + i, "오류 " + i));
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.jfr.ConversionEvent;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ダウンロード要求の本文 ({"messages": [...], "lang": ...} など) を JsonParser で逐次読み込み、
+ * 1行ずつ型付きの行に変換して出力形式へ書き込む
+ * <p>
+ * 本文全体を Map に展開してから変換することはしない。出力は ETag を応答ヘッダーより先に決める必要があるため
+ * プールしたバッファに書き込み、読み込み完了後に応答へ書き出す。出力が etag-max-bytes を超えた時点で ETag をあきらめ、
+ * {@link ResponseOpener} で応答を開いてバッファの内容とそれ以降の出力を直接書き出す（保持する出力は上限 + 1バッチ分まで）。
+ * オプション (lang / encoding) はクエリパラメータ、または行の配列より前に置いた項目で指定する。
+ * 配列より後に置いたオプションは行を保持しないと反映できないため IllegalArgumentException とする。
+ */
+@Service
+public class StreamingDownloadService {
+
+    private static final String LANG = "lang";
+    private static final String ENCODING = "encoding";
+    private static final String DEFAULT_LANG = "country1";
+
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int etagMaxBytes;
+
+    public StreamingDownloadService(ObjectMapper objectMapper,
+            @Value("${download.streaming.batch-size:1000}") int batchSize,
+            @Value("${download.streaming.etag-max-bytes:4194304}") int etagMaxBytes) {
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.etagMaxBytes = Math.max(0, etagMaxBytes);
+    }
+
+    /**
+     * {"messages": [...], "lang": ...} を XML (UTF-8) に変換
+     *
+     * @param lang   クエリパラメータで指定された言語（本文の lang より優先。未指定は null）
+     * @param opener 出力が etag-max-bytes を超えた場合に応答を開く
+     */
+    public EncodedDownload readXml(InputStream body, String lang, ResponseOpener opener) throws IOException {
+        Map<String, String> preset = new HashMap<>();
+        putIfPresent(preset, LANG, lang);
+        EncodedDownload download = read(body, "messages", ErrorMessageDto.class, Set.of(LANG), preset,
+                (rows, options, out) -> OutputEncoder.writeXmlEntries(rows, langOf(options), out),
+                OutputEncoder::writeXmlHeader, OutputEncoder::writeXmlFooter, "xml", opener);
+        return download;
+    }
+
+    /**
+     * {"labels": [...], "lang": ..., "encoding": ...} を Properties に変換
+     * encoding が "ISO-8859-1" の場合は非ASCII文字を Unicode エスケープした従来形式で出力する
+     *
+     * @param lang     クエリパラメータで指定された言語（未指定は null）
+     * @param encoding クエリパラメータで指定された文字コード（未指定は null）
+     * @param opener   出力が etag-max-bytes を超えた場合に応答を開く
+     */
+    public EncodedDownload readProperties(InputStream body, String lang, String encoding, ResponseOpener opener)
+            throws IOException {
+        Map<String, String> preset = new HashMap<>();
+        putIfPresent(preset, LANG, lang);
+        putIfPresent(preset, ENCODING, encoding);
+        EncodedDownload download = read(body, "labels", SLocalizationLabel.class, Set.of(LANG, ENCODING), preset,
+                (rows, options, out) -> OutputEncoder.writeProperties(rows, langOf(options), charsetOf(options), out),
+                out -> {
+                }, out -> {
+                }, null, opener);
+        return download;
+    }
+
+    /**
+     * 本文のオブジェクトを1回走査する
+     *
+     * @param rowsField   行の配列の項目名
+     * @param optionNames 変換に必要なオプション名（本文の文字列項目またはクエリパラメータ）
+     * @param preset      クエリパラメータで指定済みのオプション（本文より優先）
+     * @param format      イベントに記録する形式名（null の場合は結果の charset から決める）
+     */
+    private <T> EncodedDownload read(InputStream body, String rowsField, Class<T> type, Set<String> optionNames,
+            Map<String, String> preset, RowWriter<T> writer, Section header, Section footer, String format,
+            ResponseOpener opener) throws IOException {
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+        EncodedDownload download = new EncodedDownload(OutputEncoder.acquire());
+        download.options.putAll(preset);
+        boolean completed = false;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("request body must be a JSON object");
+            }
+            header.write(download.buffer);
+            boolean rowsSeen = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (rowsField.equals(field)) {
+                    if (value == JsonToken.VALUE_NULL) {
+                        continue;
+                    }
+                    if (value != JsonToken.START_ARRAY) {
+                        throw new IllegalArgumentException(rowsField + " must be an array");
+                    }
+                    rowsSeen = true;
+                    // オプションはここで確定する: バッチ単位で変換し、行は保持しない
+                    download.settle();
+                    List<T> batch = new ArrayList<>(batchSize);
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        batch.add(objectMapper.readValue(parser, type));
+                        download.rows++;
+                        if (batch.size() >= batchSize) {
+                            writer.write(batch, download.options, download.buffer);
+                            batch.clear();
+                            spill(download, opener);
+                        }
+                    }
+                    writer.write(batch, download.options, download.buffer);
+                    spill(download, opener);
+                } else if (optionNames.contains(field) && !preset.containsKey(field)) {
+                    if (rowsSeen) {
+                        throw new IllegalArgumentException(field + " must precede " + rowsField);
+                    }
+                    if (value == JsonToken.VALUE_STRING) {
+                        download.options.put(field, parser.getText());
+                    } else if (value == JsonToken.VALUE_NULL) {
+                        download.options.put(field, null);
+                    } else {
+                        parser.skipChildren();
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!rowsSeen) {
+                throw new MissingRowsException(rowsField + " data is missing");
+            }
+            footer.write(download.buffer);
+            if (download.out != null) {
+                download.flush();
+            }
+            completed = true;
+        } catch (IOException | RuntimeException e) {
+            if (download.out != null) {
+                // 応答は送信を始めているため、状態コードでは返せない
+                throw new DownloadAbortedException(e);
+            }
+            throw e;
+        } finally {
+            if (!completed) {
+                download.close();
+            }
+        }
+        if (download.out == null) {
+            download.etag = ETags.of(download.buffer);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.format = format != null ? format
+                    : charsetOf(download.options) == OutputEncoder.PropertiesCharset.UTF_8 ? "properties"
+                            : "properties-iso-8859-1";
+            event.lang = langOf(download.options);
+            event.rows = download.rows;
+            event.bytes = download.bytes + download.buffer.size();
+            event.parallel = false;
+            event.commit();
+        }
+        return download;
+    }
+
+    /**
+     * 出力が etag-max-bytes を超えた場合は応答を開いて（初回のみ）バッファの内容を書き出す
+     */
+    private void spill(EncodedDownload download, ResponseOpener opener) throws IOException {
+        if (download.out == null && download.buffer.size() > etagMaxBytes) {
+            download.out = opener.open(download);
+        }
+        if (download.out != null) {
+            download.flush();
+        }
+    }
+
+    private static void putIfPresent(Map<String, String> options, String name, String value) {
+        if (value != null && !value.isEmpty()) {
+            options.put(name, value);
+        }
+    }
+
+    private static String langOf(Map<String, String> options) {
+        String lang = options.get(LANG);
+        return lang != null ? lang : DEFAULT_LANG;
+    }
+
+    private static OutputEncoder.PropertiesCharset charsetOf(Map<String, String> options) {
+        return "ISO-8859-1".equalsIgnoreCase(options.get(ENCODING))
+                ? OutputEncoder.PropertiesCharset.ISO_8859_1
+                : OutputEncoder.PropertiesCharset.UTF_8;
+    }
+
+    /**
+     * ETag なしで送信する応答を開く（応答ヘッダーを設定し、本文の出力先を返す）
+     * 呼び出し時点で lang / charset は確定している
+     */
+    @FunctionalInterface
+    public interface ResponseOpener {
+        OutputStream open(EncodedDownload download) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(List<T> rows, Map<String, String> options, EncodedBuffer out);
+    }
+
+    @FunctionalInterface
+    private interface Section {
+        void write(EncodedBuffer out);
+    }
+
+    /**
+     * 本文に行の配列が無い
+     */
+    public static class MissingRowsException extends IllegalArgumentException {
+        public MissingRowsException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 応答の送信を始めた後に本文の読み込み・変換に失敗した
+     */
+    public static class DownloadAbortedException extends RuntimeException {
+        public DownloadAbortedException(Throwable cause) {
+            super("download aborted after the response was committed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 変換済みの出力。使用後は close() でバッファをプールへ返却する
+     * {@link #isStreamed()} が true の場合は応答へ書き出し済みで、ETag は null
+     */
+    public static final class EncodedDownload implements AutoCloseable {
+        private final Map<String, String> options = new HashMap<>();
+        private EncodedBuffer buffer;
+        private String etag;
+        private String lang;
+        private OutputEncoder.PropertiesCharset charset = OutputEncoder.PropertiesCharset.UTF_8;
+        private long rows;
+        private OutputStream out;
+        private long bytes;
+
+        EncodedDownload(EncodedBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private void settle() {
+            lang = langOf(options);
+            charset = charsetOf(options);
+        }
+
+        private void flush() throws IOException {
+            bytes += buffer.size();
+            buffer.writeTo(out);
+            buffer.reset();
+        }
+
+        public boolean isStreamed() {
+            return out != null;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLang() {
+            return lang;
+        }
+
+        public OutputEncoder.PropertiesCharset getCharset() {
+            return charset;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public int size() {
+            return buffer.size();
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            buffer.writeTo(out);
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+
+        @Override
+        public void close() {
+            if (buffer != null) {
+                OutputEncoder.release(buffer);
+                buffer = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 翻訳の充足状況（1回のストリーミング走査の集計結果、構築後は変更しない）
+ * <p>
+ * country2 〜 country5 について、テーブル・カテゴリ・言語ごとに次の件数を持つ。
+ * <ul>
+ * <li>missing: 値が null</li>
+ * <li>empty: 値が空文字または空白のみ</li>
+ * <li>identical: 値が country1 と同一（country1 が空でない場合のみ。未翻訳のコピーとみなす）</li>
+ * </ul>
+ * 該当した行は objectID・カテゴリと、言語 × 種別のビットフラグだけを保持する（該当しない行は保持しない）。
+ */
+public final class TranslationCoverage {
+
+    public static final String LABELS = "labels";
+    public static final String LOCALIZATIONS = "localizations";
+    public static final List<String> LANGUAGES = List.of("country2", "country3", "country4", "country5");
+    public static final List<String> KINDS = List.of("missing", "empty", "identical");
+
+    private final Map<String, Table> tables;
+    private final String fingerprint;
+    private final long builtAt;
+    private final long buildMillis;
+
+    private TranslationCoverage(Map<String, Table> tables, String fingerprint, long builtAt, long buildMillis) {
+        this.tables = tables;
+        this.fingerprint = fingerprint;
+        this.builtAt = builtAt;
+        this.buildMillis = buildMillis;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    /**
+     * 集計したテーブル名（LABELS / LOCALIZATIONS）
+     */
+    public List<String> getTableNames() {
+        return new ArrayList<>(tables.keySet());
+    }
+
+    public long getRows(String table) {
+        return tables.get(table).total[0];
+    }
+
+    /**
+     * テーブル全体の件数
+     */
+    public long count(String table, String lang, String kind) {
+        return tables.get(table).total[1 + flagIndex(lang, kind)];
+    }
+
+    /**
+     * カテゴリ名（昇順、null のカテゴリは空文字）。カテゴリの無いテーブルは空
+     */
+    public List<String> getCategories(String table) {
+        return new ArrayList<>(tables.get(table).byCategory.keySet());
+    }
+
+    public long getCategoryRows(String table, String category) {
+        return tables.get(table).byCategory.get(category)[0];
+    }
+
+    public long count(String table, String category, String lang, String kind) {
+        return tables.get(table).byCategory.get(category)[1 + flagIndex(lang, kind)];
+    }
+
+    /**
+     * 該当した行を objectID 順に渡す
+     *
+     * @param table    テーブル（null はすべて）
+     * @param lang     言語（null はすべて）
+     * @param kind     種別（null はすべて）
+     * @param category カテゴリ（null はすべて）
+     */
+    public void forEachOffender(String table, String lang, String kind, String category, OffenderConsumer consumer) {
+        int mask = mask(lang, kind);
+        for (Map.Entry<String, Table> entry : tables.entrySet()) {
+            if (table != null && !table.equals(entry.getKey())) {
+                continue;
+            }
+            Table t = entry.getValue();
+            for (int i = 0; i < t.ids.size(); i++) {
+                int flags = t.flags[i] & mask;
+                if (flags != 0 && (category == null || category.equals(t.categories.get(i)))) {
+                    consumer.accept(entry.getKey(), t.ids.get(i), t.categories.get(i), flags);
+                }
+            }
+        }
+    }
+
+    /**
+     * 該当行の件数（forEachOffender と同じ条件）
+     */
+    public long countOffenders(String table, String lang, String kind, String category) {
+        long[] count = { 0 };
+        forEachOffender(table, lang, kind, category, (t, id, c, flags) -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * フラグに含まれる言語 × 種別の組（言語ごとに該当した種別）
+     */
+    public static Map<String, List<String>> describe(int flags) {
+        Map<String, List<String>> issues = new TreeMap<>();
+        for (int l = 0; l < LANGUAGES.size(); l++) {
+            for (int k = 0; k < KINDS.size(); k++) {
+                if ((flags & (1 << (l * KINDS.size() + k))) != 0) {
+                    issues.computeIfAbsent(LANGUAGES.get(l), x -> new ArrayList<>()).add(KINDS.get(k));
+                }
+            }
+        }
+        return issues;
+    }
+
+    /**
+     * 言語・種別の検証（不正な場合は IllegalArgumentException。null はすべてを表す）
+     */
+    public static void validate(String table, String lang, String kind) {
+        if (table != null && !LABELS.equals(table) && !LOCALIZATIONS.equals(table)) {
+            throw new IllegalArgumentException("unknown table: " + table);
+        }
+        if (lang != null && !LANGUAGES.contains(lang)) {
+            throw new IllegalArgumentException("unknown language: " + lang);
+        }
+        if (kind != null && !KINDS.contains(kind)) {
+            throw new IllegalArgumentException("unknown kind: " + kind);
+        }
+    }
+
+    private static int flagIndex(String lang, String kind) {
+        validate(null, lang, kind);
+        return LANGUAGES.indexOf(lang) * KINDS.size() + KINDS.indexOf(kind);
+    }
+
+    private static int mask(String lang, String kind) {
+        validate(null, lang, kind);
+        int mask = 0;
+        for (int l = 0; l < LANGUAGES.size(); l++) {
+            for (int k = 0; k < KINDS.size(); k++) {
+                if ((lang == null || LANGUAGES.get(l).equals(lang)) && (kind == null || KINDS.get(k).equals(kind))) {
+                    mask |= 1 << (l * KINDS.size() + k);
+                }
+            }
+        }
+        return mask;
+    }
+
+    @FunctionalInterface
+    public interface OffenderConsumer {
+        void accept(String table, String objectID, String category, int flags);
+    }
+
+    /**
+     * テーブル1つ分の集計
+     * 件数の配列は [行数, 言語0の missing, empty, identical, 言語1の missing, ...]
+     */
+    private static final class Table {
+        private final long[] total = new long[1 + LANGUAGES.size() * KINDS.size()];
+        private final Map<String, long[]> byCategory = new TreeMap<>();
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> categories = new ArrayList<>();
+        private short[] flags = new short[256];
+    }
+
+    /**
+     * 行を1件ずつ追加して構築する（テーブルごとに objectID 順に追加する）
+     */
+    public static final class Builder {
+        private final Map<String, Table> tables = new LinkedHashMap<>();
+        private final Map<String, String> categoryNames = new HashMap<>();
+        private final long started = System.currentTimeMillis();
+
+        public Builder table(String table) {
+            tables.computeIfAbsent(table, t -> new Table());
+            return this;
+        }
+
+        /**
+         * @param category カテゴリ（カテゴリの無いテーブルは null）
+         * @param values   country1 〜 country5 の値
+         */
+        public void add(String table, String objectID, String category, String... values) {
+            Table t = tables.computeIfAbsent(table, x -> new Table());
+            long[] byCategory = null;
+            String categoryKey = null;
+            if (LABELS.equals(table)) {
+                categoryKey = categoryNames.computeIfAbsent(category != null ? category : "", c -> c);
+                byCategory = t.byCategory.computeIfAbsent(categoryKey, c -> new long[t.total.length]);
+                byCategory[0]++;
+            }
+            t.total[0]++;
+            String base = values[0];
+            boolean baseEmpty = base == null || base.isBlank();
+            int flags = 0;
+            for (int l = 0; l < LANGUAGES.size(); l++) {
+                String value = values[l + 1];
+                int kind;
+                if (value == null) {
+                    kind = 0;
+                } else if (value.isBlank()) {
+                    kind = 1;
+                } else if (!baseEmpty && value.equals(base)) {
+                    kind = 2;
+                } else {
+                    continue;
+                }
+                int index = l * KINDS.size() + kind;
+                flags |= 1 << index;
+                t.total[1 + index]++;
+                if (byCategory != null) {
+                    byCategory[1 + index]++;
+                }
+            }
+            if (flags != 0) {
+                int n = t.ids.size();
+                if (n == t.flags.length) {
+                    t.flags = Arrays.copyOf(t.flags, n * 2);
+                }
+                t.flags[n] = (short) flags;
+                t.ids.add(objectID);
+                t.categories.add(categoryKey);
+            }
+        }
+
+        public TranslationCoverage build(String fingerprint) {
+            return new TranslationCoverage(tables, fingerprint, System.currentTimeMillis(),
+                    System.currentTimeMillis() - started);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CoverageReportDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 翻訳の充足状況レポート（SLocalizationLabel と SLocalization の country2 〜 country5）
+ * <p>
+ * テーブルごとに1回のストリーミング走査で集計し、接続先ごとにキャッシュする。
+ * キャッシュは validate-interval-millis ごとに集約クエリ（件数・objectID の範囲・各列の文字数と先頭文字コードの合計）で
+ * 元データの変更を確認し、変わっていれば作り直す。集約クエリで検出できない変更に備え、max-age-millis を過ぎたものも作り直す。
+ */
+@Service
+public class TranslationCoverageService {
+
+    private static final String[] COUNTRY_COLUMNS = { "country1", "country2", "country3", "country4", "country5" };
+
+    private final SLocalizationLabelService labelService;
+    private final ErrorMessageService errorMessageService;
+    private final DBConnectionService dbConnectionService;
+    private final long validateIntervalMillis;
+    private final long maxAgeMillis;
+    private final int flushLines;
+
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+    private final SingleFlight<String, TranslationCoverage> buildFlight = new SingleFlight<>();
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong validations = new AtomicLong();
+
+    public TranslationCoverageService(SLocalizationLabelService labelService,
+            ErrorMessageService errorMessageService, DBConnectionService dbConnectionService,
+            @Value("${coverage.validate-interval-millis:30000}") long validateIntervalMillis,
+            @Value("${coverage.max-age-millis:3600000}") long maxAgeMillis,
+            @Value("${coverage.flush-lines:1000}") int flushLines) {
+        this.labelService = labelService;
+        this.errorMessageService = errorMessageService;
+        this.dbConnectionService = dbConnectionService;
+        this.validateIntervalMillis = validateIntervalMillis;
+        this.maxAgeMillis = maxAgeMillis;
+        this.flushLines = Math.max(1, flushLines);
+    }
+
+    /**
+     * 接続先の充足状況。キャッシュが有効であればそれを返す
+     *
+     * @param refresh true の場合はキャッシュを使わずに作り直す
+     */
+    public TranslationCoverage getCoverage(Map<String, Object> config, boolean refresh) {
+        String key = dbConnectionService.connectionKey(config);
+        Cached cached = cache.get(key);
+        long now = System.currentTimeMillis();
+        if (!refresh && cached != null && now - cached.coverage.getBuiltAt() < maxAgeMillis) {
+            if (now - cached.checkedAt < validateIntervalMillis) {
+                hits.incrementAndGet();
+                return cached.coverage;
+            }
+            validations.incrementAndGet();
+            String fingerprint = fingerprint(config);
+            cached.checkedAt = now;
+            if (fingerprint.equals(cached.coverage.getFingerprint())) {
+                hits.incrementAndGet();
+                return cached.coverage;
+            }
+        }
+        return buildFlight.execute(key, () -> {
+            TranslationCoverage coverage = build(config);
+            cache.put(key, new Cached(coverage));
+            return coverage;
+        });
+    }
+
+    /**
+     * 元データを更新したため、接続先のキャッシュを破棄する
+     */
+    public void invalidate(Map<String, Object> config) {
+        cache.remove(dbConnectionService.connectionKey(config));
+    }
+
+    /**
+     * 集計結果をレポートの形式に変換
+     */
+    public static CoverageReportDto toReport(TranslationCoverage coverage) {
+        CoverageReportDto report = new CoverageReportDto();
+        report.setBuiltAt(coverage.getBuiltAt());
+        report.setBuildMillis(coverage.getBuildMillis());
+        for (String table : coverage.getTableNames()) {
+            for (String lang : TranslationCoverage.LANGUAGES) {
+                report.getTotals().add(entry(table, null, lang, coverage.getRows(table),
+                        coverage.count(table, lang, "missing"), coverage.count(table, lang, "empty"),
+                        coverage.count(table, lang, "identical")));
+            }
+            for (String category : coverage.getCategories(table)) {
+                for (String lang : TranslationCoverage.LANGUAGES) {
+                    report.getCategories().add(entry(table, category, lang, coverage.getCategoryRows(table, category),
+                            coverage.count(table, category, lang, "missing"),
+                            coverage.count(table, category, lang, "empty"),
+                            coverage.count(table, category, lang, "identical")));
+                }
+            }
+        }
+        return report;
+    }
+
+    private static CoverageReportDto.Entry entry(String table, String category, String lang, long rows,
+            long missing, long empty, long identical) {
+        CoverageReportDto.Entry entry = new CoverageReportDto.Entry();
+        entry.setTable(table);
+        entry.setCategoryName(category);
+        entry.setLanguage(lang);
+        entry.setRows(rows);
+        entry.setMissing(missing);
+        entry.setEmpty(empty);
+        entry.setIdentical(identical);
+        return entry;
+    }
+
+    /**
+     * 該当行を NDJSON で書き出す
+     * <pre>
+     * {"table":"labels","objectID":"...","categoryName":"...","issues":{"country2":["missing"],"country3":["identical"]}}
+     * </pre>
+     * 最終行は {"type":"summary","rows":件数,"builtAt":集計時刻}
+     */
+    public void writeOffenders(TranslationCoverage coverage, String table, String lang, String kind,
+            String category, OutputStream out) throws IOException {
+        JsonGenerator gen = jsonFactory.createGenerator(out);
+        long[] written = { 0 };
+        try {
+            coverage.forEachOffender(table, lang, kind, category, (t, objectID, categoryName, flags) -> {
+                try {
+                    gen.writeStartObject();
+                    gen.writeStringField("table", t);
+                    gen.writeStringField("objectID", objectID);
+                    if (categoryName != null) {
+                        gen.writeStringField("categoryName", categoryName);
+                    }
+                    gen.writeObjectFieldStart("issues");
+                    for (Map.Entry<String, List<String>> issue : TranslationCoverage.describe(flags).entrySet()) {
+                        gen.writeArrayFieldStart(issue.getKey());
+                        for (String k : issue.getValue()) {
+                            gen.writeString(k);
+                        }
+                        gen.writeEndArray();
+                    }
+                    gen.writeEndObject();
+                    gen.writeEndObject();
+                    gen.writeRaw('\n');
+                    if (++written[0] % flushLines == 0) {
+                        gen.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        gen.writeStartObject();
+        gen.writeStringField("type", "summary");
+        gen.writeNumberField("rows", written[0]);
+        gen.writeNumberField("builtAt", coverage.getBuiltAt());
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+        gen.flush();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedConnections", cache.size());
+        stats.put("builds", buildFlight.getExecutedCount());
+        stats.put("coalescedBuilds", buildFlight.getCoalescedCount());
+        stats.put("hits", hits.get());
+        stats.put("validations", validations.get());
+        return stats;
+    }
+
+    // --- 集計 ---
+
+    private TranslationCoverage build(Map<String, Object> config) {
+        // 走査中の変更は次回の確認で検出されるよう、指紋は走査より先に取得する
+        String fingerprint = fingerprint(config);
+        TranslationCoverage.Builder builder = new TranslationCoverage.Builder()
+                .table(TranslationCoverage.LABELS)
+                .table(TranslationCoverage.LOCALIZATIONS);
+        labelService.scanLabelRange(config, null, new KeyRange(null, null, 0),
+                label -> builder.add(TranslationCoverage.LABELS, label.getObjectID(), label.getCategoryName(),
+                        label.getCountry1(), label.getCountry2(), label.getCountry3(), label.getCountry4(),
+                        label.getCountry5()));
+        errorMessageService.scanLocalizations(config,
+                l -> builder.add(TranslationCoverage.LOCALIZATIONS, l.getObjectID(), null, l.getCountry1(),
+                        l.getCountry2(), l.getCountry3(), l.getCountry4(), l.getCountry5()));
+        return builder.build(fingerprint);
+    }
+
+    /**
+     * 両テーブルの集約値を連結した指紋
+     */
+    String fingerprint(Map<String, Object> config) {
+        JdbcTemplate jdbc = dbConnectionService.createPooledJdbcTemplate(config);
+        String dbType = (String) config.get("dbType");
+        return tableFingerprint(jdbc, dbType, "SLocalizationLabel", "categoryName") + "/"
+                + tableFingerprint(jdbc, dbType, "SLocalization", null);
+    }
+
+    private static String tableFingerprint(JdbcTemplate jdbc, String dbType, String table, String extraColumn) {
+        String sql = fingerprintSql(dbType, table, extraColumn);
+        return jdbc.queryForObject(sql, (rs, rowNum) -> {
+            StringBuilder fingerprint = new StringBuilder();
+            int columns = rs.getMetaData().getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                fingerprint.append(i > 1 ? "|" : "").append(rs.getString(i));
+            }
+            return fingerprint.toString();
+        });
+    }
+
+    static String fingerprintSql(String dbType, String table, String extraColumn) {
+        String length = switch (dbType) {
+            case "MySQL" -> "CHAR_LENGTH";
+            case "SQLServer" -> "LEN";
+            default -> "LENGTH";
+        };
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*), MIN(objectID), MAX(objectID)");
+        if (extraColumn != null) {
+            sql.append(", SUM(COALESCE(").append(length).append("(").append(extraColumn).append("), -1))");
+        }
+        for (String column : COUNTRY_COLUMNS) {
+            sql.append(", SUM(COALESCE(").append(length).append("(").append(column).append("), -1))");
+            sql.append(", SUM(COALESCE(ASCII(").append(column).append("), 0))");
+        }
+        return sql.append(" FROM ").append(table).toString();
+    }
+
+    /**
+     * 接続先ごとのキャッシュ
+     */
+    private static final class Cached {
+        private final TranslationCoverage coverage;
+        private volatile long checkedAt;
+
+        Cached(TranslationCoverage coverage) {
+            this.coverage = coverage;
+            this.checkedAt = coverage.getBuiltAt();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.backend.service;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 実行時の翻訳参照 (resolve) 用スナップショットの管理
+ * <p>
+ * 固定DB (JPA) の SError + SLocalization と SLocalizationLabel から {@link TranslationSnapshot} を構築し、
+ * AtomicReference で丸ごと差し替える。参照側はロックを取らずに現在のスナップショットを読むだけでよい。
+ * 行は {@link FixedDataService} から管理対象外のオブジェクトとして1行ずつ受け取り、キーと文言の配列だけを残す
+ * （エンティティの一覧や永続化コンテキストを再構築のたびに作らない）。
+ * 受付開始 (ApplicationReady) から initial-delay-millis 後にバックグラウンドで初回構築を行い、
+ * 以降は一定間隔で再構築する（内容が同じ場合は差し替えない）。
+ */
+@Service
+public class TranslationResolveService {
+
+    private final FixedDataService fixedDataService;
+    private final long refreshMillis;
+    private final long initialDelayMillis;
+
+    private final AtomicReference<TranslationSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong unchangedRefreshes = new AtomicLong();
+    private volatile String lastError;
+    private ScheduledExecutorService scheduler;
+
+    public TranslationResolveService(FixedDataService fixedDataService,
+            @Value("${resolve.snapshot.refresh-millis:60000}") long refreshMillis,
+            @Value("${resolve.snapshot.initial-delay-millis:10000}") long initialDelayMillis) {
+        this.fixedDataService = fixedDataService;
+        this.refreshMillis = refreshMillis;
+        this.initialDelayMillis = initialDelayMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "resolve-snapshot-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        // DB 未接続でも起動を妨げないよう、初回構築もバックグラウンドで行う
+        // （受付開始直後のリクエストと固定DBへの接続が競合しないよう initial-delay-millis だけ遅らせる）
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, Math.max(0, initialDelayMillis),
+                Math.max(1000, refreshMillis),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 現在のスナップショット（未構築の場合は null）
+     */
+    public TranslationSnapshot getSnapshot() {
+        return current.get();
+    }
+
+    /**
+     * 固定DBから再構築し、内容が変わっていれば差し替える
+     *
+     * @return 差し替え後（または変更が無かった場合は現在）のスナップショット
+     */
+    public synchronized TranslationSnapshot refresh() {
+        List<String> errorKeys = new ArrayList<>();
+        List<String> errorValues = new ArrayList<>();
+        fixedDataService.forEachErrorMessage(dto -> {
+            errorKeys.add(dto.getErrorNo());
+            add(errorValues, dto.getCountry1(), dto.getCountry2(), dto.getCountry3(), dto.getCountry4(),
+                    dto.getCountry5());
+        });
+        List<String> labelKeys = new ArrayList<>();
+        List<String> labelValues = new ArrayList<>();
+        fixedDataService.forEachLabel(label -> {
+            labelKeys.add(OutputEncoder.labelKey(label));
+            add(labelValues, label.getCountry1(), label.getCountry2(), label.getCountry3(), label.getCountry4(),
+                    label.getCountry5());
+        });
+
+        TranslationSnapshot previous = current.get();
+        TranslationSnapshot built = new TranslationSnapshot(versions.get() + 1, errorKeys.toArray(String[]::new),
+                errorValues.toArray(String[]::new), labelKeys.toArray(String[]::new),
+                labelValues.toArray(String[]::new));
+        if (previous != null && previous.getEtag().equals(built.getEtag())) {
+            unchangedRefreshes.incrementAndGet();
+            return previous;
+        }
+        versions.incrementAndGet();
+        current.set(built);
+        return built;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+            lastError = null;
+        } catch (Exception e) {
+            refreshFailures.incrementAndGet();
+            lastError = e.getMessage();
+            System.err.println("Resolve snapshot refresh failed: " + e.getMessage());
+        }
+    }
+
+    // 1行分の文言（TranslationSnapshot.LANGUAGES 個）を追加する
+    private static void add(List<String> values, String c1, String c2, String c3, String c4, String c5) {
+        values.add(c1);
+        values.add(c2);
+        values.add(c3);
+        values.add(c4);
+        values.add(c5);
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.get();
+    }
+
+    public long getUnchangedRefreshes() {
+        return unchangedRefreshes.get();
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
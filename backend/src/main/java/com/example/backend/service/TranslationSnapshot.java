@@ -0,0 +1,203 @@
+package com.example.backend.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 実行時参照用の不変スナップショット
+ * <p>
+ * エラーメッセージ (errorNo → 各言語) とラベル (userKey または objectID → 各言語) を
+ * {@link CompactStringMap} と言語ごとの連続した配列で保持する。構築後は変更しない。
+ */
+public final class TranslationSnapshot {
+
+    /** 言語数 (country1 〜 country5) */
+    public static final int LANGUAGES = 5;
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final long version;
+    private final long createdAt;
+    private final String[] errorKeys;
+    private final String[] errorValues; // [行 * LANGUAGES + 言語]
+    private final CompactStringMap errorIndex;
+    private final String[] labelKeys;
+    private final String[] labelValues;
+    private final CompactStringMap labelIndex;
+    private final String etag;
+    private volatile byte[] bulk;
+
+    /**
+     * @param errorValues 行ごとに LANGUAGES 個ずつ並べた文言
+     */
+    public TranslationSnapshot(long version, String[] errorKeys, String[] errorValues, String[] labelKeys,
+            String[] labelValues) {
+        this.version = version;
+        this.createdAt = System.currentTimeMillis();
+        this.errorKeys = errorKeys;
+        this.errorValues = errorValues;
+        this.errorIndex = new CompactStringMap(errorKeys);
+        this.labelKeys = labelKeys;
+        this.labelValues = labelValues;
+        this.labelIndex = new CompactStringMap(labelKeys);
+        this.etag = computeEtag();
+    }
+
+    /**
+     * 0 〜 4 の言語番号（country1 〜 country5 以外は -1）
+     */
+    public static int languageIndex(String lang) {
+        if (lang == null || lang.length() != 8 || !lang.startsWith("country")) {
+            return -1;
+        }
+        int n = lang.charAt(7) - '1';
+        return n >= 0 && n < LANGUAGES ? n : -1;
+    }
+
+    /**
+     * エラーメッセージの文言を取得
+     *
+     * @return 文言（キーが無い場合は null、キーはあるが文言が未設定の場合も null）
+     */
+    public String findError(String errorNo, int lang) {
+        int row = errorIndex.indexOf(errorNo);
+        return row < 0 ? null : errorValues[row * LANGUAGES + lang];
+    }
+
+    public boolean containsError(String errorNo) {
+        return errorIndex.indexOf(errorNo) >= 0;
+    }
+
+    /**
+     * ラベルの文言を取得
+     */
+    public String findLabel(String key, int lang) {
+        int row = labelIndex.indexOf(key);
+        return row < 0 ? null : labelValues[row * LANGUAGES + lang];
+    }
+
+    public boolean containsLabel(String key) {
+        return labelIndex.indexOf(key) >= 0;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getErrorCount() {
+        return errorIndex.size();
+    }
+
+    public int getLabelCount() {
+        return labelIndex.size();
+    }
+
+    public int getDuplicateKeys() {
+        return errorIndex.getDuplicates() + labelIndex.getDuplicates();
+    }
+
+    /**
+     * 内容から計算した強い ETag（内容が同じなら再構築しても同じ値）
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * 一括ダウンロード用の JSON。初回要求時に生成して保持する
+     * <pre>
+     * {"errors": {"E001": ["c1", "c2", null, ...]}, "labels": {"key": [...]}}
+     * </pre>
+     */
+    public byte[] getBulkJson() {
+        byte[] result = bulk;
+        if (result == null) {
+            synchronized (this) {
+                result = bulk;
+                if (result == null) {
+                    result = writeBulkJson();
+                    bulk = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private byte[] writeBulkJson() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator gen = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            writeSection(gen, "errors", errorKeys, errorValues, errorIndex);
+            writeSection(gen, "labels", labelKeys, labelValues, labelIndex);
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeSection(JsonGenerator gen, String name, String[] keys, String[] values,
+            CompactStringMap index) throws IOException {
+        gen.writeObjectFieldStart(name);
+        for (int row = 0; row < keys.length; row++) {
+            // 重複キーは参照時と同じく最初の行のみ
+            if (keys[row] == null || index.indexOf(keys[row]) != row) {
+                continue;
+            }
+            gen.writeArrayFieldStart(keys[row]);
+            for (int lang = 0; lang < LANGUAGES; lang++) {
+                gen.writeString(values[row * LANGUAGES + lang]);
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+    }
+
+    private String computeEtag() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digestSection(digest, 'E', errorKeys, errorValues);
+            digestSection(digest, 'L', labelKeys, labelValues);
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void digestSection(MessageDigest digest, char section, String[] keys, String[] values) {
+        digest.update((byte) section);
+        for (int row = 0; row < keys.length; row++) {
+            digestString(digest, keys[row]);
+            for (int lang = 0; lang < LANGUAGES; lang++) {
+                digestString(digest, values[row * LANGUAGES + lang]);
+            }
+        }
+    }
+
+    private static void digestString(MessageDigest digest, String s) {
+        if (s == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+}
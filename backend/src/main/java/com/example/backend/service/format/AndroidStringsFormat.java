@@ -0,0 +1,84 @@
+package com.example.backend.service.format;
+
+import com.example.backend.service.EncodedBuffer;
+import com.example.backend.service.OutputEncoder;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Android のリソース形式 (res/values/strings.xml)
+ * <p>
+ * リソース名に使えない文字は "_" に置き換える（先頭が数字の場合は "_" を付加）。
+ * 文言先頭の "@" / "?" はリソース参照と解釈されないようエスケープする。
+ */
+@Component
+public class AndroidStringsFormat implements OutputFormat {
+
+    private static final byte[] HEADER = FormatEscapes.ascii(
+            "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n<resources>\n");
+    private static final byte[] FOOTER = FormatEscapes.ascii("</resources>\n");
+    private static final byte[] STRING_OPEN = FormatEscapes.ascii("    <string name=\"");
+    private static final byte[] STRING_CLOSE = FormatEscapes.ascii("</string>\n");
+
+    @Override
+    public String getName() {
+        return "android";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "xml";
+    }
+
+    @Override
+    public String getContentType() {
+        return MediaType.APPLICATION_XML_VALUE;
+    }
+
+    @Override
+    public boolean supports(String target) {
+        return true;
+    }
+
+    @Override
+    public OutputFormatWriter newWriter(String target, String lang) {
+        return new KeyValueFormatWriter(lang, new byte[0]) {
+            @Override
+            public void writeHeader(EncodedBuffer out) {
+                out.write(HEADER);
+            }
+
+            @Override
+            protected void writeEntry(String key, String value, EncodedBuffer out) {
+                out.write(STRING_OPEN);
+                out.writeUtf8(resourceName(key));
+                out.write('"');
+                out.write('>');
+                if (!value.isEmpty() && (value.charAt(0) == '@' || value.charAt(0) == '?')) {
+                    out.write('\\');
+                }
+                OutputEncoder.writeEscaped(value, FormatEscapes.ANDROID_TEXT, false, out);
+                out.write(STRING_CLOSE);
+            }
+
+            @Override
+            public void writeFooter(EncodedBuffer out) {
+                out.write(FOOTER);
+            }
+        };
+    }
+
+    static String resourceName(String key) {
+        StringBuilder sb = new StringBuilder(key.length() + 1);
+        if (Character.isDigit(key.charAt(0))) {
+            sb.append('_');
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+            sb.append(valid ? c : '_');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.backend.service.format;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.EncodedBuffer;
+import com.example.backend.service.ExportJobService;
+import com.example.backend.service.OutputEncoder;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * &lt;error-messages&gt; XML 形式 (エラーメッセージのみ)。出力は {@code convertToXml} と同一
+ */
+@Component
+public class ErrorXmlFormat implements OutputFormat {
+
+    @Override
+    public String getName() {
+        return "xml";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "xml";
+    }
+
+    @Override
+    public String getContentType() {
+        return MediaType.APPLICATION_XML_VALUE;
+    }
+
+    @Override
+    public boolean supports(String target) {
+        return ExportJobService.TARGET_ERROR_MESSAGES.equals(target);
+    }
+
+    @Override
+    public OutputFormatWriter newWriter(String target, String lang) {
+        return new OutputFormatWriter() {
+            @Override
+            public void writeHeader(EncodedBuffer out) {
+                OutputEncoder.writeXmlHeader(out);
+            }
+
+            @Override
+            public void writeLabels(List<SLocalizationLabel> rows, EncodedBuffer out) {
+                throw new UnsupportedOperationException("xml 形式はラベルに対応していません");
+            }
+
+            @Override
+            public void writeErrorMessages(List<ErrorMessageDto> rows, EncodedBuffer out) {
+                OutputEncoder.writeXmlEntries(rows, lang, out);
+            }
+
+            @Override
+            public void writeFooter(EncodedBuffer out) {
+                OutputEncoder.writeXmlFooter(out);
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.backend.service.format;
+
+import com.example.backend.service.EncodedBuffer;
+import com.example.backend.service.OutputEncoder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 各出力形式で共有するエスケープ表
+ */
+final class FormatEscapes {
+
+    /** JSON 文字列 (YAML の二重引用符スタイルとしても有効) */
+    static final byte[][] JSON = new byte[128][];
+
+    /** iOS .strings の二重引用符文字列 */
+    static final byte[][] IOS_STRINGS = new byte[128][];
+
+    /** Android strings.xml の要素内テキスト */
+    static final byte[][] ANDROID_TEXT = new byte[128][];
+
+    private static final String HEX = "0123456789abcdef";
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            JSON[c] = ascii("\\u00" + HEX.charAt(c >> 4) + HEX.charAt(c & 0xF));
+        }
+        JSON['"'] = ascii("\\\"");
+        JSON['\\'] = ascii("\\\\");
+        JSON['\n'] = ascii("\\n");
+        JSON['\r'] = ascii("\\r");
+        JSON['\t'] = ascii("\\t");
+        JSON['\b'] = ascii("\\b");
+        JSON['\f'] = ascii("\\f");
+
+        IOS_STRINGS['"'] = ascii("\\\"");
+        IOS_STRINGS['\\'] = ascii("\\\\");
+        IOS_STRINGS['\n'] = ascii("\\n");
+        IOS_STRINGS['\r'] = ascii("\\r");
+        IOS_STRINGS['\t'] = ascii("\\t");
+
+        ANDROID_TEXT['&'] = ascii("&amp;");
+        ANDROID_TEXT['<'] = ascii("&lt;");
+        ANDROID_TEXT['>'] = ascii("&gt;");
+        ANDROID_TEXT['\''] = ascii("\\'");
+        ANDROID_TEXT['"'] = ascii("\\\"");
+        ANDROID_TEXT['\\'] = ascii("\\\\");
+        ANDROID_TEXT['\n'] = ascii("\\n");
+        ANDROID_TEXT['\t'] = ascii("\\t");
+        ANDROID_TEXT['\r'] = new byte[0];
+    }
+
+    private FormatEscapes() {
+    }
+
+    /**
+     * 二重引用符で囲んだ JSON 文字列を書き込む
+     */
+    static void writeJsonString(String s, EncodedBuffer out) {
+        out.write('"');
+        OutputEncoder.writeEscaped(s, JSON, false, out);
+        out.write('"');
+    }
+
+    static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.backend.service.format;
+
+import com.example.backend.service.EncodedBuffer;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * i18next のリソース JSON 形式 ({"key": "value"} のフラットなオブジェクト)
+ * <p>
+ * キーの "." は階層として解釈されないよう、i18next 側で keySeparator: false を指定して読み込む。
+ * 文言中の {0} 形式のプレースホルダーは i18next の補間形式 {{0}} に変換する。
+ */
+@Component
+public class I18nextFormat implements OutputFormat {
+
+    private static final byte[] SEPARATOR = FormatEscapes.ascii(",");
+
+    @Override
+    public String getName() {
+        return "i18next";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "json";
+    }
+
+    @Override
+    public String getContentType() {
+        return MediaType.APPLICATION_JSON_VALUE;
+    }
+
+    @Override
+    public boolean supports(String target) {
+        return true;
+    }
+
+    @Override
+    public byte[] getEntrySeparator() {
+        return SEPARATOR;
+    }
+
+    @Override
+    public OutputFormatWriter newWriter(String target, String lang) {
+        return new KeyValueFormatWriter(lang, SEPARATOR) {
+            @Override
+            public void writeHeader(EncodedBuffer out) {
+                out.write('{');
+            }
+
+            @Override
+            protected void writeEntry(String key, String value, EncodedBuffer out) {
+                out.writeUtf8("\n  ");
+                FormatEscapes.writeJsonString(key, out);
+                out.writeUtf8(": ");
+                FormatEscapes.writeJsonString(toInterpolation(value), out);
+            }
+
+            @Override
+            public void writeFooter(EncodedBuffer out) {
+                out.write('\n');
+                out.write('}');
+                out.write('\n');
+            }
+        };
+    }
+
+    /**
+     * {0} → {{0}} (数字のみのプレースホルダーが含まれない場合は元の文字列を返す)
+     */
+    static String toInterpolation(String value) {
+        int brace = value.indexOf('{');
+        if (brace < 0) {
+            return value;
+        }
+        StringBuilder sb = null;
+        int copied = 0;
+        for (int i = brace; i < value.length(); i++) {
+            if (value.charAt(i) != '{') {
+                continue;
+            }
+            int end = i + 1;
+            while (end < value.length() && Character.isDigit(value.charAt(end))) {
+                end++;
+            }
+            if (end == i + 1 || end >= value.length() || value.charAt(end) != '}') {
+                continue;
+            }
+            if (sb == null) {
+                sb = new StringBuilder(value.length() + 8);
+            }
+            sb.append(value, copied, i).append("{{").append(value, i + 1, end).append("}}");
+            copied = end + 1;
+            i = end;
+        }
+        if (sb == null) {
+            return value;
+        }
+        return sb.append(value, copied, value.length()).toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.service.format;
+
+import com.example.backend.service.EncodedBuffer;
+import com.example.backend.service.OutputEncoder;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * iOS / macOS の Localizable.strings 形式 ("key" = "value";)。文字コードは UTF-8
+ */
+@Component
+public class IosStringsFormat implements OutputFormat {
+
+    private static final byte[] ASSIGN = FormatEscapes.ascii("\" = \"");
+    private static final byte[] TERMINATOR = FormatEscapes.ascii("\";\n");
+
+    @Override
+    public String getName() {
+        return "ios";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "strings";
+    }
+
+    @Override
+    public String getContentType() {
+        return "text/plain;charset=UTF-8";
+    }
+
+    @Override
+    public boolean supports(String target) {
+        return true;
+    }
+
+    @Override
+    public OutputFormatWriter newWriter(String target, String lang) {
+        return new KeyValueFormatWriter(lang, new byte[0]) {
+            @Override
+            protected void writeEntry(String key, String value, EncodedBuffer out) {
+                out.write('"');
+                OutputEncoder.writeEscaped(key, FormatEscapes.IOS_STRINGS, false, out);
+                out.write(ASSIGN);
+                OutputEncoder.writeEscaped(value, FormatEscapes.IOS_STRINGS, false, out);
+                out.write(TERMINATOR);
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.backend.service.format;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.EncodedBuffer;
+import com.example.backend.service.OutputEncoder;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * JSON 配列形式。1行を1オブジェクトとして、キーだけでなく objectID・分類も出力する
+ * <pre>
+ * [
+ *   {"objectID": "...", "key": "...", "categoryName": "...", "value": "..."},
+ *   {"objectID": "...", "errorNo": "...", "type": "error", "message": "..."}
+ * ]
+ * </pre>
+ */
+@Component
+public class JsonFormat implements OutputFormat {
+
+    private static final byte[] SEPARATOR = FormatEscapes.ascii(",");
+
+    @Override
+    public String getName() {
+        return "json";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "json";
+    }
+
+    @Override
+    public String getContentType() {
+        return MediaType.APPLICATION_JSON_VALUE;
+    }
+
+    @Override
+    public boolean supports(String target) {
+        return true;
+    }
+
+    @Override
+    public byte[] getEntrySeparator() {
+        return SEPARATOR;
+    }
+
+    @Override
+    public OutputFormatWriter newWriter(String target, String lang) {
+        return new OutputFormatWriter() {
+            private boolean first = true;
+
+            @Override
+            public void writeHeader(EncodedBuffer out) {
+                out.write('[');
+            }
+
+            @Override
+            public void writeLabels(List<SLocalizationLabel> rows, EncodedBuffer out) {
+                for (SLocalizationLabel label : rows) {
+                    begin(out);
+                    field("objectID", label.getObjectID(), out);
+                    out.write(',');
+                    field("key", OutputEncoder.labelKey(label), out);
+                    out.write(',');
+                    field("categoryName", label.getCategoryName(), out);
+                    out.write(',');
+                    field("value", OutputEncoder.labelValue(label, lang), out);
+                    out.write('}');
+                }
+            }
+
+            @Override
+            public void writeErrorMessages(List<ErrorMessageDto> rows, EncodedBuffer out) {
+                for (ErrorMessageDto dto : rows) {
+                    begin(out);
+                    field("objectID", dto.getObjectID(), out);
+                    out.write(',');
+                    field("errorNo", dto.getErrorNo(), out);
+                    out.write(',');
+                    field("type", typeName(dto.getErrorType()), out);
+                    out.write(',');
+                    field("message", OutputEncoder.errorMessage(dto, lang), out);
+                    out.write('}');
+                }
+            }
+
+            @Override
+            public void writeFooter(EncodedBuffer out) {
+                out.write('\n');
+                out.write(']');
+                out.write('\n');
+            }
+
+            private void begin(EncodedBuffer out) {
+                if (!first) {
+                    out.write(SEPARATOR);
+                }
+                first = false;
+                out.writeUtf8("\n  {");
+            }
+        };
+    }
+
+    private static void field(String name, String value, EncodedBuffer out) {
+        out.write('"');
+        out.writeUtf8(name);
+        out.writeUtf8("\": ");
+        if (value == null) {
+            out.writeUtf8("null");
+        } else {
+            FormatEscapes.writeJsonString(value, out);
+        }
+    }
+
+    private static String typeName(String errorType) {
+        if ("1".equals(errorType)) {
+            return "error";
+        }
+        if ("2".equals(errorType)) {
+            return "warning";
+        }
+        return "info";
+    }
+}
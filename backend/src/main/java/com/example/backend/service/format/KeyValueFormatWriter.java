@@ -0,0 +1,72 @@
+package com.example.backend.service.format;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.EncodedBuffer;
+import com.example.backend.service.OutputEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * キーと文言の組を出力する形式の共通ライター
+ * <p>
+ * ラベルのキーは userKey (無ければ objectID)、エラーメッセージのキーは errorNo (無ければ objectID)。
+ * キーが空白のみの行は出力しない。文言が null の場合は空文字として出力する。
+ */
+public abstract class KeyValueFormatWriter implements OutputFormatWriter {
+
+    private final String lang;
+    private final byte[] separator;
+    private boolean first = true;
+
+    protected KeyValueFormatWriter(String lang, byte[] separator) {
+        this.lang = lang;
+        this.separator = separator;
+    }
+
+    @Override
+    public void writeHeader(EncodedBuffer out) {
+    }
+
+    @Override
+    public void writeFooter(EncodedBuffer out) {
+    }
+
+    @Override
+    public void writeLabels(List<SLocalizationLabel> rows, EncodedBuffer out) {
+        for (SLocalizationLabel label : rows) {
+            entry(OutputEncoder.labelKey(label), OutputEncoder.labelValue(label, lang), out);
+        }
+    }
+
+    @Override
+    public void writeErrorMessages(List<ErrorMessageDto> rows, EncodedBuffer out) {
+        for (ErrorMessageDto dto : rows) {
+            String key = dto.getErrorNo() != null && !dto.getErrorNo().trim().isEmpty()
+                    ? dto.getErrorNo()
+                    : dto.getObjectID();
+            entry(key, OutputEncoder.errorMessage(dto, lang), out);
+        }
+    }
+
+    private void entry(String key, String value, EncodedBuffer out) {
+        if (key == null || key.trim().isEmpty()) {
+            return;
+        }
+        if (!first) {
+            out.write(separator);
+        }
+        first = false;
+        writeEntry(key, value != null ? value : "", out);
+    }
+
+    /**
+     * 1件分を書き込む
+     */
+    protected abstract void writeEntry(String key, String value, EncodedBuffer out);
+
+    protected static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
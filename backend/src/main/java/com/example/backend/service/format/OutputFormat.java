@@ -0,0 +1,45 @@
+package com.example.backend.service.format;
+
+/**
+ * 出力形式プラグインのインターフェース
+ * <p>
+ * 実装クラスを Spring のコンポーネントとして登録すると {@link OutputFormatRegistry} に自動で追加され、
+ * エクスポートジョブの形式名として指定できるようになる。
+ * 1回の DB スキャンから複数の形式・言語を同時に出力するため、書き込みは
+ * {@link #newWriter(String, String)} が返すストリーミングライター単位で行う。
+ */
+public interface OutputFormat {
+
+    /**
+     * 形式名 (リクエストで指定する名前)
+     */
+    String getName();
+
+    /**
+     * 出力ファイルの拡張子
+     */
+    String getFileExtension();
+
+    /**
+     * ダウンロード時の Content-Type
+     */
+    String getContentType();
+
+    /**
+     * 出力対象 ("labels" / "error-messages") に対応しているか
+     */
+    boolean supports(String target);
+
+    /**
+     * 分割スキャンの範囲ごとの出力を連結する際、空でない範囲の間に挟むバイト列
+     * （JSON の要素区切りなど。行単位の形式では空）
+     */
+    default byte[] getEntrySeparator() {
+        return new byte[0];
+    }
+
+    /**
+     * 1ファイル (対象 × 言語) 分のライターを生成
+     */
+    OutputFormatWriter newWriter(String target, String lang);
+}
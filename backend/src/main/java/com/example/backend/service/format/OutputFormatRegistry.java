@@ -0,0 +1,76 @@
+package com.example.backend.service.format;
+
+import com.example.backend.service.ExportJobService;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 登録済みの出力形式プラグインの一覧
+ */
+@Component
+public class OutputFormatRegistry {
+
+    private final Map<String, OutputFormat> formats = new LinkedHashMap<>();
+
+    public OutputFormatRegistry(List<OutputFormat> formats) {
+        for (OutputFormat format : formats) {
+            if (this.formats.putIfAbsent(format.getName(), format) != null) {
+                throw new IllegalStateException("Duplicate output format: " + format.getName());
+            }
+        }
+    }
+
+    /**
+     * 形式名から取得（未登録の場合は null）
+     */
+    public OutputFormat get(String name) {
+        return formats.get(name);
+    }
+
+    public Collection<OutputFormat> getAll() {
+        return Collections.unmodifiableCollection(formats.values());
+    }
+
+    /**
+     * 出力対象に対する形式名の一覧を検証して返す。未指定の場合は対象ごとのデフォルト
+     * (labels → properties, error-messages → xml)
+     *
+     * @param format  単一の形式名（formats が空の場合に使用）
+     * @param formats 複数の形式名
+     */
+    public List<String> resolve(String target, String format, List<String> formats) {
+        String defaultFormat;
+        if (ExportJobService.TARGET_LABELS.equals(target)) {
+            defaultFormat = "properties";
+        } else if (ExportJobService.TARGET_ERROR_MESSAGES.equals(target)) {
+            defaultFormat = "xml";
+        } else {
+            throw new IllegalArgumentException("Unsupported target: " + target);
+        }
+
+        List<String> requested = new ArrayList<>();
+        if (formats != null && !formats.isEmpty()) {
+            requested.addAll(formats);
+        } else {
+            requested.add(format == null || format.isEmpty() ? defaultFormat : format);
+        }
+        List<String> resolved = new ArrayList<>();
+        for (String name : requested) {
+            OutputFormat outputFormat = this.formats.get(name);
+            if (outputFormat == null || !outputFormat.supports(target)) {
+                throw new IllegalArgumentException("Unsupported format for " + target + ": " + name);
+            }
+            if (!resolved.contains(name)) {
+                resolved.add(name);
+            }
+        }
+        return resolved;
+    }
+}
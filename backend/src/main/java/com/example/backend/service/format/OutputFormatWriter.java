@@ -0,0 +1,24 @@
+package com.example.backend.service.format;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.EncodedBuffer;
+
+import java.util.List;
+
+/**
+ * 1ファイル分のストリーミングライター
+ * <p>
+ * ヘッダー → 行のチャンク (複数回) → フッター の順に呼び出され、各呼び出しは
+ * 渡されたバッファへバイト列を直接書き込む。要素間の区切りなどの状態はライターが保持する。
+ */
+public interface OutputFormatWriter {
+
+    void writeHeader(EncodedBuffer out);
+
+    void writeLabels(List<SLocalizationLabel> rows, EncodedBuffer out);
+
+    void writeErrorMessages(List<ErrorMessageDto> rows, EncodedBuffer out);
+
+    void writeFooter(EncodedBuffer out);
+}
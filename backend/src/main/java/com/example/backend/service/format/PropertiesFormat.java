@@ -0,0 +1,61 @@
+package com.example.backend.service.format;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.EncodedBuffer;
+import com.example.backend.service.ExportJobService;
+import com.example.backend.service.OutputEncoder;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Java Properties 形式 (ラベルのみ)。出力は {@code convertToProperties} と同一
+ */
+@Component
+public class PropertiesFormat implements OutputFormat {
+
+    @Override
+    public String getName() {
+        return "properties";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "properties";
+    }
+
+    @Override
+    public String getContentType() {
+        return "text/plain;charset=UTF-8";
+    }
+
+    @Override
+    public boolean supports(String target) {
+        return ExportJobService.TARGET_LABELS.equals(target);
+    }
+
+    @Override
+    public OutputFormatWriter newWriter(String target, String lang) {
+        return new OutputFormatWriter() {
+            @Override
+            public void writeHeader(EncodedBuffer out) {
+            }
+
+            @Override
+            public void writeLabels(List<SLocalizationLabel> rows, EncodedBuffer out) {
+                OutputEncoder.writeProperties(rows, lang, OutputEncoder.PropertiesCharset.UTF_8, out);
+            }
+
+            @Override
+            public void writeErrorMessages(List<ErrorMessageDto> rows, EncodedBuffer out) {
+                throw new UnsupportedOperationException("properties 形式はエラーメッセージに対応していません");
+            }
+
+            @Override
+            public void writeFooter(EncodedBuffer out) {
+            }
+        };
+    }
+}
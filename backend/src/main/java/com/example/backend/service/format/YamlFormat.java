@@ -0,0 +1,46 @@
+package com.example.backend.service.format;
+
+import com.example.backend.service.EncodedBuffer;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * YAML 形式 ("key": "value" のフラットなマッピング。キー・文言とも二重引用符スタイル)
+ */
+@Component
+public class YamlFormat implements OutputFormat {
+
+    @Override
+    public String getName() {
+        return "yaml";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "yml";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/yaml;charset=UTF-8";
+    }
+
+    @Override
+    public boolean supports(String target) {
+        return true;
+    }
+
+    @Override
+    public OutputFormatWriter newWriter(String target, String lang) {
+        return new KeyValueFormatWriter(lang, new byte[0]) {
+            @Override
+            protected void writeEntry(String key, String value, EncodedBuffer out) {
+                FormatEscapes.writeJsonString(key, out);
+                out.write(':');
+                out.write(' ');
+                FormatEscapes.writeJsonString(value, out);
+                out.write('\n');
+            }
+        };
+    }
+}
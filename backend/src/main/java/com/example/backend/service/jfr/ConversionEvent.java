@@ -0,0 +1,36 @@
+package com.example.backend.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 行の一覧から出力形式のバイト列への変換
+ */
+@Name("com.example.backend.Conversion")
+@Label("Conversion")
+@Category({ "Resource Convert", "Conversion" })
+@Description("XML / Properties などへの変換 (ダウンロード1回分、またはエクスポートの1チャンク分)")
+@StackTrace(false)
+public class ConversionEvent extends Event {
+
+    @Label("Format")
+    public String format;
+
+    @Label("Language")
+    public String lang;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Parallel")
+    public boolean parallel;
+}
@@ -0,0 +1,38 @@
+package com.example.backend.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 動的DBへのクエリ1回（実行から結果の読み出し完了まで）
+ */
+@Name("com.example.backend.DynamicQuery")
+@Label("Dynamic Query")
+@Category({ "Resource Convert", "Database" })
+@Description("動的DBへのクエリ1回。SQL はバインド値を含まない形で記録する")
+@StackTrace(false)
+public class DynamicQueryEvent extends Event {
+
+    @Label("DB Type")
+    public String dbType;
+
+    @Label("SQL Shape")
+    @Description("空白を詰め、IN 句のプレースホルダー列を件数表記にまとめた SQL")
+    public String sql;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Mapping Time")
+    @Description("クエリ中に行マッピング (RowMapper) に費やした時間の合計")
+    @Timespan(Timespan.NANOSECONDS)
+    public long mappingTime;
+
+    @Label("Failed")
+    public boolean failed;
+}
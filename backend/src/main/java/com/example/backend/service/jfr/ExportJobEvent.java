@@ -0,0 +1,35 @@
+package com.example.backend.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * エクスポートジョブ1件の実行
+ * 同じスレッド・時間帯のクエリ・変換イベントや GC・ロック待ちとジョブを対応付けるために使う
+ */
+@Name("com.example.backend.ExportJob")
+@Label("Export Job")
+@Category({ "Resource Convert", "Export" })
+@Description("エクスポートジョブ1件の実行 (キュー待ちを含まない)")
+@StackTrace(false)
+public class ExportJobEvent extends Event {
+
+    @Label("Job ID")
+    public String jobId;
+
+    @Label("Target")
+    public String target;
+
+    @Label("Formats")
+    public String formats;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Status")
+    public String status;
+}
@@ -0,0 +1,39 @@
+package com.example.backend.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * HTTP 応答本文の書き出し（最初の書き込みから応答の完了まで）
+ */
+@Name("com.example.backend.HttpWrite")
+@Label("HTTP Response Write")
+@Category({ "Resource Convert", "HTTP" })
+@Description("API 応答本文の書き出し。非同期応答 (SSE など) はハンドラーから戻った時点までを記録する")
+@StackTrace(false)
+public class HttpWriteEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Content Type")
+    public String contentType;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Async")
+    public boolean async;
+}
@@ -0,0 +1,115 @@
+package com.example.backend.service.jfr;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * API 応答本文の書き出しを {@link HttpWriteEvent} として記録するフィルター
+ * イベントが無効の場合は応答をラップしない
+ */
+@Component
+public class HttpWriteEventFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpWriteEvent event = new HttpWriteEvent();
+        if (!event.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CountingResponse counting = new CountingResponse(response, event);
+        try {
+            chain.doFilter(request, counting);
+        } finally {
+            if (counting.bytes > 0) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.method = request.getMethod();
+                    event.path = request.getRequestURI();
+                    event.status = response.getStatus();
+                    event.contentType = response.getContentType();
+                    event.bytes = counting.bytes;
+                    event.async = request.isAsyncStarted();
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * 本文のバイト数を数え、最初の書き込みでイベントを開始する応答
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+        private final HttpWriteEvent event;
+        private ServletOutputStream stream;
+        private long bytes;
+
+        CountingResponse(HttpServletResponse response, HttpWriteEvent event) {
+            super(response);
+            this.event = event;
+        }
+
+        private void written(int length) {
+            if (bytes == 0 && length > 0) {
+                event.begin();
+            }
+            bytes += length;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                stream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        written(1);
+                        delegate.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        written(len);
+                        delegate.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return stream;
+        }
+    }
+}
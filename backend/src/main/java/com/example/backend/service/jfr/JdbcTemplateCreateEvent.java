@@ -0,0 +1,35 @@
+package com.example.backend.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 動的DB用 JdbcTemplate の生成（プールの新規作成を含む）
+ */
+@Name("com.example.backend.JdbcTemplateCreate")
+@Label("JdbcTemplate Create")
+@Category({ "Resource Convert", "Database" })
+@Description("DBConnectionService による動的DB用 JdbcTemplate の生成")
+@StackTrace(false)
+public class JdbcTemplateCreateEvent extends Event {
+
+    @Label("DB Type")
+    public String dbType;
+
+    @Label("Host")
+    public String host;
+
+    @Label("Database")
+    public String dbName;
+
+    @Label("Pooled")
+    public boolean pooled;
+
+    @Label("Pool Created")
+    @Description("この呼び出しで接続プールを新規作成したか")
+    public boolean poolCreated;
+}
@@ -0,0 +1,127 @@
+package com.example.backend.service.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * API から開始・取得する JFR 記録
+ * <p>
+ * JDK 標準の設定 (default / profile) に本アプリのイベントを加えて記録し、
+ * 実行中の記録をファイルへ書き出して取得できるようにする。GC・ロック待ちなどの JDK のイベントと
+ * クエリ・変換・エクスポートのイベントを同じ記録で突き合わせるために使う。同時に実行する記録は1つまで。
+ */
+@Service
+public class JfrRecordingService {
+
+    public static final List<String> SETTINGS = List.of("default", "profile");
+
+    private static final List<Class<? extends Event>> APPLICATION_EVENTS = List.of(
+            JdbcTemplateCreateEvent.class, DynamicQueryEvent.class, RowMappingEvent.class, ConversionEvent.class,
+            HttpWriteEvent.class, ExportJobEvent.class);
+
+    private final Path dumpDir;
+    private Recording recording;
+    private String settings;
+
+    public JfrRecordingService(
+            @Value("${jfr.dump-dir:${java.io.tmpdir}/resource-convert/jfr}") String dumpDir) {
+        this.dumpDir = Paths.get(dumpDir);
+    }
+
+    /**
+     * 記録を開始する
+     *
+     * @param settings   JDK 標準の設定名 (default: 常時記録向けの低負荷設定 / profile: 詳細)
+     * @param maxAge     保持する期間（古いものから破棄）
+     * @param maxSizeMb  保持する最大サイズ (MB)
+     * @throws IllegalArgumentException 設定名が不正な場合
+     * @throws IllegalStateException    既に記録中の場合
+     */
+    public synchronized Map<String, Object> start(String settings, Duration maxAge, long maxSizeMb)
+            throws IOException, ParseException {
+        if (!SETTINGS.contains(settings)) {
+            throw new IllegalArgumentException("settings は " + SETTINGS + " のいずれかを指定してください: " + settings);
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("JFR の記録は既に実行中です (id=" + recording.getId() + ")");
+        }
+        closeRecording();
+        Recording started = new Recording(Configuration.getConfiguration(settings));
+        started.setName("resource-convert");
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(Math.max(1, maxSizeMb) * 1024 * 1024);
+        for (Class<? extends Event> eventClass : APPLICATION_EVENTS) {
+            started.enable(eventClass).withThreshold(Duration.ZERO);
+        }
+        started.start();
+        this.recording = started;
+        this.settings = settings;
+        return status();
+    }
+
+    /**
+     * 実行中（または停止済み）の記録をファイルへ書き出す。記録は継続する
+     *
+     * @return 書き出したファイル（呼び出し側で削除する）
+     * @throws IllegalStateException 記録が無い場合
+     */
+    public synchronized Path dump() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("JFR の記録がありません");
+        }
+        Files.createDirectories(dumpDir);
+        Path file = Files.createTempFile(dumpDir, "recording-" + recording.getId() + "-", ".jfr");
+        recording.dump(file);
+        return file;
+    }
+
+    /**
+     * 記録を停止する（停止後も dump で取得できる）
+     */
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return status();
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("id", recording.getId());
+        status.put("state", recording.getState().name());
+        status.put("settings", settings);
+        status.put("startTime", recording.getStartTime() != null ? recording.getStartTime().toString() : null);
+        status.put("maxAgeSeconds", recording.getMaxAge() != null ? recording.getMaxAge().getSeconds() : null);
+        status.put("maxSizeBytes", recording.getMaxSize());
+        status.put("sizeBytes", recording.getSize());
+        return status;
+    }
+
+    @PreDestroy
+    synchronized void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
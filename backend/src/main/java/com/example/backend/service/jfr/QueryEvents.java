@@ -0,0 +1,97 @@
+package com.example.backend.service.jfr;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * クエリ単位の JFR イベントの補助
+ * <p>
+ * {@link TracingJdbcTemplate} がクエリの開始時にスレッドごとの集計枠を開き、
+ * {@link #timed(String, RowMapper)} で包んだ RowMapper がその枠へ行数とマッピング時間を加算する。
+ * イベントが無効の場合は枠を開かないため、RowMapper 側の追加処理は ThreadLocal の参照のみとなる。
+ */
+public final class QueryEvents {
+
+    private static final int MAX_SQL_LENGTH = 1000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private QueryEvents() {
+    }
+
+    /**
+     * 行数とマッピング時間を集計する RowMapper
+     *
+     * @param name イベントに記録するマッパー名
+     */
+    public static <T> RowMapper<T> timed(String name, RowMapper<T> mapper) {
+        return (rs, rowNum) -> {
+            Scope scope = CURRENT.get();
+            if (scope == null) {
+                return mapper.mapRow(rs, rowNum);
+            }
+            long start = System.nanoTime();
+            T row = mapper.mapRow(rs, rowNum);
+            scope.mappingNanos += System.nanoTime() - start;
+            scope.rows++;
+            scope.mapper = name;
+            return row;
+        };
+    }
+
+    /**
+     * バインド値を含まない SQL の形（空白を詰め、"?, ?, ?" の列を "?×3" にまとめる）
+     */
+    public static String sqlShape(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        Matcher m = PLACEHOLDER_LIST.matcher(shape);
+        StringBuilder sb = new StringBuilder();
+        while (m.find()) {
+            int count = 1;
+            for (int i = m.start(); i < m.end(); i++) {
+                if (shape.charAt(i) == ',') {
+                    count++;
+                }
+            }
+            m.appendReplacement(sb, "?×" + count);
+        }
+        m.appendTail(sb);
+        return sb.length() > MAX_SQL_LENGTH ? sb.substring(0, MAX_SQL_LENGTH) + "..." : sb.toString();
+    }
+
+    static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * クエリ1回分の集計枠（入れ子のクエリに備えて外側の枠を保持する）
+     */
+    static final class Scope implements AutoCloseable {
+        private final Scope outer;
+        long rows;
+        long mappingNanos;
+        String mapper;
+
+        Scope(Scope outer) {
+            this.outer = outer;
+        }
+
+        @Override
+        public void close() {
+            if (outer != null) {
+                CURRENT.set(outer);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
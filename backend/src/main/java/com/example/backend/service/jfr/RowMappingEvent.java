@@ -0,0 +1,31 @@
+package com.example.backend.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * クエリ1回分の行マッピングの集計
+ * 1行ごとに記録すると件数が多すぎるため、クエリの終了時にまとめて記録する
+ */
+@Name("com.example.backend.RowMapping")
+@Label("Row Mapping")
+@Category({ "Resource Convert", "Database" })
+@Description("ResultSet から DTO への変換 (クエリ1回分の集計)")
+@StackTrace(false)
+public class RowMappingEvent extends Event {
+
+    @Label("Mapper")
+    public String mapper;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Mapping Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long mappingTime;
+}
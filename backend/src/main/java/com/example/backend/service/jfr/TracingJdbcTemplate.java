@@ -0,0 +1,82 @@
+package com.example.backend.service.jfr;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.lang.Nullable;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * クエリごとに {@link DynamicQueryEvent} / {@link RowMappingEvent} を記録する JdbcTemplate
+ * <p>
+ * JdbcTemplate の query 系メソッドはすべて、PreparedStatement 版は
+ * {@link #query(PreparedStatementCreator, PreparedStatementSetter, ResultSetExtractor)}、
+ * バインド値なし版は {@link #query(String, ResultSetExtractor)} を経由するため、この2つだけを計測する。
+ */
+public class TracingJdbcTemplate extends JdbcTemplate {
+
+    private final String dbType;
+
+    public TracingJdbcTemplate(DataSource dataSource, String dbType) {
+        super(dataSource);
+        this.dbType = dbType;
+    }
+
+    @Override
+    @Nullable
+    public <T> T query(PreparedStatementCreator psc, @Nullable PreparedStatementSetter pss,
+            ResultSetExtractor<T> rse) throws DataAccessException {
+        return traced(psc instanceof SqlProvider provider ? provider.getSql() : null,
+                () -> super.query(psc, pss, rse));
+    }
+
+    @Override
+    @Nullable
+    public <T> T query(String sql, ResultSetExtractor<T> rse) throws DataAccessException {
+        return traced(sql, () -> super.query(sql, rse));
+    }
+
+    private <T> T traced(String sql, Supplier<T> query) {
+        DynamicQueryEvent event = new DynamicQueryEvent();
+        if (!event.isEnabled()) {
+            return query.get();
+        }
+        RowMappingEvent mapping = new RowMappingEvent();
+        T result = null;
+        boolean failed = true;
+        try (QueryEvents.Scope scope = QueryEvents.open()) {
+            event.begin();
+            mapping.begin();
+            try {
+                result = query.get();
+                failed = false;
+                return result;
+            } finally {
+                event.end();
+                mapping.end();
+                // RowMapper を経由しない取得 (queryForList など) は結果の件数で代用する
+                long rows = Math.max(scope.rows, result instanceof Collection<?> c ? c.size() : 0);
+                if (event.shouldCommit()) {
+                    event.dbType = dbType;
+                    event.sql = QueryEvents.sqlShape(sql);
+                    event.rows = rows;
+                    event.mappingTime = scope.mappingNanos;
+                    event.failed = failed;
+                    event.commit();
+                }
+                if (scope.rows > 0 && mapping.shouldCommit()) {
+                    mapping.mapper = scope.mapper;
+                    mapping.rows = scope.rows;
+                    mapping.mappingTime = scope.mappingNanos;
+                    mapping.commit();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.ExportJobStatusDto;
+import com.example.backend.service.ExportJobService;
+import com.example.backend.service.format.OutputFormatRegistry;
+import com.example.backend.service.format.PropertiesFormat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ExportJobController クラスのテスト
+ */
+public class ExportJobControllerTest {
+
+    private static final String BODY = "0123456789abcdefghij";
+    private static final String ETAG = "\"v1\"";
+
+    @TempDir
+    Path spool;
+
+    /*
+     * [1] parseRange のテスト
+     * [1-1] "bytes=start-end" / "bytes=start-" / "bytes=-suffix" が {start, end} となること <br>
+     * [1-2] 末尾を超える end・suffix は末尾までに切り詰められること <br>
+     * [1-3] 満たせない範囲・複数範囲・形式の誤りは null となること
+     */
+    @Test
+    void testParseRange() {
+        // [1-1]
+        assertArrayEquals(new long[] { 0, 9 }, ExportJobController.parseRange("bytes=0-9", 100));
+        assertArrayEquals(new long[] { 90, 99 }, ExportJobController.parseRange("bytes=90-", 100));
+        assertArrayEquals(new long[] { 90, 99 }, ExportJobController.parseRange("bytes=-10", 100));
+
+        // [1-2]
+        assertArrayEquals(new long[] { 50, 99 }, ExportJobController.parseRange("bytes=50-500", 100));
+        assertArrayEquals(new long[] { 0, 99 }, ExportJobController.parseRange("bytes=-200", 100));
+
+        // [1-3]
+        assertNull(ExportJobController.parseRange("bytes=50-40", 100));
+        assertNull(ExportJobController.parseRange("bytes=100-", 100));
+        assertNull(ExportJobController.parseRange("bytes=-0", 100));
+        assertNull(ExportJobController.parseRange("bytes=0-1,3-4", 100));
+        assertNull(ExportJobController.parseRange("items=0-9", 100));
+        assertNull(ExportJobController.parseRange("bytes=5", 100));
+        assertNull(ExportJobController.parseRange("bytes=a-b", 100));
+    }
+
+    /*
+     * [2] copy のテスト
+     * [2-1] 指定した位置から指定したバイト数だけ書き出すこと <br>
+     * [2-2] ファイルが指定したバイト数より短い場合は EOFException となること
+     */
+    @Test
+    void testCopy() throws Exception {
+        Path file = artifact();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // [2-1]
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ExportJobController.copy(channel, 5, 10, Channels.newChannel(out));
+            assertEquals("56789abcde", out.toString(StandardCharsets.US_ASCII));
+
+            // [2-2]
+            ByteArrayOutputStream truncated = new ByteArrayOutputStream();
+            assertThrows(EOFException.class,
+                    () -> ExportJobController.copy(channel, 15, 10, Channels.newChannel(truncated)));
+            assertEquals("fghij", truncated.toString(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /*
+     * [3] download のテスト
+     * [3-1] Range 指定は 206 と Content-Range・範囲の本文を返すこと <br>
+     * [3-2] sendfile に対応している場合は本文を書かず、ファイル名と範囲（終了位置は含まない）をリクエスト属性で渡すこと <br>
+     * [3-3] If-None-Match が一致すれば 304、If-Range が一致しなければ全体を返すこと <br>
+     * [3-4] 満たせない範囲は 416 と全体の長さを示す Content-Range を返すこと
+     */
+    @Test
+    void testDownload() throws Exception {
+        Path file = artifact();
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new ExportJobController(new FakeService(file),
+                new OutputFormatRegistry(List.of(new PropertiesFormat())))).build();
+
+        // [3-1]
+        mvc.perform(get("/api/export-jobs/job-1/download").header("Range", "bytes=10-14"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 10-14/20"))
+                .andExpect(header().string("Content-Length", "5"))
+                .andExpect(header().string("ETag", ETAG))
+                .andExpect(content().string("abcde"));
+
+        // [3-2]
+        MvcResult result = mvc.perform(get("/api/export-jobs/job-1/download").header("Range", "bytes=10-14")
+                .requestAttr(ExportJobController.SENDFILE_SUPPORT, Boolean.TRUE))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Length", "5"))
+                .andReturn();
+        assertEquals(0, result.getResponse().getContentAsByteArray().length);
+        assertEquals(file.toFile().getCanonicalPath(),
+                result.getRequest().getAttribute(ExportJobController.SENDFILE_FILENAME));
+        assertEquals(10L, result.getRequest().getAttribute(ExportJobController.SENDFILE_START));
+        assertEquals(15L, result.getRequest().getAttribute(ExportJobController.SENDFILE_END));
+
+        // [3-3]
+        mvc.perform(get("/api/export-jobs/job-1/download").header("If-None-Match", ETAG))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/api/export-jobs/job-1/download").header("Range", "bytes=10-14")
+                .header("If-Range", "\"v0\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY));
+
+        // [3-4]
+        mvc.perform(get("/api/export-jobs/job-1/download").header("Range", "bytes=30-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */20"));
+    }
+
+    private Path artifact() throws Exception {
+        return Files.writeString(spool.resolve("job-1.zip"), BODY, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 完了済みジョブ job-1 の成果物だけを返す ExportJobService
+     */
+    private final class FakeService extends ExportJobService {
+        private final Path artifact;
+        private final ExportJobStatusDto status = new ExportJobStatusDto();
+
+        FakeService(Path artifact) {
+            super(null, null, null, null, null, null, spool.toString(), 1, 1, 1, 1000, 1, 0, 0);
+            this.artifact = artifact;
+            status.setJobId("job-1");
+            status.setStatus(ExportJobStatusDto.COMPLETED);
+            status.setFileName("labels.zip");
+            status.setEtag(ETAG);
+        }
+
+        @Override
+        public boolean acquire(String jobId) {
+            return "job-1".equals(jobId);
+        }
+
+        @Override
+        public void release(String jobId) {
+        }
+
+        @Override
+        public ExportJobStatusDto getStatus(String jobId) {
+            return "job-1".equals(jobId) ? status : null;
+        }
+
+        @Override
+        public Path getArtifact(String jobId) {
+            return "job-1".equals(jobId) ? artifact : null;
+        }
+
+        @Override
+        public String getContentType(ExportJobStatusDto status) {
+            return "application/zip";
+        }
+    }
+}
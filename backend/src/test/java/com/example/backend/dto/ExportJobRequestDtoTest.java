@@ -0,0 +1,61 @@
+package com.example.backend.dto;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExportJobRequestDtoTest {
+    /*
+     * [1] Setter/Getterのテスト
+     * [1-1] 各フィールドに値を設定し、Getterで正しく取得できること <br>
+     * [1-2] 未設定のフィールドはnull, またはデフォルト値が取得できること <br>
+     * [1-3] 継承した接続情報からDB接続設定Mapが生成できること
+     */
+    @Test
+    void testGetterSetter() {
+        // [1-1]
+        ExportJobRequestDto dto = new ExportJobRequestDto();
+        dto.setTarget("labels");
+        dto.setFormat("properties");
+        dto.setFormats(List.of("json", "ios"));
+        dto.setLanguages(List.of("country1", "country2"));
+        dto.setPriority(9);
+        dto.setPartitions(4);
+        dto.setBaseJobId("job-1");
+        dto.setDeltaMode("patch");
+        dto.setTrustUpdateDate(true);
+
+        assertEquals("labels", dto.getTarget());
+        assertEquals("properties", dto.getFormat());
+        assertEquals(List.of("json", "ios"), dto.getFormats());
+        assertEquals(List.of("country1", "country2"), dto.getLanguages());
+        assertEquals(9, dto.getPriority());
+        assertEquals(4, dto.getPartitions());
+        assertEquals("job-1", dto.getBaseJobId());
+        assertEquals("patch", dto.getDeltaMode());
+        assertTrue(dto.isTrustUpdateDate());
+
+        // [1-2]
+        ExportJobRequestDto dtoUnset = new ExportJobRequestDto();
+
+        assertNull(dtoUnset.getTarget());
+        assertNull(dtoUnset.getFormat());
+        assertNull(dtoUnset.getFormats());
+        assertEquals(List.of("country1"), dtoUnset.getLanguages());
+        assertEquals(5, dtoUnset.getPriority());
+        assertEquals(0, dtoUnset.getPartitions());
+        assertNull(dtoUnset.getBaseJobId());
+        assertNull(dtoUnset.getDeltaMode());
+        assertFalse(dtoUnset.isTrustUpdateDate());
+        assertNull(dtoUnset.getFilter());
+
+        // [1-3]
+        dto.setDbType("PostgreSQL");
+        dto.setHost("pg");
+        dto.setPort(5432);
+
+        assertEquals("PostgreSQL", dto.asDbConfigMap().get("dbType"));
+        assertEquals("pg", dto.asDbConfigMap().get("host"));
+        assertEquals(5432, dto.asDbConfigMap().get("port"));
+    }
+}
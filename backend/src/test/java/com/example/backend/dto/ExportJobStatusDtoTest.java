@@ -0,0 +1,92 @@
+package com.example.backend.dto;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExportJobStatusDtoTest {
+    /*
+     * [1] Setter/Getterのテスト
+     * [1-1] 各フィールドに値を設定し、Getterで正しく取得できること <br>
+     * [1-2] 未設定のフィールドは、初期値がnullまたは0であること
+     */
+    @Test
+    void testGetterSetter() {
+        // [1-1]
+        ExportJobStatusDto dto = new ExportJobStatusDto();
+        dto.setJobId("job-1");
+        dto.setTarget("error-messages");
+        dto.setFormat("xml");
+        dto.setFormats(List.of("xml", "yaml"));
+        dto.setLanguages(List.of("country2"));
+        dto.setPriority(3);
+        dto.setStatus(ExportJobStatusDto.RUNNING);
+        dto.setRowsDone(500);
+        dto.setRowsTotal(1000);
+        dto.setFileName("error-messages_country2.xml");
+        dto.setFileSize(2048);
+        dto.setMessage("msg");
+        dto.setCreatedAt(1L);
+        dto.setFinishedAt(2L);
+        dto.setEtag("\"abc\"");
+        dto.setBaseJobId("job-0");
+        dto.setDeltaMode("changed");
+        dto.setRowsAdded(3);
+        dto.setRowsChanged(4);
+        dto.setRowsRemoved(5);
+        dto.setSharedFrom("job-lead");
+
+        assertEquals("job-1", dto.getJobId());
+        assertEquals("error-messages", dto.getTarget());
+        assertEquals("xml", dto.getFormat());
+        assertEquals(List.of("xml", "yaml"), dto.getFormats());
+        assertEquals(List.of("country2"), dto.getLanguages());
+        assertEquals(3, dto.getPriority());
+        assertEquals("RUNNING", dto.getStatus());
+        assertEquals(500, dto.getRowsDone());
+        assertEquals(1000, dto.getRowsTotal());
+        assertEquals("error-messages_country2.xml", dto.getFileName());
+        assertEquals(2048, dto.getFileSize());
+        assertEquals("msg", dto.getMessage());
+        assertEquals(1L, dto.getCreatedAt());
+        assertEquals(2L, dto.getFinishedAt());
+        assertEquals("\"abc\"", dto.getEtag());
+        assertEquals("job-0", dto.getBaseJobId());
+        assertEquals("changed", dto.getDeltaMode());
+        assertEquals(3, dto.getRowsAdded());
+        assertEquals(4, dto.getRowsChanged());
+        assertEquals(5, dto.getRowsRemoved());
+        assertEquals("job-lead", dto.getSharedFrom());
+
+        // [1-2]
+        ExportJobStatusDto dtoUnset = new ExportJobStatusDto();
+
+        assertNull(dtoUnset.getJobId());
+        assertNull(dtoUnset.getStatus());
+        assertNull(dtoUnset.getLanguages());
+        assertEquals(0, dtoUnset.getRowsDone());
+        assertEquals(0, dtoUnset.getFinishedAt());
+        assertNull(dtoUnset.getEtag());
+        assertNull(dtoUnset.getDeltaMode());
+        assertNull(dtoUnset.getSharedFrom());
+    }
+
+    /*
+     * [2] isFinished のテスト
+     * [2-1] COMPLETED / FAILED の場合のみ true となること
+     */
+    @Test
+    void testIsFinished() {
+        // [2-1]
+        ExportJobStatusDto dto = new ExportJobStatusDto();
+
+        dto.setStatus(ExportJobStatusDto.QUEUED);
+        assertFalse(dto.isFinished());
+        dto.setStatus(ExportJobStatusDto.RUNNING);
+        assertFalse(dto.isFinished());
+        dto.setStatus(ExportJobStatusDto.COMPLETED);
+        assertTrue(dto.isFinished());
+        dto.setStatus(ExportJobStatusDto.FAILED);
+        assertTrue(dto.isFinished());
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.backend.dto;
 
 import org.junit.jupiter.api.Test;
+import java.util.List;
 import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -26,6 +27,10 @@ public class FetchRequestDtoTest {
         dto.setFilter(filter);
         dto.setPage(1);
         dto.setSize(100);
+        dto.setSessionId("session-1");
+        dto.setQueryGeneration(7L);
+        dto.setSort(List.of(new SortDto("errorNo", "desc", "ja")));
+        dto.setCursor("cursor-1");
 
         assertEquals("MySQL", dto.getDbType());
         assertEquals("localhost", dto.getHost());
@@ -37,6 +42,12 @@ public class FetchRequestDtoTest {
         assertEquals("test message", dto.getFilter().getMessage());
         assertEquals(1, dto.getPage());
         assertEquals(100, dto.getSize());
+        assertEquals("session-1", dto.getSessionId());
+        assertEquals(7L, dto.getQueryGeneration());
+        assertEquals("errorNo", dto.getSort().get(0).getField());
+        assertEquals("desc", dto.getSort().get(0).getDirection());
+        assertEquals("ja", dto.getSort().get(0).getCollation());
+        assertEquals("cursor-1", dto.getCursor());
 
         // [1-2]
         FetchRequestDto dtoUnset = new FetchRequestDto();
@@ -51,6 +62,10 @@ public class FetchRequestDtoTest {
 
         assertEquals(0, dtoUnset.getPage());
         assertEquals(50, dtoUnset.getSize());
+        assertNull(dtoUnset.getSessionId());
+        assertEquals(0L, dtoUnset.getQueryGeneration());
+        assertNull(dtoUnset.getSort());
+        assertNull(dtoUnset.getCursor());
     }
 
     /*
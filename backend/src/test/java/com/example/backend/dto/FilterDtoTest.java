@@ -1,6 +1,10 @@
 package com.example.backend.dto;
 
 import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class FilterDtoTest {
@@ -35,4 +39,71 @@ public class FilterDtoTest {
         assertNull(dtoUnset.getErrorNo());
         assertNull(dtoUnset.getErrorType());
     }
+
+    /*
+     * [2] toCacheKeyのテスト
+     * [2-1] 同じ条件であれば同じキーとなること <br>
+     * [2-2] null と空文字、null のフィルター自体は同一のキーとなること <br>
+     * [2-3] 値が異なる、または値が別の項目に入っている場合は異なるキーとなること
+     */
+    @Test
+    void testToCacheKey() {
+        // [2-1]
+        FilterDto a = new FilterDto();
+        a.setCategoryName("label");
+        a.setMessage("save");
+        FilterDto b = new FilterDto();
+        b.setCategoryName("label");
+        b.setMessage("save");
+
+        assertEquals(FilterDto.toCacheKey(a), FilterDto.toCacheKey(b));
+
+        // [2-2]
+        FilterDto empty = new FilterDto();
+        empty.setObjectID("");
+        empty.setErrorNo("");
+
+        assertEquals(FilterDto.toCacheKey(new FilterDto()), FilterDto.toCacheKey(empty));
+        assertEquals(FilterDto.toCacheKey(new FilterDto()), FilterDto.toCacheKey(null));
+
+        // [2-3]
+        FilterDto moved = new FilterDto();
+        moved.setObjectID("label");
+        moved.setMessage("save");
+        FilterDto spaced = new FilterDto();
+        spaced.setCategoryName("label ");
+        spaced.setMessage("save");
+
+        assertNotEquals(FilterDto.toCacheKey(a), FilterDto.toCacheKey(moved));
+        assertNotEquals(FilterDto.toCacheKey(a), FilterDto.toCacheKey(spaced));
+    }
+
+    /*
+     * [3] 複数選択のテスト
+     * [3-1] selectedValues が null・空文字・重複を除くこと <br>
+     * [3-2] 選択の順序・重複が異なっても同じキーとなり、選択が異なれば異なるキーとなること <br>
+     * [3-3] 空の選択は未指定と同じキーとなること
+     */
+    @Test
+    void testSelections() {
+        // [3-1]
+        assertEquals(List.of("1", "2"), FilterDto.selectedValues(Arrays.asList("1", null, "", "2", "1")));
+        assertEquals(List.of(), FilterDto.selectedValues(null));
+
+        // [3-2]
+        FilterDto a = new FilterDto();
+        a.setErrorTypes(List.of("1", "3"));
+        FilterDto b = new FilterDto();
+        b.setErrorTypes(List.of("3", "1", "3"));
+        FilterDto c = new FilterDto();
+        c.setCategoryNames(List.of("1", "3"));
+
+        assertEquals(FilterDto.toCacheKey(a), FilterDto.toCacheKey(b));
+        assertNotEquals(FilterDto.toCacheKey(a), FilterDto.toCacheKey(c));
+
+        // [3-3]
+        FilterDto empty = new FilterDto();
+        empty.setCategoryNames(List.of());
+        assertEquals(FilterDto.toCacheKey(new FilterDto()), FilterDto.toCacheKey(empty));
+    }
 }
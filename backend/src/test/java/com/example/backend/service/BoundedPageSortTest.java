@@ -0,0 +1,83 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SortDto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BoundedPageSort クラスのテスト
+ */
+public class BoundedPageSortTest {
+
+    private static final List<String> COLUMNS = List.of("objectID", "categoryName", "country1");
+
+    /*
+     * [1] page のテスト
+     * [1-1] 全件を並べ替えた結果の skip 件目から size 件と一致し、件数は走査した全件となること <br>
+     * [1-2] 最後のページ（size 件に満たない）ではカーソルを返さないこと <br>
+     * [1-3] カーソルで続きのページをたどると、全件を並び順どおりに重複なく取得できること <br>
+     * [1-4] null のソートキーは空文字として並ぶこと
+     */
+    @Test
+    void testPage() {
+        SortSpec sort = SortSpec.parse(List.of(new SortDto("categoryName", "desc", null),
+                new SortDto("country1", "asc", "ja")), COLUMNS);
+        List<String[]> rows = new ArrayList<>();
+        Random random = new Random(47);
+        for (int i = 0; i < 500; i++) {
+            rows.add(new String[] { String.format("ID%04d", random.nextInt(10000)) + i,
+                    random.nextInt(20) == 0 ? null : "cat" + random.nextInt(7),
+                    random.nextInt(20) == 0 ? null : "msg" + random.nextInt(50) });
+        }
+        List<String[]> expected = new ArrayList<>(rows);
+        expected.sort((a, b) -> sort.compare(sort.comparableKey(tuple(sort, a)), sort.comparableKey(tuple(sort, b))));
+
+        // [1-1]
+        BoundedPageSort<String[]> sorter = sorter(sort, null, 120, 40, rows);
+        assertEquals(500, sorter.getMatched());
+        assertEquals(expected.subList(120, 160), sorter.page());
+        assertNotNull(sorter.lastTuple());
+
+        // [1-2]
+        sorter = sorter(sort, null, 480, 40, rows);
+        assertEquals(expected.subList(480, 500), sorter.page());
+        assertNull(sorter.lastTuple());
+
+        // [1-3]
+        List<String[]> all = new ArrayList<>();
+        String[] cursor = null;
+        do {
+            sorter = sorter(sort, cursor, 0, 64, rows);
+            all.addAll(sorter.page());
+            cursor = sorter.lastTuple();
+        } while (cursor != null);
+        assertEquals(expected, all);
+
+        // [1-4]
+        SortSpec byCategory = SortSpec.parse(List.of(new SortDto("categoryName", "asc", null)), COLUMNS);
+        sorter = sorter(byCategory, null, 0, 1, List.of(new String[] { "B", "x", "m" },
+                new String[] { "A", null, "m" }, new String[] { "C", "", "m" }));
+        assertEquals("A", sorter.page().get(0)[0]);
+    }
+
+    private static BoundedPageSort<String[]> sorter(SortSpec sort, String[] cursor, int skip, int size,
+            List<String[]> rows) {
+        BoundedPageSort<String[]> sorter = new BoundedPageSort<>(sort, row -> tuple(sort, row), cursor, skip, size);
+        rows.forEach(sorter);
+        return sorter;
+    }
+
+    private static String[] tuple(SortSpec sort, String[] row) {
+        String[] values = new String[sort.columns().size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = row[COLUMNS.indexOf(sort.columns().get(i))];
+        }
+        return sort.tuple(values, row[0]);
+    }
+}
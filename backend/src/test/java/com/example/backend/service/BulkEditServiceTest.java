@@ -0,0 +1,154 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BulkEditRequestDto;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BulkEditService クラスのテスト
+ */
+public class BulkEditServiceTest {
+
+    private static final Date TODAY = Date.valueOf(LocalDate.of(2026, 1, 2));
+
+    /*
+     * [1] validate のテスト
+     * [1-1] 正しい更新内容は null となること <br>
+     * [1-2] 不明なテーブル・更新できない列・長すぎる値・objectID の欠落は理由が返ること <br>
+     * [1-3] errors に expected、labels に country 以外の expected を指定した場合は理由が返ること <br>
+     * [1-4] labels / localizations で expected が無い、または更新する列の expected が無い場合は理由が返ること
+     */
+    @Test
+    void testValidate() {
+        // [1-1]
+        BulkEditRequestDto.Edit label = edit("labels", "L1", Map.of("country2", "x"));
+        label.setExpected(Map.of("country2", "old", "country1", "base"));
+        assertNull(BulkEditService.validate(label));
+        assertNull(BulkEditService.validate(edit("errors", "E1", Map.of("errorType", "W", "url", "u"))));
+        Map<String, String> cleared = new HashMap<>();
+        cleared.put("country3", null);
+        BulkEditRequestDto.Edit localization = edit("localizations", "M1", cleared);
+        localization.setExpected(cleared);
+        assertNull(BulkEditService.validate(localization));
+
+        // [1-2]
+        assertNotNull(BulkEditService.validate(edit("unknown", "L1", Map.of("country2", "x"))));
+        assertNotNull(BulkEditService.validate(edit("labels", "L1", Map.of("categoryName", "x"))));
+        assertNotNull(BulkEditService.validate(edit("errors", "E1", Map.of("errorNo", "1"))));
+        assertNotNull(BulkEditService.validate(edit("errors", "E1", Map.of("errorType", "WW"))));
+        assertNotNull(BulkEditService.validate(edit("labels", "L1", Map.of("country1", "x".repeat(256)))));
+        assertNotNull(BulkEditService.validate(edit("labels", null, Map.of("country1", "x"))));
+        assertNotNull(BulkEditService.validate(edit("labels", "L1", Map.of())));
+
+        // [1-3]
+        BulkEditRequestDto.Edit errors = edit("errors", "E1", Map.of("url", "u"));
+        errors.setExpected(Map.of("url", "old"));
+        assertNotNull(BulkEditService.validate(errors));
+        BulkEditRequestDto.Edit labels = edit("labels", "L1", Map.of("country2", "x"));
+        labels.setExpected(Map.of("country2", "old", "categoryName", "c"));
+        assertNotNull(BulkEditService.validate(labels));
+
+        // [1-4]
+        assertEquals("expected is required (values read before editing)",
+                BulkEditService.validate(edit("labels", "L1", Map.of("country2", "x"))));
+        BulkEditRequestDto.Edit partial = edit("localizations", "M1", Map.of("country1", "a", "country2", "b"));
+        partial.setExpected(Map.of("country1", "old"));
+        assertEquals("expected is required for country2", BulkEditService.validate(partial));
+    }
+
+    /*
+     * [2] prepare のテスト
+     * [2-1] 列の指定順に関わらず同じ列を更新する行は同じ UPDATE 文となること <br>
+     * [2-2] expected の値は WHERE に含まれ、null は IS NULL となること <br>
+     * [2-3] errors は exclusiveFlag を条件とし、新しい exclusiveFlag・更新者・更新日を設定すること
+     */
+    @Test
+    void testPrepare() {
+        // [2-1]
+        Map<String, String> a = new TreeMap<>(Map.of("country2", "a2", "country1", "a1"));
+        Map<String, String> b = new LinkedHashMap<>();
+        b.put("country2", "b2");
+        b.put("country1", "b1");
+        BulkEditService.Row rowA = BulkEditService.prepare(edit("labels", "L1", a), null, TODAY);
+        BulkEditService.Row rowB = BulkEditService.prepare(edit("labels", "L2", b), null, TODAY);
+        assertEquals("UPDATE SLocalizationLabel SET country1 = ?, country2 = ? WHERE objectID = ?", rowA.sql);
+        assertEquals(rowA.sql, rowB.sql);
+        assertEquals(List.of("b1", "b2", "L2"), Arrays.asList(rowB.params));
+        assertNull(rowA.newExclusiveFlag);
+
+        // [2-2]
+        BulkEditRequestDto.Edit expected = edit("localizations", "M1", Map.of("country3", "new"));
+        Map<String, String> before = new HashMap<>();
+        before.put("country3", null);
+        before.put("country1", "base");
+        expected.setExpected(before);
+        BulkEditService.Row row = BulkEditService.prepare(expected, null, TODAY);
+        assertEquals("UPDATE SLocalization SET country3 = ? WHERE ObjectID = ? AND country1 = ? AND country3 IS NULL",
+                row.sql);
+        assertEquals(List.of("new", "M1", "base"), Arrays.asList(row.params));
+
+        // [2-3]
+        BulkEditRequestDto.Edit error = edit("errors", "E1", Map.of("description", "d"));
+        error.setExclusiveFlag("v1");
+        row = BulkEditService.prepare(error, "tester", TODAY);
+        assertEquals("UPDATE SError SET description = ?, exclusiveFlag = ?, updateUserID = ?, updateDate = ?"
+                + " WHERE objectID = ? AND exclusiveFlag = ?", row.sql);
+        assertEquals(32, row.newExclusiveFlag.length());
+        assertEquals(List.of("d", row.newExclusiveFlag, "tester", TODAY, "E1", "v1"), Arrays.asList(row.params));
+        row = BulkEditService.prepare(edit("errors", "E2", Map.of("description", "d")), "tester", TODAY);
+        assertTrue(row.sql.endsWith(" WHERE objectID = ? AND exclusiveFlag IS NULL"));
+        assertNotEquals(row.newExclusiveFlag,
+                BulkEditService.prepare(edit("errors", "E2", Map.of("description", "d")), "tester", TODAY)
+                        .newExclusiveFlag);
+    }
+
+    /*
+     * [3] confirms のテスト
+     * [3-1] 更新件数が返らなかった SError の行は、現在の exclusiveFlag が新しい値と一致する場合のみ更新済みとなること <br>
+     * [3-2] labels / localizations は更新した列の値（null を含む）がすべて一致する場合のみ更新済みとなること <br>
+     * [3-3] 行が無い場合は更新済みとならないこと
+     */
+    @Test
+    void testConfirms() {
+        // [3-1]
+        BulkEditRequestDto.Edit error = edit("errors", "E1", Map.of("description", "d"));
+        error.setExclusiveFlag("v1");
+        BulkEditService.Row row = BulkEditService.prepare(error, "tester", TODAY);
+        assertTrue(BulkEditService.confirms(row, Map.of("exclusiveFlag", row.newExclusiveFlag)));
+        assertFalse(BulkEditService.confirms(row, Map.of("exclusiveFlag", "v1")));
+        assertFalse(BulkEditService.confirms(row, new HashMap<>()));
+
+        // [3-2]
+        Map<String, String> values = new HashMap<>();
+        values.put("country1", "new");
+        values.put("country2", null);
+        BulkEditRequestDto.Edit label = edit("labels", "L1", values);
+        label.setExpected(Map.of("country1", "old", "country2", "old"));
+        row = BulkEditService.prepare(label, null, TODAY);
+        Map<String, String> current = new HashMap<>();
+        current.put("country1", "new");
+        current.put("country2", null);
+        current.put("country3", "other");
+        assertTrue(BulkEditService.confirms(row, current));
+        current.put("country2", "old");
+        assertFalse(BulkEditService.confirms(row, current));
+
+        // [3-3]
+        assertFalse(BulkEditService.confirms(row, null));
+    }
+
+    private static BulkEditRequestDto.Edit edit(String table, String objectID, Map<String, String> values) {
+        return new BulkEditRequestDto.Edit(table, objectID, values);
+    }
+}
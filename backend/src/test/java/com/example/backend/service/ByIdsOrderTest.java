@@ -0,0 +1,149 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ByIdsOrder クラスのテスト
+ */
+public class ByIdsOrderTest {
+
+    @TempDir
+    Path spill;
+
+    /*
+     * [1] order のテスト
+     * [1-1] DB の照合順序（大文字小文字を区別しない）で並び、Java の文字コード順にならないこと <br>
+     * [1-2] 存在しない ID・重複した ID は除かれ、DB に格納された表記で返ること <br>
+     * [1-3] 分割ごとの ID は分割サイズ以下で、つなげると全体の objectID 順になること <br>
+     * [1-4] 存在する ID が無い場合は何も渡さないこと
+     */
+    @Test
+    void testOrder() throws Exception {
+        FakeDb db = new FakeDb(4, "a", "B", "c", "D", "_z", "e00", "E01", "f", "G", "h", "zz", "ZZZ");
+        SpillSortService spillSort = spillSort(1 << 20);
+
+        // [1-1]
+        List<List<String>> chunks = order(db, List.of("_z", "c", "a", "D", "B", "f", "G", "E01", "h"), spillSort);
+        assertEquals(List.of("_z", "a", "B", "c", "D", "E01", "f", "G", "h"), flatten(chunks));
+
+        // [1-2]
+        assertEquals(List.of("B", "c", "h"), flatten(order(db, List.of("h", "b", "x1", "c", "H", "x2"), spillSort)));
+
+        // [1-3]
+        chunks = order(db, List.of("h", "c", "B", "f", "E01", "D", "G", "c", "B", "x9", "f", "D", "h", "G", "c",
+                "B", "E01"), spillSort);
+        assertEquals(List.of("B", "c", "D", "E01", "f", "G", "h"), flatten(chunks));
+        assertTrue(chunks.stream().allMatch(chunk -> !chunk.isEmpty() && chunk.size() <= 4), chunks.toString());
+
+        // [1-4]
+        assertEquals(List.of(), order(db, List.of("x1", "x2", "x3", "x4", "x5"), spillSort));
+    }
+
+    /*
+     * [2] 大量の ID のテスト
+     * [2-1] 分割サイズを大きく超える ID でも照合順序どおりに並び、重複が除かれること <br>
+     * [2-2] メモリ量の上限を超えた ID は一時ファイルへ退避され、並べ替え後に削除されること <br>
+     * [2-3] 問い合わせの回数は (ID 数 / 分割サイズ) × 段数 程度に収まること
+     */
+    @Test
+    void testLargeSelection() throws Exception {
+        List<String> stored = new ArrayList<>();
+        Random random = new Random(49);
+        for (int i = 0; i < 3000; i++) {
+            String id = (random.nextBoolean() ? "Id" : "id") + "_" + Integer.toString(random.nextInt(1_000_000), 36);
+            stored.add(random.nextInt(10) == 0 ? id.toUpperCase() : id);
+        }
+        FakeDb db = new FakeDb(64, stored.toArray(String[]::new));
+        List<String> selection = new ArrayList<>();
+        for (String id : db.stored) {
+            if (random.nextInt(3) > 0) {
+                selection.add(random.nextBoolean() ? id : id.toLowerCase());
+            }
+        }
+        selection.addAll(selection.subList(0, 200));
+        selection.add("missing");
+        Collections.shuffle(selection, random);
+        SpillSortService spillSort = spillSort(4096);
+
+        // [2-1]
+        List<List<String>> chunks = order(db, selection, spillSort);
+        TreeSet<String> expected = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        expected.addAll(selection);
+        expected.remove("missing");
+        List<String> expectedStored = new ArrayList<>();
+        for (String id : expected) {
+            expectedStored.add(db.stored.floor(id));
+        }
+        assertEquals(expectedStored, flatten(chunks));
+        assertTrue(chunks.stream().allMatch(chunk -> chunk.size() <= 64));
+
+        // [2-2]
+        assertTrue((long) spillSort.getStats().get("spilledRuns") > 0);
+        try (Stream<Path> files = Files.list(spill)) {
+            assertEquals(0, files.count());
+        }
+
+        // [2-3]
+        // 存在の確認 1 + 区切りとの照合 2 + バケットごとの並べ替え 2 (× ID 数 / 分割サイズ) と、分割サイズを超えたバケットの再帰
+        assertTrue(db.queries <= 8 * selection.size() / 64, "queries: " + db.queries);
+    }
+
+    private SpillSortService spillSort(long memoryBudgetBytes) {
+        SpillSortService spillSort = new SpillSortService(spill.toString(), memoryBudgetBytes, 4);
+        spillSort.start();
+        return spillSort;
+    }
+
+    private static List<List<String>> order(FakeDb db, List<String> ids, SpillSortService spillSort)
+            throws Exception {
+        List<List<String>> chunks = new ArrayList<>();
+        ByIdsOrder.order(db, ids, db.chunkSize, spillSort, chunk -> chunks.add(List.copyOf(chunk)));
+        return chunks;
+    }
+
+    private static List<String> flatten(List<List<String>> chunks) {
+        List<String> ids = new ArrayList<>();
+        chunks.forEach(ids::addAll);
+        return ids;
+    }
+
+    /**
+     * 大文字小文字を区別しない照合順序の DB
+     */
+    private static final class FakeDb implements ByIdsOrder.Db {
+        private final NavigableSet<String> stored = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        private final int chunkSize;
+        private int queries;
+
+        FakeDb(int chunkSize, String... ids) {
+            this.chunkSize = chunkSize;
+            stored.addAll(List.of(ids));
+        }
+
+        @Override
+        public List<String> existing(List<String> ids) {
+            assertTrue(ids.size() <= chunkSize, "IN list too long: " + ids.size());
+            queries++;
+            TreeSet<String> found = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            for (String id : ids) {
+                if (stored.contains(id)) {
+                    found.add(stored.floor(id));
+                }
+            }
+            return new ArrayList<>(found);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.SLocalizationLabel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CompareService クラスのテスト（ソート済みマージ部分）
+ */
+public class CompareServiceTest {
+
+    /*
+     * [1] diff のテスト
+     * [1-1] 片側にだけある行が added / removed、内容が異なる行が changed として通知されること <br>
+     * [1-2] changed には文言が異なる言語だけが含まれ、言語ごとの件数が集計されること <br>
+     * [1-3] 文言以外だけが異なる行は languages が空の changed となること
+     */
+    @Test
+    void testDiff() {
+        List<SLocalizationLabel> left = List.of(
+                label("A", "cat", "a1", "a2"),
+                label("B", "cat", "b1", "b2"),
+                label("C", "cat", "c1", "c2"),
+                label("E", "cat", "e1", "e2"));
+        List<SLocalizationLabel> right = List.of(
+                label("B", "cat", "b1", "b2"),
+                label("C", "cat", "c1", "changed"),
+                label("D", "cat", "d1", "d2"),
+                label("E", "other", "e1", "e2"));
+        List<String> events = new ArrayList<>();
+
+        CompareService.DiffSummary summary = CompareService.diff(source(left), source(right),
+                CompareService.LABEL_ROWS, List.of("country1", "country2"), listener(events));
+
+        // [1-1]
+        assertEquals(List.of("removed:A", "changed:C[country2]", "added:D", "changed:E[]"), events);
+        assertEquals(4, summary.leftRows);
+        assertEquals(4, summary.rightRows);
+        assertEquals(1, summary.added);
+        assertEquals(1, summary.removed);
+        assertEquals(2, summary.changed);
+        assertEquals(1, summary.unchanged);
+
+        // [1-2]
+        assertEquals(0L, summary.changedByLanguage.get("country1"));
+        assertEquals(1L, summary.changedByLanguage.get("country2"));
+    }
+
+    /*
+     * [2] 並び順検査のテスト
+     * [2-1] objectID が昇順でない列は IllegalStateException となること
+     */
+    @Test
+    void testOrderViolation() {
+        // [2-1]
+        List<SLocalizationLabel> unordered = List.of(label("b", "c", "1", "2"), label("A", "c", "1", "2"));
+        assertThrows(IllegalStateException.class, () -> CompareService.diff(source(unordered), source(List.of()),
+                CompareService.LABEL_ROWS, List.of("country1"), listener(new ArrayList<>())));
+    }
+
+    private static CompareService.RowSource<SLocalizationLabel> source(List<SLocalizationLabel> rows) {
+        Iterator<SLocalizationLabel> it = rows.iterator();
+        return () -> it.hasNext() ? it.next() : null;
+    }
+
+    private static CompareService.DiffListener<SLocalizationLabel> listener(List<String> events) {
+        return new CompareService.DiffListener<>() {
+            @Override
+            public void added(SLocalizationLabel right) {
+                events.add("added:" + right.getObjectID());
+            }
+
+            @Override
+            public void removed(SLocalizationLabel left) {
+                events.add("removed:" + left.getObjectID());
+            }
+
+            @Override
+            public void changed(SLocalizationLabel left, SLocalizationLabel right, List<String> languages) {
+                events.add("changed:" + right.getObjectID() + languages.toString().replace(" ", ""));
+            }
+        };
+    }
+
+    private static SLocalizationLabel label(String objectID, String category, String country1, String country2) {
+        SLocalizationLabel label = new SLocalizationLabel();
+        label.setObjectID(objectID);
+        label.setCategoryName(category);
+        label.setCountry1(country1);
+        label.setCountry2(country2);
+        return label;
+    }
+}
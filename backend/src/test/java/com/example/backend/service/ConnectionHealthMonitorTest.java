@@ -0,0 +1,304 @@
+package com.example.backend.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConnectionHealthMonitor クラスのテスト
+ */
+public class ConnectionHealthMonitorTest {
+
+    private static final Map<String, Object> CONFIG = Map.of("dbType", "MySQL", "host", "db.example",
+            "port", 3306, "dbName", "app", "username", "user", "password", "secret");
+
+    private final AtomicBoolean reachable = new AtomicBoolean(true);
+    private final AtomicBoolean authFailed = new AtomicBoolean();
+    private final AtomicInteger probeCount = new AtomicInteger();
+    private final List<Map<String, Object>> probed = new CopyOnWriteArrayList<>();
+    private ConnectionHealthMonitor monitor;
+
+    private ConnectionHealthMonitor monitor(boolean enabled, long evictAfterMillis) {
+        monitor = new ConnectionHealthMonitor(enabled, 60000, 1000, 2, evictAfterMillis, 300000, 1,
+                (config, timeout) -> {
+                    probeCount.incrementAndGet();
+                    probed.add(config);
+                    if (authFailed.get()) {
+                        return ConnectionHealth.authFailed("Access denied for user");
+                    }
+                    return reachable.get() ? ConnectionHealth.up(5, 120, "driver 1.0", "server 8.0")
+                            : ConnectionHealth.down("Connection refused");
+                });
+        monitor.start();
+        return monitor;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (monitor != null) {
+            monitor.stop();
+        }
+    }
+
+    /*
+     * [1] check のテスト
+     * [1-1] 未確認の接続先はその場で確認し、以降は確認結果を返すこと <br>
+     * [1-2] refresh=true の場合は確認し直すこと <br>
+     * [1-3] 到達できない結果は refresh=false でも確認し直し、復旧をその場で返すこと <br>
+     * [1-4] 監視無効時は毎回確認すること
+     */
+    @Test
+    void testCheck() {
+        // [1-1]
+        monitor(true, 0);
+        ConnectionHealth health = monitor.check("k", CONFIG, false);
+        assertTrue(health.isUp());
+        assertEquals("server 8.0", health.getServerVersion());
+        assertEquals(120, health.getRttMicros());
+        monitor.check("k", CONFIG, false);
+        assertEquals(1, probeCount.get());
+
+        // [1-2]
+        reachable.set(false);
+        health = monitor.check("k", CONFIG, true);
+        assertEquals(ConnectionHealthMonitor.State.DOWN, health.getState());
+        assertEquals("Connection refused", health.getError());
+        assertEquals(2, probeCount.get());
+
+        // [1-3]
+        reachable.set(true);
+        assertTrue(monitor.check("k", CONFIG, false).isUp());
+        assertEquals(3, probeCount.get());
+
+        // [1-4]
+        monitor.stop();
+        monitor(false, 0);
+        monitor.check("k", CONFIG, false);
+        monitor.check("k", CONFIG, false);
+        assertEquals(5, probeCount.get());
+    }
+
+    /*
+     * [2] ensureAvailable のテスト
+     * [2-1] 未確認・到達可能な接続先では例外にならないこと <br>
+     * [2-2] fail-fast-after 回連続で失敗した接続先は ConnectionUnavailableException となること <br>
+     * [2-3] 確認に成功すると再び取得できること <br>
+     * [2-4] 監視無効時は常に例外にならないこと
+     */
+    @Test
+    void testEnsureAvailable() {
+        // [2-1]
+        monitor(true, 0);
+        assertDoesNotThrow(() -> monitor.ensureAvailable("k", CONFIG));
+        monitor.check("k", CONFIG, false);
+        assertDoesNotThrow(() -> monitor.ensureAvailable("k", CONFIG));
+
+        // [2-2]
+        reachable.set(false);
+        monitor.check("k", CONFIG, true);
+        assertDoesNotThrow(() -> monitor.ensureAvailable("k", CONFIG));
+        monitor.check("k", CONFIG, true);
+        ConnectionUnavailableException e = assertThrows(ConnectionUnavailableException.class,
+                () -> monitor.ensureAvailable("k", CONFIG));
+        assertTrue(e.getMessage().contains("db.example:3306/app"));
+        assertEquals(1L, monitor.getStats().get("failFasts"));
+
+        // [2-3]
+        reachable.set(true);
+        monitor.check("k", CONFIG, true);
+        assertDoesNotThrow(() -> monitor.ensureAvailable("k", CONFIG));
+
+        // [2-4]
+        monitor.stop();
+        reachable.set(false);
+        monitor(false, 0);
+        monitor.check("k", CONFIG, false);
+        monitor.check("k", CONFIG, false);
+        assertDoesNotThrow(() -> monitor.ensureAvailable("k", CONFIG));
+    }
+
+    /*
+     * [3] getStatus / tick のテスト
+     * [3-1] 指定した接続先の状態のみを返し、パスワードを含めないこと。監視していない接続先は null <br>
+     * [3-2] evict-after-millis を過ぎると通知先へ接続先のキーが渡り、使用中 (false) の通知先があれば監視対象に残ること <br>
+     * [3-3] 通知先がすべて解放した接続先は監視対象から外れること
+     */
+    @Test
+    void testStatusesAndEviction() throws InterruptedException {
+        // [3-1]
+        monitor(true, 50);
+        monitor.check("k", CONFIG, false);
+        Map<String, Object> status = monitor.getStatus("k");
+        assertEquals("UP", status.get("state"));
+        assertEquals("db.example", status.get("host"));
+        assertFalse(status.containsKey("password"));
+        assertFalse(status.containsValue("secret"));
+        assertNull(monitor.getStatus("other"));
+
+        // [3-2]
+        List<String> evicted = new ArrayList<>();
+        AtomicBoolean inUse = new AtomicBoolean(true);
+        monitor.addEvictionListener(key -> {
+            evicted.add(key);
+            return !inUse.get();
+        });
+        Thread.sleep(100);
+        monitor.tick();
+        assertEquals(List.of("k"), evicted);
+        assertNotNull(monitor.getStatus("k"));
+        assertEquals(0L, monitor.getStats().get("evictions"));
+
+        // [3-3]
+        inUse.set(false);
+        Thread.sleep(100);
+        monitor.tick();
+        assertNull(monitor.getStatus("k"));
+        assertEquals(List.of("k", "k"), evicted);
+        assertEquals(1L, monitor.getStats().get("evictions"));
+    }
+
+    /*
+     * [4] dueForProbe のテスト
+     * [4-1] 到達可能・1回目の失敗では probe-interval-millis ごとに確認すること <br>
+     * [4-2] 連続して失敗している間は間隔を倍々に延ばし、max-backoff-millis で頭打ちとなること <br>
+     * [4-3] 認証に失敗した接続先は確認しないこと
+     */
+    @Test
+    void testDueForProbe() {
+        monitor(true, 0);
+        ConnectionHealth up = ConnectionHealth.up(5, 120, "driver 1.0", "server 8.0");
+        ConnectionHealth down = ConnectionHealth.down("Connection refused");
+        long at = down.getCheckedAt();
+
+        // [4-1]
+        assertFalse(monitor.dueForProbe(up, up.getCheckedAt() + 59999));
+        assertTrue(monitor.dueForProbe(up, up.getCheckedAt() + 60000));
+        assertTrue(monitor.dueForProbe(down, at + 60000));
+
+        // [4-2]
+        assertFalse(monitor.dueForProbe(down.withConsecutiveFailures(2), at + 119999));
+        assertTrue(monitor.dueForProbe(down.withConsecutiveFailures(2), at + 120000));
+        assertFalse(monitor.dueForProbe(down.withConsecutiveFailures(3), at + 239999));
+        assertTrue(monitor.dueForProbe(down.withConsecutiveFailures(3), at + 240000));
+        assertFalse(monitor.dueForProbe(down.withConsecutiveFailures(4), at + 299999));
+        assertTrue(monitor.dueForProbe(down.withConsecutiveFailures(4), at + 300000));
+        assertTrue(monitor.dueForProbe(down.withConsecutiveFailures(100), at + 300000));
+
+        // [4-3]
+        ConnectionHealth auth = ConnectionHealth.authFailed("Access denied for user");
+        assertFalse(monitor.dueForProbe(auth, auth.getCheckedAt() + 86400000L));
+    }
+
+    /*
+     * [5] 認証エラーのテスト
+     * [5-1] 認証に失敗した接続先は fail-fast-after 回に満たなくても ConnectionUnavailableException となること <br>
+     * [5-2] 取得処理で確認を前倒ししないこと <br>
+     * [5-3] 再確認 (refresh) で成功すると再び取得できること <br>
+     * [5-4] SQLState 28xxx（後続の例外・原因を含む）と SQL Server / Oracle のエラーコードを認証エラーと判定すること
+     */
+    @Test
+    void testAuthFailure() throws InterruptedException {
+        // [5-1]
+        monitor(true, 0);
+        authFailed.set(true);
+        ConnectionHealth health = monitor.check("k", CONFIG, false);
+        assertTrue(health.isAuthFailure());
+        assertEquals(1, health.getConsecutiveFailures());
+        ConnectionUnavailableException e = assertThrows(ConnectionUnavailableException.class,
+                () -> monitor.ensureAvailable("k", CONFIG));
+        assertTrue(e.getMessage().contains("Access denied"));
+        assertEquals(1L, monitor.getStats().get("authFailedTargets"));
+        assertEquals(true, monitor.getStatus("k").get("authFailure"));
+
+        // [5-2]
+        Thread.sleep(1100);
+        assertThrows(ConnectionUnavailableException.class, () -> monitor.ensureAvailable("k", CONFIG));
+        Thread.sleep(100);
+        assertEquals(1, probeCount.get());
+
+        // [5-3]
+        authFailed.set(false);
+        assertTrue(monitor.check("k", CONFIG, true).isUp());
+        assertDoesNotThrow(() -> monitor.ensureAvailable("k", CONFIG));
+
+        // [5-4]
+        assertTrue(ConnectionHealthMonitor.isAuthFailure(new SQLException("Access denied", "28000", 1045)));
+        SQLException chained = new SQLException("Connection failed", "08001");
+        chained.setNextException(new SQLException("password authentication failed", "28P01"));
+        assertTrue(ConnectionHealthMonitor.isAuthFailure(chained));
+        assertTrue(ConnectionHealthMonitor.isAuthFailure(
+                new SQLException("wrapped", "08001", new SQLException("denied", "28000"))));
+        assertTrue(ConnectionHealthMonitor.isAuthFailure(new SQLException("Login failed", "S0001", 18456)));
+        assertTrue(ConnectionHealthMonitor.isAuthFailure(new SQLException("ORA-01017", "72000", 1017)));
+        assertFalse(ConnectionHealthMonitor.isAuthFailure(new SQLException("Communications link failure", "08S01")));
+    }
+
+    /*
+     * [6] バックグラウンドの確認のテスト
+     * [6-1] 関連付けたプールの資格情報で確認すること <br>
+     * [6-2] プールの無い接続先はバックグラウンドで確認しないこと（パスワードを保持しないため） <br>
+     * [6-3] 取得処理からの前倒しの確認は呼び出し元の接続設定で行うこと
+     */
+    @Test
+    void testBackgroundProbe() throws InterruptedException {
+        monitor(true, 0);
+        try (HikariDataSource pool = new HikariDataSource()) {
+            pool.setUsername("pooluser");
+            pool.setPassword("poolsecret");
+
+            // [6-1]
+            monitor.attachPool("pooled", CONFIG, pool);
+            monitor.ensureAvailable("plain", CONFIG);
+            monitor.tick();
+            waitForProbes(1);
+            Thread.sleep(100);
+            assertEquals(1, probed.size());
+            assertEquals("pooluser", probed.get(0).get("username"));
+            assertEquals("poolsecret", probed.get(0).get("password"));
+            assertEquals("db.example", probed.get(0).get("host"));
+
+            // [6-2]
+            assertEquals("UNKNOWN", monitor.getStatus("plain").get("state"));
+
+            // [6-3]
+            reachable.set(false);
+            monitor.check("plain", CONFIG, false);
+            monitor.check("plain", CONFIG, true);
+            Thread.sleep(1100);
+            assertThrows(ConnectionUnavailableException.class, () -> monitor.ensureAvailable("plain", CONFIG));
+            waitForProbes(4);
+            assertEquals("secret", probed.get(3).get("password"));
+        }
+    }
+
+    private void waitForProbes(int count) throws InterruptedException {
+        for (int i = 0; i < 100 && probeCount.get() < count; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, probeCount.get());
+    }
+
+    /*
+     * [7] timeoutProperties のテスト
+     * [7-1] DBタイプごとのタイムアウト指定（ミリ秒 / 秒）となること
+     */
+    @Test
+    void testTimeoutProperties() {
+        // [7-1]
+        assertEquals("2500", ConnectionHealthMonitor.timeoutProperties("MySQL", 2500).getProperty("connectTimeout"));
+        assertEquals("3", ConnectionHealthMonitor.timeoutProperties("PostgreSQL", 2500).getProperty("connectTimeout"));
+        assertEquals("3", ConnectionHealthMonitor.timeoutProperties("SQLServer", 2500).getProperty("loginTimeout"));
+        assertEquals("2500", ConnectionHealthMonitor.timeoutProperties("Oracle", 2500)
+                .getProperty("oracle.net.CONNECT_TIMEOUT"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ContentChecksum クラスのテスト
+ */
+public class ContentChecksumTest {
+
+    /*
+     * [1] sql のテスト
+     * [1-1] DB 種別ごとのハッシュ関数と、行の順序によらない集約が使われること <br>
+     * [1-2] すべての列が NULL の置き換えと区切りを挟んでハッシュに含まれること <br>
+     * [1-3] Oracle は || で連結すること（CONCAT は2引数のみ） <br>
+     * [1-4] 未対応の DB 種別は IllegalArgumentException となること
+     */
+    @Test
+    void testSql() {
+        // [1-1]
+        String mysql = ContentChecksum.sql("MySQL", "SLocalization", "objectID", "country1");
+        assertTrue(mysql.startsWith("SELECT COUNT(*), BIT_XOR(CAST(CONV(LEFT(MD5(CONCAT("), mysql);
+        assertTrue(mysql.endsWith(" FROM SLocalization"), mysql);
+        assertTrue(ContentChecksum.sql("PostgreSQL", "SError", "objectID").contains("::bit(60)::bigint)"));
+        assertTrue(ContentChecksum.sql("SQLServer", "SError", "objectID").contains("HASHBYTES('MD5', "));
+        assertTrue(ContentChecksum.sql("Oracle", "SError", "objectID").contains("ORA_HASH("));
+
+        // [1-2]
+        assertTrue(mysql.contains("CONCAT(COALESCE(objectID, CHAR(30 USING utf8mb4)), CHAR(31 USING utf8mb4), "
+                + "COALESCE(country1, CHAR(30 USING utf8mb4)))"), mysql);
+        assertTrue(ContentChecksum.sql("SQLServer", "SLocalizationLabel", "objectID", "categoryName")
+                .contains("CONCAT(COALESCE(objectID, NCHAR(30)), NCHAR(31), COALESCE(categoryName, NCHAR(30)))"));
+
+        // [1-3]
+        assertTrue(ContentChecksum.sql("Oracle", "SLocalization", "objectID", "country1")
+                .contains("ORA_HASH(COALESCE(objectID, CHR(30)) || CHR(31) || COALESCE(country1, CHR(30)), "));
+
+        // [1-4]
+        assertThrows(IllegalArgumentException.class, () -> ContentChecksum.sql("H2", "SError", "objectID"));
+    }
+
+    /*
+     * [2] rowHash のテスト
+     * [2-1] DB 種別ごとに1行のハッシュを文字列で返す式となること <br>
+     * [2-2] 別名付きの列をそのまま使うこと
+     */
+    @Test
+    void testRowHash() {
+        // [2-1]
+        assertTrue(ContentChecksum.rowHash("MySQL", "objectID").startsWith("MD5(CONCAT("));
+        assertTrue(ContentChecksum.rowHash("PostgreSQL", "objectID").startsWith("MD5(CONCAT("));
+        assertTrue(ContentChecksum.rowHash("SQLServer", "objectID").startsWith("CONVERT(VARCHAR(32), HASHBYTES('MD5', "));
+        assertTrue(ContentChecksum.rowHash("Oracle", "objectID").contains("|| '-' || TO_CHAR(ORA_HASH("));
+
+        // [2-2]
+        assertEquals("MD5(CONCAT(COALESCE(l.ObjectID, CHR(30)), CHR(31), COALESCE(l.country1, CHR(30))))",
+                ContentChecksum.rowHash("PostgreSQL", "l.ObjectID", "l.country1"));
+    }
+}
@@ -0,0 +1,530 @@
+package com.example.backend.service;
+
+import com.example.backend.controller.ExportJobController;
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.dto.ExportJobRequestDto;
+import com.example.backend.dto.ExportJobStatusDto;
+import com.example.backend.dto.FilterDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.format.JsonFormat;
+import com.example.backend.service.format.OutputFormatRegistry;
+import com.example.backend.service.format.PropertiesFormat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * ExportJobService クラスのテスト
+ */
+public class ExportJobServiceTest {
+
+    @TempDir
+    Path spool;
+
+    private final List<ExportJobService> services = new ArrayList<>();
+    private final List<PartitionedScanService> scanServices = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(ExportJobService::stop);
+        scanServices.forEach(PartitionedScanService::stop);
+    }
+
+    /*
+     * [1] 分割モードのテスト
+     * [1-1] キー範囲で分割した並列スキャンの出力が、逐次モードの出力と形式・言語ごとに同一となること <br>
+     * [1-2] 行数より多い分割数・チャンクの境界をまたぐ範囲でも同一となること
+     */
+    @Test
+    void testPartitionedMatchesSequential() throws Exception {
+        List<SLocalizationLabel> rows = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            String id = String.format("L%03d", i * 7 % 23);
+            rows.add(new SLocalizationLabel(id, "cat" + i % 3, "値 " + i + " = a:b", i % 4 == 0 ? null : "v" + i,
+                    "\"quoted\" " + i, "", "line\n" + i));
+        }
+        ExportJobService service = service(new InMemoryLabels(rows), 4);
+
+        // [1-1]
+        Map<String, String> sequential = entries(run(service, 1));
+        assertEquals(4, sequential.size());
+        assertTrue(sequential.values().stream().allMatch(content -> content.contains("L022")));
+        assertEquals(sequential, entries(run(service, 3)));
+
+        // [1-2]
+        assertEquals(sequential, entries(run(service, 40)));
+    }
+
+    /*
+     * [2] 優先度のテスト
+     * [2-1] 実行待ちのジョブは優先度の高い順、同じ優先度は登録順に実行されること
+     */
+    @Test
+    void testPriorityOrder() throws Exception {
+        InMemoryLabels labels = new InMemoryLabels(rows(5));
+        ExportJobService service = service(labels, 4);
+
+        // [2-1]
+        ExportJobStatusDto blocker = service.submit(exportRequest(1, "blocker", 5));
+        await(() -> labels.started.contains("blocker"));
+        List<ExportJobStatusDto> queued = List.of(service.submit(exportRequest(1, "low", 1)),
+                service.submit(exportRequest(1, "high", 9)), service.submit(exportRequest(1, "mid", 5)),
+                service.submit(exportRequest(1, "high2", 9)));
+        assertEquals(ExportJobStatusDto.QUEUED, queued.get(0).getStatus());
+        labels.gate.countDown();
+        await(blocker);
+        for (ExportJobStatusDto status : queued) {
+            await(status);
+        }
+        assertEquals(List.of("blocker", "high", "high2", "mid", "low"), labels.started);
+    }
+
+    /*
+     * [3] 永続化・復元のテスト
+     * [3-1] 再起動後も完了済みジョブの状態と成果物が復元されること <br>
+     * [3-2] 実行待ちのまま停止したジョブは失敗として復元されること <br>
+     * [3-3] マニフェストはジョブとして復元されないこと
+     */
+    @Test
+    void testPersistAndRestore() throws Exception {
+        InMemoryLabels labels = new InMemoryLabels(rows(5));
+        ExportJobService before = service(labels, 4);
+        ExportJobStatusDto completed = before.submit(exportRequest(1, "app", 5));
+        Map<String, String> content = entries(artifact(before, completed));
+        ExportJobStatusDto running = before.submit(exportRequest(1, "blocker", 5));
+        await(() -> labels.started.contains("blocker"));
+        ExportJobStatusDto queued = before.submit(exportRequest(1, "app", 5));
+        before.stop();
+        // 停止で割り込まれた実行中のジョブが終わるのを待つ
+        await(running::isFinished);
+
+        // [3-1]
+        ExportJobService after = service(new InMemoryLabels(rows(5)), 4);
+        assertEquals(ExportJobStatusDto.COMPLETED, after.getStatus(completed.getJobId()).getStatus());
+        assertEquals(completed.getEtag(), after.getStatus(completed.getJobId()).getEtag());
+        assertEquals(content, entries(after.getArtifact(completed.getJobId())));
+
+        // [3-2]
+        ExportJobStatusDto restored = after.getStatus(queued.getJobId());
+        assertEquals(ExportJobStatusDto.FAILED, restored.getStatus());
+        assertTrue(restored.getMessage().contains("再起動"));
+        assertNull(after.getArtifact(queued.getJobId()));
+
+        // [3-3]
+        assertNotNull(after.getManifest(completed.getJobId()));
+        assertEquals(3, after.getAllStatuses().size());
+    }
+
+    /*
+     * [4] 進捗通知 (SSE) のテスト
+     * [4-1] 実行中のジョブを購読すると現在の状態と完了時の状態が progress イベントで届き、完了後に閉じること <br>
+     * [4-2] 終了済みのジョブは最終状態を1件送って即座に閉じること <br>
+     * [4-3] 存在しないジョブはエラーで閉じること
+     */
+    @Test
+    void testProgressEvents() throws Exception {
+        InMemoryLabels labels = new InMemoryLabels(rows(5));
+        ExportJobService service = service(labels, 4);
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new ExportJobController(service,
+                new OutputFormatRegistry(List.of(new PropertiesFormat())))).build();
+
+        // [4-1]
+        ExportJobStatusDto job = service.submit(exportRequest(1, "blocker", 5));
+        await(() -> labels.started.contains("blocker"));
+        MvcResult result = mvc.perform(get("/api/export-jobs/" + job.getJobId() + "/events"))
+                .andExpect(request().asyncStarted()).andReturn();
+        labels.gate.countDown();
+        await(job);
+        // 完了すると非同期処理の結果 (null) が設定される
+        assertNull(result.getAsyncResult(5000));
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(body.startsWith("event:progress\ndata:"), body);
+        int running = body.indexOf("\"status\":\"RUNNING\"");
+        assertTrue(running > 0, body);
+        assertTrue(body.lastIndexOf("\"status\":\"COMPLETED\"") > running, body);
+
+        // [4-2]
+        MvcResult finished = mvc.perform(get("/api/export-jobs/" + job.getJobId() + "/events"))
+                .andExpect(request().asyncStarted()).andReturn();
+        body = finished.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertEquals(1, body.split("event:progress", -1).length - 1, body);
+        assertTrue(body.contains("\"status\":\"COMPLETED\""), body);
+        assertNull(finished.getAsyncResult(5000));
+
+        // [4-3]
+        MvcResult unknown = mvc.perform(get("/api/export-jobs/unknown/events"))
+                .andExpect(request().asyncStarted()).andReturn();
+        assertInstanceOf(IllegalArgumentException.class, unknown.getAsyncResult(5000));
+    }
+
+    /*
+     * [5] 保持期間・削除のテスト
+     * [5-1] 削除したジョブは一覧から外れ、状態・成果物・マニフェストのファイルが削除されること <br>
+     * [5-2] 実行中のジョブ・使用中 (acquire) のジョブは削除できず、解放後は削除できること <br>
+     * [5-3] 掃除は保持期間を過ぎたジョブと、どのジョブにも属さない古いファイルを削除し、使用中・利用直後のジョブは残すこと <br>
+     * [5-4] 再起動時に保持期間を過ぎたジョブは復元されずに削除されること
+     */
+    @Test
+    void testRetention() throws Exception {
+        InMemoryLabels labels = new InMemoryLabels(rows(5));
+        ExportJobService service = service(labels, 4, 200);
+
+        // [5-1]
+        ExportJobStatusDto deleted = service.submit(exportRequest(1, "app", 5));
+        artifact(service, deleted);
+        assertTrue(spoolFiles().stream().anyMatch(name -> name.startsWith(deleted.getJobId() + ".manifest")));
+        assertTrue(service.delete(deleted.getJobId()));
+        assertNull(service.getStatus(deleted.getJobId()));
+        assertNull(service.getArtifact(deleted.getJobId()));
+        assertTrue(spoolFiles().stream().noneMatch(name -> name.startsWith(deleted.getJobId())));
+        assertFalse(service.delete(deleted.getJobId()));
+        assertFalse(service.acquire(deleted.getJobId()));
+
+        // [5-2]
+        ExportJobStatusDto running = service.submit(exportRequest(1, "blocker", 5));
+        await(() -> labels.started.contains("blocker"));
+        assertThrows(IllegalStateException.class, () -> service.delete(running.getJobId()));
+        labels.gate.countDown();
+        artifact(service, running);
+        assertTrue(service.acquire(running.getJobId()));
+        assertThrows(IllegalStateException.class, () -> service.delete(running.getJobId()));
+        service.release(running.getJobId());
+        assertTrue(service.delete(running.getJobId()));
+
+        // [5-3]
+        ExportJobStatusDto expired = service.submit(exportRequest(1, "app", 5));
+        ExportJobStatusDto inUse = service.submit(exportRequest(1, "app", 5));
+        ExportJobStatusDto recentlyUsed = service.submit(exportRequest(1, "app", 5));
+        artifact(service, expired);
+        artifact(service, inUse);
+        artifact(service, recentlyUsed);
+        Path orphan = Files.writeString(spool.resolve("orphan.zip"), "orphan");
+        Files.setLastModifiedTime(orphan, FileTime.fromMillis(0));
+        Thread.sleep(300);
+        assertTrue(service.acquire(inUse.getJobId()));
+        assertTrue(service.acquire(recentlyUsed.getJobId()));
+        service.release(recentlyUsed.getJobId());
+        service.sweep();
+        assertNull(service.getStatus(expired.getJobId()));
+        assertTrue(spoolFiles().stream().noneMatch(name -> name.startsWith(expired.getJobId())));
+        assertFalse(Files.exists(orphan));
+        assertNotNull(service.getArtifact(inUse.getJobId()));
+        assertNotNull(service.getArtifact(recentlyUsed.getJobId()));
+        assertEquals(1L, service.getStats().get("expiredJobs"));
+        service.release(inUse.getJobId());
+
+        // [5-4]
+        service.stop();
+        Thread.sleep(300);
+        ExportJobService restarted = service(new InMemoryLabels(rows(5)), 4, 200);
+        assertEquals(List.of(), restarted.getAllStatuses());
+        assertEquals(List.of(), spoolFiles());
+    }
+
+    /*
+     * [6] ウォーターマークによる差分のテスト (エラーメッセージ, trustUpdateDate)
+     * [6-1] updateDate がウォーターマーク以降の行・基準に無い行・参照先の文言が変わった行・参照先が変わった行だけを読み直すこと <br>
+     * [6-2] 読み直さなかった行・読み直して内容が同じだった行は変更に数えず、基準に無くなった行は削除として数えられること <br>
+     * [6-3] 引き継いだ行も次のマニフェストに残り、続く差分の基準に使えること
+     */
+    @Test
+    void testWatermarkDelta() throws Exception {
+        InMemoryErrors errors = new InMemoryErrors();
+        errors.put("E1", "M1", "one");
+        errors.put("E2", "M2", "two");
+        errors.put("E3", "M3", "three");
+        errors.put("E4", "M1", "one");
+        errors.put("E6", "M1", "one");
+        ExportJobService service = service(new InMemoryLabels(rows(1)), errors, 4);
+        ExportJobStatusDto base = service.submit(errorRequest(null));
+        artifact(service, base);
+        assertEquals(List.of("E1", "E2", "E3", "E4", "E6"), errors.read);
+
+        // [6-1]
+        errors.read.clear();
+        errors.messages.put("M2", "two (edited)");
+        errors.updated.add("E3");
+        errors.rows.remove("E4");
+        errors.put("E5", "M1", "one");
+        errors.put("E6", "M3", "three");
+        ExportJobStatusDto delta = service.submit(errorRequest(base.getJobId()));
+        artifact(service, delta);
+        assertEquals(List.of("E2", "E3", "E5", "E6"), errors.read);
+
+        // [6-2]
+        assertEquals(1, delta.getRowsAdded());
+        assertEquals(2, delta.getRowsChanged());
+        assertEquals(1, delta.getRowsRemoved());
+
+        // [6-3]
+        errors.read.clear();
+        ExportJobStatusDto unchanged = service.submit(errorRequest(delta.getJobId()));
+        artifact(service, unchanged);
+        assertEquals(List.of("E3"), errors.read);
+        assertEquals(0, unchanged.getRowsAdded());
+        assertEquals(0, unchanged.getRowsChanged());
+        assertEquals(0, unchanged.getRowsRemoved());
+        assertEquals(Map.of("E1", "M1", "E2", "M2", "E3", "M3", "E5", "M1", "E6", "M3"),
+                new ObjectMapper().readValue(service.getManifest(unchanged.getJobId()).toFile(), ExportManifest.class)
+                        .getMessageRefs());
+    }
+
+    private static ExportJobRequestDto errorRequest(String baseJobId) {
+        ExportJobRequestDto request = exportRequest(1, "app", 5);
+        request.setTarget(ExportJobService.TARGET_ERROR_MESSAGES);
+        request.setFormats(List.of("json"));
+        request.setLanguages(List.of("country1"));
+        request.setBaseJobId(baseJobId);
+        request.setTrustUpdateDate(true);
+        return request;
+    }
+
+    private List<String> spoolFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spool)) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        }
+    }
+
+    private static List<SLocalizationLabel> rows(int count) {
+        List<SLocalizationLabel> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new SLocalizationLabel(String.format("L%03d", i), "cat", "値 " + i, "v" + i, null, null, null));
+        }
+        return rows;
+    }
+
+    private Path run(ExportJobService service, int partitions) throws InterruptedException {
+        return artifact(service, service.submit(exportRequest(partitions, "app", 5)));
+    }
+
+    private static Path artifact(ExportJobService service, ExportJobStatusDto status) throws InterruptedException {
+        await(status);
+        assertEquals(ExportJobStatusDto.COMPLETED, status.getStatus(), status.getMessage());
+        return service.getArtifact(status.getJobId());
+    }
+
+    private static ExportJobRequestDto exportRequest(int partitions, String dbName, int priority) {
+        ExportJobRequestDto request = new ExportJobRequestDto();
+        request.setDbType("MySQL");
+        request.setHost("db.example");
+        request.setPort(3306);
+        request.setDbName(dbName);
+        request.setUsername("user");
+        request.setTarget(ExportJobService.TARGET_LABELS);
+        request.setFormats(List.of("properties", "json"));
+        request.setLanguages(List.of("country1", "country2"));
+        request.setPartitions(partitions);
+        request.setPriority(priority);
+        return request;
+    }
+
+    private static void await(ExportJobStatusDto status) throws InterruptedException {
+        await(status::isFinished);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    private ExportJobService service(SLocalizationLabelService labels, int chunkSize) {
+        return service(labels, null, chunkSize, 0);
+    }
+
+    private ExportJobService service(SLocalizationLabelService labels, ErrorMessageService errors, int chunkSize) {
+        return service(labels, errors, chunkSize, 0);
+    }
+
+    private ExportJobService service(SLocalizationLabelService labels, int chunkSize, long retentionMillis) {
+        return service(labels, null, chunkSize, retentionMillis);
+    }
+
+    /**
+     * retentionMillis が 0 の場合は保持期間による削除を行わない（定期的な掃除は実行せず、sweep() を直接呼ぶ）
+     */
+    private ExportJobService service(SLocalizationLabelService labels, ErrorMessageService errors, int chunkSize,
+            long retentionMillis) {
+        PartitionedScanService scans = new PartitionedScanService(4);
+        scanServices.add(scans);
+        ExportJobService service = new ExportJobService(labels, errors, scans,
+                new OutputFormatRegistry(List.of(new PropertiesFormat(), new JsonFormat())), null,
+                new SharedScanRegistry(false, 4, 0), spool.toString(), 1, 100, chunkSize, 60000, 1,
+                retentionMillis, 600000);
+        service.start();
+        services.add(service);
+        return service;
+    }
+
+    /**
+     * ZIP のエントリ名 → 内容
+     */
+    private static Map<String, String> entries(Path zip) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (InputStream in = Files.newInputStream(zip); ZipInputStream zin = new ZipInputStream(in)) {
+            for (ZipEntry entry = zin.getNextEntry(); entry != null; entry = zin.getNextEntry()) {
+                entries.put(entry.getName(), new String(zin.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * objectID 順に並べたラベルを、DB の NTILE による範囲分割・範囲スキャン・ID 指定取得と同じ規則で返す
+     * 逐次モードで ID 一覧を取得した接続先 (dbName) を記録し、"blocker" は gate が開くまで待たせる
+     */
+    private static final class InMemoryLabels extends SLocalizationLabelService {
+        private final List<SLocalizationLabel> sorted;
+        private final List<String> started = new CopyOnWriteArrayList<>();
+        private final CountDownLatch gate = new CountDownLatch(1);
+
+        InMemoryLabels(List<SLocalizationLabel> rows) {
+            sorted = new ArrayList<>(rows);
+            sorted.sort((a, b) -> a.getObjectID().compareTo(b.getObjectID()));
+        }
+
+        @Override
+        public List<String> getAllLabelObjectIDsFromDynamicDB(Map<String, Object> config, FilterDto filter) {
+            String dbName = (String) config.get("dbName");
+            started.add(dbName);
+            if ("blocker".equals(dbName)) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted", e);
+                }
+            }
+            return sorted.stream().map(SLocalizationLabel::getObjectID).toList();
+        }
+
+        @Override
+        public List<SLocalizationLabel> getLabelsByIdsFromDynamicDB(Map<String, Object> config,
+                List<String> objectIDs) {
+            return sorted.stream().filter(l -> objectIDs.contains(l.getObjectID())).toList();
+        }
+
+        @Override
+        public List<KeyRange> getLabelKeyRanges(Map<String, Object> config, FilterDto filter, int partitions) {
+            // NTILE: 先頭の (件数 % 分割数) 個のバケットが1件多い。行数より多い分割数ではバケットは行数分
+            List<String> upperBounds = new ArrayList<>();
+            List<Long> counts = new ArrayList<>();
+            int buckets = Math.min(partitions, sorted.size());
+            int from = 0;
+            for (int b = 0; b < buckets; b++) {
+                int size = sorted.size() / buckets + (b < sorted.size() % buckets ? 1 : 0);
+                upperBounds.add(sorted.get(from + size - 1).getObjectID());
+                counts.add((long) size);
+                from += size;
+            }
+            return KeyRange.fromUpperBounds(upperBounds, counts);
+        }
+
+        @Override
+        public void scanLabelRange(Map<String, Object> config, FilterDto filter, KeyRange range,
+                Consumer<SLocalizationLabel> consumer) {
+            for (SLocalizationLabel label : sorted) {
+                String id = label.getObjectID();
+                if ((range.getLowerExclusive() == null || id.compareTo(range.getLowerExclusive()) > 0)
+                        && (range.getUpperInclusive() == null || id.compareTo(range.getUpperInclusive()) <= 0)) {
+                    consumer.accept(label);
+                }
+            }
+        }
+    }
+
+    /**
+     * SError (objectID → 参照先) と SLocalization (参照先 → 文言) を保持し、ウォーターマークの問い合わせに答える
+     * 文言のハッシュは DB 側のハッシュの代わりに文言そのものを返し、ID 指定で読み出した objectID を記録する
+     */
+    private static final class InMemoryErrors extends ErrorMessageService {
+        private final Map<String, String> rows = new TreeMap<>();
+        private final Map<String, String> messages = new HashMap<>();
+        private final Set<String> updated = new HashSet<>();
+        private final List<String> read = new CopyOnWriteArrayList<>();
+
+        InMemoryErrors() {
+            super(null, null);
+        }
+
+        void put(String objectID, String messageObjectID, String text) {
+            rows.put(objectID, messageObjectID);
+            messages.put(messageObjectID, text);
+        }
+
+        @Override
+        public String getMaxErrorUpdateDate(Map<String, Object> config) {
+            return "2024-05-01";
+        }
+
+        @Override
+        public List<String> getErrorObjectIDsUpdatedSince(Map<String, Object> config, FilterDto filter,
+                String watermark) {
+            return rows.keySet().stream().filter(updated::contains).toList();
+        }
+
+        @Override
+        public Map<String, String> getErrorMessageRefs(Map<String, Object> config, FilterDto filter) {
+            return new LinkedHashMap<>(rows);
+        }
+
+        @Override
+        public Map<String, String> getReferencedMessageHashes(Map<String, Object> config, FilterDto filter) {
+            Map<String, String> hashes = new HashMap<>();
+            rows.values().forEach(messageID -> hashes.put(messageID, messages.get(messageID)));
+            return hashes;
+        }
+
+        @Override
+        public List<String> getAllErrorObjectIDsFromDynamicDB(Map<String, Object> config, FilterDto filter) {
+            return new ArrayList<>(rows.keySet());
+        }
+
+        @Override
+        public List<ErrorMessageDto> getErrorMessagesByIdsFromDynamicDB(Map<String, Object> config,
+                List<String> objectIDs) {
+            List<ErrorMessageDto> result = new ArrayList<>();
+            for (String objectID : objectIDs) {
+                String messageID = rows.get(objectID);
+                read.add(objectID);
+                result.add(new ErrorMessageDto(objectID, "ERR-" + objectID, "E", messageID, messages.get(messageID),
+                        null, null, null, null));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ExportManifest / ETags クラスのテスト
+ */
+public class ExportManifestTest {
+
+    /*
+     * [1] 行ハッシュのテスト
+     * [1-1] 同じ内容の行は同じハッシュとなり、いずれかの言語の文言が変わるとハッシュが変わること <br>
+     * [1-2] null と空文字、列の境界の違いを区別すること <br>
+     * [1-3] エラーメッセージの出力キーは errorNo、空の場合は objectID となること
+     */
+    @Test
+    void testRowHash() {
+        // [1-1]
+        SLocalizationLabel a = label("L1", "画面", "保存");
+        SLocalizationLabel b = label("L1", "画面", "保存");
+        assertEquals(ExportManifest.rowHash(a), ExportManifest.rowHash(b));
+        assertEquals(16, ExportManifest.rowHash(a).length());
+        b.setCountry5("Save");
+        assertNotEquals(ExportManifest.rowHash(a), ExportManifest.rowHash(b));
+
+        // [1-2]
+        assertNotEquals(ExportManifest.hash("a", null), ExportManifest.hash("a", ""));
+        assertNotEquals(ExportManifest.hash("ab", "c"), ExportManifest.hash("a", "bc"));
+
+        // [1-3]
+        ErrorMessageDto dto = new ErrorMessageDto();
+        dto.setObjectID("E-OBJ");
+        dto.setErrorNo("E001");
+        assertEquals("E001", ExportManifest.outputKey(dto));
+        dto.setErrorNo(" ");
+        assertEquals("E-OBJ", ExportManifest.outputKey(dto));
+    }
+
+    /*
+     * [2] JSON 保存・読み込みのテスト
+     * [2-1] 書き出したマニフェストを読み込むと行ハッシュ・キー・ウォーターマーク・参照先と文言のハッシュが復元されること
+     */
+    @Test
+    void testJsonRoundTrip() throws Exception {
+        // [2-1]
+        ExportManifest manifest = new ExportManifest();
+        manifest.setJobId("job-1");
+        manifest.setTarget("error-messages");
+        manifest.setConnection(ExportManifest.connectionHash(Map.of("dbType", "MySQL", "host", "h", "port", 3306,
+                "dbName", "d", "username", "u")));
+        manifest.put("B", "0000000000000002", "E002");
+        manifest.put("A", "0000000000000001", "E001");
+        manifest.setWatermark("2024-05-01");
+        manifest.setMessageHashes(Map.of("M1", "h1"));
+        manifest.putMessageRef("A", "M1");
+        manifest.putMessageRef("B", null);
+
+        ObjectMapper mapper = new ObjectMapper();
+        ExportManifest read = mapper.readValue(mapper.writeValueAsBytes(manifest), ExportManifest.class);
+        assertEquals("job-1", read.getJobId());
+        assertEquals("2024-05-01", read.getWatermark());
+        assertEquals(Map.of("M1", "h1"), read.getMessageHashes());
+        assertEquals(Map.of("A", "M1"), read.getMessageRefs());
+        assertEquals(manifest.getConnection(), read.getConnection());
+        assertEquals("0000000000000001", read.getHashes().get("A"));
+        assertEquals("E002", read.getKeys().get("B"));
+        assertEquals("A", read.getHashes().keySet().iterator().next());
+    }
+
+    /*
+     * [3] ETags のテスト
+     * [3-1] 同じ内容は同じ強い ETag (引用符付き) となること <br>
+     * [3-2] If-None-Match の一覧・弱い ETag・"*" を一致として扱うこと
+     */
+    @Test
+    void testETags() {
+        // [3-1]
+        String etag = ETags.of("abc".getBytes(StandardCharsets.UTF_8));
+        assertEquals(etag, ETags.of("abc".getBytes(StandardCharsets.UTF_8)));
+        assertNotEquals(etag, ETags.of("abd".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+
+        // [3-2]
+        assertTrue(ETags.matches("\"x\", " + etag, etag));
+        assertTrue(ETags.matches("W/" + etag, etag));
+        assertTrue(ETags.matches("*", etag));
+        assertFalse(ETags.matches("\"x\"", etag));
+        assertFalse(ETags.matches(null, etag));
+    }
+
+    private static SLocalizationLabel label(String objectID, String category, String country1) {
+        SLocalizationLabel label = new SLocalizationLabel();
+        label.setObjectID(objectID);
+        label.setCategoryName(category);
+        label.setCountry1(country1);
+        return label;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FacetIndex クラスのテスト
+ */
+public class FacetIndexTest {
+
+    @TempDir
+    Path dir;
+
+    /*
+     * [1] select / counts のテスト
+     * [1-1] 複数値の選択が値の OR となること（大文字小文字の区別は指定に従う） <br>
+     * [1-2] 選択の無い場合の件数が値ごとの行数となること <br>
+     * [1-3] 列の件数には他の列の選択のみが適用され、選択中の値は件数 0 でも含まれること
+     */
+    @Test
+    void testSelectAndCounts() throws Exception {
+        MappedSnapshot.Section section = section(1200);
+        FacetIndex index = FacetIndex.build(section, List.of("categoryName", "errorType"), 16);
+
+        // [1-1]
+        RowBitmap ab = index.select("categoryName", List.of("catA", "catB"), false);
+        assertEquals(800, ab.cardinality());
+        assertEquals(0, index.select("categoryName", List.of("CATA"), false).cardinality());
+        assertEquals(400, index.select("categoryName", List.of("CATA"), true).cardinality());
+
+        // [1-2]
+        RowBitmap all = RowBitmap.all(section.getRowCount());
+        Map<String, Map<String, Long>> counts = index.counts(all, Map.of(), Map.of());
+        assertEquals(Map.of("catA", 400L, "catB", 400L, "catC", 400L), counts.get("categoryName"));
+        assertEquals(300L, counts.get("errorType").get("1"));
+
+        // [1-3]
+        RowBitmap type1 = index.select("errorType", List.of("1"), false);
+        counts = index.counts(all, Map.of("errorType", type1, "categoryName", ab),
+                Map.of("errorType", List.of("1", "9"), "categoryName", List.of("catA", "catB")));
+        // categoryName の件数: errorType=1 の行のみ
+        assertEquals(300L, counts.get("categoryName").values().stream().mapToLong(Long::longValue).sum());
+        // errorType の件数: categoryName が catA / catB の行のみ
+        assertEquals(800L, counts.get("errorType").values().stream().mapToLong(Long::longValue).sum());
+        assertFalse(counts.get("errorType").containsKey("9"));
+    }
+
+    /*
+     * [2] build のテスト
+     * [2-1] 値の種類が上限を超える列は索引を作らないこと <br>
+     * [2-2] null の値は索引に含まれないこと
+     */
+    @Test
+    void testBuildLimits() throws Exception {
+        MappedSnapshot.Section section = section(100);
+
+        // [2-1]
+        FacetIndex index = FacetIndex.build(section, List.of("objectID", "categoryName"), 10);
+        assertFalse(index.isIndexed("objectID"));
+        assertTrue(index.isIndexed("categoryName"));
+
+        // [2-2]
+        long total = index.counts(RowBitmap.all(100), Map.of(), Map.of()).get("categoryName").values().stream()
+                .mapToLong(Long::longValue).sum();
+        assertEquals(100, total);
+        FacetIndex withNulls = FacetIndex.build(section, List.of("note"), 10);
+        assertEquals(Map.of("x", 50L), withNulls.counts(RowBitmap.all(100), Map.of(), Map.of()).get("note"));
+    }
+
+    // categoryName は catA/catB/catC の繰り返し、errorType は 1〜4 の繰り返し、note は偶数行のみ値あり
+    private MappedSnapshot.Section section(int rows) throws Exception {
+        Path file = dir.resolve("facets." + rows + ".snap");
+        try (MappedSnapshotWriter writer = new MappedSnapshotWriter(file, dir)) {
+            writer.beginSection("rows", new String[] { "objectID", "categoryName", "errorType", "note" }, "");
+            for (int i = 0; i < rows; i++) {
+                writer.addRow(String.format("ID%05d", i), "cat" + (char) ('A' + i % 3), String.valueOf(1 + i % 4),
+                        i % 2 == 0 ? "x" : null);
+            }
+            writer.endSection();
+            writer.finish();
+        }
+        return MappedSnapshot.open(file).section("rows");
+    }
+}
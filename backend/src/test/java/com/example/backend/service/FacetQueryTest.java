@@ -0,0 +1,93 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.SqlProvider;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FacetQuery クラスのテスト
+ */
+public class FacetQueryTest {
+
+    /*
+     * [1] counts のテスト
+     * [1-1] 条件に対象列の NOT NULL を加えて GROUP BY し、値ごとの件数を返すこと <br>
+     * [1-2] 選択中の値は件数 0 でも含めること <br>
+     * [1-3] 値の種類が上限を超えた場合は null を返し、上限を超えた時点で読み出しをやめること
+     */
+    @Test
+    void testCounts() {
+        StubJdbc jdbc = new StubJdbc(new Object[][] { { "A", 3L }, { "B", 1L }, { "C", 2L } });
+
+        // [1-1]
+        Map<String, Map<String, Long>> facets = FacetQuery.counts(jdbc, QueryTicket.untracked(), "categoryName",
+                "categoryName", "FROM SLocalizationLabel", "WHERE 1=1 AND objectID LIKE ?", List.of("%x%"),
+                List.of(), 3);
+        assertEquals("SELECT categoryName, COUNT(*) FROM SLocalizationLabel WHERE 1=1 AND objectID LIKE ?"
+                + " AND categoryName IS NOT NULL GROUP BY categoryName ORDER BY categoryName", jdbc.sql);
+        Map<String, Long> expected = new LinkedHashMap<>();
+        expected.put("A", 3L);
+        expected.put("B", 1L);
+        expected.put("C", 2L);
+        assertEquals(Map.of("categoryName", expected), facets);
+        assertEquals(List.of("A", "B", "C"), new ArrayList<>(facets.get("categoryName").keySet()));
+
+        // [1-2]
+        facets = FacetQuery.counts(jdbc, QueryTicket.untracked(), "errorType", "e.errorType", "FROM SError e",
+                "WHERE 1=1", List.of(), List.of("B", "Z"), 3);
+        assertEquals(1L, facets.get("errorType").get("B"));
+        assertEquals(0L, facets.get("errorType").get("Z"));
+
+        // [1-3]
+        assertNull(FacetQuery.counts(jdbc, QueryTicket.untracked(), "categoryName", "categoryName",
+                "FROM SLocalizationLabel", "WHERE 1=1", List.of(), List.of(), 2));
+        assertEquals(3, jdbc.reads);
+    }
+
+    /**
+     * 固定の結果を返す JdbcTemplate
+     */
+    private static final class StubJdbc extends JdbcTemplate {
+        private final Object[][] rows;
+        private String sql;
+        private int reads;
+
+        StubJdbc(Object[][] rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public <T> T query(PreparedStatementCreator psc, ResultSetExtractor<T> rse) {
+            sql = ((SqlProvider) psc).getSql();
+            reads = 0;
+            int[] index = { -1 };
+            ResultSet rs = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, (proxy, method, args) -> switch (method.getName()) {
+                        case "next" -> {
+                            reads++;
+                            yield ++index[0] < rows.length;
+                        }
+                        case "getString" -> rows[index[0]][(int) args[0] - 1];
+                        case "getLong" -> rows[index[0]][(int) args[0] - 1];
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+            try {
+                return rse.extractData(rs);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.FanoutTargetDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FanoutExportService クラスのテスト
+ */
+public class FanoutExportServiceTest {
+
+    /*
+     * [1] folderNames のテスト
+     * [1-1] name 指定時はその名前、未指定時は "ホスト_DB名" となること <br>
+     * [1-2] パス区切りなど使用できない文字は "_" に置き換えられること <br>
+     * [1-3] 重複する名前には連番が付くこと
+     */
+    @Test
+    void testFolderNames() {
+        List<String> names = FanoutExportService.folderNames(List.of(
+                target("jp-east", "db1", "resource"),
+                target(null, "db2.example.com", "resource"),
+                target("../eu/west", "db3", "resource"),
+                target("jp-east", "db4", "resource"),
+                target("..", "db5", "resource")));
+
+        // [1-1]
+        assertEquals("jp-east", names.get(0));
+        assertEquals("db2.example.com_resource", names.get(1));
+
+        // [1-2]
+        assertEquals(".._eu_west", names.get(2));
+        assertEquals("target", names.get(4));
+
+        // [1-3]
+        assertEquals("jp-east-2", names.get(3));
+    }
+
+    private static FanoutTargetDto target(String name, String host, String dbName) {
+        FanoutTargetDto target = new FanoutTargetDto();
+        target.setName(name);
+        target.setHost(host);
+        target.setDbName(dbName);
+        return target;
+    }
+}
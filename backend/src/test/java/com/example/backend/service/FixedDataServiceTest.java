@@ -0,0 +1,81 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.SError;
+import com.example.backend.entity.SLocalizationLabel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FixedDataService クラスのテスト
+ */
+public class FixedDataServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    /*
+     * [1] pageRequest のテスト
+     * [1-1] objectID 順のページ要求となること <br>
+     * [1-2] 負のページ番号は 0、件数は 1 〜 最大件数に補正されること
+     */
+    @Test
+    void testPageRequest() {
+        FixedDataService service = new FixedDataService(null, null, null, objectMapper, 100, 10);
+
+        // [1-1]
+        PageRequest request = service.pageRequest(2, 20);
+        assertEquals(2, request.getPageNumber());
+        assertEquals(20, request.getPageSize());
+        assertEquals(Sort.by("objectID"), request.getSort());
+
+        // [1-2]
+        assertEquals(0, service.pageRequest(-1, 20).getPageNumber());
+        assertEquals(1, service.pageRequest(0, 0).getPageSize());
+        assertEquals(100, service.pageRequest(0, 5000).getPageSize());
+    }
+
+    /*
+     * [2] writeNdjson のテスト
+     * [2-1] 1行に1オブジェクトの JSON が出力され、出力行数が返ること <br>
+     * [2-2] 日付は ISO 形式の文字列で出力されること <br>
+     * [2-3] 0件の場合は何も出力されないこと
+     */
+    @Test
+    void testWriteNdjson() throws Exception {
+        FixedDataService service = new FixedDataService(null, null, null, objectMapper, 100, 1);
+
+        // [2-1]
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = service.writeNdjson(Stream.of(
+                new SLocalizationLabel("L1", "menu", "ja", "en", null, null, null),
+                new SLocalizationLabel("L2", "menu", "ja2", "en2", null, null, null)), out);
+        assertEquals(2, count);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("L1", objectMapper.readTree(lines[0]).get("objectID").asText());
+        assertEquals("en2", objectMapper.readTree(lines[1]).get("country2").asText());
+
+        // [2-2]
+        out.reset();
+        service.writeNdjson(Stream.of(new SError("E1", "1001", "M1", "u", LocalDate.of(2024, 1, 2), null, null,
+                null, "E", null, null)), out);
+        assertEquals("2024-01-02", objectMapper.readTree(out.toString(StandardCharsets.UTF_8))
+                .get("entryDate").asText());
+
+        // [2-3]
+        out.reset();
+        assertEquals(0, service.writeNdjson(Stream.empty(), out));
+        assertEquals(0, out.size());
+    }
+}
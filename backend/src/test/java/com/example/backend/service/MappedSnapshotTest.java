@@ -0,0 +1,107 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MappedSnapshot / MappedSnapshotWriter クラスのテスト
+ */
+public class MappedSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    /*
+     * [1] 書き出し・読み込みのテスト
+     * [1-1] 書き出した全セクション・全列の値（null・空文字・多バイト文字を含む）が読み込めること <br>
+     * [1-2] セクションのフィンガープリント・行数・列番号が取得できること <br>
+     * [1-3] 一時ファイルが残らないこと
+     */
+    @Test
+    void testRoundTrip() throws Exception {
+        Path file = dir.resolve("conn.1.snap");
+        try (MappedSnapshotWriter writer = new MappedSnapshotWriter(file, dir)) {
+            writer.beginSection("labels", new String[] { "objectID", "country1" }, "3|a|c");
+            for (int i = 0; i < 1500; i++) {
+                writer.addRow("ID" + i, i % 3 == 0 ? null : (i % 3 == 1 ? "" : "値😀" + i));
+            }
+            writer.endSection();
+            writer.beginSection("errors", new String[] { "objectID" }, "");
+            writer.endSection();
+            writer.finish();
+        }
+
+        MappedSnapshot snapshot = MappedSnapshot.open(file);
+        MappedSnapshot.Section labels = snapshot.section("labels");
+
+        // [1-1]
+        for (int i = 0; i < 1500; i++) {
+            assertEquals("ID" + i, labels.get(0, i));
+            assertEquals(i % 3 == 0 ? null : (i % 3 == 1 ? "" : "値😀" + i), labels.get(1, i), "row " + i);
+        }
+
+        // [1-2]
+        assertEquals("3|a|c", labels.getFingerprint());
+        assertEquals(1500, labels.getRowCount());
+        assertEquals(1, labels.column("country1"));
+        assertEquals(-1, labels.column("country9"));
+        assertEquals(0, snapshot.section("errors").getRowCount());
+        assertNull(snapshot.section("unknown"));
+
+        // [1-3]
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    /*
+     * [2] 不正なファイルのテスト
+     * [2-1] スナップショット形式でないファイルは IOException となること
+     */
+    @Test
+    void testInvalidFile() throws Exception {
+        Path file = dir.resolve("broken.snap");
+        Files.writeString(file, "not a snapshot file");
+
+        // [2-1]
+        assertThrows(java.io.IOException.class, () -> MappedSnapshot.open(file));
+    }
+
+    /*
+     * [3] likePattern のテスト
+     * [3-1] SQL の LIKE '%value%' と同じく部分一致し、% と _ がワイルドカードとして扱われること <br>
+     * [3-2] 大文字小文字の区別を指定できること <br>
+     * [3-3] \ の直後の % と _ は文字そのものとして扱われ、エスケープしない DB では \ も通常の文字となること
+     */
+    @Test
+    void testLikePattern() {
+        // [3-1]
+        Pattern pattern = ConnectionSnapshotService.likePattern("a_c%e", false, true);
+        assertTrue(pattern.matcher("xxabcdddexx").matches());
+        assertFalse(pattern.matcher("xxacdddexx").matches());
+        assertTrue(ConnectionSnapshotService.likePattern("(.*)", false, true).matcher("x(.*)y").matches());
+        assertFalse(ConnectionSnapshotService.likePattern("(.*)", false, true).matcher("xy").matches());
+        assertTrue(ConnectionSnapshotService.likePattern("err", false, true).matcher("line1\nerror").matches());
+
+        // [3-2]
+        assertFalse(ConnectionSnapshotService.likePattern("ERR", false, true).matcher("error").matches());
+        assertTrue(ConnectionSnapshotService.likePattern("ERR", true, true).matcher("error").matches());
+
+        // [3-3]
+        Pattern escaped = ConnectionSnapshotService.likePattern("100\\%", false, true);
+        assertTrue(escaped.matcher("rate 100% ok").matches());
+        assertFalse(escaped.matcher("rate 1000 ok").matches());
+        assertTrue(ConnectionSnapshotService.likePattern("a\\_b", false, true).matcher("xa_bx").matches());
+        assertFalse(ConnectionSnapshotService.likePattern("a\\_b", false, true).matcher("xacbx").matches());
+        assertTrue(ConnectionSnapshotService.likePattern("a\\\\b", false, true).matcher("a\\b").matches());
+        assertTrue(ConnectionSnapshotService.likePattern("end\\", false, true).matcher("the end\\").matches());
+        assertTrue(ConnectionSnapshotService.likePattern("a\\_b", false, false).matcher("a\\xb").matches());
+        assertFalse(ConnectionSnapshotService.likePattern("a\\_b", false, false).matcher("a_b").matches());
+    }
+}
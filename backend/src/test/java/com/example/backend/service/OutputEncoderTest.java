@@ -0,0 +1,197 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OutputEncoder クラスのテスト
+ */
+public class OutputEncoderTest {
+
+    /*
+     * [1] writeXmlEntries のテスト
+     * [1-1] 従来の String 置換による変換結果と UTF-8 バイト列が完全に一致すること <br>
+     * [1-2] 不正なサロゲートは String#getBytes と同様に '?' となること
+     */
+    @Test
+    void testWriteXmlEntries() {
+        // [1-1]
+        List<ErrorMessageDto> list = new ArrayList<>();
+        String[] messages = { "plain", "a&b<c>d\"e'f", "日本語 & 絵文字 😀", "", null, "末尾&" };
+        for (int i = 0; i < messages.length; i++) {
+            ErrorMessageDto dto = new ErrorMessageDto();
+            dto.setErrorNo(i == 2 ? null : "E" + i);
+            dto.setErrorType(String.valueOf(i % 5));
+            dto.setCountry1(messages[i]);
+            dto.setCountry3(messages[messages.length - 1 - i]);
+            list.add(dto);
+        }
+        for (String lang : List.of("country1", "country3", "unknown")) {
+            assertArrayEquals(legacyXml(list, lang).getBytes(StandardCharsets.UTF_8), xmlEntries(list, lang),
+                    "[1-1] lang=" + lang);
+        }
+
+        // [1-2]
+        ErrorMessageDto broken = new ErrorMessageDto();
+        broken.setErrorNo("E");
+        broken.setErrorType("1");
+        broken.setCountry1("x\uD83Dy\uDE00z");
+        assertArrayEquals(legacyXml(List.of(broken), "country1").getBytes(StandardCharsets.UTF_8),
+                xmlEntries(List.of(broken), "country1"));
+    }
+
+    /*
+     * [2] writeProperties (UTF-8) のテスト
+     * [2-1] 従来の String 置換による変換結果とバイト列が完全に一致すること <br>
+     * [2-2] 空白のみのキーは出力されず、改行のみのキーはエスケープされて出力されること
+     */
+    @Test
+    void testWritePropertiesUtf8() {
+        // [2-1]
+        List<SLocalizationLabel> labels = new ArrayList<>();
+        labels.add(label("key.one", null, "value=1:#!\\"));
+        labels.add(label("key:two=", "user.key", "改行\r\nあり"));
+        labels.add(label("key.three", " ", null));
+        labels.add(label("key\\four", null, "😀"));
+        for (String lang : List.of("country1", "country2")) {
+            assertArrayEquals(legacyProperties(labels, lang).getBytes(StandardCharsets.UTF_8),
+                    properties(labels, lang, OutputEncoder.PropertiesCharset.UTF_8), "[2-1] lang=" + lang);
+        }
+
+        // [2-2]
+        List<SLocalizationLabel> blankKeys = List.of(label("  ", null, "a"), label("\n", null, "b"));
+        assertArrayEquals(legacyProperties(blankKeys, "country1").getBytes(StandardCharsets.UTF_8),
+                properties(blankKeys, "country1", OutputEncoder.PropertiesCharset.UTF_8));
+        assertEquals("\\n=b\n",
+                new String(properties(blankKeys, "country1", OutputEncoder.PropertiesCharset.UTF_8),
+                        StandardCharsets.UTF_8));
+    }
+
+    /*
+     * [3] writeProperties (ISO-8859-1) のテスト
+     * [3-1] 出力が ASCII のみで構成されること <br>
+     * [3-2] java.util.Properties で読み込むと元の値に戻ること
+     */
+    @Test
+    void testWritePropertiesIso88591() throws IOException {
+        List<SLocalizationLabel> labels = List.of(
+                label("greeting", null, "こんにちは 😀\tタブ"),
+                label("symbols", null, "a=b:c#d!e\\f"),
+                label("latin", null, "café"));
+        byte[] bytes = properties(labels, "country1", OutputEncoder.PropertiesCharset.ISO_8859_1);
+
+        // [3-1]
+        for (byte b : bytes) {
+            assertTrue(b >= 0, "[3-1] non-ASCII byte: " + b);
+        }
+
+        // [3-2]
+        Properties loaded = new Properties();
+        loaded.load(new ByteArrayInputStream(bytes));
+        assertEquals("こんにちは 😀\tタブ", loaded.getProperty("greeting"));
+        assertEquals("a=b:c#d!e\\f", loaded.getProperty("symbols"));
+        assertEquals("café", loaded.getProperty("latin"));
+    }
+
+    /*
+     * [4] バッファプールのテスト
+     * [4-1] 返却したバッファを再取得した場合に空の状態であること
+     */
+    @Test
+    void testBufferPool() {
+        EncodedBuffer buffer = OutputEncoder.acquire();
+        buffer.writeUtf8("dirty");
+        OutputEncoder.release(buffer);
+
+        // [4-1]
+        EncodedBuffer reused = OutputEncoder.acquire();
+        assertEquals(0, reused.size());
+        OutputEncoder.release(reused);
+    }
+
+    private static byte[] xmlEntries(List<ErrorMessageDto> list, String lang) {
+        EncodedBuffer buffer = OutputEncoder.acquire();
+        try {
+            OutputEncoder.writeXmlEntries(list, lang, buffer);
+            return buffer.toByteArray();
+        } finally {
+            OutputEncoder.release(buffer);
+        }
+    }
+
+    private static byte[] properties(List<SLocalizationLabel> labels, String lang,
+            OutputEncoder.PropertiesCharset charset) {
+        EncodedBuffer buffer = OutputEncoder.acquire();
+        try {
+            OutputEncoder.writeProperties(labels, lang, charset, buffer);
+            return buffer.toByteArray();
+        } finally {
+            OutputEncoder.release(buffer);
+        }
+    }
+
+    private static SLocalizationLabel label(String objectID, String userKey, String country1) {
+        SLocalizationLabel label = new SLocalizationLabel();
+        label.setObjectID(objectID);
+        label.setUserKey(userKey);
+        label.setCountry1(country1);
+        label.setCountry2(country1 == null ? "v" : country1 + "2");
+        return label;
+    }
+
+    // 以下は OutputEncoder 導入前の変換処理（出力互換性の比較用）
+
+    private static String legacyXml(List<ErrorMessageDto> list, String lang) {
+        StringBuilder sb = new StringBuilder();
+        for (ErrorMessageDto dto : list) {
+            String type = switch (dto.getErrorType()) {
+                case "1" -> "error";
+                case "2" -> "warning";
+                default -> "info";
+            };
+            String message = switch (lang) {
+                case "country1" -> dto.getCountry1();
+                case "country3" -> dto.getCountry3();
+                default -> dto.getCountry1();
+            };
+            String safeMessage = (message != null) ? message : "";
+            safeMessage = safeMessage.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                    .replace("\"", "&quot;").replace("'", "&apos;");
+            sb.append(String.format("  <error code=\"%s\">\n", dto.getErrorNo()));
+            sb.append(String.format("    <type>%s</type>\n", type));
+            sb.append(String.format("    <message>%s</message>\n", safeMessage));
+            sb.append("  </error>\n");
+        }
+        return sb.toString();
+    }
+
+    private static String legacyProperties(List<SLocalizationLabel> labels, String langKey) {
+        StringBuilder sb = new StringBuilder();
+        for (SLocalizationLabel label : labels) {
+            String key = label.getObjectID();
+            if (label.getUserKey() != null && !label.getUserKey().trim().isEmpty()) {
+                key = label.getUserKey();
+            }
+            String value = "country2".equals(langKey) ? label.getCountry2() : label.getCountry1();
+            String safeValue = (value != null) ? value : "";
+            key = key.replace("=", "\\=").replace(":", "\\:").replace("#", "\\#").replace("!", "\\!")
+                    .replace("\n", "\\n").replace("\r", "\\r");
+            safeValue = safeValue.replace("\\", "\\\\").replace("=", "\\=").replace(":", "\\:").replace("#", "\\#")
+                    .replace("!", "\\!").replace("\n", "\\n").replace("\r", "\\r");
+            if (key != null && !key.trim().isEmpty()) {
+                sb.append(key).append("=").append(safeValue).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+}
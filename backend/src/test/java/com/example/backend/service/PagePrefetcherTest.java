@@ -0,0 +1,145 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.PagedResponseDto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PagePrefetcher クラスのテスト
+ */
+public class PagePrefetcherTest {
+
+    private static final PagedResponseDto<String> PAGE_0 = new PagedResponseDto<>(List.of("a", "b"), 10);
+    private static final PagedResponseDto<String> PAGE_1 = new PagedResponseDto<>(List.of("c", "d"), 10);
+
+    /*
+     * [1] onServed / take のテスト
+     * [1-1] 連続しないページでは先読みしないこと <br>
+     * [1-2] 連続したページでは、返却したページの最後の objectID の後ろから次ページを先読みし、take で取り出せること <br>
+     * [1-3] 最終ページ・件数に満たないページでは先読みしないこと
+     */
+    @Test
+    void testPrefetch() {
+        List<String> loaded = new CopyOnWriteArrayList<>();
+        PagePrefetcher<String> prefetcher = new PagePrefetcher<>(Function.identity(), 8, 60_000, 5000, 1);
+        PagePrefetcher.PageLoader<String> loader = (after, ticket) -> {
+            loaded.add(after);
+            return new PagedResponseDto<>(List.of(after + "+1", after + "+2"), 10);
+        };
+
+        // [1-1]
+        prefetcher.onServed("s1", "stream", 0, 2, PAGE_0, loader);
+        assertNull(prefetcher.take("stream", 1));
+        assertEquals(0L, prefetcher.getStats().get("prefetchesIssued"));
+
+        // [1-2]
+        prefetcher.onServed("s1", "stream", 1, 2, PAGE_1, loader);
+        PagedResponseDto<String> prefetched = prefetcher.take("stream", 2);
+        assertNotNull(prefetched);
+        assertEquals(List.of("d+1", "d+2"), prefetched.getContent());
+        assertEquals(List.of("d"), loaded);
+        assertNull(prefetcher.take("stream", 2));
+
+        // [1-3]
+        prefetcher.onServed("s1", "stream", 2, 2, new PagedResponseDto<>(List.of("e"), 10), loader);
+        prefetcher.onServed("s1", "stream", 3, 2, new PagedResponseDto<>(List.of("g", "h"), 8), loader);
+        assertEquals(1, loaded.size());
+        Map<String, Object> stats = prefetcher.getStats();
+        assertEquals(1L, stats.get("prefetchesIssued"));
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(2L, stats.get("misses"));
+    }
+
+    /*
+     * [2] 先読みの無効化のテスト
+     * [2-1] 同じセッションでフィルター（ストリーム）が変わると、実行中の先読みがキャンセルされ取り出せなくなること <br>
+     * [2-2] 別のセッションの先読みはキャンセルされないこと
+     */
+    @Test
+    void testInvalidation() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        List<QueryTicket> tickets = new CopyOnWriteArrayList<>();
+        PagePrefetcher<String> prefetcher = new PagePrefetcher<>(Function.identity(), 8, 60_000, 5000, 2);
+        PagePrefetcher.PageLoader<String> loader = (after, ticket) -> {
+            tickets.add(ticket);
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new PagedResponseDto<>(List.of(after + "+1", after + "+2"), 10);
+        };
+        try {
+            prefetcher.onServed("s1", "filterA", 0, 2, PAGE_0, loader);
+            prefetcher.onServed("s1", "filterA", 1, 2, PAGE_1, loader);
+            prefetcher.onServed("s2", "filterC", 0, 2, PAGE_0, loader);
+            prefetcher.onServed("s2", "filterC", 1, 2, PAGE_1, loader);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (tickets.size() < 2) {
+                assertTrue(System.currentTimeMillis() < deadline, "timed out");
+                Thread.sleep(5);
+            }
+
+            // [2-1]
+            prefetcher.onServed("s1", "filterB", 0, 2, PAGE_0, loader);
+            assertEquals(1, tickets.stream().filter(QueryTicket::isCancelled).count());
+            assertNull(prefetcher.take("filterA", 2));
+            assertEquals(1L, prefetcher.getStats().get("prefetchesWasted"));
+
+            // [2-2]
+            gate.countDown();
+            PagedResponseDto<String> prefetched = prefetcher.take("filterC", 2);
+            assertNotNull(prefetched);
+            assertEquals(List.of("d+1", "d+2"), prefetched.getContent());
+            assertEquals(1L, prefetcher.getStats().get("prefetchesWasted"));
+        } finally {
+            gate.countDown();
+        }
+    }
+
+    /*
+     * [3] stop のテスト
+     * [3-1] 実行中の先読みがキャンセルされ、先読み用のスレッドが中断されること <br>
+     * [3-2] 停止後は先読みせず、取り出せないこと
+     */
+    @Test
+    void testStop() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        List<QueryTicket> tickets = new CopyOnWriteArrayList<>();
+        PagePrefetcher<String> prefetcher = new PagePrefetcher<>(Function.identity(), 8, 60_000, 5000, 1);
+        PagePrefetcher.PageLoader<String> loader = (after, ticket) -> {
+            tickets.add(ticket);
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return PAGE_1;
+        };
+        prefetcher.onServed("s1", "stream", 0, 2, PAGE_0, loader);
+        prefetcher.onServed("s1", "stream", 1, 2, PAGE_1, loader);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // [3-1]
+        prefetcher.stop();
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(tickets.get(0).isCancelled());
+
+        // [3-2]
+        assertNull(prefetcher.take("stream", 2));
+        prefetcher.onServed("s1", "stream", 2, 2, PAGE_1, loader);
+        assertEquals(1L, prefetcher.getStats().get("prefetchesIssued"));
+        assertEquals(0, prefetcher.getStats().get("cachedPages"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ParallelConversionService クラスのテスト
+ */
+public class ParallelConversionServiceTest {
+
+    private ErrorMessageService errorMessageService;
+    private SLocalizationLabelService labelService;
+    private ParallelConversionService parallel;
+
+    @BeforeEach
+    void setUp() {
+        errorMessageService = new ErrorMessageService(null, null);
+        labelService = new SLocalizationLabelService();
+        // 閾値10件・チャンク7件として、端数のあるチャンク分割を発生させる
+        parallel = new ParallelConversionService(10, 7, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallel.stop();
+    }
+
+    /*
+     * [1] convertToXmlBytes のテスト
+     * [1-1] 閾値以上の件数で、convertToXml の UTF-8 バイト列と完全に一致すること <br>
+     * [1-2] 閾値未満の件数 (逐次変換) でも一致すること <br>
+     * [1-3] 0件の場合もヘッダー・フッターのみで一致すること
+     */
+    @Test
+    void testConvertToXmlBytes() {
+        // [1-1]
+        List<ErrorMessageDto> list = errorMessages(1000);
+        for (String lang : List.of("country1", "country2", "country5", "unknown")) {
+            assertArrayEquals(errorMessageService.convertToXml(list, lang).getBytes(StandardCharsets.UTF_8),
+                    parallel.convertToXmlBytes(list, lang), "[1-1] lang=" + lang);
+        }
+
+        // [1-2]
+        List<ErrorMessageDto> small = errorMessages(9);
+        assertArrayEquals(errorMessageService.convertToXml(small, "country2").getBytes(StandardCharsets.UTF_8),
+                parallel.convertToXmlBytes(small, "country2"));
+
+        // [1-3]
+        assertArrayEquals(errorMessageService.convertToXml(List.of(), "country1").getBytes(StandardCharsets.UTF_8),
+                parallel.convertToXmlBytes(List.of(), "country1"));
+    }
+
+    /*
+     * [2] convertToPropertiesBytes のテスト
+     * [2-1] 閾値以上の件数で、convertToProperties の UTF-8 バイト列と完全に一致すること <br>
+     * [2-2] 閾値ちょうど・チャンクサイズの倍数の件数でも一致すること
+     */
+    @Test
+    void testConvertToPropertiesBytes() {
+        // [2-1]
+        List<SLocalizationLabel> labels = labels(1001);
+        for (String lang : List.of("country1", "country3", "country4")) {
+            assertArrayEquals(labelService.convertToProperties(labels, lang).getBytes(StandardCharsets.UTF_8),
+                    parallel.convertToPropertiesBytes(labels, lang), "[2-1] lang=" + lang);
+        }
+
+        // [2-2]
+        for (int size : List.of(10, 14, 70)) {
+            List<SLocalizationLabel> sized = labels(size);
+            assertArrayEquals(labelService.convertToProperties(sized, "country2").getBytes(StandardCharsets.UTF_8),
+                    parallel.convertToPropertiesBytes(sized, "country2"), "[2-2] size=" + size);
+        }
+    }
+
+    /*
+     * [3] 変換失敗時のテスト
+     * [3-1] 並列変換中の例外は convertToXml と同様に RuntimeException として送出されること
+     */
+    @Test
+    void testConvertToXmlBytesFailure() {
+        // [3-1]
+        List<ErrorMessageDto> list = errorMessages(50);
+        list.get(33).setErrorType(null);
+
+        assertThrows(RuntimeException.class, () -> parallel.convertToXmlBytes(list, "country1"));
+    }
+
+    private static List<ErrorMessageDto> errorMessages(int count) {
+        List<ErrorMessageDto> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ErrorMessageDto dto = new ErrorMessageDto();
+            dto.setObjectID(String.format("OBJ%05d", i));
+            dto.setErrorNo(i % 97 == 0 ? null : "E-" + i);
+            dto.setErrorType(String.valueOf(i % 6));
+            dto.setCountry1("Error <" + i + "> & \"quoted\" 'single'");
+            dto.setCountry2(i % 5 == 0 ? null : "エラー" + i + "が発生しました");
+            dto.setCountry3("Mensaje " + i);
+            dto.setCountry4("絵文字 😀 " + i);
+            dto.setCountry5(i % 3 == 0 ? "" : "Fehler\n" + i);
+            list.add(dto);
+        }
+        return list;
+    }
+
+    private static List<SLocalizationLabel> labels(int count) {
+        List<SLocalizationLabel> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SLocalizationLabel label = new SLocalizationLabel();
+            label.setObjectID("label.key:" + i + "=#!");
+            label.setCategoryName("category" + (i % 4));
+            if (i % 11 == 0) {
+                label.setUserKey("user.key." + i);
+            }
+            label.setCountry1("Value=" + i + " : # ! \\ end");
+            label.setCountry2(i % 7 == 0 ? null : "値" + i + "\r\n改行");
+            label.setCountry3("👍 " + i);
+            label.setCountry4("");
+            label.setCountry5("v" + i);
+            list.add(label);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * QueryCancellationRegistry クラスのテスト
+ */
+public class QueryCancellationRegistryTest {
+
+    /*
+     * [1] begin のテスト
+     * [1-1] 同じセッションで新しい世代が始まると、前世代のチケットと実行中の Statement がキャンセルされること <br>
+     * [1-2] 実行中の世代より古い世代のリクエストは、そのリクエスト自体がキャンセルされること <br>
+     * [1-3] キャンセル後に Statement を登録すると閉じたうえで QueryCancelledException となること <br>
+     * [1-4] 完了 (close) したチケットは次の世代でキャンセルされず、別のセッションにも影響しないこと <br>
+     * [1-5] セッションIDが無い場合はキャンセル管理しないこと
+     */
+    @Test
+    void testBegin() throws Exception {
+        QueryCancellationRegistry registry = new QueryCancellationRegistry();
+        List<String> calls = new ArrayList<>();
+
+        // [1-1]
+        QueryTicket first = registry.begin("s1", 1);
+        first.register(statement("first", calls));
+        QueryTicket second = registry.begin("s1", 2);
+        assertTrue(first.isCancelled());
+        assertFalse(second.isCancelled());
+        assertEquals(List.of("first.cancel"), calls);
+        assertEquals(1, registry.getCancelledCount());
+
+        // [1-2]
+        QueryTicket stale = registry.begin("s1", 1);
+        assertTrue(stale.isCancelled());
+        assertFalse(second.isCancelled());
+        assertEquals(2, registry.getCancelledCount());
+
+        // [1-3]
+        calls.clear();
+        assertThrows(QueryCancelledException.class, () -> stale.register(statement("stale", calls)));
+        assertEquals(List.of("stale.close"), calls);
+
+        // [1-4]
+        QueryTicket other = registry.begin("s2", 1);
+        second.close();
+        QueryTicket third = registry.begin("s1", 3);
+        assertFalse(second.isCancelled());
+        assertFalse(third.isCancelled());
+        assertFalse(other.isCancelled());
+        assertEquals(2, registry.getCancelledCount());
+
+        // [1-5]
+        assertSame(QueryTicket.untracked(), registry.begin(null, 1));
+        assertSame(QueryTicket.untracked(), registry.begin("", 1));
+        registry.begin(null, 2);
+        assertFalse(QueryTicket.untracked().isCancelled());
+        assertEquals(2, registry.getCancelledCount());
+    }
+
+    /**
+     * cancel・close の呼び出しを記録する Statement
+     */
+    private static Statement statement(String name, List<String> calls) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { Statement.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "cancel", "close" -> calls.add(name + "." + method.getName());
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        default -> {
+                        }
+                    }
+                    return null;
+                });
+    }
+}
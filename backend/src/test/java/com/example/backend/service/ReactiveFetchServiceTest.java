@@ -0,0 +1,73 @@
+package com.example.backend.service;
+
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ReactiveFetchService クラスのテスト
+ */
+public class ReactiveFetchServiceTest {
+
+    /*
+     * [1] options のテスト
+     * [1-1] DB 種別ごとに R2DBC のドライバー名・接続先が設定されること <br>
+     * [1-2] MySQL は SSL を使用せず、パスワード未指定の場合はパスワードを設定しないこと <br>
+     * [1-3] 対応していない DB 種別は IllegalArgumentException となること
+     */
+    @Test
+    void testOptions() {
+        // [1-1]
+        ConnectionFactoryOptions postgres = ReactiveFetchService.options(config("PostgreSQL", "secret"));
+        assertEquals("postgresql", postgres.getValue(ConnectionFactoryOptions.DRIVER));
+        assertEquals("db.example", postgres.getValue(ConnectionFactoryOptions.HOST));
+        assertEquals(5432, postgres.getValue(ConnectionFactoryOptions.PORT));
+        assertEquals("resources", postgres.getValue(ConnectionFactoryOptions.DATABASE));
+        assertEquals("app", postgres.getValue(ConnectionFactoryOptions.USER));
+        assertEquals("secret", postgres.getValue(ConnectionFactoryOptions.PASSWORD).toString());
+        assertEquals("mssql", ReactiveFetchService.options(config("SQLServer", "secret"))
+                .getValue(ConnectionFactoryOptions.DRIVER));
+
+        // [1-2]
+        ConnectionFactoryOptions mysql = ReactiveFetchService.options(config("MySQL", null));
+        assertEquals("mysql", mysql.getValue(ConnectionFactoryOptions.DRIVER));
+        assertEquals(false, mysql.getValue(ConnectionFactoryOptions.SSL));
+        assertFalse(mysql.hasOption(ConnectionFactoryOptions.PASSWORD));
+
+        // [1-3]
+        assertThrows(IllegalArgumentException.class, () -> ReactiveFetchService.options(config("Oracle", "x")));
+        assertThrows(IllegalArgumentException.class, () -> ReactiveFetchService.options(config(null, "x")));
+    }
+
+    /*
+     * [2] toNamedParameters のテスト
+     * [2-1] ? が出現順に :p0, :p1, ... へ置き換えられること <br>
+     * [2-2] ? を含まない SQL は変更されないこと
+     */
+    @Test
+    void testToNamedParameters() {
+        // [2-1]
+        assertEquals("SELECT * FROM t WHERE 1=1 AND a LIKE :p0 AND (b LIKE :p1 OR c LIKE :p2) ORDER BY a",
+                ReactiveFetchService.toNamedParameters(
+                        "SELECT * FROM t WHERE 1=1 AND a LIKE ? AND (b LIKE ? OR c LIKE ?) ORDER BY a"));
+
+        // [2-2]
+        assertEquals("SELECT * FROM t WHERE 1=1", ReactiveFetchService.toNamedParameters("SELECT * FROM t WHERE 1=1"));
+    }
+
+    private static Map<String, Object> config(String dbType, String password) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("dbType", dbType);
+        config.put("host", "db.example");
+        config.put("port", 5432);
+        config.put("dbName", "resources");
+        config.put("username", "app");
+        config.put("password", password);
+        return config;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RowBitmap クラスのテスト
+ */
+public class RowBitmapTest {
+
+    /*
+     * [1] and / or / andCardinality のテスト
+     * [1-1] 疎（配列コンテナ）・密（ビットマップコンテナ）の組み合わせで BitSet と同じ結果になること <br>
+     * [1-2] 空集合との演算が空集合・元の集合となること
+     */
+    @Test
+    void testSetOperations() {
+        // [1-1]
+        Random random = new Random(42);
+        int rows = 300_000;
+        double[] densities = { 0.001, 0.02, 0.5, 0.9 };
+        for (double da : densities) {
+            for (double db : densities) {
+                BitSet a = randomBits(random, rows, da);
+                BitSet b = randomBits(random, rows, db);
+                RowBitmap x = toBitmap(a);
+                RowBitmap y = toBitmap(b);
+
+                BitSet and = (BitSet) a.clone();
+                and.and(b);
+                BitSet or = (BitSet) a.clone();
+                or.or(b);
+                assertEquals(and, toBitSet(x.and(y)), "and " + da + "/" + db);
+                assertEquals(or, toBitSet(x.or(y)), "or " + da + "/" + db);
+                assertEquals(and.cardinality(), x.andCardinality(y));
+                assertEquals(or.cardinality(), x.or(y).cardinality());
+            }
+        }
+
+        // [1-2]
+        RowBitmap some = toBitmap(randomBits(random, 1000, 0.3));
+        assertTrue(some.and(RowBitmap.EMPTY).isEmpty());
+        assertEquals(toBitSet(some), toBitSet(some.or(RowBitmap.EMPTY)));
+        assertEquals(toBitSet(some), toBitSet(RowBitmap.EMPTY.or(some)));
+    }
+
+    /*
+     * [2] forEach のテスト
+     * [2-1] skip / limit で行番号の昇順の部分列が得られること（コンテナ境界をまたぐ場合を含む） <br>
+     * [2-2] skip が要素数以上の場合は何も渡さないこと
+     */
+    @Test
+    void testForEach() {
+        BitSet bits = randomBits(new Random(7), 200_000, 0.1);
+        bits.set(65_535);
+        bits.set(65_536);
+        RowBitmap bitmap = toBitmap(bits);
+        List<Integer> expected = new ArrayList<>();
+        bits.stream().forEach(expected::add);
+
+        // [2-1]
+        for (int skip : new int[] { 0, 1, 5_000, 6_540, expected.size() - 3 }) {
+            List<Integer> actual = new ArrayList<>();
+            bitmap.forEach(skip, 50, actual::add);
+            assertEquals(expected.subList(skip, Math.min(expected.size(), skip + 50)), actual, "skip " + skip);
+        }
+
+        // [2-2]
+        List<Integer> none = new ArrayList<>();
+        bitmap.forEach(expected.size(), 10, none::add);
+        assertTrue(none.isEmpty());
+    }
+
+    /*
+     * [3] Builder / contains / all のテスト
+     * [3-1] 昇順でない追加は IllegalArgumentException となること <br>
+     * [3-2] contains が追加した行のみ真となること <br>
+     * [3-3] all(n) が 0 〜 n-1 の全行となること
+     */
+    @Test
+    void testBuilder() {
+        // [3-1]
+        RowBitmap.Builder builder = new RowBitmap.Builder().add(3);
+        assertThrows(IllegalArgumentException.class, () -> builder.add(3));
+
+        // [3-2]
+        RowBitmap bitmap = new RowBitmap.Builder().add(1).add(70_000).add(70_001).build();
+        assertTrue(bitmap.contains(1));
+        assertTrue(bitmap.contains(70_001));
+        assertFalse(bitmap.contains(2));
+        assertFalse(bitmap.contains(140_000));
+
+        // [3-3]
+        RowBitmap all = RowBitmap.all(100_000);
+        assertEquals(100_000, all.cardinality());
+        assertTrue(all.contains(99_999));
+        assertFalse(all.contains(100_000));
+    }
+
+    private static BitSet randomBits(Random random, int rows, double density) {
+        BitSet bits = new BitSet(rows);
+        for (int row = 0; row < rows; row++) {
+            if (random.nextDouble() < density) {
+                bits.set(row);
+            }
+        }
+        return bits;
+    }
+
+    private static RowBitmap toBitmap(BitSet bits) {
+        RowBitmap.Builder builder = new RowBitmap.Builder();
+        bits.stream().forEach(builder::add);
+        return builder.build();
+    }
+
+    private static BitSet toBitSet(RowBitmap bitmap) {
+        BitSet bits = new BitSet();
+        bitmap.forEach(bits::set);
+        return bits;
+    }
+}
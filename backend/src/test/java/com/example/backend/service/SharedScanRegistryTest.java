@@ -0,0 +1,139 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SharedScanRegistry クラスのテスト
+ */
+public class SharedScanRegistryTest {
+
+    /*
+     * [1] スキャン共有のテスト
+     * [1-1] 実行中のキーでは lead が null、join で購読できること <br>
+     * [1-2] 購読開始時点で配信済みの最後の objectID が boundary となり、以降のバッチだけを受け取ること <br>
+     * [1-3] 終了後は take が null を返し、新たな購読はできないこと
+     */
+    @Test
+    void testLeadAndJoin() throws Exception {
+        SharedScanRegistry registry = new SharedScanRegistry(true, 4, 60000);
+        SharedScanRegistry.Broadcast broadcast = registry.lead("k", "job-1");
+
+        // [1-1]
+        assertNotNull(broadcast);
+        assertNull(registry.lead("k", "job-2"));
+        SharedScanRegistry.Subscription first = registry.join("k");
+        assertNotNull(first);
+        assertNull(first.getBoundary());
+        assertEquals("job-1", first.getLeaderJobId());
+
+        // [1-2]
+        broadcast.publish(List.of("a", "b"), "b");
+        SharedScanRegistry.Subscription second = registry.join("k");
+        assertEquals("b", second.getBoundary());
+        broadcast.publish(List.of("c"), "c");
+        assertEquals(List.of("a", "b"), first.take());
+        assertEquals(List.of("c"), first.take());
+        assertEquals(List.of("c"), second.take());
+
+        // [1-3]
+        registry.end(broadcast, null);
+        assertNull(first.take());
+        assertNull(second.take());
+        assertNull(registry.join("k"));
+        assertNotNull(registry.lead("k", "job-3"));
+    }
+
+    /*
+     * [2] 配信元の失敗のテスト
+     * [2-1] 配信元が失敗した場合、購読側の take が IllegalStateException となること
+     */
+    @Test
+    void testLeaderFailure() throws Exception {
+        SharedScanRegistry registry = new SharedScanRegistry(true, 4, 60000);
+        SharedScanRegistry.Broadcast broadcast = registry.lead("k", "job-1");
+        SharedScanRegistry.Subscription subscription = registry.join("k");
+
+        // [2-1]
+        registry.end(broadcast, new RuntimeException("connection lost"));
+        IllegalStateException e = assertThrows(IllegalStateException.class, subscription::take);
+        assertTrue(e.getMessage().contains("connection lost"));
+    }
+
+    /*
+     * [3] バックプレッシャーのテスト
+     * [3-1] 購読側のキューが一杯の間は publish が待機し、消費されると再開すること <br>
+     * [3-2] 購読をやめた購読者がいても publish が待機し続けないこと
+     */
+    @Test
+    void testBackpressure() throws Exception {
+        SharedScanRegistry registry = new SharedScanRegistry(true, 1, 60000);
+        SharedScanRegistry.Broadcast broadcast = registry.lead("k", "job-1");
+        SharedScanRegistry.Subscription subscription = registry.join("k");
+        broadcast.publish(List.of("a"), "a");
+        broadcast.publish(List.of("b"), "b");
+
+        // [3-1]
+        Thread publisher = new Thread(() -> {
+            try {
+                broadcast.publish(List.of("c"), "c");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        publisher.start();
+        publisher.join(300);
+        assertTrue(publisher.isAlive());
+        assertEquals(List.of("a"), subscription.take());
+        publisher.join(5000);
+        assertFalse(publisher.isAlive());
+
+        // [3-2]
+        subscription.detach();
+        broadcast.publish(List.of("d"), "d");
+        broadcast.publish(List.of("e"), "e");
+        registry.end(broadcast, null);
+    }
+
+    /*
+     * [4] 成果物キャッシュのテスト
+     * [4-1] 期限内でファイルが残っている成果物が取得できること <br>
+     * [4-2] ファイルが削除された成果物は取得できないこと <br>
+     * [4-3] 期限切れ・無効時は取得できないこと
+     */
+    @Test
+    void testArtifactCache(@TempDir Path dir) throws Exception {
+        Path artifact = Files.writeString(dir.resolve("job-1.zip"), "data");
+        Path manifest = dir.resolve("job-1.manifest.json");
+
+        // [4-1]
+        SharedScanRegistry registry = new SharedScanRegistry(true, 4, 60000);
+        registry.putArtifact("c", "job-1", artifact, manifest);
+        SharedScanRegistry.CachedArtifact cached = registry.findArtifact("c");
+        assertNotNull(cached);
+        assertEquals("job-1", cached.getJobId());
+        assertEquals(artifact, cached.getArtifact());
+        assertEquals(manifest, cached.getManifest());
+        assertNull(registry.findArtifact("other"));
+
+        // [4-2]
+        Files.delete(artifact);
+        assertNull(registry.findArtifact("c"));
+
+        // [4-3]
+        Files.writeString(artifact, "data");
+        SharedScanRegistry expired = new SharedScanRegistry(true, 4, -1);
+        expired.putArtifact("c", "job-1", artifact, manifest);
+        assertNull(expired.findArtifact("c"));
+        SharedScanRegistry disabled = new SharedScanRegistry(false, 4, 60000);
+        disabled.putArtifact("c", "job-1", artifact, manifest);
+        assertNull(disabled.findArtifact("c"));
+        assertNull(disabled.lead("k", "job-1"));
+    }
+}
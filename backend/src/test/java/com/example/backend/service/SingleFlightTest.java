@@ -0,0 +1,90 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SingleFlight クラスのテスト
+ */
+public class SingleFlightTest {
+
+    /*
+     * [1] execute のテスト
+     * [1-1] 同じキーが実行中の呼び出しは実行されず、実行中の処理の結果を受け取ること <br>
+     * [1-2] 実行中の処理の例外は、まとめられた呼び出しにも同じ例外として伝わること <br>
+     * [1-3] 完了後の呼び出しは結果を再利用せずに新たに実行されること <br>
+     * [1-4] 異なるキーはまとめられないこと
+     */
+    @Test
+    void testExecute() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // [1-1]
+            CountDownLatch gate = new CountDownLatch(1);
+            AtomicInteger calls = new AtomicInteger();
+            Future<String> leader = executor.submit(() -> flight.execute("k", () -> {
+                calls.incrementAndGet();
+                await(gate);
+                return "v" + calls.get();
+            }));
+            await(() -> flight.getExecutedCount() == 1);
+            Future<String> follower = executor.submit(() -> flight.execute("k", () -> "not executed"));
+            await(() -> flight.getCoalescedCount() == 1);
+            gate.countDown();
+            assertEquals("v1", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("v1", follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+
+            // [1-2]
+            CountDownLatch failGate = new CountDownLatch(1);
+            IllegalStateException failure = new IllegalStateException("failed");
+            Future<String> failing = executor.submit(() -> flight.execute("k", () -> {
+                await(failGate);
+                throw failure;
+            }));
+            await(() -> flight.getExecutedCount() == 2);
+            Future<String> waiting = executor.submit(() -> flight.execute("k", () -> "not executed"));
+            await(() -> flight.getCoalescedCount() == 2);
+            failGate.countDown();
+            assertSame(failure, assertThrows(Exception.class, () -> failing.get(5, TimeUnit.SECONDS)).getCause());
+            assertSame(failure, assertThrows(Exception.class, () -> waiting.get(5, TimeUnit.SECONDS)).getCause());
+
+            // [1-3]
+            assertEquals("v2", flight.execute("k", () -> "v" + calls.incrementAndGet()));
+            assertEquals(3, flight.getExecutedCount());
+
+            // [1-4]
+            assertEquals("other", flight.execute("other", () -> "other"));
+            assertEquals(4, flight.getExecutedCount());
+            assertEquals(2, flight.getCoalescedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+}
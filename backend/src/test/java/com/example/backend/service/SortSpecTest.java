@@ -0,0 +1,139 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SortDto;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SortSpec クラスのテスト
+ */
+public class SortSpecTest {
+
+    private static final List<String> COLUMNS = List.of("objectID", "categoryName", "country1", "country2");
+
+    @TempDir
+    Path dir;
+
+    /*
+     * [1] parse のテスト
+     * [1-1] 未指定・objectID の昇順のみは既定の並び順となること <br>
+     * [1-2] 不明な列・方向・照合順序、重複した列は InvalidSortException となること <br>
+     * [1-3] 照合順序の指定または方向の混在は索引向きでないと判定されること
+     */
+    @Test
+    void testParse() {
+        // [1-1]
+        assertTrue(SortSpec.parse(null, COLUMNS).isDefault());
+        assertTrue(SortSpec.parse(List.of(new SortDto("objectID", "asc", null)), COLUMNS).isDefault());
+        SortSpec spec = SortSpec.parse(List.of(new SortDto("categoryName", null, null),
+                new SortDto("objectID", null, null), new SortDto("country1", null, null)), COLUMNS);
+        assertEquals(List.of("categoryName"), spec.columns());
+
+        // [1-2]
+        assertThrows(InvalidSortException.class,
+                () -> SortSpec.parse(List.of(new SortDto("password", null, null)), COLUMNS));
+        assertThrows(InvalidSortException.class,
+                () -> SortSpec.parse(List.of(new SortDto("country1", "sideways", null)), COLUMNS));
+        assertThrows(InvalidSortException.class,
+                () -> SortSpec.parse(List.of(new SortDto("country1", null, "!!")), COLUMNS));
+        assertThrows(InvalidSortException.class, () -> SortSpec.parse(
+                List.of(new SortDto("country1", null, null), new SortDto("country1", "desc", null)), COLUMNS));
+
+        // [1-3]
+        assertTrue(SortSpec.parse(List.of(new SortDto("categoryName", "desc", null),
+                new SortDto("country1", "DESC", null)), COLUMNS).isIndexFriendly());
+        assertFalse(SortSpec.parse(List.of(new SortDto("categoryName", "asc", null),
+                new SortDto("country1", "desc", null)), COLUMNS).isIndexFriendly());
+        assertFalse(SortSpec.parse(List.of(new SortDto("country1", null, "ja")), COLUMNS).isIndexFriendly());
+    }
+
+    /*
+     * [2] SQL 生成のテスト
+     * [2-1] ORDER BY の最後に objectID の昇順が付くこと <br>
+     * [2-2] カーソルの条件が (ソートキー, objectID) の組の比較に展開されること
+     */
+    @Test
+    void testSql() {
+        SortSpec spec = SortSpec.parse(List.of(new SortDto("categoryName", "asc", null),
+                new SortDto("country1", "desc", null)), COLUMNS);
+
+        // [2-1]
+        assertEquals(" ORDER BY c.categoryName ASC, c.country1 DESC, c.objectID ASC",
+                spec.orderBy(c -> "c." + c, "c.objectID"));
+
+        // [2-2]
+        StringBuilder where = new StringBuilder("WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        spec.appendSeek(c -> "c." + c, "c.objectID", new String[] { "cat", "text", "ID9" }, where, params);
+        assertEquals("WHERE 1=1 AND c.categoryName >= ? AND ((c.categoryName > ?)"
+                + " OR (c.categoryName = ? AND c.country1 < ?)"
+                + " OR (c.categoryName = ? AND c.country1 = ? AND c.objectID > ?))", where.toString());
+        assertEquals(List.of("cat", "cat", "cat", "text", "cat", "text", "ID9"), params);
+    }
+
+    /*
+     * [3] カーソルのテスト
+     * [3-1] 符号化したソートキーが復元されること（区切り文字を含む値・空文字を含む） <br>
+     * [3-2] 別の並び順のカーソル、不正な文字列は InvalidSortException となること
+     */
+    @Test
+    void testCursor() {
+        SortSpec spec = SortSpec.parse(List.of(new SortDto("country1", null, "ja")), COLUMNS);
+
+        // [3-1]
+        String[] tuple = spec.tuple(new String[] { "12:値:3" }, "ID:1");
+        assertArrayEquals(tuple, spec.decodeCursor(spec.encodeCursor(tuple)));
+        String[] empty = spec.tuple(new String[] { null }, "ID2");
+        assertArrayEquals(new String[] { "", "ID2" }, spec.decodeCursor(spec.encodeCursor(empty)));
+
+        // [3-2]
+        SortSpec other = SortSpec.parse(List.of(new SortDto("country1", "desc", "ja")), COLUMNS);
+        String cursor = spec.encodeCursor(tuple);
+        assertThrows(InvalidSortException.class, () -> other.decodeCursor(cursor));
+        assertThrows(InvalidSortException.class, () -> spec.decodeCursor("not a cursor"));
+    }
+
+    /*
+     * [4] スナップショット上の並べ替えのテスト
+     * [4-1] ソートキーが同じ行は objectID 順となり、null は空文字として先頭に並ぶこと <br>
+     * [4-2] 照合順序を指定した場合は言語の規則で並ぶこと（大文字小文字・アクセント）
+     */
+    @Test
+    void testSortRows() throws Exception {
+        Path file = dir.resolve("sort.snap");
+        try (MappedSnapshotWriter writer = new MappedSnapshotWriter(file, dir)) {
+            writer.beginSection("labels", new String[] { "objectID", "categoryName", "country1" }, "");
+            writer.addRow("A1", "b", "apple");
+            writer.addRow("A2", "a", "Banana");
+            writer.addRow("A3", "b", "éclair");
+            writer.addRow("A4", null, "cherry");
+            writer.addRow("A5", "a", "banana");
+            writer.endSection();
+            writer.finish();
+        }
+        MappedSnapshot snapshot = MappedSnapshot.open(file);
+        MappedSnapshot.Section section = snapshot.section("labels");
+
+        // [4-1]
+        SortSpec byCategory = SortSpec.parse(List.of(new SortDto("categoryName", "desc", null)), COLUMNS);
+        assertEquals("[A1, A3, A2, A5, A4]", ids(section, ConnectionSnapshotService.sortRows(section, byCategory)));
+
+        // [4-2]
+        SortSpec binary = SortSpec.parse(List.of(new SortDto("country1", null, null)), COLUMNS);
+        assertEquals("[A2, A1, A5, A4, A3]", ids(section, ConnectionSnapshotService.sortRows(section, binary)));
+        SortSpec english = SortSpec.parse(List.of(new SortDto("country1", null, "en")), COLUMNS);
+        assertEquals("[A1, A5, A2, A4, A3]", ids(section, ConnectionSnapshotService.sortRows(section, english)));
+    }
+
+    private static String ids(MappedSnapshot.Section section, int[] order) {
+        return Arrays.toString(Arrays.stream(order).mapToObj(row -> section.get(0, row)).toArray());
+    }
+}
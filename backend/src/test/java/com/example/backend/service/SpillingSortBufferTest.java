@@ -0,0 +1,151 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SpillingSortBuffer クラスのテスト
+ */
+public class SpillingSortBufferTest {
+
+    private static final SpillingSortBuffer.RowCodec<SLocalizationLabel> LABEL_CODEC = new SpillingSortBuffer.RowCodec<>() {
+        @Override
+        public String[] toFields(SLocalizationLabel l) {
+            return new String[] { l.getObjectID(), l.getCategoryName(), l.getCountry1(), l.getCountry2(),
+                    l.getCountry3(), l.getCountry4(), l.getCountry5() };
+        }
+
+        @Override
+        public SLocalizationLabel fromFields(String[] f) {
+            return new SLocalizationLabel(f[0], f[1], f[2], f[3], f[4], f[5], f[6]);
+        }
+    };
+
+    private static final SpillingSortBuffer.RowCodec<ErrorMessageDto> ERROR_MESSAGE_CODEC = new SpillingSortBuffer.RowCodec<>() {
+        @Override
+        public String[] toFields(ErrorMessageDto e) {
+            return new String[] { e.getObjectID(), e.getErrorNo(), e.getErrorType(), e.getMessageObjectID(),
+                    e.getCountry1(), e.getCountry2(), e.getCountry3(), e.getCountry4(), e.getCountry5() };
+        }
+
+        @Override
+        public ErrorMessageDto fromFields(String[] f) {
+            return new ErrorMessageDto(f[0], f[1], f[2], f[3], f[4], f[5], f[6], f[7], f[8]);
+        }
+    };
+
+    @TempDir
+    Path dir;
+
+    /*
+     * [1] forEachSorted のテスト
+     * [1-1] 上限を超えない場合は一時ファイルを作らずに並べ替えること <br>
+     * [1-2] 上限を超えた分をランとして退避し、マージ結果が全件の並べ替えと一致すること <br>
+     * [1-3] ランの数が mergeFanIn を超える場合は事前にまとめ、結果が変わらないこと <br>
+     * [1-4] close() で一時ファイルが削除されること
+     */
+    @Test
+    void testForEachSorted() throws Exception {
+        Comparator<SLocalizationLabel> byId = Comparator.comparing(SLocalizationLabel::getObjectID);
+
+        // [1-1]
+        try (SpillingSortBuffer<SLocalizationLabel> buffer = new SpillingSortBuffer<>(byId,
+                LABEL_CODEC, 1L << 20, 4, dir, null)) {
+            buffer.add(label("b"));
+            buffer.add(label("a"));
+            List<String> ids = new ArrayList<>();
+            buffer.forEachSorted(l -> ids.add(l.getObjectID()));
+            assertEquals(List.of("a", "b"), ids);
+            assertEquals(0, buffer.getSpilledRuns());
+        }
+
+        // [1-2]
+        List<SLocalizationLabel> rows = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 3000; i++) {
+            rows.add(label(String.format("L%06d", random.nextInt(1_000_000))));
+        }
+        List<String> expected = rows.stream().map(SLocalizationLabel::getObjectID).sorted().toList();
+        try (SpillingSortBuffer<SLocalizationLabel> buffer = new SpillingSortBuffer<>(byId,
+                LABEL_CODEC, 50_000, 64, dir, null)) {
+            for (SLocalizationLabel row : rows) {
+                buffer.add(row);
+            }
+            List<String> ids = new ArrayList<>();
+            buffer.forEachSorted(l -> ids.add(l.getObjectID()));
+            assertEquals(expected, ids);
+            assertTrue(buffer.getSpilledRuns() > 1);
+            assertTrue(buffer.getSpilledBytes() > 0);
+            assertEquals(0, buffer.getMergePasses());
+        }
+
+        // [1-3]
+        SpillingSortBuffer<SLocalizationLabel> buffer = new SpillingSortBuffer<>(byId,
+                LABEL_CODEC, 20_000, 3, dir, null);
+        for (SLocalizationLabel row : rows) {
+            buffer.add(row);
+        }
+        List<String> ids = new ArrayList<>();
+        buffer.forEachSorted(l -> ids.add(l.getObjectID()));
+        assertEquals(expected, ids);
+        assertTrue(buffer.getMergePasses() > 0);
+        assertThrows(IllegalStateException.class, () -> buffer.forEachSorted(l -> {
+        }));
+
+        // [1-4]
+        buffer.close();
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    /*
+     * [2] ランの符号化のテスト
+     * [2-1] null・空文字・非ASCII文字を含む列が書き出し前と同じ値に戻ること
+     */
+    @Test
+    void testRoundTrip() throws Exception {
+        // [2-1]
+        List<ErrorMessageDto> rows = List.of(
+                new ErrorMessageDto("E2", null, "", "M2", "エラー", null, "x", "", "𠮷"),
+                new ErrorMessageDto("E1", "001", "WARN", null, null, null, null, null, null),
+                new ErrorMessageDto("E3", "003", "ERROR", "M3", "a".repeat(300), "b", "c", "d", "e"));
+        try (SpillingSortBuffer<ErrorMessageDto> buffer = new SpillingSortBuffer<>(
+                Comparator.comparing(ErrorMessageDto::getObjectID), ERROR_MESSAGE_CODEC, 1, 4,
+                dir, null)) {
+            for (ErrorMessageDto row : rows) {
+                buffer.add(row);
+            }
+            assertEquals(3, buffer.getSpilledRuns());
+            List<ErrorMessageDto> sorted = new ArrayList<>();
+            buffer.forEachSorted(sorted::add);
+            assertEquals(List.of("E1", "E2", "E3"), sorted.stream().map(ErrorMessageDto::getObjectID).toList());
+            ErrorMessageDto e2 = sorted.get(1);
+            assertNull(e2.getErrorNo());
+            assertEquals("", e2.getErrorType());
+            assertEquals("エラー", e2.getCountry1());
+            assertNull(e2.getCountry2());
+            assertEquals("", e2.getCountry4());
+            assertEquals("𠮷", e2.getCountry5());
+            assertEquals("a".repeat(300), sorted.get(2).getCountry1());
+            assertNull(sorted.get(0).getMessageObjectID());
+        }
+    }
+
+    private static SLocalizationLabel label(String objectID) {
+        return new SLocalizationLabel(objectID, "cat", objectID + "-1", null, "", "日本語", objectID);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.backend.service;
+
+import com.example.backend.service.format.AndroidStringsFormat;
+import com.example.backend.service.format.ErrorXmlFormat;
+import com.example.backend.service.format.I18nextFormat;
+import com.example.backend.service.format.IosStringsFormat;
+import com.example.backend.service.format.JsonFormat;
+import com.example.backend.service.format.OutputFormatRegistry;
+import com.example.backend.service.format.PropertiesFormat;
+import com.example.backend.service.format.YamlFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StartupWarmup クラスのテスト
+ */
+public class StartupWarmupTest {
+
+    // 閾値10件として、ウォームアップで並列変換の経路も通るようにする
+    private final ParallelConversionService conversionService = new ParallelConversionService(10, 7, 2);
+    private final OutputFormatRegistry registry = new OutputFormatRegistry(List.of(
+            new PropertiesFormat(), new ErrorXmlFormat(), new JsonFormat(), new YamlFormat(),
+            new I18nextFormat(), new AndroidStringsFormat(), new IosStringsFormat()));
+
+    @AfterEach
+    void tearDown() {
+        conversionService.stop();
+    }
+
+    /*
+     * [1] run のテスト
+     * [1-1] 有効時は指定回数実行され、所要時間と回数が起動レポートに記録されること <br>
+     * [1-2] 有効時は開始時に readiness を REFUSING_TRAFFIC とすること <br>
+     * [1-3] 無効時は実行されず、記録も readiness の変更も行われないこと
+     */
+    @Test
+    void testRun() {
+        // [1-1]
+        List<Object> events = new ArrayList<>();
+        StartupReport report = new StartupReport(new MockEnvironment());
+        new StartupWarmup(conversionService, registry, new ObjectMapper(), report, events::add, true, 3, 20, 60000)
+                .run(null);
+        assertEquals(3, report.getWarmupIterations());
+        assertTrue(report.getWarmupMillis() >= 0);
+
+        // [1-2]
+        assertEquals(1, events.size());
+        assertEquals(ReadinessState.REFUSING_TRAFFIC, ((AvailabilityChangeEvent<?>) events.get(0)).getState());
+
+        // [1-3]
+        events.clear();
+        StartupReport disabled = new StartupReport(new MockEnvironment());
+        new StartupWarmup(conversionService, registry, new ObjectMapper(), disabled, events::add, false, 3, 20,
+                60000).run(null);
+        assertEquals(0, disabled.getWarmupIterations());
+        assertEquals(-1, disabled.getWarmupMillis());
+        assertTrue(events.isEmpty());
+    }
+
+    /*
+     * [2] 合成データのテスト
+     * [2-1] 指定件数の行が objectID の昇順で生成されること
+     */
+    @Test
+    void testSamples() {
+        // [2-1]
+        assertEquals(5, StartupWarmup.sampleLabels(5).size());
+        assertEquals(5, StartupWarmup.sampleErrorMessages(5).size());
+        assertTrue(StartupWarmup.sampleLabels(12).get(10).getObjectID()
+                .compareTo(StartupWarmup.sampleLabels(12).get(9).getObjectID()) > 0);
+    }
+}
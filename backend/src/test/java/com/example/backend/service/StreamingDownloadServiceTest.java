@@ -0,0 +1,245 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StreamingDownloadService クラスのテスト
+ */
+public class StreamingDownloadServiceTest {
+
+    /** 出力が etag-max-bytes を超えない前提のテストで使用（呼ばれたら失敗） */
+    private static final StreamingDownloadService.ResponseOpener NO_STREAMING = download -> fail("streamed");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StreamingDownloadService service;
+    private ParallelConversionService parallel;
+
+    @BeforeEach
+    void setUp() {
+        // バッチ7件として、端数のあるバッチ分割を発生させる
+        service = new StreamingDownloadService(objectMapper, 7, 1024 * 1024);
+        parallel = new ParallelConversionService(10, 7, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallel.stop();
+    }
+
+    /*
+     * [1] readXml のテスト
+     * [1-1] lang を配列より前に置いた場合、convertToXmlBytes と同じ内容・ETag になること <br>
+     * [1-2] lang を配列より後に置いた場合は IllegalArgumentException となること <br>
+     * [1-3] クエリパラメータの lang が本文の lang より優先されること <br>
+     * [1-4] lang 未指定は country1、未知の項目は読み飛ばすこと
+     */
+    @Test
+    void testReadXml() throws IOException {
+        List<ErrorMessageDto> list = errorMessages(30);
+        byte[] expected = parallel.convertToXmlBytes(list, "country2");
+
+        // [1-1]
+        Map<String, Object> before = new LinkedHashMap<>();
+        before.put("lang", "country2");
+        before.put("messages", list);
+        try (StreamingDownloadService.EncodedDownload xml = service.readXml(json(before), null, NO_STREAMING)) {
+            assertArrayEquals(expected, bytes(xml));
+            assertEquals(ETags.of(expected), xml.getEtag());
+            assertEquals(30, xml.getRows());
+        }
+
+        // [1-2]
+        Map<String, Object> after = new LinkedHashMap<>();
+        after.put("messages", list);
+        after.put("lang", "country2");
+        assertThrows(IllegalArgumentException.class, () -> service.readXml(json(after), null, NO_STREAMING));
+
+        // [1-3]
+        // 配列より後の lang もクエリパラメータで指定済みであれば読み飛ばす
+        try (StreamingDownloadService.EncodedDownload xml = service.readXml(json(after), "country3", NO_STREAMING)) {
+            assertArrayEquals(parallel.convertToXmlBytes(list, "country3"), bytes(xml));
+            assertEquals("country3", xml.getLang());
+        }
+
+        // [1-4]
+        Map<String, Object> noLang = new LinkedHashMap<>();
+        noLang.put("extra", Map.of("nested", List.of(1, 2, 3)));
+        noLang.put("messages", list);
+        try (StreamingDownloadService.EncodedDownload xml = service.readXml(json(noLang), null, NO_STREAMING)) {
+            assertArrayEquals(parallel.convertToXmlBytes(list, "country1"), bytes(xml));
+        }
+    }
+
+    /*
+     * [2] readProperties のテスト
+     * [2-1] lang / encoding を配列より前に置いた場合、convertToPropertiesBytes と同じ内容になること <br>
+     * [2-2] encoding を配列より後に置いた場合は IllegalArgumentException となること <br>
+     * [2-3] クエリパラメータの encoding が使われること
+     */
+    @Test
+    void testReadProperties() throws IOException {
+        List<SLocalizationLabel> labels = labels(25);
+
+        // [2-1]
+        Map<String, Object> before = new LinkedHashMap<>();
+        before.put("lang", "country2");
+        before.put("encoding", "UTF-8");
+        before.put("labels", labels);
+        try (StreamingDownloadService.EncodedDownload properties = service.readProperties(json(before), null,
+                null, NO_STREAMING)) {
+            assertArrayEquals(parallel.convertToPropertiesBytes(labels, "country2"), bytes(properties));
+            assertEquals(OutputEncoder.PropertiesCharset.UTF_8, properties.getCharset());
+        }
+
+        // [2-2]
+        Map<String, Object> after = new LinkedHashMap<>();
+        after.put("labels", labels);
+        after.put("encoding", "ISO-8859-1");
+        after.put("lang", "country3");
+        assertThrows(IllegalArgumentException.class,
+                () -> service.readProperties(json(after), null, null, NO_STREAMING));
+
+        // [2-3]
+        Map<String, Object> rowsOnly = Map.of("labels", labels);
+        try (StreamingDownloadService.EncodedDownload properties = service.readProperties(json(rowsOnly),
+                "country4", "iso-8859-1", NO_STREAMING)) {
+            assertArrayEquals(parallel.convertToPropertiesBytes(labels, "country4",
+                    OutputEncoder.PropertiesCharset.ISO_8859_1), bytes(properties));
+        }
+    }
+
+    /*
+     * [3] 不正な本文のテスト
+     * [3-1] 行の配列が無い・null の場合は MissingRowsException <br>
+     * [3-2] 本文がオブジェクトでない・行が配列でない場合は IllegalArgumentException <br>
+     * [3-3] JSON として不正な場合は JsonParseException
+     */
+    @Test
+    void testInvalidBody() {
+        // [3-1]
+        assertThrows(StreamingDownloadService.MissingRowsException.class,
+                () -> service.readXml(json(Map.of("lang", "country1")), null, NO_STREAMING));
+        Map<String, Object> nullRows = new LinkedHashMap<>();
+        nullRows.put("labels", null);
+        assertThrows(StreamingDownloadService.MissingRowsException.class,
+                () -> service.readProperties(json(nullRows), null, null, NO_STREAMING));
+
+        // [3-2]
+        assertThrows(IllegalArgumentException.class, () -> service.readXml(json(List.of()), null, NO_STREAMING));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.readXml(json(Map.of("messages", "x")), null, NO_STREAMING));
+
+        // [3-3]
+        assertThrows(JsonParseException.class, () -> service.readXml(
+                new ByteArrayInputStream("{\"messages\": [".getBytes(StandardCharsets.UTF_8)), null, NO_STREAMING));
+    }
+
+    /*
+     * [4] etag-max-bytes を超える出力のテスト
+     * [4-1] 上限を超えた時点で応答を1回だけ開き、全体を書き出した内容が逐次変換と同じで ETag は null となること <br>
+     * [4-2] 応答を開く時点で lang / charset が確定していること <br>
+     * [4-3] 上限以下の出力は応答を開かず ETag を返すこと <br>
+     * [4-4] 応答を開いた後に本文が不正となった場合は DownloadAbortedException となること
+     */
+    @Test
+    void testStreamedOutput() throws IOException {
+        StreamingDownloadService small = new StreamingDownloadService(objectMapper, 7, 512);
+        List<SLocalizationLabel> labels = labels(60);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("encoding", "ISO-8859-1");
+        body.put("labels", labels);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<String> opened = new ArrayList<>();
+
+        // [4-1]
+        try (StreamingDownloadService.EncodedDownload properties = small.readProperties(json(body), "country2", null,
+                download -> {
+                    // [4-2]
+                    opened.add(download.getLang() + "/" + download.getCharset());
+                    return out;
+                })) {
+            assertTrue(properties.isStreamed());
+            assertNull(properties.getEtag());
+            assertEquals(60, properties.getRows());
+            assertEquals(0, properties.size());
+        }
+        assertEquals(List.of("country2/ISO_8859_1"), opened);
+        assertArrayEquals(parallel.convertToPropertiesBytes(labels, "country2",
+                OutputEncoder.PropertiesCharset.ISO_8859_1), out.toByteArray());
+
+        // [4-3]
+        try (StreamingDownloadService.EncodedDownload xml = small.readXml(json(Map.of("messages", errorMessages(1))),
+                null, NO_STREAMING)) {
+            assertFalse(xml.isStreamed());
+            assertNotNull(xml.getEtag());
+        }
+
+        // [4-4]
+        Map<String, Object> late = new LinkedHashMap<>();
+        late.put("messages", errorMessages(30));
+        late.put("lang", "country2");
+        assertThrows(StreamingDownloadService.DownloadAbortedException.class,
+                () -> small.readXml(json(late), null, download -> new ByteArrayOutputStream()));
+    }
+
+    private ByteArrayInputStream json(Object body) throws IOException {
+        return new ByteArrayInputStream(objectMapper.writeValueAsBytes(body));
+    }
+
+    private static byte[] bytes(StreamingDownloadService.EncodedDownload download) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        download.writeTo(out);
+        assertEquals(download.size(), out.size());
+        return out.toByteArray();
+    }
+
+    private static List<ErrorMessageDto> errorMessages(int count) {
+        List<ErrorMessageDto> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ErrorMessageDto dto = new ErrorMessageDto();
+            dto.setObjectID(String.format("OBJ%05d", i));
+            dto.setErrorNo("E-" + i);
+            dto.setErrorType(String.valueOf(i % 4));
+            dto.setCountry1("Error <" + i + "> & \"quoted\"");
+            dto.setCountry2(i % 5 == 0 ? null : "エラー" + i);
+            dto.setCountry3("Mensaje " + i);
+            list.add(dto);
+        }
+        return list;
+    }
+
+    private static List<SLocalizationLabel> labels(int count) {
+        List<SLocalizationLabel> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SLocalizationLabel label = new SLocalizationLabel();
+            label.setObjectID("label.key:" + i);
+            label.setCategoryName("category" + (i % 3));
+            if (i % 6 == 0) {
+                label.setUserKey("user.key." + i);
+            }
+            label.setCountry1("Value=" + i);
+            label.setCountry2("値" + i);
+            label.setCountry3(i % 4 == 0 ? null : "Wert " + i);
+            label.setCountry4("👍 " + i);
+            list.add(label);
+        }
+        return list;
+    }
+}
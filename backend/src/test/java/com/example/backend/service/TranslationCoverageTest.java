@@ -0,0 +1,127 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TranslationCoverage クラスのテスト
+ */
+public class TranslationCoverageTest {
+
+    /*
+     * [1] Builder の集計のテスト
+     * [1-1] null は missing、空白のみは empty、country1 と同一は identical として数えられること <br>
+     * [1-2] country1 が空の場合は identical として数えられないこと <br>
+     * [1-3] カテゴリごとの件数が集計され、null のカテゴリは空文字となること
+     */
+    @Test
+    void testBuilderCounts() {
+        TranslationCoverage coverage = sample();
+
+        // [1-1]
+        assertEquals(5, coverage.getRows(TranslationCoverage.LABELS));
+        assertEquals(1, coverage.count(TranslationCoverage.LABELS, "country2", "missing"));
+        assertEquals(1, coverage.count(TranslationCoverage.LABELS, "country3", "empty"));
+        assertEquals(3, coverage.count(TranslationCoverage.LABELS, "country4", "identical"));
+        assertEquals(1, coverage.count(TranslationCoverage.LOCALIZATIONS, "country5", "missing"));
+
+        // [1-2]
+        assertEquals(0, coverage.count(TranslationCoverage.LABELS, "country5", "identical"));
+        assertEquals(1, coverage.count(TranslationCoverage.LABELS, "country5", "empty"));
+
+        // [1-3]
+        assertEquals(List.of("", "catA", "catB"), coverage.getCategories(TranslationCoverage.LABELS));
+        assertEquals(2, coverage.getCategoryRows(TranslationCoverage.LABELS, "catA"));
+        assertEquals(1, coverage.count(TranslationCoverage.LABELS, "catA", "country2", "missing"));
+        assertEquals(0, coverage.count(TranslationCoverage.LABELS, "catB", "country2", "missing"));
+        assertTrue(coverage.getCategories(TranslationCoverage.LOCALIZATIONS).isEmpty());
+    }
+
+    /*
+     * [2] forEachOffender のテスト
+     * [2-1] 条件の無い場合は該当した行のみが objectID 順に渡されること <br>
+     * [2-2] テーブル・言語・種別・カテゴリで絞り込まれ、フラグは条件に一致したもののみとなること
+     */
+    @Test
+    void testForEachOffender() {
+        TranslationCoverage coverage = sample();
+
+        // [2-1]
+        List<String> ids = new ArrayList<>();
+        coverage.forEachOffender(null, null, null, null, (t, id, c, flags) -> ids.add(t + ":" + id));
+        assertEquals(List.of("labels:L1", "labels:L2", "labels:L3", "labels:L4", "localizations:M1"), ids);
+
+        // [2-2]
+        assertEquals(3, coverage.countOffenders(TranslationCoverage.LABELS, "country4", "identical", null));
+        assertEquals(2, coverage.countOffenders(TranslationCoverage.LABELS, "country4", "identical", "catA"));
+        assertEquals(0, coverage.countOffenders(TranslationCoverage.LOCALIZATIONS, "country2", null, null));
+        List<Map<String, List<String>>> issues = new ArrayList<>();
+        coverage.forEachOffender(TranslationCoverage.LABELS, "country2", null, "catA",
+                (t, id, c, flags) -> issues.add(TranslationCoverage.describe(flags)));
+        assertEquals(List.of(Map.of("country2", List.of("missing"))), issues);
+    }
+
+    /*
+     * [3] describe / validate のテスト
+     * [3-1] フラグが言語ごとの種別に変換されること <br>
+     * [3-2] 不明なテーブル・言語・種別は IllegalArgumentException となり、null は許可されること
+     */
+    @Test
+    void testDescribeAndValidate() {
+        TranslationCoverage coverage = sample();
+
+        // [3-1]
+        List<Map<String, List<String>>> issues = new ArrayList<>();
+        coverage.forEachOffender(TranslationCoverage.LABELS, null, null, "catB",
+                (t, id, c, flags) -> issues.add(TranslationCoverage.describe(flags)));
+        assertEquals(List.of(Map.of("country3", List.of("empty"), "country4", List.of("identical"))), issues);
+
+        // [3-2]
+        assertThrows(IllegalArgumentException.class, () -> TranslationCoverage.validate("x", null, null));
+        assertThrows(IllegalArgumentException.class, () -> TranslationCoverage.validate(null, "country1", null));
+        assertThrows(IllegalArgumentException.class, () -> TranslationCoverage.validate(null, null, "wrong"));
+        assertDoesNotThrow(() -> TranslationCoverage.validate(null, null, null));
+        assertDoesNotThrow(() -> TranslationCoverage.validate("labels", "country5", "identical"));
+    }
+
+    /*
+     * [4] fingerprintSql のテスト
+     * [4-1] DB 種別ごとの文字数関数が使われること <br>
+     * [4-2] 追加の列が集約に含まれること
+     */
+    @Test
+    void testFingerprintSql() {
+        // [4-1]
+        assertTrue(TranslationCoverageService.fingerprintSql("MySQL", "SLocalization", null)
+                .contains("SUM(COALESCE(CHAR_LENGTH(country1), -1))"));
+        assertTrue(TranslationCoverageService.fingerprintSql("SQLServer", "SLocalization", null)
+                .contains("SUM(COALESCE(LEN(country5), -1))"));
+        assertTrue(TranslationCoverageService.fingerprintSql("PostgreSQL", "SLocalization", null)
+                .endsWith("SUM(COALESCE(ASCII(country5), 0)) FROM SLocalization"));
+
+        // [4-2]
+        assertTrue(TranslationCoverageService.fingerprintSql("MySQL", "SLocalizationLabel", "categoryName")
+                .contains("CHAR_LENGTH(categoryName)"));
+        assertFalse(TranslationCoverageService.fingerprintSql("MySQL", "SLocalization", null)
+                .contains("categoryName"));
+    }
+
+    private static TranslationCoverage sample() {
+        TranslationCoverage.Builder builder = new TranslationCoverage.Builder()
+                .table(TranslationCoverage.LABELS)
+                .table(TranslationCoverage.LOCALIZATIONS);
+        builder.add("labels", "L1", "catA", "OK", null, "a", "OK", "b");
+        builder.add("labels", "L2", "catA", "Save", "x", "y", "Save", "z");
+        builder.add("labels", "L3", "catB", "Open", "x", " ", "Open", "z");
+        builder.add("labels", "L4", null, "", "x", "y", "z", "");
+        builder.add("labels", "L5", "catB", "Close", "x", "y", "z", "w");
+        builder.add("localizations", "M1", null, "msg", "a", "b", "c", null);
+        builder.add("localizations", "M2", null, "msg", "a", "b", "c", "d");
+        return builder.build("fp");
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.backend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TranslationSnapshot / CompactStringMap クラスのテスト
+ */
+public class TranslationSnapshotTest {
+
+    /*
+     * [1] CompactStringMap のテスト
+     * [1-1] 登録した全キーの行番号が取得でき、未登録キーは -1 となること <br>
+     * [1-2] null キーは登録されず、重複キーは最初の行が優先されること
+     */
+    @Test
+    void testCompactStringMap() {
+        // [1-1]
+        String[] keys = new String[10000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key." + i;
+        }
+        CompactStringMap map = new CompactStringMap(keys);
+        assertEquals(10000, map.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, map.indexOf("key." + i));
+        }
+        assertEquals(-1, map.indexOf("key.10000"));
+        assertEquals(-1, map.indexOf(""));
+
+        // [1-2]
+        CompactStringMap dup = new CompactStringMap(new String[] { "a", null, "b", "a" });
+        assertEquals(2, dup.size());
+        assertEquals(1, dup.getDuplicates());
+        assertEquals(0, dup.indexOf("a"));
+        assertEquals(2, dup.indexOf("b"));
+        assertEquals(-1, new CompactStringMap(new String[0]).indexOf("a"));
+    }
+
+    /*
+     * [2] TranslationSnapshot の参照のテスト
+     * [2-1] エラー番号・ラベルキーと言語番号で文言が取得できること <br>
+     * [2-2] languageIndex は country1〜country5 以外で -1 を返すこと
+     */
+    @Test
+    void testFind() {
+        TranslationSnapshot snapshot = snapshot("日本語");
+
+        // [2-1]
+        assertEquals("E1-c2", snapshot.findError("E001", 1));
+        assertNull(snapshot.findError("E001", 4));
+        assertTrue(snapshot.containsError("E001"));
+        assertNull(snapshot.findError("E999", 0));
+        assertEquals("日本語", snapshot.findLabel("label.ok", 0));
+        assertFalse(snapshot.containsLabel("E001"));
+
+        // [2-2]
+        assertEquals(0, TranslationSnapshot.languageIndex("country1"));
+        assertEquals(4, TranslationSnapshot.languageIndex("country5"));
+        assertEquals(-1, TranslationSnapshot.languageIndex("country6"));
+        assertEquals(-1, TranslationSnapshot.languageIndex("ja"));
+        assertEquals(-1, TranslationSnapshot.languageIndex(null));
+    }
+
+    /*
+     * [3] ETag と一括ダウンロードのテスト
+     * [3-1] 同じ内容から構築したスナップショットは同じ ETag、内容が異なれば別の ETag となること <br>
+     * [3-2] 一括 JSON にエラー・ラベルの全言語分が含まれること
+     */
+    @Test
+    void testEtagAndBulkJson() throws Exception {
+        // [3-1]
+        assertEquals(snapshot("日本語").getEtag(), snapshot("日本語").getEtag());
+        assertNotEquals(snapshot("日本語").getEtag(), snapshot("英語").getEtag());
+
+        // [3-2]
+        Map<String, Map<String, List<String>>> bulk = new ObjectMapper().readValue(
+                snapshot("日本語").getBulkJson(), new TypeReference<Map<String, Map<String, List<String>>>>() {
+                });
+        assertEquals(List.of("E1-c1", "E1-c2", "E1-c3", "E1-c4"), bulk.get("errors").get("E001").subList(0, 4));
+        assertNull(bulk.get("errors").get("E001").get(4));
+        assertEquals("日本語", bulk.get("labels").get("label.ok").get(0));
+    }
+
+    private static TranslationSnapshot snapshot(String labelValue) {
+        return new TranslationSnapshot(1,
+                new String[] { "E001", "E002" },
+                new String[] { "E1-c1", "E1-c2", "E1-c3", "E1-c4", null, "E2-c1", null, null, null, null },
+                new String[] { "label.ok" },
+                new String[] { labelValue, "c2", "c3", "c4", "c5" });
+    }
+}
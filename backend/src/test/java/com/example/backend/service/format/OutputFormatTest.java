@@ -0,0 +1,209 @@
+package com.example.backend.service.format;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.entity.SLocalizationLabel;
+import com.example.backend.service.EncodedBuffer;
+import com.example.backend.service.ErrorMessageService;
+import com.example.backend.service.OutputEncoder;
+import com.example.backend.service.SLocalizationLabelService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 出力形式プラグイン (OutputFormat) のテスト
+ */
+public class OutputFormatTest {
+
+    private final OutputFormatRegistry registry = new OutputFormatRegistry(List.of(
+            new PropertiesFormat(), new ErrorXmlFormat(), new JsonFormat(), new YamlFormat(),
+            new I18nextFormat(), new AndroidStringsFormat(), new IosStringsFormat()));
+
+    /*
+     * [1] OutputFormatRegistry.resolve のテスト
+     * [1-1] 未指定の場合は対象ごとのデフォルト形式となること <br>
+     * [1-2] formats を指定した場合は format より優先され、重複は除かれること <br>
+     * [1-3] 未知の形式・対象に非対応の形式・未知の対象は IllegalArgumentException となること
+     */
+    @Test
+    void testResolve() {
+        // [1-1]
+        assertEquals(List.of("properties"), registry.resolve("labels", null, null));
+        assertEquals(List.of("xml"), registry.resolve("error-messages", "", List.of()));
+
+        // [1-2]
+        assertEquals(List.of("json", "ios"), registry.resolve("labels", "yaml", List.of("json", "ios", "json")));
+
+        // [1-3]
+        assertThrows(IllegalArgumentException.class, () -> registry.resolve("labels", "csv", null));
+        assertThrows(IllegalArgumentException.class, () -> registry.resolve("labels", "xml", null));
+        assertThrows(IllegalArgumentException.class, () -> registry.resolve("error-messages", null,
+                List.of("properties")));
+        assertThrows(IllegalArgumentException.class, () -> registry.resolve("unknown", null, null));
+    }
+
+    /*
+     * [2] 既存形式のテスト
+     * [2-1] properties 形式の出力が convertToProperties と一致すること <br>
+     * [2-2] xml 形式の出力が convertToXml と一致すること
+     */
+    @Test
+    void testLegacyFormats() {
+        // [2-1]
+        List<SLocalizationLabel> labels = labels(25);
+        assertEquals(new SLocalizationLabelService().convertToProperties(labels, "country2"),
+                render(registry.get("properties"), "labels", "country2", labels, null, 1));
+
+        // [2-2]
+        List<ErrorMessageDto> errors = errorMessages(25);
+        assertEquals(new ErrorMessageService(null, null).convertToXml(errors, "country1"),
+                render(registry.get("xml"), "error-messages", "country1", null, errors, 1));
+    }
+
+    /*
+     * [3] JSON 系形式のテスト
+     * [3-1] json 形式が JSON 配列として読み込め、値が元の文言と一致すること <br>
+     * [3-2] i18next 形式がフラットな JSON オブジェクトとして読み込め、{0} が {{0}} に変換されること <br>
+     * [3-3] チャンク・範囲に分けて書き出し区切りを挟んで連結した結果が、一括出力と一致すること
+     */
+    @Test
+    void testJsonFormats() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        List<SLocalizationLabel> labels = labels(10);
+
+        // [3-1]
+        List<Map<String, Object>> rows = mapper.readValue(
+                render(registry.get("json"), "labels", "country1", labels, null, 1),
+                new TypeReference<List<Map<String, Object>>>() {
+                });
+        assertEquals(10, rows.size());
+        assertEquals(labels.get(3).getCountry1(), rows.get(3).get("value"));
+        assertEquals("user.key.0", rows.get(0).get("key"));
+
+        // [3-2]
+        Map<String, String> resources = mapper.readValue(
+                render(registry.get("i18next"), "labels", "country1", labels, null, 1),
+                new TypeReference<Map<String, String>>() {
+                });
+        assertEquals("Value \"1\" : {{0}} \\ end {x}", resources.get("label.key:1"));
+        assertEquals("{{12}}{{3}}", I18nextFormat.toInterpolation("{12}{3}"));
+        assertEquals("{} {a} {1", I18nextFormat.toInterpolation("{} {a} {1"));
+
+        // [3-3]
+        for (String name : List.of("json", "i18next", "yaml", "android", "ios")) {
+            OutputFormat format = registry.get(name);
+            assertEquals(render(format, "labels", "country1", labels, null, 1),
+                    render(format, "labels", "country1", labels, null, 3), "[3-3] format=" + name);
+            assertEquals(render(format, "error-messages", "country2", null, errorMessages(7), 1),
+                    render(format, "error-messages", "country2", null, errorMessages(7), 4),
+                    "[3-3] format=" + name);
+        }
+    }
+
+    /*
+     * [4] モバイル向け形式のテスト
+     * [4-1] android 形式でリソース名が置換され、文言が Android の規則でエスケープされること <br>
+     * [4-2] ios 形式で "key" = "value"; の行として出力されること
+     */
+    @Test
+    void testMobileFormats() {
+        SLocalizationLabel label = new SLocalizationLabel();
+        label.setObjectID("1st.key-name");
+        label.setCountry1("@It's <b> & \"q\"\nnext");
+
+        // [4-1]
+        String android = render(registry.get("android"), "labels", "country1", List.of(label), null, 1);
+        assertEquals("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n<resources>\n"
+                + "    <string name=\"_1st_key_name\">\\@It\\'s &lt;b&gt; &amp; \\\"q\\\"\\nnext</string>\n"
+                + "</resources>\n", android);
+
+        // [4-2]
+        String ios = render(registry.get("ios"), "labels", "country1", List.of(label), null, 1);
+        assertEquals("\"1st.key-name\" = \"@It's <b> & \\\"q\\\"\\nnext\";\n", ios);
+    }
+
+    /**
+     * 行を parts 個の範囲に分け、範囲ごとに別ライターで書いた本体を区切りで連結する
+     * (エクスポートジョブの分割モードと同じ手順)
+     */
+    private static String render(OutputFormat format, String target, String lang, List<SLocalizationLabel> labels,
+            List<ErrorMessageDto> errors, int parts) {
+        int total = labels != null ? labels.size() : errors.size();
+        int per = (total + parts - 1) / parts;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EncodedBuffer buffer = OutputEncoder.acquire();
+        try {
+            OutputFormatWriter frame = format.newWriter(target, lang);
+            frame.writeHeader(buffer);
+            boolean wroteAny = false;
+            for (int from = 0; from < total; from += per) {
+                int to = Math.min(total, from + per);
+                EncodedBuffer range = OutputEncoder.acquire();
+                try {
+                    OutputFormatWriter writer = format.newWriter(target, lang);
+                    // 範囲内もさらに2チャンクに分けて書く
+                    int mid = (from + to) / 2;
+                    if (labels != null) {
+                        writer.writeLabels(labels.subList(from, mid), range);
+                        writer.writeLabels(labels.subList(mid, to), range);
+                    } else {
+                        writer.writeErrorMessages(errors.subList(from, mid), range);
+                        writer.writeErrorMessages(errors.subList(mid, to), range);
+                    }
+                    if (range.size() > 0) {
+                        if (wroteAny) {
+                            buffer.write(format.getEntrySeparator());
+                        }
+                        wroteAny = true;
+                        buffer.write(range.toByteArray());
+                    }
+                } finally {
+                    OutputEncoder.release(range);
+                }
+            }
+            frame.writeFooter(buffer);
+            out.writeBytes(buffer.toByteArray());
+        } finally {
+            OutputEncoder.release(buffer);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<SLocalizationLabel> labels(int count) {
+        List<SLocalizationLabel> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SLocalizationLabel label = new SLocalizationLabel();
+            label.setObjectID("label.key:" + i);
+            label.setCategoryName("category" + (i % 3));
+            if (i % 5 == 0) {
+                label.setUserKey("user.key." + i);
+            }
+            label.setCountry1("Value \"" + i + "\" : {0} \\ end {x}");
+            label.setCountry2(i % 4 == 0 ? null : "値" + i + "\r\n改行");
+            list.add(label);
+        }
+        return list;
+    }
+
+    private static List<ErrorMessageDto> errorMessages(int count) {
+        List<ErrorMessageDto> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ErrorMessageDto dto = new ErrorMessageDto();
+            dto.setObjectID(String.format("OBJ%03d", i));
+            dto.setErrorNo(i % 6 == 0 ? null : "E-" + i);
+            dto.setErrorType(String.valueOf(i % 4));
+            dto.setCountry1("Error <" + i + "> & 'x'");
+            dto.setCountry2(i % 3 == 0 ? null : "エラー😀" + i);
+            list.add(dto);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.backend.service.jfr;
+
+import com.example.backend.dto.ErrorMessageDto;
+import com.example.backend.service.ParallelConversionService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * QueryEvents クラス・JFR イベントのテスト
+ */
+public class QueryEventsTest {
+
+    /*
+     * [1] sqlShape のテスト
+     * [1-1] 連続する空白・改行が1つの空白に詰められること <br>
+     * [1-2] "?, ?, ?" の列が件数表記にまとめられ、単独の ? はそのままであること <br>
+     * [1-3] null は null を返すこと
+     */
+    @Test
+    void testSqlShape() {
+        // [1-1]
+        assertEquals("SELECT a FROM t WHERE b = ?", QueryEvents.sqlShape("  SELECT a\n   FROM t\tWHERE b = ?  "));
+
+        // [1-2]
+        assertEquals("SELECT a FROM t WHERE id IN (?×3) AND c > ?",
+                QueryEvents.sqlShape("SELECT a FROM t WHERE id IN (?, ?,?) AND c > ?"));
+
+        // [1-3]
+        assertNull(QueryEvents.sqlShape(null));
+    }
+
+    /*
+     * [2] timed のテスト
+     * [2-1] 集計枠の中では行数・マッパー名が加算されること <br>
+     * [2-2] 集計枠の外ではマッピング結果のみ返り、加算されないこと <br>
+     * [2-3] 入れ子の枠を閉じると外側の枠へ戻ること
+     */
+    @Test
+    void testTimed() throws Exception {
+        RowMapper<String> mapper = QueryEvents.timed("test", (rs, rowNum) -> "row" + rowNum);
+
+        // [2-1]
+        try (QueryEvents.Scope outer = QueryEvents.open()) {
+            assertEquals("row0", mapper.mapRow(null, 0));
+            assertEquals("row1", mapper.mapRow(null, 1));
+            assertEquals(2, outer.rows);
+            assertEquals("test", outer.mapper);
+
+            // [2-3]
+            try (QueryEvents.Scope inner = QueryEvents.open()) {
+                mapper.mapRow(null, 2);
+                assertEquals(1, inner.rows);
+            }
+            mapper.mapRow(null, 3);
+            assertEquals(3, outer.rows);
+        }
+
+        // [2-2]
+        assertEquals("row9", mapper.mapRow(null, 9));
+    }
+
+    /*
+     * [3] ConversionEvent のテスト
+     * [3-1] 記録中に XML 変換を行うと、形式・言語・行数・バイト数を含むイベントが記録されること
+     */
+    @Test
+    void testConversionEvent(@TempDir Path dir) throws Exception {
+        ParallelConversionService conversionService = new ParallelConversionService(100, 50, 1);
+        List<ErrorMessageDto> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(new ErrorMessageDto("O" + i, "E" + i, "E", "M" + i, "メッセージ" + i, null, null, null, null));
+        }
+
+        // [3-1]
+        Path file = dir.resolve("test.jfr");
+        byte[] xml;
+        try (Recording recording = new Recording()) {
+            recording.enable(ConversionEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            xml = conversionService.convertToXmlBytes(rows, "country1");
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("com.example.backend.Conversion"))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals("xml", events.get(0).getString("format"));
+        assertEquals("country1", events.get(0).getString("lang"));
+        assertEquals(3, events.get(0).getLong("rows"));
+        assertEquals(xml.length, events.get(0).getLong("bytes"));
+        assertFalse(events.get(0).getBoolean("parallel"));
+    }
+}
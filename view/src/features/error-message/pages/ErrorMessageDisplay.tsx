@@ -3,6 +3,7 @@ import { useLocation, useNavigate } from "react-router-dom";
 import type { ErrorMessage } from "../../../types/ErrorMessage";
 import type { DbConfig } from "../../../types/DbConfig";
 import useDebounce from "../../../hooks/use-debounce";
+import useSessionId from "../../../hooks/use-session-id";
 
 // MUI Components
 import {
@@ -87,6 +88,9 @@ const ErrorMessageDisplay: React.FC = () => {
   const errorNoInputRef = useRef<HTMLInputElement>(null);
   const errorTypeInputRef = useRef<HTMLInputElement>(null);
   const messageInputRef = useRef<HTMLInputElement>(null);
+  // クエリキャンセル用: 画面ごとのセッションIDとフェッチ世代番号
+  const queryGenerationRef = useRef<number>(0);
+  const querySessionId = useSessionId();
 
   // --- Hooks ---
   const navigate = useNavigate();
@@ -109,6 +113,7 @@ const ErrorMessageDisplay: React.FC = () => {
       //    setFocusedInputId(null);
       // }
       setLoading(true);
+      const generation = ++queryGenerationRef.current;
 
       const { name, languageMap, ...configForBackend } = selectedConfig;
       const requestBody = {
@@ -116,6 +121,8 @@ const ErrorMessageDisplay: React.FC = () => {
         filter: currentFilter,
         page: currentPage,
         size: currentSize,
+        sessionId: querySessionId,
+        queryGeneration: generation,
       };
       try {
         const response = await fetch(
@@ -126,6 +133,13 @@ const ErrorMessageDisplay: React.FC = () => {
             body: JSON.stringify(requestBody),
           },
         );
+        // 新しいリクエストによりキャンセルされた / 既に古い結果は破棄
+        if (
+          response.status === 409 ||
+          generation !== queryGenerationRef.current
+        ) {
+          return;
+        }
         if (!response.ok)
           throw new Error(`データ取得失敗 (HTTP ${response.status})`);
         const data: PagedResponse<ErrorMessage> = await response.json();
@@ -137,11 +151,13 @@ const ErrorMessageDisplay: React.FC = () => {
         setMessages([]);
         setTotalCount(0);
       } finally {
-        setLoading(false);
+        if (generation === queryGenerationRef.current) {
+          setLoading(false);
+        }
       }
     },
-    [dbConfigs],
-  ); // 依存配列は dbConfigs のみ
+    [dbConfigs, querySessionId],
+  ); // 依存配列は dbConfigs とセッションID（画面ごとに不変）
 
   // --- useEffect フック ---
 
@@ -3,6 +3,7 @@ import { useLocation, useNavigate } from "react-router-dom";
 import "../../../styles/App.css";
 import type { DbConfig, LanguageMap } from "../../../types/DbConfig";
 import useDebounce from "../../../hooks/use-debounce";
+import useSessionId from "../../../hooks/use-session-id";
 
 // MUI Components
 import {
@@ -99,6 +100,9 @@ function MessageResourceDisplay() {
   const objectIdInputRef = useRef<HTMLInputElement>(null);
   const categoryInputRef = useRef<HTMLInputElement>(null);
   const messageInputRef = useRef<HTMLInputElement>(null);
+  // クエリキャンセル用: 画面ごとのセッションIDとフェッチ世代番号
+  const queryGenerationRef = useRef<number>(0);
+  const querySessionId = useSessionId();
 
   // --- Hooks ---
   const navigate = useNavigate();
@@ -121,6 +125,7 @@ function MessageResourceDisplay() {
       //    setFocusedInputId(null);
       // }
       setLoading(true);
+      const generation = ++queryGenerationRef.current;
 
       const { name, languageMap, ...configForBackend } = selectedConfig;
       const requestBody = {
@@ -128,6 +133,8 @@ function MessageResourceDisplay() {
         filter: currentFilter,
         page: currentPage,
         size: currentSize,
+        sessionId: querySessionId,
+        queryGeneration: generation,
       };
 
       try {
@@ -137,6 +144,13 @@ function MessageResourceDisplay() {
           body: JSON.stringify(requestBody),
         });
 
+        // 新しいリクエストによりキャンセルされた / 既に古い結果は破棄
+        if (
+          response.status === 409 ||
+          generation !== queryGenerationRef.current
+        ) {
+          return;
+        }
         if (!response.ok) {
           throw new Error(`データ取得失敗 (HTTP ${response.status})`);
         }
@@ -151,11 +165,13 @@ function MessageResourceDisplay() {
         setLabels([]);
         setTotalCount(0);
       } finally {
-        setLoading(false);
+        if (generation === queryGenerationRef.current) {
+          setLoading(false);
+        }
       }
       // dbConfigs の変更時のみ関数を再生成
     },
-    [dbConfigs],
+    [dbConfigs, querySessionId],
   );
 
   // --- Effects ---
@@ -0,0 +1,51 @@
+import { useState } from "react";
+
+/**
+ * セッションIDを生成する
+ * crypto.randomUUID は安全なコンテキスト (HTTPS / localhost) でのみ使用できるため、
+ * 使用できない場合は crypto.getRandomValues（それも無い場合は Math.random）で同じ形式のIDを作る
+ */
+function createSessionId(): string {
+  if (
+    typeof crypto !== "undefined" &&
+    typeof crypto.randomUUID === "function"
+  ) {
+    return crypto.randomUUID();
+  }
+  const bytes = new Uint8Array(16);
+  if (
+    typeof crypto !== "undefined" &&
+    typeof crypto.getRandomValues === "function"
+  ) {
+    crypto.getRandomValues(bytes);
+  } else {
+    for (let i = 0; i < bytes.length; i++) {
+      bytes[i] = Math.floor(Math.random() * 256);
+    }
+  }
+  // UUID v4 のバージョン・バリアントのビットを設定
+  bytes[6] = (bytes[6] & 0x0f) | 0x40;
+  bytes[8] = (bytes[8] & 0x3f) | 0x80;
+  const hex = Array.from(bytes, (b) => b.toString(16).padStart(2, "0")).join(
+    "",
+  );
+  return [
+    hex.slice(0, 8),
+    hex.slice(8, 12),
+    hex.slice(12, 16),
+    hex.slice(16, 20),
+    hex.slice(20),
+  ].join("-");
+}
+
+/**
+ * 画面（コンポーネント）ごとに1度だけ生成されるセッションIDを返すカスタムフック
+ * @returns 再レンダリングしても変わらないセッションID
+ */
+function useSessionId(): string {
+  // 初回レンダリング時のみ生成する（遅延初期化）
+  const [sessionId] = useState<string>(createSessionId);
+  return sessionId;
+}
+
+export default useSessionId;
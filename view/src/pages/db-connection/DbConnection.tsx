@@ -127,7 +127,8 @@ const DbConnection: React.FC = () => {
       return;
     }
     try {
-      const response = await fetch("http://localhost:8080/api/db/test", {
+      // ボタン操作は監視の直近の結果ではなく、その場で確認した結果を表示する
+      const response = await fetch("http://localhost:8080/api/db/test?refresh=true", {
         method: "POST",
         headers: { "Content-Type": "application/json" },
         body: JSON.stringify(currentConfig),